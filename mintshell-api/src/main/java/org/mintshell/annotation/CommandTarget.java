@@ -61,6 +61,17 @@ public @interface CommandTarget {
    */
   String description() default "";
 
+  /**
+   * Returns the maximum amount of concurrent invocations of the command target. A value of {@code 0} (default) means no
+   * limit.
+   *
+   * @return maximum amount of concurrent invocations
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  int maxConcurrency() default 0;
+
   /**
    * Returns the name of the command target (<b>not</b> the value).
    *
@@ -70,4 +81,27 @@ public @interface CommandTarget {
    * @since 0.2.0
    */
   String name();
+
+  /**
+   * Returns the maximum time in milliseconds an invocation waits for a free slot, if the
+   * {@link #maxConcurrency() maximum amount of concurrent invocations} is reached. A value of {@code 0} (default) means
+   * that the invocation is rejected immediately.
+   *
+   * @return maximum waiting time in milliseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  long queueTimeout() default 0;
+
+  /**
+   * Returns the maximum duration of an invocation of the command target in milliseconds. A value of {@code 0} means no
+   * timeout, a negative value (default) means that the default timeout of the dispatcher applies.
+   *
+   * @return timeout in milliseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  long timeout() default -1;
 }
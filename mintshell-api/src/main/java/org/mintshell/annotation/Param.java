@@ -31,6 +31,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 import org.mintshell.target.CommandTargetParameter;
+import org.mintshell.target.ValueCompleter;
 
 /**
  * Annotation to map a method parameter to {@link CommandTargetParameter}.
@@ -43,6 +44,17 @@ import org.mintshell.target.CommandTargetParameter;
 @Target({ PARAMETER })
 public abstract @interface Param {
 
+  /**
+   * Returns the {@link ValueCompleter} type used to complete values of the command target parameter dynamically. The
+   * default {@link ValueCompleter} interface itself denotes, that values aren't completed dynamically.
+   *
+   * @return {@link ValueCompleter} type of the command target parameter
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  Class<? extends ValueCompleter> completer() default ValueCompleter.class;
+
   /**
    * Returns the description of the command target parameter.
    *
@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.command;
+
+import org.mintshell.dispatcher.CommandDispatcher;
+
+/**
+ * A {@link Command} that shall be executed as background job instead of blocking the command interface until it is
+ * finished. The {@link CommandDispatcher} passes the wrapped {@link Command} (which may also be a
+ * {@link PipedCommand}) to a job executor and returns immediately. Name and {@link CommandParameter}s of a
+ * {@link BackgroundCommand} are the ones of the wrapped {@link Command}.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public abstract interface BackgroundCommand extends Command {
+
+  /**
+   * Returns the {@link Command} to be executed in background.
+   *
+   * @return {@link Command} to be executed in background
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract Command getCommand();
+}
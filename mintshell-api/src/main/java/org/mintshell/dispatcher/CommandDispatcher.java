@@ -23,9 +23,18 @@
  */
 package org.mintshell.dispatcher;
 
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
 
 import org.mintshell.annotation.Nullable;
+import org.mintshell.assertion.Assert;
 import org.mintshell.command.Command;
 import org.mintshell.command.CommandResult;
 import org.mintshell.common.PromptProvider;
@@ -45,7 +54,8 @@ public abstract interface CommandDispatcher extends PromptProvider {
   /**
    * Dispatches the given {@link Command} by determining a matching {@link CommandTarget} from the current
    * {@link CommandShell} and delegating both {@link Command} and {@link CommandTarget} to the current
-   * {@link CommandShell} for invocation. It also wraps the result into a {@link CommandResult}.
+   * {@link CommandShell} for invocation. It also wraps the result into a {@link CommandResult}. If the
+   * {@link CommandTarget} returns a {@link CompletionStage} or {@link Future}, its completion is awaited.
    *
    * @param command
    *          {@link Command} to dispatch
@@ -60,6 +70,74 @@ public abstract interface CommandDispatcher extends PromptProvider {
    */
   public abstract CommandResult<?> dispatch(final Command command) throws CommandDispatchException, CommandShellExitException;
 
+  /**
+   * Dispatches all given {@link Command}s in one call. Failures of single {@link Command}s, including failures of
+   * dispatching them, are returned as failed {@link CommandResult}s. The default implementation dispatches the
+   * {@link Command}s one after another via {@link #dispatch(Command)} regardless of the given {@link DispatchMode}.
+   *
+   * @param commands
+   *          {@link Command}s to dispatch
+   * @param mode
+   *          {@link DispatchMode} to use
+   * @param errorMode
+   *          {@link DispatchErrorMode} to use
+   * @return {@link CommandResult}s in the order of the given {@link Command}s
+   * @throws CommandShellExitException
+   *           if the current {@link CommandShell} was exited and no more {@link CommandShell}s are available
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public default List<CommandResult<?>> dispatchAll(final List<Command> commands, final DispatchMode mode, final DispatchErrorMode errorMode)
+      throws CommandShellExitException {
+    Assert.ARG.isNotNull(commands, "[commands] must not be [null]");
+    Assert.ARG.isNotNull(mode, "[mode] must not be [null]");
+    Assert.ARG.isNotNull(errorMode, "[errorMode] must not be [null]");
+    final List<CommandResult<?>> results = new ArrayList<>(commands.size());
+    boolean aborted = false;
+    for (final Command command : commands) {
+      CommandResult<?> result;
+      if (aborted) {
+        result = new FailedCommandResult(command, new CancellationException(format("%s: skipped due to a previous failure", command)));
+      }
+      else {
+        try {
+          result = this.dispatch(command);
+        } catch (final CommandDispatchException e) {
+          result = new FailedCommandResult(command, e);
+        }
+      }
+      aborted = aborted || !result.isSucceeded() && errorMode == DispatchErrorMode.FAIL_FAST;
+      results.add(result);
+    }
+    return results;
+  }
+
+  /**
+   * Dispatches the given {@link Command} like {@link #dispatch(Command)}, but doesn't wait for {@link CommandTarget}s
+   * returning a {@link CompletionStage}: the returned {@link CompletableFuture} completes, as soon as the
+   * {@link CompletionStage} completes. {@link Future}s that aren't {@link CompletionStage}s are polled periodically
+   * without blocking a thread. Failures of dispatching complete the returned {@link CompletableFuture} exceptionally. The default
+   * implementation dispatches synchronously via {@link #dispatch(Command)} and returns a completed
+   * {@link CompletableFuture}.
+   *
+   * @param command
+   *          {@link Command} to dispatch
+   * @return {@link CompletableFuture} of the result of dispatching and executing the given {@link Command}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public default CompletableFuture<CommandResult<?>> dispatchAsync(final Command command) {
+    final CompletableFuture<CommandResult<?>> result = new CompletableFuture<>();
+    try {
+      result.complete(this.dispatch(command));
+    } catch (final CommandDispatchException | RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
   /**
    * Returns the configured {@link CommandHelp} facility.
    *
@@ -23,9 +23,14 @@
  */
 package org.mintshell.dispatcher;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.mintshell.command.Command;
+import org.mintshell.target.CommandShell;
 import org.mintshell.target.CommandTarget;
 import org.mintshell.target.CommandTargetParameter;
 
@@ -74,6 +79,55 @@ public abstract interface CommandHelp {
    */
   public abstract Optional<String> getCommandOverviewFooterText();
 
+  /**
+   * Returns the aligned overview lines of all {@link CommandTarget}s of the given {@link CommandShell} ordered by their
+   * names. The default implementation renders the lines from {@link #getCommandOverviewText(CommandTarget)} on every
+   * call by replacing the tab of each line, so that the descriptions are aligned. Implementations may cache the
+   * lines until the targets of the {@link CommandShell} change.
+   *
+   * @param commandShell
+   *          {@link CommandShell} to get overview lines for
+   * @return read-only overview lines
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public default List<String> getCommandOverviewLines(final CommandShell commandShell) {
+    final List<String> lines = commandShell.getTargets().stream() //
+        .sorted(Comparator.comparing(CommandTarget::getName)) //
+        .map(target -> this.getCommandOverviewText(target)) //
+        .collect(Collectors.toList());
+    final int maxLength = lines.stream().mapToInt(line -> line.indexOf('\t')).max().orElse(0);
+    return Collections.unmodifiableList(lines.stream() //
+        .map(line -> {
+          final StringBuilder gap = new StringBuilder("    ");
+          for (int i = line.indexOf('\t'); i < maxLength; i++) {
+            gap.append(' ');
+          }
+          return line.replace("\t", gap.toString());
+        }) //
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Returns the complete overview help text of the given {@link CommandShell} including the
+   * {@link #getCommandOverviewFooterText() footer}. Implementations may cache the text until the targets of the
+   * {@link CommandShell} change. The default implementation joins the {@link #getCommandOverviewLines(CommandShell)
+   * overview lines} on every call.
+   *
+   * @param commandShell
+   *          {@link CommandShell} to get overview text for
+   * @return overview help text
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public default String getCommandOverviewText(final CommandShell commandShell) {
+    final StringBuilder builder = new StringBuilder();
+    this.getCommandOverviewLines(commandShell).forEach(line -> builder.append(line).append("\n\r"));
+    return builder.append(this.getCommandOverviewFooterText().orElse("")).toString();
+  }
+
   /**
    * Returns the overview help text for the given {@link Command}.
    *
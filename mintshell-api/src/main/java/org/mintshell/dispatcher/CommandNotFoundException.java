@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import org.mintshell.command.Command;
+import org.mintshell.target.CommandTarget;
+
+/**
+ * Exception that indicates a failed command dispatch, because no {@link CommandTarget} matches the name of the
+ * dispatched {@link Command}.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandNotFoundException extends CommandDispatchException {
+
+  private static final long serialVersionUID = 3264781513418850627L;
+
+  /**
+   * Constructs a new exception with the specified detail message.
+   *
+   * @param message
+   *          the detail message. The detail message is saved for later retrieval by the {@link #getMessage()} method.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandNotFoundException(final String message) {
+    super(message);
+  }
+}
@@ -37,12 +37,15 @@ import org.mintshell.annotation.CommandTarget;
 public abstract interface Completer {
 
   /**
-   * Returns a {@link SortedSet} of currently available {@link CommandTarget} names, that start with the given command
-   * fragment.
+   * Returns a {@link SortedSet} of completion candidates for the last word of the given command fragment. If the
+   * fragment consists of a single word, the candidates are the currently available {@link CommandTarget} names, that
+   * start with it. Implementations may complete further words as well, e.g. parameter names or values. The returned
+   * {@link SortedSet} must be treated as read-only.
    *
    * @param commandFragment
    *          command fragment to be completed
-   * @return {@link SortedSet} of matching {@link CommandTarget} names or an empty {@link Set}, if nothing matches
+   * @return {@link SortedSet} of candidates for the last word of the command fragment or an empty {@link Set}, if
+   *         nothing matches
    *
    * @author Noqmar
    * @since 0.2.0
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import java.util.Optional;
+
+import org.mintshell.assertion.Assert;
+import org.mintshell.command.Command;
+import org.mintshell.command.CommandResult;
+
+/**
+ * {@link CommandResult} of a failed {@link Command}, used by the default implementations of {@link CommandDispatcher}.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+class FailedCommandResult implements CommandResult<Object> {
+
+  private final Command command;
+  private final Optional<Throwable> cause;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param command
+   *          command that produced this result
+   * @param cause
+   *          cause of the command failure
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  FailedCommandResult(final Command command, final Throwable cause) {
+    this.command = Assert.ARG.isNotNull(command, "[command] must not be [null]");
+    this.cause = Optional.of(Assert.ARG.isNotNull(cause, "[cause] must not be [null]"));
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.command.CommandResult#getCause()
+   */
+  @Override
+  public Optional<Throwable> getCause() {
+    return this.cause;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.command.CommandResult#getCommand()
+   */
+  @Override
+  public Command getCommand() {
+    return this.command;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.command.CommandResult#getState()
+   */
+  @Override
+  public State getState() {
+    return State.FAILED;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.command.CommandResult#getValue()
+   */
+  @Override
+  public Optional<Object> getValue() {
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import static java.lang.String.format;
+
+import java.util.Optional;
+
+import org.mintshell.annotation.Nullable;
+import org.mintshell.assertion.Assert;
+
+/**
+ * Immutable event that is passed to a {@link CommandEventRecorder} after an operation of a {@link CommandEventType}
+ * has finished.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public final class CommandEvent {
+
+  private final CommandEventType type;
+  private final String commandName;
+  private final String sessionId;
+  private final int parameterCount;
+  private final String result;
+  private final String detail;
+  private final long duration;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param type
+   *          type of the event
+   * @param commandName
+   *          (optional) name of the command the event belongs to
+   * @param sessionId
+   *          (optional) id of the session the event belongs to
+   * @param parameterCount
+   *          number of command parameters
+   * @param result
+   *          (optional) result of the operation, like the state of a command result or the type of an exception
+   * @param detail
+   *          (optional) further detail, like the prompt of a pushed command shell
+   * @param duration
+   *          duration of the operation in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandEvent(final CommandEventType type, final @Nullable String commandName, final @Nullable String sessionId, final int parameterCount,
+      final @Nullable String result, final @Nullable String detail, final long duration) {
+    this.type = Assert.ARG.isNotNull(type, "[type] must not be [null]");
+    this.commandName = commandName;
+    this.sessionId = sessionId;
+    this.parameterCount = parameterCount;
+    this.result = result;
+    this.detail = detail;
+    this.duration = duration;
+  }
+
+  /**
+   * Returns the name of the command the event belongs to.
+   *
+   * @return name of the command or {@link Optional#empty()}, if the event doesn't belong to a command
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<String> getCommandName() {
+    return Optional.ofNullable(this.commandName);
+  }
+
+  /**
+   * Returns further detail of the event.
+   *
+   * @return further detail or {@link Optional#empty()}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<String> getDetail() {
+    return Optional.ofNullable(this.detail);
+  }
+
+  /**
+   * Returns the duration of the operation.
+   *
+   * @return duration in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getDuration() {
+    return this.duration;
+  }
+
+  /**
+   * Returns the number of command parameters.
+   *
+   * @return number of command parameters
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getParameterCount() {
+    return this.parameterCount;
+  }
+
+  /**
+   * Returns the result of the operation.
+   *
+   * @return result of the operation or {@link Optional#empty()}, if unknown
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<String> getResult() {
+    return Optional.ofNullable(this.result);
+  }
+
+  /**
+   * Returns the id of the session the event belongs to.
+   *
+   * @return id of the session or {@link Optional#empty()}, if the event doesn't belong to a session
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<String> getSessionId() {
+    return Optional.ofNullable(this.sessionId);
+  }
+
+  /**
+   * Returns the type of the event.
+   *
+   * @return type of the event
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandEventType getType() {
+    return this.type;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return format("%s[command=%s, session=%s, parameters=%d, result=%s, detail=%s, duration=%dns]", this.type, this.commandName, this.sessionId,
+        this.parameterCount, this.result, this.detail, this.duration);
+  }
+}
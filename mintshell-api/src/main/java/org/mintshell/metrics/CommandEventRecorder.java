@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Service provider interface for recording {@link CommandEvent}s, e.g. to forward them to a profiler or a flight
+ * recorder. The instance in use is obtained from {@link CommandEvents}.
+ * </p>
+ * <p>
+ * Implementations are invoked from the command execution path and thus must be thread-safe and should not block.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public abstract interface CommandEventRecorder {
+
+  /**
+   * Returns whether events of the given {@link CommandEventType} are currently recorded. Events are only created and
+   * passed to {@link #record(CommandEvent)}, if this method returns {@code true}.
+   *
+   * @param type
+   *          {@link CommandEventType} to check
+   * @return {@code true}, if events of the given {@link CommandEventType} are recorded, {@code false} otherwise
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract boolean isEnabled(final CommandEventType type);
+
+  /**
+   * Begins recording an event of the given {@link CommandEventType} when the operation starts. The returned
+   * {@link Consumer} receives the {@link CommandEvent} when the operation ends. Only called, if
+   * {@link #isEnabled(CommandEventType)} returned {@code true}. The default implementation passes the
+   * {@link CommandEvent} to {@link #record(CommandEvent)} when the operation ends.
+   *
+   * @param type
+   *          {@link CommandEventType} of the event
+   * @return {@link Consumer} ending the recording
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public default Consumer<CommandEvent> begin(final CommandEventType type) {
+    return this::record;
+  }
+
+  /**
+   * Records the given {@link CommandEvent} of an operation that has already ended.
+   *
+   * @param event
+   *          {@link CommandEvent} to be recorded
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract void record(final CommandEvent event);
+}
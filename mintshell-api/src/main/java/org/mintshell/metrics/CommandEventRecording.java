@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import java.util.function.Consumer;
+
+import org.mintshell.annotation.Nullable;
+
+/**
+ * Recording of a single {@link CommandEvent}, that begins when the operation starts and is ended exactly once via
+ * {@link #end(String, int, String, String)} when the operation ends. Instances are obtained from
+ * {@link CommandEvents#begin(CommandEventType)}.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public final class CommandEventRecording {
+
+  static final CommandEventRecording NONE = new CommandEventRecording(null, null, null);
+
+  private final CommandEventType type;
+  private final String sessionId;
+  private final Consumer<CommandEvent> completion;
+  private final long startNanos;
+
+  CommandEventRecording(final @Nullable CommandEventType type, final @Nullable String sessionId, final @Nullable Consumer<CommandEvent> completion) {
+    this.type = type;
+    this.sessionId = sessionId;
+    this.completion = completion;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Ends this recording and passes the resulting {@link CommandEvent} to the {@link CommandEventRecorder}, that began
+   * it. Does nothing, if events of its {@link CommandEventType} were not recorded when the operation started.
+   *
+   * @param commandName
+   *          (optional) name of the command the event belongs to
+   * @param parameterCount
+   *          number of command parameters
+   * @param result
+   *          (optional) result of the operation
+   * @param detail
+   *          (optional) further detail
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void end(final @Nullable String commandName, final int parameterCount, final @Nullable String result, final @Nullable String detail) {
+    if (this.completion != null) {
+      this.completion.accept(new CommandEvent(this.type, commandName, this.sessionId, parameterCount, result, detail, System.nanoTime() - this.startNanos));
+    }
+  }
+}
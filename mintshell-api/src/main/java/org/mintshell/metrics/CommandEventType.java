@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+/**
+ * Types of {@link CommandEvent}s.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public enum CommandEventType {
+
+  /**
+   * Interpretation of a command message into a command.
+   */
+  INTERPRETE,
+
+  /**
+   * Dispatching of a command to the current command shell.
+   */
+  DISPATCH,
+
+  /**
+   * Invocation of a command target.
+   */
+  INVOKE,
+
+  /**
+   * A command shell was pushed onto the stack of command shells.
+   */
+  SHELL_PUSH,
+
+  /**
+   * A command shell was popped from the stack of command shells.
+   */
+  SHELL_POP,
+
+  /**
+   * A session of a command interface was opened.
+   */
+  SESSION_OPEN,
+
+  /**
+   * A session of a command interface was closed.
+   */
+  SESSION_CLOSE,
+
+  /**
+   * A command history was loaded or stored.
+   */
+  HISTORY_PERSIST;
+}
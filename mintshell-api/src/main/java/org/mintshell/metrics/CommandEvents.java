@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import org.mintshell.annotation.Nullable;
+
+/**
+ * <p>
+ * Entry point for emitting {@link CommandEvent}s to the {@link CommandEventRecorder} in use.
+ * </p>
+ * <p>
+ * Unless a recorder is set explicitly via {@link #setCommandEventRecorder(CommandEventRecorder)}, the first
+ * implementation found by {@link ServiceLoader}, that can be instantiated in the running JVM, is used. If there is
+ * none, events are not recorded at all. Operations are recorded by {@link #begin(CommandEventType)} when they start and
+ * {@link CommandEventRecording#end(String, int, String, String)} when they end, so that recorders like a flight
+ * recorder see their actual start time. As {@link #begin(CommandEventType)} checks
+ * {@link CommandEventRecorder#isEnabled(CommandEventType)} before beginning an event, the overhead is negligible while
+ * recording is off.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public final class CommandEvents {
+
+  private static final CommandEventRecorder NO_RECORDER = new NoCommandEventRecorder();
+  private static final ThreadLocal<String> SESSION_ID = new ThreadLocal<>();
+
+  private static volatile CommandEventRecorder commandEventRecorder;
+
+  private CommandEvents() {
+  }
+
+  /**
+   * Begins recording a {@link CommandEvent} of an operation that starts now, if events of the given
+   * {@link CommandEventType} are currently recorded. The event belongs to the session bound to the current thread.
+   *
+   * @param type
+   *          type of the event
+   * @return {@link CommandEventRecording} to be ended when the operation ends
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static CommandEventRecording begin(final CommandEventType type) {
+    final CommandEventRecorder recorder = getCommandEventRecorder();
+    return recorder.isEnabled(type) ? new CommandEventRecording(type, SESSION_ID.get(), recorder.begin(type)) : CommandEventRecording.NONE;
+  }
+
+  /**
+   * Returns the {@link CommandEventRecorder} in use.
+   *
+   * @return {@link CommandEventRecorder} in use
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static CommandEventRecorder getCommandEventRecorder() {
+    CommandEventRecorder recorder = commandEventRecorder;
+    if (recorder == null) {
+      synchronized (CommandEvents.class) {
+        recorder = commandEventRecorder;
+        if (recorder == null) {
+          recorder = NO_RECORDER;
+          final Iterator<CommandEventRecorder> it = ServiceLoader.load(CommandEventRecorder.class).iterator();
+          while (recorder == NO_RECORDER && it.hasNext()) {
+            try {
+              recorder = it.next();
+            } catch (final ServiceConfigurationError e) {
+              // provider not supported by the running JVM
+            }
+          }
+          commandEventRecorder = recorder;
+        }
+      }
+    }
+    return recorder;
+  }
+
+  /**
+   * Returns the id of the session that is bound to the current thread.
+   *
+   * @return id of the session bound to the current thread or {@code null}, if there is none
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static @Nullable String getSessionId() {
+    return SESSION_ID.get();
+  }
+
+  /**
+   * Returns whether events of the given {@link CommandEventType} are currently recorded.
+   *
+   * @param type
+   *          {@link CommandEventType} to check
+   * @return {@code true}, if events of the given {@link CommandEventType} are recorded, {@code false} otherwise
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static boolean isEnabled(final CommandEventType type) {
+    return getCommandEventRecorder().isEnabled(type);
+  }
+
+  /**
+   * Records a {@link CommandEvent} for an operation that started at the given time and ends now, if events of the
+   * given {@link CommandEventType} are currently recorded. The event belongs to the session bound to the current
+   * thread. Since the recorder only learns about the operation after it ended, prefer
+   * {@link #begin(CommandEventType)}.
+   *
+   * @param type
+   *          type of the event
+   * @param commandName
+   *          (optional) name of the command the event belongs to
+   * @param parameterCount
+   *          number of command parameters
+   * @param result
+   *          (optional) result of the operation
+   * @param detail
+   *          (optional) further detail
+   * @param startNanos
+   *          start time of the operation as returned by {@link System#nanoTime()}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static void record(final CommandEventType type, final @Nullable String commandName, final int parameterCount, final @Nullable String result,
+      final @Nullable String detail, final long startNanos) {
+    final CommandEventRecorder recorder = getCommandEventRecorder();
+    if (recorder.isEnabled(type)) {
+      recorder.record(new CommandEvent(type, commandName, SESSION_ID.get(), parameterCount, result, detail, System.nanoTime() - startNanos));
+    }
+  }
+
+  /**
+   * Sets the {@link CommandEventRecorder} to be used.
+   *
+   * @param commandEventRecorder
+   *          {@link CommandEventRecorder} to be used or {@code null} to disable recording of events
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static void setCommandEventRecorder(final @Nullable CommandEventRecorder commandEventRecorder) {
+    synchronized (CommandEvents.class) {
+      CommandEvents.commandEventRecorder = commandEventRecorder != null ? commandEventRecorder : NO_RECORDER;
+    }
+  }
+
+  /**
+   * Binds the session with the given id to the current thread, so that recorded events belong to this session.
+   *
+   * @param sessionId
+   *          id of the session or {@code null} to unbind the current session
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static void setSessionId(final @Nullable String sessionId) {
+    if (sessionId != null) {
+      SESSION_ID.set(sessionId);
+    }
+    else {
+      SESSION_ID.remove();
+    }
+  }
+
+  /**
+   * {@link CommandEventRecorder} implementation that does not record anything.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class NoCommandEventRecorder implements CommandEventRecorder {
+
+    @Override
+    public boolean isEnabled(final CommandEventType type) {
+      return false;
+    }
+
+    @Override
+    public void record(final CommandEvent event) {
+      // does nothing here
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+
+/**
+ * <p>
+ * Service provider interface for recording metrics of command executions. Durations are recorded per command name and
+ * {@link CommandStage}, errors are counted per command name and exception type.
+ * </p>
+ * <p>
+ * Implementations are invoked from the command execution path and thus must be thread-safe and should not block. The
+ * instance in use is obtained from {@link CommandMetricsProvider}.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public abstract interface CommandMetrics {
+
+  /**
+   * Returns the names of all commands that have recorded metrics.
+   *
+   * @return names of all commands with recorded metrics
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract SortedSet<String> getCommandNames();
+
+  /**
+   * Returns the error counts of the command with the given name, keyed by the fully qualified exception type name.
+   *
+   * @param commandName
+   *          name of the command
+   * @return error counts by exception type name
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract Map<String, Long> getErrorCounts(final String commandName);
+
+  /**
+   * Returns a snapshot of the durations recorded for the given command name and {@link CommandStage}.
+   *
+   * @param commandName
+   *          name of the command
+   * @param stage
+   *          {@link CommandStage} to get the snapshot for
+   * @return snapshot of the recorded durations or {@link Optional#empty()}, if no duration has been recorded yet
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract Optional<LatencySnapshot> getLatency(final String commandName, final CommandStage stage);
+
+  /**
+   * Records an error that occured during execution of the command with the given name.
+   *
+   * @param commandName
+   *          name of the command
+   * @param error
+   *          occured error
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract void recordError(final String commandName, final Throwable error);
+
+  /**
+   * Records the duration of a {@link CommandStage} of the command with the given name.
+   *
+   * @param commandName
+   *          name of the command
+   * @param stage
+   *          executed {@link CommandStage}
+   * @param nanos
+   *          duration in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract void recordTime(final String commandName, final CommandStage stage, final long nanos);
+
+  /**
+   * Discards all recorded metrics.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract void reset();
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.mintshell.annotation.Nullable;
+
+/**
+ * <p>
+ * Provides the {@link CommandMetrics} instance used by all mintshell components.
+ * </p>
+ * <p>
+ * Unless an instance is set explicitly via {@link #setCommandMetrics(CommandMetrics)}, the first implementation found
+ * by {@link ServiceLoader} is used. If there is none, metrics are not recorded at all.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public final class CommandMetricsProvider {
+
+  private static final CommandMetrics NO_METRICS = new NoCommandMetrics();
+
+  private static volatile CommandMetrics commandMetrics;
+
+  private CommandMetricsProvider() {
+  }
+
+  /**
+   * Returns the {@link CommandMetrics} instance in use.
+   *
+   * @return {@link CommandMetrics} instance in use
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static CommandMetrics getCommandMetrics() {
+    CommandMetrics metrics = commandMetrics;
+    if (metrics == null) {
+      synchronized (CommandMetricsProvider.class) {
+        metrics = commandMetrics;
+        if (metrics == null) {
+          final Iterator<CommandMetrics> it = ServiceLoader.load(CommandMetrics.class).iterator();
+          metrics = it.hasNext() ? it.next() : NO_METRICS;
+          commandMetrics = metrics;
+        }
+      }
+    }
+    return metrics;
+  }
+
+  /**
+   * Returns whether metrics are recorded, meaning that the {@link CommandMetrics} instance in use is not a no-op
+   * implementation.
+   *
+   * @return {@code true}, if metrics are recorded, {@code false} otherwise
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static boolean isEnabled() {
+    return getCommandMetrics() != NO_METRICS;
+  }
+
+  /**
+   * Sets the {@link CommandMetrics} instance to be used.
+   *
+   * @param commandMetrics
+   *          {@link CommandMetrics} instance to be used or {@code null} to disable recording of metrics
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static void setCommandMetrics(final @Nullable CommandMetrics commandMetrics) {
+    synchronized (CommandMetricsProvider.class) {
+      CommandMetricsProvider.commandMetrics = commandMetrics != null ? commandMetrics : NO_METRICS;
+    }
+  }
+
+  /**
+   * {@link CommandMetrics} implementation that does not record anything.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class NoCommandMetrics implements CommandMetrics {
+
+    @Override
+    public SortedSet<String> getCommandNames() {
+      return Collections.unmodifiableSortedSet(new TreeSet<>());
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts(final String commandName) {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public Optional<LatencySnapshot> getLatency(final String commandName, final CommandStage stage) {
+      return Optional.empty();
+    }
+
+    @Override
+    public void recordError(final String commandName, final Throwable error) {
+      // does nothing here
+    }
+
+    @Override
+    public void recordTime(final String commandName, final CommandStage stage, final long nanos) {
+      // does nothing here
+    }
+
+    @Override
+    public void reset() {
+      // does nothing here
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+/**
+ * Stages of a command execution, whose durations are recorded by {@link CommandMetrics}.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public enum CommandStage {
+
+  /**
+   * Interpretation of a command message into a command.
+   */
+  INTERPRETATION("interprete"),
+
+  /**
+   * Lookup of the command target a command is dispatched to.
+   */
+  DISPATCH("dispatch"),
+
+  /**
+   * Waiting for a free slot of a command target with limited concurrency.
+   */
+  QUEUE("queue"),
+
+  /**
+   * Conversion of command parameters into invocation arguments.
+   */
+  CONVERSION("convert"),
+
+  /**
+   * Invocation of the command target.
+   */
+  INVOCATION("invoke");
+
+  private final String label;
+
+  private CommandStage(final String label) {
+    this.label = label;
+  }
+
+  /**
+   * Returns the short label of this stage.
+   *
+   * @return short label
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public String getLabel() {
+    return this.label;
+  }
+}
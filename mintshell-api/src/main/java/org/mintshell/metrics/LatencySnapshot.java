@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import static java.lang.String.format;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable snapshot of recorded durations of a {@link CommandStage}. All durations are given in nanoseconds.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public final class LatencySnapshot {
+
+  private final long count;
+  private final long min;
+  private final long max;
+  private final long mean;
+  private final long p50;
+  private final long p90;
+  private final long p99;
+  private final long p999;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param count
+   *          number of recorded durations
+   * @param min
+   *          minimum duration
+   * @param max
+   *          maximum duration
+   * @param mean
+   *          mean duration
+   * @param p50
+   *          median duration
+   * @param p90
+   *          90th percentile
+   * @param p99
+   *          99th percentile
+   * @param p999
+   *          99.9th percentile
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public LatencySnapshot(final long count, final long min, final long max, final long mean, final long p50, final long p90, final long p99,
+      final long p999) {
+    this.count = count;
+    this.min = min;
+    this.max = max;
+    this.mean = mean;
+    this.p50 = p50;
+    this.p90 = p90;
+    this.p99 = p99;
+    this.p999 = p999;
+  }
+
+  /**
+   * Returns the number of recorded durations.
+   *
+   * @return number of recorded durations
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * Returns the maximum duration.
+   *
+   * @return maximum duration in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getMax() {
+    return this.max;
+  }
+
+  /**
+   * Returns the mean duration.
+   *
+   * @return mean duration in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getMean() {
+    return this.mean;
+  }
+
+  /**
+   * Returns the minimum duration.
+   *
+   * @return minimum duration in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getMin() {
+    return this.min;
+  }
+
+  /**
+   * Returns the median duration.
+   *
+   * @return median duration in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getP50() {
+    return this.p50;
+  }
+
+  /**
+   * Returns the 90th percentile of the durations.
+   *
+   * @return 90th percentile in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getP90() {
+    return this.p90;
+  }
+
+  /**
+   * Returns the 99th percentile of the durations.
+   *
+   * @return 99th percentile in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getP99() {
+    return this.p99;
+  }
+
+  /**
+   * Returns the 99.9th percentile of the durations.
+   *
+   * @return 99.9th percentile in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getP999() {
+    return this.p999;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return format("count=%d, min=%dus, mean=%dus, p50=%dus, p90=%dus, p99=%dus, p99.9=%dus, max=%dus", this.count,
+        TimeUnit.NANOSECONDS.toMicros(this.min), TimeUnit.NANOSECONDS.toMicros(this.mean), TimeUnit.NANOSECONDS.toMicros(this.p50),
+        TimeUnit.NANOSECONDS.toMicros(this.p90), TimeUnit.NANOSECONDS.toMicros(this.p99), TimeUnit.NANOSECONDS.toMicros(this.p999),
+        TimeUnit.NANOSECONDS.toMicros(this.max));
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * Contains the service provider interface for command execution metrics.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+package org.mintshell.metrics;
@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+import org.mintshell.assertion.Assert;
+
+/**
+ * <p>
+ * Context of a command that is executed as background job or with a timeout. Within the invocation of a
+ * {@link CommandTarget} the context is available via {@link #current()}, so that long-running targets are able to
+ * cooperate on cancellation and to stream output into the output buffer of a background job:
+ * </p>
+ *
+ * <pre>
+ * for (final Node node : nodes) {
+ *   CommandContext.checkCurrentCancelled();
+ *   node.drain();
+ *   CommandContext.current().ifPresent(context -&gt; context.println("drained " + node));
+ * }
+ * </pre>
+ * <p>
+ * Cancelling a command (by killing its job or because its timeout elapsed) also interrupts the executing thread, so
+ * that blocking targets get cancelled without checking the context explicitly.
+ * </p>
+ * <p>
+ * <b>Note:</b> Output is collected by background jobs only, output written during any other invocation is dropped.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandContext {
+
+  private static final ThreadLocal<CommandContext> CURRENT = new ThreadLocal<>();
+
+  private final StringBuffer output;
+  private volatile boolean cancelled;
+
+  /**
+   * Creates a new instance.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandContext() {
+    this.output = new StringBuffer();
+  }
+
+  /**
+   * Throws a {@link CancellationException}, if the command executed by the current thread was cancelled.
+   *
+   * @throws CancellationException
+   *           if the command executed by the current thread was cancelled
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static void checkCurrentCancelled() throws CancellationException {
+    final CommandContext current = CURRENT.get();
+    if (current != null) {
+      current.checkCancelled();
+    }
+  }
+
+  /**
+   * Returns the {@link CommandContext} of the command executed by the current thread.
+   *
+   * @return {@link CommandContext} of the current command or {@link Optional#empty()}, if the current thread doesn't
+   *         execute a command within a {@link CommandContext}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static Optional<CommandContext> current() {
+    return Optional.ofNullable(CURRENT.get());
+  }
+
+  /**
+   * Calls the given {@link Callable} within this context, which means that this context is returned by
+   * {@link #current()} during the call.
+   *
+   * @param callable
+   *          {@link Callable} to be called
+   * @return result of the {@link Callable}
+   * @throws Exception
+   *           if the {@link Callable} failed
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public <T> T call(final Callable<T> callable) throws Exception {
+    Assert.ARG.isNotNull(callable, "[callable] must not be [null]");
+    final CommandContext previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return callable.call();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      }
+      else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Marks the command as cancelled.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void cancel() {
+    this.cancelled = true;
+  }
+
+  /**
+   * Throws a {@link CancellationException}, if the command was cancelled.
+   *
+   * @throws CancellationException
+   *           if the command was cancelled
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void checkCancelled() throws CancellationException {
+    if (this.cancelled) {
+      throw new CancellationException("command cancelled");
+    }
+  }
+
+  /**
+   * Returns the output written so far.
+   *
+   * @return output written so far
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public String getOutput() {
+    return this.output.toString();
+  }
+
+  /**
+   * Returns the length of the output written so far.
+   *
+   * @return length of the output written so far
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getOutputLength() {
+    return this.output.length();
+  }
+
+  /**
+   * Returns whether the command was cancelled.
+   *
+   * @return {@code true}, if the command was cancelled, otherwise {@code false}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isCancelled() {
+    return this.cancelled;
+  }
+
+  /**
+   * Appends the given text to the output.
+   *
+   * @param text
+   *          text to be appended
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void print(final String text) {
+    this.output.append(text);
+  }
+
+  /**
+   * Appends the given text and a line break to the output.
+   *
+   * @param text
+   *          text to be appended
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void println(final String text) {
+    synchronized (this.output) {
+      this.output.append(text).append("\n\r");
+    }
+  }
+}
@@ -41,6 +41,16 @@ import org.mintshell.command.Command;
  */
 public abstract interface CommandTarget {
 
+  /**
+   * Returns the time to live of cached results of invocations of the {@link CommandTarget} in milliseconds.
+   *
+   * @return time to live in milliseconds or {@link Optional#empty()}, if results must not be cached
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract Optional<Long> getCacheTtlMillis();
+
   /**
    * Returns the (optional) description of the {@link CommandTarget}
    *
@@ -51,6 +61,16 @@ public abstract interface CommandTarget {
    */
   public abstract Optional<String> getDescription();
 
+  /**
+   * Returns the maximum amount of concurrent invocations of the {@link CommandTarget}.
+   *
+   * @return maximum amount of concurrent invocations or {@link Optional#empty()}, if there is no limit
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract Optional<Integer> getMaxConcurrency();
+
   /**
    * Returns the name of the {@link CommandTarget}
    *
@@ -72,4 +92,37 @@ public abstract interface CommandTarget {
    * @since 0.2.0
    */
   public abstract List<? extends CommandTargetParameter> getParameters();
+
+  /**
+   * Returns the maximum time in milliseconds an invocation of the {@link CommandTarget} waits for a free slot, if the
+   * {@link #getMaxConcurrency() maximum amount of concurrent invocations} is reached.
+   *
+   * @return maximum waiting time in milliseconds ({@code 0} means that the invocation is rejected immediately)
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract long getQueueTimeoutMillis();
+
+  /**
+   * Returns the maximum duration of an invocation of the {@link CommandTarget} in milliseconds. When it elapses, the
+   * invocation is cancelled and fails.
+   *
+   * @return timeout in milliseconds ({@code 0} means no timeout) or {@link Optional#empty()}, if the default timeout of
+   *         the dispatcher applies
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract Optional<Long> getTimeoutMillis();
+
+  /**
+   * Returns whether concurrent invocations of the {@link CommandTarget} with equal arguments share one invocation.
+   *
+   * @return {@code true}, if concurrent invocations are coalesced, otherwise {@code false}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract boolean isCoalescing();
 }
@@ -24,6 +24,7 @@
 package org.mintshell.target;
 
 import java.util.Optional;
+import java.util.Set;
 
 import org.mintshell.command.Command;
 
@@ -47,6 +48,17 @@ public interface CommandTargetParameter {
    */
   public abstract Optional<String> getDescription();
 
+  /**
+   * Returns the values accepted by this parameter, if it only accepts a fixed set of values, e.g. the constants of an
+   * enum. The values are used to complete command lines.
+   *
+   * @return accepted values or an empty {@link Set}, if the accepted values aren't restricted
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract Set<String> getAcceptedValues();
+
   /**
    * Returns the index of this parameter as the corresponding {@link CommandTarget} expects it.
    *
@@ -77,6 +89,17 @@ public interface CommandTargetParameter {
    */
   public abstract Optional<Character> getShortName();
 
+  /**
+   * Returns the {@link ValueCompleter} used to complete values of this parameter dynamically, if available.
+   *
+   * @return {@link ValueCompleter} of this parameter or {@link Optional#empty()}, if values aren't completed
+   *         dynamically
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract Optional<ValueCompleter> getValueCompleter();
+
   /**
    * Returns, whether this parameter is required for the corresponding {@link CommandTarget}.
    *
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target;
+
+import java.util.Collection;
+
+import org.mintshell.annotation.Param;
+
+/**
+ * <p>
+ * Service provider interface for completing values of a {@link CommandTargetParameter} dynamically, e.g. node IDs,
+ * queue names or file paths, that are looked up from a database or a remote system. A {@link ValueCompleter} is
+ * attached to a parameter via {@link Param#completer()} and must provide a public no-argument constructor.
+ * </p>
+ * <p>
+ * Implementations may block, since they are invoked asynchronously with a deadline and their results are cached, but
+ * they must be thread-safe.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public abstract interface ValueCompleter {
+
+  /**
+   * Returns the candidate values of the given parameter, that start with the given value fragment. Candidates not
+   * starting with the value fragment are ignored.
+   *
+   * @param parameter
+   *          {@link CommandTargetParameter} to complete the value for
+   * @param valueFragment
+   *          value fragment to be completed, possibly empty
+   * @return candidate values
+   * @throws Exception
+   *           if looking up the candidates failed
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public abstract Collection<String> complete(final CommandTargetParameter parameter, final String valueFragment) throws Exception;
+}
@@ -23,10 +23,12 @@
  */
 package org.mintshell;
 
+import static java.lang.String.format;
 import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -41,6 +43,7 @@ import org.mintshell.interfaces.CommandInterface;
 import org.mintshell.interpreter.CommandInterpreter;
 import org.mintshell.target.CommandShell;
 import org.mintshell.target.CommandTargetSource;
+import org.mintshell.target.discovery.CommandTargetScanner;
 import org.mintshell.target.reflection.annotation.AnnotationCommandShell;
 
 /**
@@ -196,6 +199,20 @@ public final class Mintshell {
      */
     public abstract MintshellDispatcher to(CommandShell commandShell);
 
+    /**
+     * Defines a {@link DefaultCommandDispatcher} with a {@link AnnotationCommandShell} and the command target sources
+     * discovered by a {@link CommandTargetScanner} for the {@link CommandInterpreter}s
+     *
+     * @param commandTargetScanner
+     *          {@link CommandTargetScanner} discovering the command target sources used for the
+     *          {@link AnnotationCommandShell} for the {@link DefaultCommandDispatcher}
+     * @return new subbuilder instance
+     *
+     * @author Noqmar
+     * @since 0.4.0
+     */
+    public abstract MintshellDispatcher to(CommandTargetScanner commandTargetScanner);
+
     /**
      * Defines a {@link DefaultCommandDispatcher} with a {@link AnnotationCommandShell} and command target sources for
      * the {@link CommandInterpreter}s
@@ -261,6 +278,22 @@ public final class Mintshell {
       return this.to(new DefaultCommandDispatcher(commandShell));
     }
 
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see org.mintshell.Mintshell.MintshellInterpreter#to(org.mintshell.target.discovery.CommandTargetScanner)
+     */
+    @Override
+    public MintshellDispatcher to(final CommandTargetScanner commandTargetScanner) {
+      Assert.ARG.isNotNull(commandTargetScanner, "[commandTargetScanner] must not be [null]");
+      try {
+        return this.to(commandTargetScanner.createCommandTargetSources().toArray());
+      } catch (final IOException e) {
+        throw new IllegalArgumentException(format("Failed to scan packages %s", commandTargetScanner.getPackages()), e);
+      }
+    }
+
     /**
      *
      * {@inheritDoc}
@@ -26,28 +26,72 @@ package org.mintshell.dispatcher;
 import static java.lang.String.format;
 import static java.util.Arrays.stream;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EmptyStackException;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.SortedSet;
 import java.util.Stack;
-import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.mintshell.annotation.Nullable;
 import org.mintshell.assertion.Assert;
+import org.mintshell.command.BackgroundCommand;
 import org.mintshell.command.Command;
+import org.mintshell.command.CommandParameter;
 import org.mintshell.command.CommandResult;
+import org.mintshell.command.DefaultCommand;
+import org.mintshell.command.DefaultCommandParameter;
 import org.mintshell.command.DefaultCommandResult;
+import org.mintshell.command.PipedCommand;
+import org.mintshell.job.Job;
+import org.mintshell.job.JobManager;
+import org.mintshell.job.JobState;
+import org.mintshell.job.Watch;
+import org.mintshell.job.WatchScheduler;
+import org.mintshell.metrics.CommandEventRecording;
+import org.mintshell.metrics.CommandEventType;
+import org.mintshell.metrics.CommandEvents;
+import org.mintshell.metrics.CommandMetrics;
+import org.mintshell.metrics.CommandMetricsProvider;
+import org.mintshell.metrics.CommandStage;
+import org.mintshell.metrics.LatencySnapshot;
+import org.mintshell.target.BaseCommandShell;
+import org.mintshell.target.CommandContext;
 import org.mintshell.target.CommandInvocationException;
 import org.mintshell.target.CommandShell;
 import org.mintshell.target.CommandShellExitException;
 import org.mintshell.target.CommandShellList;
 import org.mintshell.target.CommandTarget;
 import org.mintshell.target.CommandTargetAlias;
+import org.mintshell.target.CommandTargetCompletions;
 import org.mintshell.target.CommandTargetException;
 
 /**
@@ -58,8 +102,52 @@ import org.mintshell.target.CommandTargetException;
  */
 public abstract class BaseCommandDispatcher<C extends CommandTarget> implements CommandDispatcher, Completer {
 
+  public static final int DEFAULT_HELP_PAGE_SIZE = 50;
+  public static final String HELP_PAGE_PARAMETER_NAME = "page";
+  public static final String DEFAULT_STATS_COMMAND_NAME = "stats";
+  public static final String STATS_RESET_PARAMETER_NAME = "reset";
+  public static final String DEFAULT_CACHE_COMMAND_NAME = "cache";
+  public static final String CACHE_CLEAR_PARAMETER_NAME = "clear";
+  public static final String DEFAULT_JOBS_COMMAND_NAME = "jobs";
+  public static final String DEFAULT_FG_COMMAND_NAME = "fg";
+  public static final String DEFAULT_KILL_COMMAND_NAME = "kill";
+  public static final String DEFAULT_WATCH_COMMAND_NAME = "watch";
+  public static final String WATCH_INTERVAL_PARAMETER_NAME = "interval";
+  public static final char WATCH_INTERVAL_PARAMETER_SHORT_NAME = 'n';
+  public static final long DEFAULT_WATCH_INTERVAL_MILLIS = 2000;
+  public static final long MIN_WATCH_INTERVAL_MILLIS = 100;
+  public static final long MAX_WATCH_TIMEOUT_MILLIS = 30000;
+  public static final long DEFAULT_TIMEOUT_MILLIS = 0;
+  public static final int DEFAULT_BATCH_PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+  public static final int MAX_INVOCATION_THREADS = 128;
+
+  private static final long FUTURE_POLL_INTERVAL_MILLIS = 10;
+  private static final String HELP_PAGE_FOOTER_PATTERN = "\n\rPage %d of %d, for further pages use: %s --%s <page>";
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+  private static final ExecutorService INVOCATION_EXECUTOR = new ThreadPoolExecutor(0, MAX_INVOCATION_THREADS, 60, TimeUnit.SECONDS,
+      new SynchronousQueue<>(), runnable -> {
+        final Thread thread = new Thread(runnable, format("mintshell-invocation-%d", THREAD_SEQUENCE.incrementAndGet()));
+        thread.setDaemon(true);
+        return thread;
+      });
+  private static final ScheduledThreadPoolExecutor TIMEOUT_SCHEDULER = createTimeoutScheduler();
+
   private final CommandHelp commandHelp;
   private final Stack<CommandShell> commandShells;
+  private final ThreadLocal<CommandShell> batchCommandShell;
+  private final JobManager jobManager;
+  private final CommandResultCache resultCache;
+  private final InvocationCoalescer invocationCoalescer;
+  private final Map<String, Bulkhead> concurrencyLimits;
+  private final Map<CommandTarget, Bulkhead> bulkheads;
+  private final Map<Future<?>, AtomicInteger> sharedResults;
+  private String cacheCommandName;
+  private String statsCommandName;
+  private String watchCommandName;
+  private volatile int batchParallelism;
+  private volatile int helpPageSize;
+  private volatile boolean jobControlEnabled;
+  private volatile long defaultTimeoutMillis;
 
   /**
    * Creates a new instance with an initial {@link CommandShell} but without {@link CommandHelp}.
@@ -87,7 +175,21 @@ public abstract class BaseCommandDispatcher<C extends CommandTarget> implements
     Assert.ARG.isNotNull(initialShell, "[initialShell] must not be [null]");
     this.commandShells = new Stack<>();
     this.commandShells.push(initialShell);
+    this.batchCommandShell = new ThreadLocal<>();
     this.commandHelp = commandHelp;
+    this.statsCommandName = DEFAULT_STATS_COMMAND_NAME;
+    this.watchCommandName = DEFAULT_WATCH_COMMAND_NAME;
+    this.helpPageSize = DEFAULT_HELP_PAGE_SIZE;
+    this.jobManager = new JobManager();
+    this.resultCache = new CommandResultCache();
+    this.invocationCoalescer = new InvocationCoalescer();
+    this.concurrencyLimits = new ConcurrentHashMap<>();
+    this.bulkheads = Collections.synchronizedMap(new WeakHashMap<>());
+    this.sharedResults = Collections.synchronizedMap(new IdentityHashMap<>());
+    this.cacheCommandName = DEFAULT_CACHE_COMMAND_NAME;
+    this.jobControlEnabled = true;
+    this.defaultTimeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    this.batchParallelism = DEFAULT_BATCH_PARALLELISM;
   }
 
   /**
@@ -98,12 +200,7 @@ public abstract class BaseCommandDispatcher<C extends CommandTarget> implements
    */
   @Override
   public SortedSet<String> complete(final String commandFragment) {
-    final CommandShell currentShell = this.commandShells.peek();
-    return new TreeSet<>(currentShell.getTargets().stream() //
-        .map(target -> target.getName()) //
-        .filter(name -> name.startsWith(commandFragment)) //
-        .sorted() //
-        .collect(Collectors.toList()));
+    return this.getCompletions(this.commandShells.peek()).complete(commandFragment);
   }
 
   /**
@@ -114,73 +211,165 @@ public abstract class BaseCommandDispatcher<C extends CommandTarget> implements
    */
   @Override
   public CommandResult<?> dispatch(final Command command) throws CommandDispatchException, CommandShellExitException {
+    return this.awaitResult(this.dispatch(command, null));
+  }
 
-    // handle help
-    if (this.getCommandHelp() != null) {
-      if (command.getName().equals(this.getCommandHelp().getHelpCommandName())) {
-        return this.handleHelpCommand(command, this.getCommandHelp());
-      }
-      else if (this.getCommandHelp().getHelpCommandParamterName().isPresent() && command.getParameters().size() == 1
-          && command.getParameters().get(0).getName().isPresent()
-          && command.getParameters().get(0).getName().get().equals(this.getCommandHelp().getHelpCommandParamterName().orElse(null))) {
-        return new DefaultCommandResult<>(command, Optional.of(this.createDetailCommandHelpText(command.getName())));
+  /**
+   * Dispatches all given {@link Command}s in one call. Each distinct {@link CommandTarget} is resolved only once per
+   * {@link CommandShell} and batch, while the arguments are bound per {@link Command}. In {@link DispatchMode#PARALLEL}
+   * at most {@link #getBatchParallelism()} {@link Command}s, including built-in commands, are dispatched concurrently
+   * against the {@link CommandShell} that is current when the batch starts.
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.dispatcher.CommandDispatcher#dispatchAll(java.util.List, org.mintshell.dispatcher.DispatchMode,
+   *      org.mintshell.dispatcher.DispatchErrorMode)
+   */
+  @Override
+  public List<CommandResult<?>> dispatchAll(final List<Command> commands, final DispatchMode mode, final DispatchErrorMode errorMode)
+      throws CommandShellExitException {
+    Assert.ARG.isNotNull(commands, "[commands] must not be [null]");
+    Assert.ARG.isNotNull(mode, "[mode] must not be [null]");
+    Assert.ARG.isNotNull(errorMode, "[errorMode] must not be [null]");
+    final CommandResult<?>[] results = new CommandResult<?>[commands.size()];
+    if (mode == DispatchMode.SEQUENTIAL) {
+      final Batch batch = new Batch(null, errorMode);
+      for (int i = 0; i < results.length; i++) {
+        results[i] = this.dispatchInBatch(commands.get(i), batch);
       }
+      return Arrays.asList(results);
     }
-    // dispatch command
-    try {
-      final CommandShell currentCommandShell = this.commandShells.peek();
-      final CommandTarget commandTarget = this.resolveAliases(currentCommandShell.getTargets().stream() //
-          .filter(target -> target.getName().equals(command.getName())) //
-          .findFirst() //
-          .orElseThrow(() -> new CommandDispatchException(format("%s: command not found", command))));
-
-      final Object result = currentCommandShell.invoke(command, commandTarget);
-      if (result instanceof CommandShell) {
-        this.commandShells.push((CommandShell) result);
-      }
-      else if (result instanceof CommandShellList<?>) {
-        final CommandShellList<?> shells = (CommandShellList<?>) result;
-        if (shells.size() > 0) {
-          this.commandShells.addAll(shells);
-          return new DefaultCommandResult<>(command, Optional.ofNullable(shells.getResultMessage()));
+    final Batch batch = new Batch(this.commandShells.peek(), errorMode);
+    final AtomicInteger nextIndex = new AtomicInteger();
+    final Callable<Object> batchWorker = bindSessionId(() -> {
+      this.batchCommandShell.set(batch.commandShell);
+      try {
+        for (int index = nextIndex.getAndIncrement(); index < results.length; index = nextIndex.getAndIncrement()) {
+          results[index] = this.dispatchInBatch(commands.get(index), batch);
         }
+      } finally {
+        this.batchCommandShell.remove();
       }
-      else if (result instanceof Object[]) {
-        final Object[] shellCandidates = (Object[]) result;
-        final long shellInstancesNumber = stream(shellCandidates).filter(element -> CommandShell.class.isInstance(element)).count();
-        if (shellInstancesNumber > 0 && shellInstancesNumber == shellCandidates.length) {
-          stream(shellCandidates).map(element -> CommandShell.class.cast(element)).forEach(this.commandShells::push);
-          return new DefaultCommandResult<>(command, Optional.ofNullable(this.commandShells.peek()));
-        }
+      return null;
+    });
+    final List<Future<?>> workers = new ArrayList<>();
+    try {
+      for (int i = 0; i < Math.min(this.batchParallelism, results.length); i++) {
+        workers.add(INVOCATION_EXECUTOR.submit(batchWorker));
       }
-      else if (result instanceof Collection<?>) {
-        final Collection<?> shellCandidates = (Collection<?>) result;
-        final long shellInstancesNumber = shellCandidates.stream().filter(element -> CommandShell.class.isInstance(element)).count();
-        if (shellInstancesNumber > 0 && shellInstancesNumber == shellCandidates.size()) {
-          shellCandidates.stream().map(element -> CommandShell.class.cast(element)).forEach(this.commandShells::push);
-          return new DefaultCommandResult<>(command, Optional.ofNullable(this.commandShells.peek()));
+    } catch (final RejectedExecutionException e) {
+      if (workers.isEmpty()) {
+        final FutureTask<Object> inline = new FutureTask<>(batchWorker);
+        inline.run();
+        workers.add(inline);
+      }
+    }
+    try {
+      for (final Future<?> worker : workers) {
+        worker.get();
+      }
+    } catch (final InterruptedException e) {
+      batch.abort();
+      workers.forEach(worker -> worker.cancel(true));
+      Thread.currentThread().interrupt();
+      for (int i = 0; i < results.length; i++) {
+        if (results[i] == null) {
+          results[i] = new DefaultCommandResult<>(commands.get(i), new CancellationException(format("%s: interrupted while dispatching", commands.get(i))));
         }
       }
-      return new DefaultCommandResult<>(command, Optional.ofNullable(result));
-    } catch (final CommandDispatchException e) {
-      throw e;
-    } catch (final CommandInvocationException e) {
-      throw new CommandDispatchException(format("%s: command invocation failed", command), e);
-    } catch (final CommandTargetException e) {
+    } catch (final ExecutionException e) {
       if (e.getCause() instanceof CommandShellExitException) {
-        final CommandShellExitException exitException = (CommandShellExitException) e.getCause();
-        int count = Math.max(exitException.getCount(), -1);
-        while (count != 0 && this.commandShells.size() > 1) {
-          this.commandShells.pop();
-          count--;
-        }
+        throw (CommandShellExitException) e.getCause();
       }
-      return new DefaultCommandResult<>(command, e.getCause());
-    } catch (final EmptyStackException e) {
-      throw new CommandDispatchException(format("%s: missing command shell instance", command), e);
-    } catch (final RuntimeException e) {
-      throw new CommandDispatchException(format("%s: failed to dispatch command: %", command, e.getMessage()), e);
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw (Error) e.getCause();
+    }
+    return Arrays.asList(results);
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.dispatcher.CommandDispatcher#dispatchAsync(org.mintshell.command.Command)
+   */
+  @Override
+  public CompletableFuture<CommandResult<?>> dispatchAsync(final Command command) {
+    final CommandResult<?> result;
+    try {
+      result = this.dispatch(command, null);
+    } catch (final CommandDispatchException | CommandShellExitException e) {
+      final CompletableFuture<CommandResult<?>> failure = new CompletableFuture<>();
+      failure.completeExceptionally(e);
+      return failure;
+    }
+    if (!(result instanceof PendingCommandResult)) {
+      return CompletableFuture.completedFuture(result);
+    }
+    final PendingCommandResult pending = (PendingCommandResult) result;
+    final CompletableFuture<CommandResult<?>> completion = pending.completion.<CommandResult<?>> handle((value, error) -> error == null
+        ? this.createResult(command, value, pending.enterCommandShells)
+        : new DefaultCommandResult<>(command, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error));
+    if (pending.timeoutMillis > 0) {
+      final ScheduledFuture<?> timeout = TIMEOUT_SCHEDULER.schedule(() -> {
+        pending.completion.completeExceptionally(this.createTimeoutException(command, pending.timeoutMillis));
+      }, pending.getRemainingNanos(), TimeUnit.NANOSECONDS);
+      completion.whenComplete((value, error) -> timeout.cancel(false));
+    }
+    return completion;
+  }
+
+  /**
+   * Returns the maximum amount of {@link Command}s that are dispatched concurrently by
+   * {@link #dispatchAll(List, DispatchMode, DispatchErrorMode)} in {@link DispatchMode#PARALLEL}.
+   *
+   * @return maximum amount of concurrently dispatched {@link Command}s
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getBatchParallelism() {
+    return this.batchParallelism;
+  }
+
+  /**
+   * Returns the {@link Bulkhead} limiting the concurrent invocations of the given {@link CommandTarget}, either
+   * configured by {@link #setConcurrencyLimit(String, int, long)} for its name or by its
+   * {@link CommandTarget#getMaxConcurrency() maximum concurrency}.
+   *
+   * @param commandTarget
+   *          {@link CommandTarget} to return the {@link Bulkhead} for
+   * @return {@link Bulkhead} of the given {@link CommandTarget} or {@link Optional#empty()}, if its concurrent
+   *         invocations are not limited
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<Bulkhead> getBulkhead(final CommandTarget commandTarget) {
+    Assert.ARG.isNotNull(commandTarget, "[commandTarget] must not be [null]");
+    final Bulkhead configured = this.concurrencyLimits.get(commandTarget.getName());
+    if (configured != null) {
+      return Optional.of(configured);
+    }
+    if (!commandTarget.getMaxConcurrency().isPresent()) {
+      return Optional.empty();
     }
+    return Optional.of(this.bulkheads.computeIfAbsent(commandTarget,
+        target -> new Bulkhead(target.getMaxConcurrency().get(), target.getQueueTimeoutMillis(), TimeUnit.MILLISECONDS)));
+  }
+
+  /**
+   * Returns the name of the built-in command that displays the statistics of the {@link CommandResultCache}.
+   *
+   * @return name of the cache command or {@link Optional#empty()}, if the cache command is disabled
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<String> getCacheCommandName() {
+    return Optional.ofNullable(this.cacheCommandName);
   }
 
   /**
@@ -194,6 +383,58 @@ public abstract class BaseCommandDispatcher<C extends CommandTarget> implements
     return this.commandHelp;
   }
 
+  /**
+   * Returns the timeout in milliseconds that applies to invocations of {@link CommandTarget}s without an own timeout.
+   *
+   * @return default timeout in milliseconds ({@code 0} means no timeout)
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getDefaultTimeoutMillis() {
+    return this.defaultTimeoutMillis;
+  }
+
+  /**
+   * Returns the amount of overview lines per page, if the help command is invoked with the
+   * {@value #HELP_PAGE_PARAMETER_NAME} parameter.
+   *
+   * @return amount of overview lines per page
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getHelpPageSize() {
+    return this.helpPageSize;
+  }
+
+  /**
+   * Returns the {@link InvocationCoalescer} sharing concurrent invocations of {@link CommandTarget}s that are
+   * {@link CommandTarget#isCoalescing() coalescing}.
+   *
+   * @return {@link InvocationCoalescer} of this dispatcher
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public InvocationCoalescer getInvocationCoalescer() {
+    return this.invocationCoalescer;
+  }
+
+  /**
+   * Returns the {@link JobManager} executing the {@link BackgroundCommand}s of this dispatcher. The built-in job control
+   * commands only see the {@link Job}s of the session bound to the current thread, so that sessions sharing this
+   * dispatcher are isolated from each other.
+   *
+   * @return {@link JobManager} of this dispatcher
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public JobManager getJobManager() {
+    return this.jobManager;
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -211,6 +452,212 @@ public abstract class BaseCommandDispatcher<C extends CommandTarget> implements
     }
   }
 
+  /**
+   * Returns the {@link CommandResultCache} holding the results of {@link CommandTarget}s with a
+   * {@link CommandTarget#getCacheTtlMillis() time to live}.
+   *
+   * @return {@link CommandResultCache} of this dispatcher
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandResultCache getResultCache() {
+    return this.resultCache;
+  }
+
+  /**
+   * Returns the name of the built-in command that displays the recorded {@link CommandMetrics}.
+   *
+   * @return name of the stats command or {@link Optional#empty()}, if the stats command is disabled
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<String> getStatsCommandName() {
+    return Optional.ofNullable(this.statsCommandName);
+  }
+
+  /**
+   * Returns the name of the built-in command that executes another command periodically.
+   *
+   * @return name of the watch command or {@link Optional#empty()}, if the watch command is disabled
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<String> getWatchCommandName() {
+    return Optional.ofNullable(this.watchCommandName);
+  }
+
+  /**
+   * Returns whether the built-in job control commands {@value #DEFAULT_JOBS_COMMAND_NAME},
+   * {@value #DEFAULT_FG_COMMAND_NAME} and {@value #DEFAULT_KILL_COMMAND_NAME} are enabled.
+   *
+   * @return {@code true}, if the job control commands are enabled, otherwise {@code false}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isJobControlEnabled() {
+    return this.jobControlEnabled;
+  }
+
+  /**
+   * Removes the limit of concurrent invocations configured by {@link #setConcurrencyLimit(String, int, long)} for the
+   * {@link CommandTarget}s with the given name.
+   *
+   * @param commandName
+   *          name of the {@link CommandTarget}s
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void removeConcurrencyLimit(final String commandName) {
+    Assert.ARG.isNotNull(commandName, "[commandName] must not be [null]");
+    this.concurrencyLimits.remove(commandName);
+  }
+
+  /**
+   * Sets the maximum amount of {@link Command}s that are dispatched concurrently by
+   * {@link #dispatchAll(List, DispatchMode, DispatchErrorMode)} in {@link DispatchMode#PARALLEL}.
+   *
+   * @param batchParallelism
+   *          maximum amount of concurrently dispatched {@link Command}s
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setBatchParallelism(final int batchParallelism) {
+    Assert.ARG.isTrue(batchParallelism > 0, format("[batchParallelism] must be greater than [0] but was [%d]", batchParallelism));
+    this.batchParallelism = batchParallelism;
+  }
+
+  /**
+   * Sets the name of the built-in command that displays the statistics of the {@link CommandResultCache} (default is
+   * {@value #DEFAULT_CACHE_COMMAND_NAME}). A {@link CommandTarget} of the current {@link CommandShell} with the same
+   * name takes precedence over the cache command.
+   *
+   * @param cacheCommandName
+   *          name of the cache command or {@code null} to disable the cache command
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setCacheCommandName(final @Nullable String cacheCommandName) {
+    this.cacheCommandName = cacheCommandName;
+  }
+
+  /**
+   * Limits the concurrent invocations of the {@link CommandTarget}s with the given name, regardless of their own
+   * {@link CommandTarget#getMaxConcurrency() maximum concurrency}. The limit is shared by all {@link CommandShell}s.
+   * Invocations exceeding the limit wait for a free slot at most for the given queue timeout and fail with a
+   * {@link RejectedExecutionException} afterwards. An invocation returning a {@link CompletionStage} or {@link Future}
+   * occupies its slot until the returned result completes, an invocation that keeps running after its timeout until it
+   * finishes.
+   *
+   * @param commandName
+   *          name of the {@link CommandTarget}s
+   * @param maxConcurrency
+   *          maximum amount of concurrent invocations
+   * @param queueTimeoutMillis
+   *          maximum time in milliseconds an invocation waits for a free slot ({@code 0} means that it is rejected
+   *          immediately)
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setConcurrencyLimit(final String commandName, final int maxConcurrency, final long queueTimeoutMillis) {
+    Assert.ARG.isNotNull(commandName, "[commandName] must not be [null]");
+    this.concurrencyLimits.put(commandName, new Bulkhead(maxConcurrency, queueTimeoutMillis, TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * <p>
+   * Sets the timeout in milliseconds that applies to invocations of {@link CommandTarget}s without an own timeout
+   * (default is {@value #DEFAULT_TIMEOUT_MILLIS}, which means no timeout).
+   * </p>
+   * <p>
+   * Invocations with a timeout are executed by a separate thread within a {@link CommandContext}. When the timeout
+   * elapses, the context gets cancelled, the thread gets interrupted and the dispatch returns a failed
+   * {@link CommandResult} with a {@link TimeoutException} as cause. The timeout also covers the completion of a returned
+   * {@link CompletionStage} or {@link Future}. Thus targets relying on thread-bound state of the dispatching thread
+   * should not have a timeout, except for the session id of {@link CommandEvents}, that is passed on. At most
+   * {@value #MAX_INVOCATION_THREADS} invocations with a timeout are executed at the same time, further ones are
+   * rejected.
+   * </p>
+   *
+   * @param defaultTimeoutMillis
+   *          default timeout in milliseconds ({@code 0} means no timeout)
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setDefaultTimeoutMillis(final long defaultTimeoutMillis) {
+    Assert.ARG.isTrue(defaultTimeoutMillis >= 0, format("[defaultTimeoutMillis] must not be negative but was [%d]", defaultTimeoutMillis));
+    this.defaultTimeoutMillis = defaultTimeoutMillis;
+  }
+
+  /**
+   * Sets the amount of overview lines per page, if the help command is invoked with the
+   * {@value #HELP_PAGE_PARAMETER_NAME} parameter.
+   *
+   * @param helpPageSize
+   *          amount of overview lines per page
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setHelpPageSize(final int helpPageSize) {
+    Assert.ARG.isTrue(helpPageSize > 0, format("[helpPageSize] must be greater than [0] but was [%d]", helpPageSize));
+    this.helpPageSize = helpPageSize;
+  }
+
+  /**
+   * Enables or disables the built-in job control commands {@value #DEFAULT_JOBS_COMMAND_NAME},
+   * {@value #DEFAULT_FG_COMMAND_NAME} and {@value #DEFAULT_KILL_COMMAND_NAME} (enabled by default). A
+   * {@link CommandTarget} of the current {@link CommandShell} with the same name takes precedence over a job control
+   * command.
+   *
+   * @param jobControlEnabled
+   *          {@code true} to enable the job control commands, {@code false} to disable them
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setJobControlEnabled(final boolean jobControlEnabled) {
+    this.jobControlEnabled = jobControlEnabled;
+  }
+
+  /**
+   * Sets the name of the built-in command that displays the recorded {@link CommandMetrics} (default is
+   * {@value #DEFAULT_STATS_COMMAND_NAME}). A {@link CommandTarget} of the current {@link CommandShell} with the same
+   * name takes precedence over the stats command.
+   *
+   * @param statsCommandName
+   *          name of the stats command or {@code null} to disable the stats command
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setStatsCommandName(final @Nullable String statsCommandName) {
+    this.statsCommandName = statsCommandName;
+  }
+
+  /**
+   * Sets the name of the built-in command that executes another command periodically (default is
+   * {@value #DEFAULT_WATCH_COMMAND_NAME}). A {@link CommandTarget} of the current {@link CommandShell} with the same
+   * name takes precedence over the watch command.
+   *
+   * @param watchCommandName
+   *          name of the watch command or {@code null} to disable the watch command
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setWatchCommandName(final @Nullable String watchCommandName) {
+    this.watchCommandName = watchCommandName;
+  }
+
   /**
    * Returns detail help text for a command with the given command name.
    *
@@ -222,7 +669,7 @@ public abstract class BaseCommandDispatcher<C extends CommandTarget> implements
    * @since 0.2.0
    */
   protected String createDetailCommandHelpText(final String commandName) {
-    final CommandShell currentCommandShell = this.commandShells.peek();
+    final CommandShell currentCommandShell = this.getCurrentCommandShell();
     final StringBuilder builder = new StringBuilder();
     final Optional<CommandTarget> searchedCommand = currentCommandShell.getTargets().stream() //
         .filter(cmd -> commandName.equals(cmd.getName())) //
@@ -259,6 +706,98 @@ public abstract class BaseCommandDispatcher<C extends CommandTarget> implements
     return builder.toString();
   }
 
+  /**
+   * Handles execution of a {@link BackgroundCommand} by submitting its wrapped {@link Command} to the
+   * {@link JobManager}. The {@link CommandTarget}s of the command (and of all commands piped into) are invoked on the
+   * given {@link CommandShell} within a {@link CommandContext}, returned {@link CommandShell}s are not pushed.
+   *
+   * @param command
+   *          command to be handled
+   * @param commandShell
+   *          {@link CommandShell} to invoke the {@link CommandTarget}s on
+   * @return result of the handling containing the id of the submitted {@link Job}
+   * @throws CommandDispatchException
+   *           if the command cannot be dispatched to a {@link CommandTarget}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected CommandResult<?> handleBackgroundCommand(final BackgroundCommand command, final CommandShell commandShell)
+      throws CommandDispatchException {
+    final Command backgroundCommand = command.getCommand();
+    final CommandTarget commandTarget = this.resolveTarget(backgroundCommand, commandShell);
+    final Job job = this.jobManager.submit(backgroundCommand, () -> this.invokeInBackground(backgroundCommand, commandTarget, commandShell));
+    return new DefaultCommandResult<>(command, Optional.of(format("[%d] %s", job.getId(), job.getCommandLine())));
+  }
+
+  /**
+   * <p>
+   * Handles execution of the cache command, that displays the size, hit rate, evictions and expirations of the given
+   * {@link CommandResultCache}.
+   * </p>
+   * <p>
+   * The parameter {@value #CACHE_CLEAR_PARAMETER_NAME} discards all cached results and statistics.
+   * </p>
+   *
+   * @param command
+   *          command to be handled
+   * @param resultCache
+   *          {@link CommandResultCache} to be displayed
+   * @return result of the handling
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected CommandResult<?> handleCacheCommand(final Command command, final CommandResultCache resultCache) {
+    if (command.getParameters().stream().anyMatch(param -> param.getName().filter(CACHE_CLEAR_PARAMETER_NAME::equals).isPresent())) {
+      resultCache.clear();
+      return new DefaultCommandResult<>(command, Optional.of("cache cleared"));
+    }
+    final String lineFormat = "%-12s %s";
+    return new DefaultCommandResult<>(command, Optional.of(String.join("\n\r", //
+        format(lineFormat, "entries", format("%d / %d", resultCache.getSize(), resultCache.getMaxEntries())), //
+        format(lineFormat, "hits", resultCache.getHitCount()), //
+        format(lineFormat, "misses", resultCache.getMissCount()), //
+        format(lineFormat, "hit rate", resultCache.getHitRate().map(rate -> format(Locale.ROOT, "%.1f%%", rate * 100)).orElse("-")), //
+        format(lineFormat, "evictions", resultCache.getEvictionCount()), //
+        format(lineFormat, "expirations", resultCache.getExpirationCount()))));
+  }
+
+  /**
+   * Handles execution of the fg command, that waits for the {@link Job} with the id given as parameter value (or the
+   * most recently submitted {@link Job}) to finish, removes it and returns its output.
+   *
+   * @param command
+   *          command to be handled
+   * @param jobManager
+   *          {@link JobManager} managing the {@link Job}
+   * @return result of the handling
+   * @throws CommandDispatchException
+   *           if there is no such {@link Job}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected CommandResult<?> handleFgCommand(final Command command, final JobManager jobManager) throws CommandDispatchException {
+    final Optional<Integer> jobId = this.getJobId(command);
+    final Job job = (jobId.isPresent() ? jobManager.getJob(jobId.get()) : jobManager.getLatestJob()) //
+        .orElseThrow(() -> new CommandDispatchException(format("%s: no such job", command)));
+    try {
+      job.await(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new DefaultCommandResult<>(command, e);
+    }
+    jobManager.removeJob(job.getId());
+    if (job.getState() == JobState.FAILED) {
+      return new DefaultCommandResult<>(command, new CommandDispatchException(job.getOutput(), job.getCause().orElse(null)));
+    }
+    if (job.getState() == JobState.CANCELLED) {
+      return new DefaultCommandResult<>(command, Optional.of(format("%s[%d] cancelled", job.getOutput(), job.getId())));
+    }
+    return new DefaultCommandResult<>(command, Optional.of(job.getOutput()));
+  }
+
   /**
    * Handles execution of the help command.
    *
@@ -272,24 +811,20 @@ public abstract class BaseCommandDispatcher<C extends CommandTarget> implements
    * @since 0.2.0
    */
   protected CommandResult<?> handleHelpCommand(final Command command, final CommandHelp commandHelp) {
-    final CommandShell currentCommandShell = this.commandShells.peek();
+    final CommandShell currentCommandShell = this.getCurrentCommandShell();
     final StringBuilder builder = new StringBuilder();
-    if (command.getParameters().size() == 0 || !command.getParameters().get(0).getValue().isPresent()
+    final Optional<Integer> page = this.getHelpPage(command);
+    if (page.isPresent()) {
+      final List<String> lines = commandHelp.getCommandOverviewLines(currentCommandShell);
+      final int pageCount = Math.max(1, (lines.size() + this.helpPageSize - 1) / this.helpPageSize);
+      final int pageNumber = Math.min(Math.max(page.get(), 1), pageCount);
+      lines.subList((pageNumber - 1) * this.helpPageSize, Math.min(pageNumber * this.helpPageSize, lines.size())) //
+          .forEach(line -> builder.append(line).append("\n\r"));
+      builder.append(format(HELP_PAGE_FOOTER_PATTERN, pageNumber, pageCount, commandHelp.getHelpCommandName(), HELP_PAGE_PARAMETER_NAME));
+    }
+    else if (command.getParameters().size() == 0 || !command.getParameters().get(0).getValue().isPresent()
         || command.getParameters().get(0).getValue().get().trim().isEmpty()) {
-      final List<String> lines = currentCommandShell.getTargets().stream() //
-          .sorted((cmd1, cmd2) -> cmd1.getName().compareTo(cmd2.getName())) //
-          .map(cmd -> commandHelp.getCommandOverviewText(cmd)) //
-          .collect(Collectors.toList());
-      final AtomicInteger maxLength = new AtomicInteger(0);
-      lines.forEach(line -> maxLength.set(Math.max(maxLength.get(), line.indexOf("\t"))));
-      lines.forEach(line -> {
-        final StringBuffer buffer = new StringBuffer("    ");
-        for (int i = 0; i < maxLength.get() - line.indexOf("\t"); i++) {
-          buffer.append(" ");
-        }
-        builder.append(line.replace("\t", buffer.toString())).append("\n\r");
-      });
-      builder.append(commandHelp.getCommandOverviewFooterText().orElse(""));
+      builder.append(commandHelp.getCommandOverviewText(currentCommandShell));
     }
     else {
       final String commandToSearch = command.getParameters().get(0).getValue().orElse("");
@@ -299,21 +834,848 @@ public abstract class BaseCommandDispatcher<C extends CommandTarget> implements
   }
 
   /**
-   * Resolves recursively {@link CommandTargetAlias}es.
+   * Handles execution of the jobs command, that lists id, state, elapsed time and output buffer size of all
+   * {@link Job}s managed by the given {@link JobManager}.
    *
-   * @param commandTarget
-   *          (possible) {@link CommandTargetAlias} to be resolved
-   * @return resolved {@link CommandTarget}
+   * @param command
+   *          command to be handled
+   * @param jobManager
+   *          {@link JobManager} managing the {@link Job}s to be listed
+   * @return result of the handling
    *
    * @author Noqmar
-   * @since 0.2.0
+   * @since 0.4.0
    */
-  protected CommandTarget resolveAliases(final CommandTarget commandTarget) {
-    if (!CommandTargetAlias.class.isInstance(commandTarget)) {
-      return commandTarget;
+  protected CommandResult<?> handleJobsCommand(final Command command, final JobManager jobManager) {
+    final List<Job> jobs = jobManager.getJobs();
+    if (jobs.isEmpty()) {
+      return new DefaultCommandResult<>(command, Optional.of("no jobs"));
+    }
+    final String lineFormat = "%-6s %-10s %10s %10s  %s";
+    final List<String> lines = new ArrayList<>();
+    lines.add(format(lineFormat, "job", "state", "elapsed", "output", "command"));
+    for (final Job job : jobs) {
+      lines.add(format(lineFormat, format("[%d]", job.getId()), job.getState(), format("%.1fs", job.getElapsed(TimeUnit.MILLISECONDS) / 1000.0),
+          job.getOutputLength(), job.getCommandLine()));
+    }
+    return new DefaultCommandResult<>(command, Optional.of(String.join("\n\r", lines)));
+  }
+
+  /**
+   * Handles execution of the kill command, that cancels the {@link Job} with the id given as parameter value by
+   * marking its {@link CommandContext} as cancelled and interrupting the executing thread.
+   *
+   * @param command
+   *          command to be handled
+   * @param jobManager
+   *          {@link JobManager} managing the {@link Job}
+   * @return result of the handling
+   * @throws CommandDispatchException
+   *           if no or an unknown job id is given
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected CommandResult<?> handleKillCommand(final Command command, final JobManager jobManager) throws CommandDispatchException {
+    final int jobId = this.getJobId(command).orElseThrow(() -> new CommandDispatchException(format("%s: missing job id", command)));
+    final Job job = jobManager.getJob(jobId).orElseThrow(() -> new CommandDispatchException(format("%s: no such job [%d]", command, jobId)));
+    return new DefaultCommandResult<>(command,
+        Optional.of(job.cancel() ? format("[%d] cancelled", jobId) : format("[%d] already %s", jobId, job.getState().name().toLowerCase())));
+  }
+
+  /**
+   * <p>
+   * Handles execution of the stats command, that displays the durations recorded by the given {@link CommandMetrics}
+   * in microseconds and the error counts per command name.
+   * </p>
+   * <p>
+   * A parameter value restricts the output to the command with that name, the parameter
+   * {@value #STATS_RESET_PARAMETER_NAME} discards all recorded metrics.
+   * </p>
+   *
+   * @param command
+   *          command to be handled
+   * @param commandMetrics
+   *          {@link CommandMetrics} to be displayed
+   * @return result of the handling
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected CommandResult<?> handleStatsCommand(final Command command, final CommandMetrics commandMetrics) {
+    if (command.getParameters().stream().anyMatch(param -> param.getName().filter(STATS_RESET_PARAMETER_NAME::equals).isPresent())) {
+      commandMetrics.reset();
+      return new DefaultCommandResult<>(command, Optional.of("statistics reset"));
+    }
+    final Optional<String> filter = command.getParameters().stream() //
+        .map(CommandParameter::getValue) //
+        .filter(Optional::isPresent) //
+        .map(Optional::get) //
+        .map(String::trim) //
+        .filter(value -> !value.isEmpty()) //
+        .findFirst();
+    final List<String> commandNames = commandMetrics.getCommandNames().stream() //
+        .filter(name -> !filter.isPresent() || filter.get().equals(name)) //
+        .collect(Collectors.toList());
+    if (commandNames.isEmpty()) {
+      return new DefaultCommandResult<>(command, Optional.of("no statistics recorded"));
+    }
+    final int nameWidth = Math.max("command".length(), commandNames.stream().mapToInt(String::length).max().orElse(0));
+    final String lineFormat = "%-" + nameWidth + "s  %-10s %8s %10s %10s %10s %10s %10s\n\r";
+    final StringBuilder builder = new StringBuilder(format(lineFormat, "command", "stage", "count", "mean", "p50", "p90", "p99", "max"));
+    for (final String commandName : commandNames) {
+      for (final CommandStage stage : CommandStage.values()) {
+        final Optional<LatencySnapshot> latency = commandMetrics.getLatency(commandName, stage);
+        if (latency.isPresent()) {
+          final LatencySnapshot snapshot = latency.get();
+          builder.append(format(lineFormat, commandName, stage.getLabel(), snapshot.getCount(), TimeUnit.NANOSECONDS.toMicros(snapshot.getMean()),
+              TimeUnit.NANOSECONDS.toMicros(snapshot.getP50()), TimeUnit.NANOSECONDS.toMicros(snapshot.getP90()),
+              TimeUnit.NANOSECONDS.toMicros(snapshot.getP99()), TimeUnit.NANOSECONDS.toMicros(snapshot.getMax())));
+        }
+      }
+      for (final Map.Entry<String, Long> error : commandMetrics.getErrorCounts(commandName).entrySet()) {
+        builder.append(format("%-" + nameWidth + "s  %-10s %8d %s\n\r", commandName, "error", error.getValue(), error.getKey()));
+      }
+    }
+    builder.append("(durations in microseconds)");
+    return new DefaultCommandResult<>(command, Optional.of(builder.toString()));
+  }
+
+  /**
+   * <p>
+   * Handles execution of the watch command, that creates a {@link Watch} executing the command given as parameters
+   * periodically, e.g. {@code watch -n 5 stats}. The interval in seconds is given by the parameter
+   * {@value #WATCH_INTERVAL_PARAMETER_NAME} (or its short name) before the watched command and defaults to
+   * {@value #DEFAULT_WATCH_INTERVAL_MILLIS} milliseconds.
+   * </p>
+   * <p>
+   * The watched command is executed by the shared {@link WatchScheduler}, once per interval for all {@link Watch}es of
+   * the same command line on the same {@link CommandShell}. Watched built-in commands are only shared by the
+   * {@link Watch}es of this dispatcher, watched {@link CommandTarget}s are invoked like dispatched ones, including
+   * timeout, concurrency limit, result cache and coalescing. Their timeout is bounded by
+   * {@value #MAX_WATCH_TIMEOUT_MILLIS} milliseconds, also if they have none, so that a hanging target doesn't block
+   * the {@link WatchScheduler}. It's up to the command interface to start the returned {@link Watch} and to display
+   * its output.
+   * </p>
+   *
+   * @param command
+   *          command to be handled
+   * @return result of the handling containing the {@link Watch}
+   * @throws CommandDispatchException
+   *           if the watched command is missing or cannot be dispatched
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected CommandResult<?> handleWatchCommand(final Command command) throws CommandDispatchException {
+    long intervalMillis = DEFAULT_WATCH_INTERVAL_MILLIS;
+    String watchedCommandName = null;
+    final List<CommandParameter> watchedParameters = new ArrayList<>();
+    for (final CommandParameter parameter : command.getParameters()) {
+      if (watchedCommandName != null) {
+        watchedParameters.add(new DefaultCommandParameter(watchedParameters.size(), parameter.getName().orElse(null),
+            parameter.getShortName().orElse(null), parameter.getValue().orElse(null)));
+      }
+      else if (parameter.getName().filter(WATCH_INTERVAL_PARAMETER_NAME::equals).isPresent()
+          || parameter.getShortName().filter(shortName -> shortName == WATCH_INTERVAL_PARAMETER_SHORT_NAME).isPresent()) {
+        intervalMillis = this.getWatchInterval(command, parameter);
+      }
+      else if (!parameter.getName().isPresent() && !parameter.getShortName().isPresent() && parameter.getValue().isPresent()) {
+        watchedCommandName = parameter.getValue().get();
+      }
+    }
+    if (watchedCommandName == null) {
+      throw new CommandDispatchException(format("%s: missing command to watch", command));
+    }
+    final Command watchedCommand = new DefaultCommand(watchedCommandName, watchedParameters);
+    final CommandShell currentCommandShell = this.getCurrentCommandShell();
+    final String commandLine = Job.describe(watchedCommand);
+    final List<Object> key = new ArrayList<>(Arrays.asList(currentCommandShell, commandLine, intervalMillis));
+    final Callable<?> task;
+    if (this.statsCommandName != null && watchedCommandName.equals(this.statsCommandName) && this.isBuiltInCommand(watchedCommand)) {
+      key.add(this);
+      task = () -> this.handleStatsCommand(watchedCommand, CommandMetricsProvider.getCommandMetrics()).getValue().orElse(null);
+    }
+    else if (this.cacheCommandName != null && watchedCommandName.equals(this.cacheCommandName) && this.isBuiltInCommand(watchedCommand)) {
+      key.add(this);
+      task = () -> this.handleCacheCommand(watchedCommand, this.resultCache).getValue().orElse(null);
+    }
+    else if (this.jobControlEnabled && watchedCommandName.equals(DEFAULT_JOBS_COMMAND_NAME) && this.isBuiltInCommand(watchedCommand)) {
+      final String sessionId = CommandEvents.getSessionId();
+      key.add(this);
+      key.add(sessionId);
+      task = bindSessionId(() -> this.handleJobsCommand(watchedCommand, this.jobManager).getValue().orElse(null));
+    }
+    else {
+      final CommandTarget commandTarget = this.resolveTarget(watchedCommand, currentCommandShell);
+      task = () -> this.invokeWatched(watchedCommand, commandTarget, currentCommandShell);
+    }
+    final Watch watch = WatchScheduler.getInstance().createWatch(key, commandLine, task, intervalMillis, TimeUnit.MILLISECONDS);
+    return new DefaultCommandResult<>(command, Optional.of(watch));
+  }
+
+  /**
+   * Resolves recursively {@link CommandTargetAlias}es.
+   *
+   * @param commandTarget
+   *          (possible) {@link CommandTargetAlias} to be resolved
+   * @return resolved {@link CommandTarget}
+   *
+   * @author Noqmar
+   * @since 0.2.0
+   */
+  protected CommandTarget resolveAliases(final CommandTarget commandTarget) {
+    if (!CommandTargetAlias.class.isInstance(commandTarget)) {
+      return commandTarget;
+    }
+    final CommandTargetAlias alias = CommandTargetAlias.class.cast(commandTarget);
+    final CommandTarget aliasedtarget = alias.getTarget();
+    return this.resolveAliases(aliasedtarget);
+  }
+
+  private static Object awaitValue(final Object result) throws InterruptedException, ExecutionException {
+    if (result instanceof Future<?>) {
+      return ((Future<?>) result).get();
+    }
+    if (result instanceof CompletionStage<?>) {
+      return ((CompletionStage<?>) result).toCompletableFuture().get();
+    }
+    return result;
+  }
+
+  private static <T> Callable<T> bindSessionId(final Callable<T> task) {
+    final String sessionId = CommandEvents.getSessionId();
+    return () -> {
+      final String previousSessionId = CommandEvents.getSessionId();
+      CommandEvents.setSessionId(sessionId);
+      try {
+        return task.call();
+      } finally {
+        CommandEvents.setSessionId(previousSessionId);
+      }
+    };
+  }
+
+  private static ScheduledThreadPoolExecutor createTimeoutScheduler() {
+    final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, format("mintshell-timeout-%d", THREAD_SEQUENCE.incrementAndGet()));
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.setRemoveOnCancelPolicy(true);
+    return scheduler;
+  }
+
+  private static boolean isJobControlCommandName(final String commandName) {
+    return DEFAULT_JOBS_COMMAND_NAME.equals(commandName) || DEFAULT_FG_COMMAND_NAME.equals(commandName) || DEFAULT_KILL_COMMAND_NAME.equals(commandName);
+  }
+
+  private static boolean isSharedInvocation(final CommandTarget commandTarget) {
+    return commandTarget.getCacheTtlMillis().isPresent() || commandTarget.isCoalescing();
+  }
+
+  private static long remainingNanos(final long invocationStart, final long timeoutMillis) {
+    return Math.max(0, TimeUnit.MILLISECONDS.toNanos(timeoutMillis) - (System.nanoTime() - invocationStart));
+  }
+
+  private CommandResult<?> awaitResult(final CommandResult<?> result) throws CommandDispatchException {
+    if (!(result instanceof PendingCommandResult)) {
+      return result;
+    }
+    final PendingCommandResult pending = (PendingCommandResult) result;
+    final Command command = pending.getCommand();
+    try {
+      final Object value = pending.timeoutMillis > 0 ? pending.completion.get(pending.getRemainingNanos(), TimeUnit.NANOSECONDS) : pending.completion.get();
+      return this.createResult(command, value, pending.enterCommandShells);
+    } catch (final TimeoutException e) {
+      pending.completion.cancel(true);
+      return new DefaultCommandResult<>(command, this.createTimeoutException(command, pending.timeoutMillis));
+    } catch (final CancellationException e) {
+      return new DefaultCommandResult<>(command, e);
+    } catch (final ExecutionException e) {
+      return new DefaultCommandResult<>(command, e.getCause());
+    } catch (final InterruptedException e) {
+      pending.completion.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new CommandDispatchException(format("%s: interrupted while waiting for the command result", command), e);
+    }
+  }
+
+  private CommandNotFoundException createCommandNotFoundException(final Command command, final CommandShell commandShell) {
+    final List<String> suggestions = this.getCompletions(commandShell).suggest(command.getName(), CommandTargetCompletions.DEFAULT_MAX_SUGGESTIONS);
+    if (suggestions.isEmpty()) {
+      return new CommandNotFoundException(format("%s: command not found", command));
+    }
+    return new CommandNotFoundException(format("%s: command not found, did you mean %s?", command, String.join(", ", suggestions)));
+  }
+
+  private CommandResult<?> createResult(final Command command, final @Nullable Object result, final boolean enterCommandShells) {
+    if (!enterCommandShells) {
+      return new DefaultCommandResult<>(command, Optional.ofNullable(result));
+    }
+    if (result instanceof CommandShell) {
+      this.pushCommandShell(command, (CommandShell) result);
+    }
+    else if (result instanceof CommandShellList<?>) {
+      final CommandShellList<?> shells = (CommandShellList<?>) result;
+      if (shells.size() > 0) {
+        shells.forEach(shell -> this.pushCommandShell(command, shell));
+        return new DefaultCommandResult<>(command, Optional.ofNullable(shells.getResultMessage()));
+      }
+    }
+    else if (result instanceof Object[]) {
+      final Object[] shellCandidates = (Object[]) result;
+      final long shellInstancesNumber = stream(shellCandidates).filter(element -> CommandShell.class.isInstance(element)).count();
+      if (shellInstancesNumber > 0 && shellInstancesNumber == shellCandidates.length) {
+        stream(shellCandidates).map(element -> CommandShell.class.cast(element)).forEach(shell -> this.pushCommandShell(command, shell));
+        return new DefaultCommandResult<>(command, Optional.ofNullable(this.commandShells.peek()));
+      }
+    }
+    else if (result instanceof Collection<?>) {
+      final Collection<?> shellCandidates = (Collection<?>) result;
+      final long shellInstancesNumber = shellCandidates.stream().filter(element -> CommandShell.class.isInstance(element)).count();
+      if (shellInstancesNumber > 0 && shellInstancesNumber == shellCandidates.size()) {
+        shellCandidates.stream().map(element -> CommandShell.class.cast(element)).forEach(shell -> this.pushCommandShell(command, shell));
+        return new DefaultCommandResult<>(command, Optional.ofNullable(this.commandShells.peek()));
+      }
+    }
+    return new DefaultCommandResult<>(command, Optional.ofNullable(result));
+  }
+
+  private TimeoutException createTimeoutException(final Command command, final long timeoutMillis) {
+    return new TimeoutException(format("%s: command timed out after %d ms", command, timeoutMillis));
+  }
+
+  private CommandResult<?> dispatch(final Command command, final @Nullable Batch batch) throws CommandDispatchException, CommandShellExitException {
+    final CommandEventRecording recording = CommandEvents.begin(CommandEventType.DISPATCH);
+    String resultState = null;
+    try {
+      final CommandResult<?> result = this.dispatchCommand(command, batch);
+      resultState = result.getState().name();
+      return result;
+    } catch (final CommandDispatchException | RuntimeException e) {
+      resultState = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      recording.end(command.getName(), command.getParameters().size(), resultState, null);
+    }
+  }
+
+  private CommandResult<?> dispatchCommand(final Command command, final @Nullable Batch batch) throws CommandDispatchException, CommandShellExitException {
+
+    // handle help
+    if (this.getCommandHelp() != null) {
+      if (command.getName().equals(this.getCommandHelp().getHelpCommandName())) {
+        return this.handleHelpCommand(command, this.getCommandHelp());
+      }
+      else if (this.getCommandHelp().getHelpCommandParamterName().isPresent() && command.getParameters().size() == 1
+          && command.getParameters().get(0).getName().isPresent()
+          && command.getParameters().get(0).getName().get().equals(this.getCommandHelp().getHelpCommandParamterName().orElse(null))) {
+        return new DefaultCommandResult<>(command, Optional.of(this.createDetailCommandHelpText(command.getName())));
+      }
+    }
+    // handle stats
+    if (this.statsCommandName != null && command.getName().equals(this.statsCommandName) && this.isBuiltInCommand(command)) {
+      return this.handleStatsCommand(command, CommandMetricsProvider.getCommandMetrics());
+    }
+    // handle cache
+    if (this.cacheCommandName != null && command.getName().equals(this.cacheCommandName) && this.isBuiltInCommand(command)) {
+      return this.handleCacheCommand(command, this.resultCache);
+    }
+    // handle watch
+    if (this.watchCommandName != null && command.getName().equals(this.watchCommandName) && this.isBuiltInCommand(command)) {
+      return this.handleWatchCommand(command);
+    }
+    // handle job control
+    if (this.jobControlEnabled && isJobControlCommandName(command.getName()) && this.isBuiltInCommand(command)) {
+      switch (command.getName()) {
+        case DEFAULT_JOBS_COMMAND_NAME:
+          return this.handleJobsCommand(command, this.jobManager);
+        case DEFAULT_FG_COMMAND_NAME:
+          return this.handleFgCommand(command, this.jobManager);
+        case DEFAULT_KILL_COMMAND_NAME:
+          return this.handleKillCommand(command, this.jobManager);
+      }
+    }
+    // dispatch command
+    try {
+      final long start = System.nanoTime();
+      final CommandShell currentCommandShell = batch != null && batch.commandShell != null ? batch.commandShell : this.getCurrentCommandShell();
+      final boolean enterCommandShells = batch == null || batch.commandShell == null;
+      if (command instanceof BackgroundCommand) {
+        return this.handleBackgroundCommand((BackgroundCommand) command, currentCommandShell);
+      }
+      final CommandTarget commandTarget = batch != null ? batch.resolveTarget(command, currentCommandShell) : this.resolveTarget(command, currentCommandShell);
+      CommandMetricsProvider.getCommandMetrics().recordTime(command.getName(), CommandStage.DISPATCH, System.nanoTime() - start);
+
+      final long invocationStart = System.nanoTime();
+      final Object result;
+      try {
+        result = this.invoke(command, commandTarget, currentCommandShell, this.getTimeoutMillis(commandTarget));
+      } catch (final TimeoutException | RejectedExecutionException e) {
+        return new DefaultCommandResult<>(command, e);
+      }
+      if (result instanceof CompletionStage<?> || result instanceof Future<?>) {
+        return new PendingCommandResult(command, this.toCompletableFuture(result, isSharedInvocation(commandTarget)), this.getTimeoutMillis(commandTarget),
+            invocationStart, enterCommandShells);
+      }
+      return this.createResult(command, result, enterCommandShells);
+    } catch (final CommandDispatchException e) {
+      throw e;
+    } catch (final CommandInvocationException e) {
+      throw new CommandDispatchException(format("%s: command invocation failed", command), e);
+    } catch (final CommandTargetException e) {
+      if (e.getCause() instanceof CommandShellExitException && (batch == null || batch.commandShell == null)) {
+        final CommandShellExitException exitException = (CommandShellExitException) e.getCause();
+        int count = Math.max(exitException.getCount(), -1);
+        while (count != 0 && this.commandShells.size() > 1) {
+          this.popCommandShell(command);
+          count--;
+        }
+      }
+      return new DefaultCommandResult<>(command, e.getCause());
+    } catch (final EmptyStackException e) {
+      throw new CommandDispatchException(format("%s: missing command shell instance", command), e);
+    } catch (final RuntimeException e) {
+      throw new CommandDispatchException(format("%s: failed to dispatch command: %", command, e.getMessage()), e);
+    }
+  }
+
+  private CommandResult<?> dispatchInBatch(final Command command, final Batch batch) throws CommandShellExitException {
+    if (batch.isAborted()) {
+      return new DefaultCommandResult<>(command, new CancellationException(format("%s: skipped due to a previous failure", command)));
+    }
+    CommandResult<?> result;
+    try {
+      Command currentCommand = command;
+      result = this.awaitResult(this.dispatch(currentCommand, batch));
+      while (result.isSucceeded() && currentCommand instanceof PipedCommand) {
+        currentCommand = ((PipedCommand) currentCommand).createPipeTarget(result.getValue().map(Object::toString).orElse(""));
+        result = this.awaitResult(this.dispatch(currentCommand, batch));
+      }
+    } catch (final CommandDispatchException e) {
+      result = new DefaultCommandResult<>(command, e);
+    }
+    if (!result.isSucceeded() && batch.errorMode == DispatchErrorMode.FAIL_FAST) {
+      batch.abort();
+    }
+    return result;
+  }
+
+  private CommandTargetCompletions getCompletions(final CommandShell commandShell) {
+    return commandShell instanceof BaseCommandShell ? ((BaseCommandShell) commandShell).getCompletions()
+        : new CommandTargetCompletions(commandShell.getTargets());
+  }
+
+  private CommandShell getCurrentCommandShell() {
+    final CommandShell currentBatchCommandShell = this.batchCommandShell.get();
+    return currentBatchCommandShell != null ? currentBatchCommandShell : this.commandShells.peek();
+  }
+
+  private Optional<Integer> getHelpPage(final Command command) {
+    return command.getParameters().stream() //
+        .filter(parameter -> parameter.getName().filter(HELP_PAGE_PARAMETER_NAME::equals).isPresent()) //
+        .findFirst() //
+        .map(parameter -> parameter.getValue().map(String::trim).filter(value -> value.matches("\\d{1,9}")).map(Integer::valueOf).orElse(1));
+  }
+
+  private Optional<Integer> getJobId(final Command command) {
+    return command.getParameters().stream() //
+        .map(CommandParameter::getValue) //
+        .filter(Optional::isPresent) //
+        .map(value -> value.get().trim()) //
+        .filter(value -> value.matches("%?\\d{1,9}")) //
+        .map(value -> Integer.valueOf(value.startsWith("%") ? value.substring(1) : value)) //
+        .findFirst();
+  }
+
+  private long getTimeoutMillis(final CommandTarget commandTarget) {
+    return commandTarget.getTimeoutMillis().orElse(this.defaultTimeoutMillis);
+  }
+
+  private long getWatchInterval(final Command command, final CommandParameter parameter) throws CommandDispatchException {
+    final String value = parameter.getValue().map(String::trim).orElse("");
+    if (!value.matches("\\d{1,6}(\\.\\d{1,3})?")) {
+      throw new CommandDispatchException(format("%s: invalid interval [%s]", command, value));
+    }
+    return Math.max(MIN_WATCH_INTERVAL_MILLIS, Math.round(Double.parseDouble(value) * 1000));
+  }
+
+  private Object invoke(final Command command, final CommandTarget commandTarget, final CommandShell commandShell, final long timeoutMillis)
+      throws CommandInvocationException, CommandTargetException, TimeoutException {
+    final Optional<Long> cacheTtlMillis = commandTarget.getCacheTtlMillis();
+    if (!cacheTtlMillis.isPresent() && !commandTarget.isCoalescing()) {
+      return this.invokeTarget(command, commandTarget, commandShell, timeoutMillis);
+    }
+    try {
+      if (cacheTtlMillis.isPresent()) {
+        return this.resultCache.get(commandTarget, command, cacheTtlMillis.get(), TimeUnit.MILLISECONDS,
+            () -> this.invokeTarget(command, commandTarget, commandShell, timeoutMillis));
+      }
+      return this.invocationCoalescer.invoke(commandTarget, command, () -> this.invokeTarget(command, commandTarget, commandShell, timeoutMillis));
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CommandInvocationException(format("Interrupted while executing command [%s]", command), e);
+    } catch (final ExecutionException e) {
+      throw this.rethrowInvocationFailure(command, e.getCause());
+    }
+  }
+
+  private Object invokeHoldingPermit(final Command command, final CommandTarget commandTarget, final CommandShell commandShell,
+      final @Nullable Permit permit) throws CommandInvocationException, CommandTargetException {
+    if (permit == null) {
+      return commandShell.invoke(command, commandTarget);
+    }
+    if (!permit.claim()) {
+      throw new CancellationException(format("%s: invocation abandoned before it started", command));
+    }
+    final Object result;
+    try {
+      result = commandShell.invoke(command, commandTarget);
+    } catch (final Throwable e) {
+      permit.release();
+      throw e;
+    }
+    if (result instanceof CompletionStage<?> || result instanceof Future<?>) {
+      this.toCompletableFuture(result, false).whenComplete((value, failure) -> permit.release());
+    }
+    else {
+      permit.release();
+    }
+    return result;
+  }
+
+  private Object invokeInBackground(final Command command, final CommandTarget commandTarget, final CommandShell commandShell) throws Exception {
+    Command currentCommand = command;
+    CommandTarget currentTarget = commandTarget;
+    while (true) {
+      CommandContext.checkCurrentCancelled();
+      final Object result = awaitValue(commandShell.invoke(currentCommand, currentTarget));
+      if (!(currentCommand instanceof PipedCommand)) {
+        return result;
+      }
+      currentCommand = ((PipedCommand) currentCommand).createPipeTarget(result != null ? result.toString() : "");
+      currentTarget = this.resolveTarget(currentCommand, commandShell);
+    }
+  }
+
+  private Object invokeTarget(final Command command, final CommandTarget commandTarget, final CommandShell commandShell, final long timeoutMillis)
+      throws CommandInvocationException, CommandTargetException, TimeoutException {
+    final Bulkhead bulkhead = this.getBulkhead(commandTarget).orElse(null);
+    if (bulkhead == null) {
+      return this.invokeTargetWithinLimit(command, commandTarget, commandShell, timeoutMillis, null);
+    }
+    final long start = System.nanoTime();
+    final boolean acquired;
+    try {
+      acquired = bulkhead.acquire();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CommandInvocationException(format("Interrupted while executing command [%s]", command), e);
+    } finally {
+      CommandMetricsProvider.getCommandMetrics().recordTime(command.getName(), CommandStage.QUEUE, System.nanoTime() - start);
+    }
+    if (!acquired) {
+      throw new RejectedExecutionException(format("%s: rejected, limit of %d concurrent invocations reached", command, bulkhead.getMaxConcurrency()));
+    }
+    final Permit permit = new Permit(bulkhead);
+    try {
+      return this.invokeTargetWithinLimit(command, commandTarget, commandShell, timeoutMillis, permit);
+    } catch (final Throwable e) {
+      permit.abandon();
+      throw e;
+    }
+  }
+
+  private Object invokeTargetWithinLimit(final Command command, final CommandTarget commandTarget, final CommandShell commandShell,
+      final long timeoutMillis, final @Nullable Permit permit) throws CommandInvocationException, CommandTargetException, TimeoutException {
+    return timeoutMillis > 0 ? this.invokeWithTimeout(command, commandTarget, commandShell, timeoutMillis, permit)
+        : this.invokeHoldingPermit(command, commandTarget, commandShell, permit);
+  }
+
+  private @Nullable Object invokeWatched(final Command command, final CommandTarget commandTarget, final CommandShell commandShell) throws Exception {
+    final long invocationStart = System.nanoTime();
+    final long targetTimeoutMillis = this.getTimeoutMillis(commandTarget);
+    final long timeoutMillis = targetTimeoutMillis > 0 ? Math.min(targetTimeoutMillis, MAX_WATCH_TIMEOUT_MILLIS) : MAX_WATCH_TIMEOUT_MILLIS;
+    final Object result = this.invoke(command, commandTarget, commandShell, timeoutMillis);
+    if (!(result instanceof CompletionStage<?>) && !(result instanceof Future<?>)) {
+      return result;
+    }
+    final CompletableFuture<Object> completion = this.toCompletableFuture(result, isSharedInvocation(commandTarget));
+    try {
+      return completion.get(remainingNanos(invocationStart, timeoutMillis), TimeUnit.NANOSECONDS);
+    } catch (final TimeoutException e) {
+      completion.cancel(true);
+      throw this.createTimeoutException(command, timeoutMillis);
+    } catch (final InterruptedException e) {
+      completion.cancel(true);
+      throw e;
+    }
+  }
+
+  private Object invokeWithTimeout(final Command command, final CommandTarget commandTarget, final CommandShell commandShell, final long timeoutMillis,
+      final @Nullable Permit permit) throws CommandInvocationException, CommandTargetException, TimeoutException {
+    final CommandContext context = new CommandContext();
+    final Future<Object> invocation;
+    try {
+      invocation = INVOCATION_EXECUTOR
+          .submit(bindSessionId(() -> context.call(() -> this.invokeHoldingPermit(command, commandTarget, commandShell, permit))));
+    } catch (final RejectedExecutionException e) {
+      throw new RejectedExecutionException(format("%s: rejected, all %d invocation threads are busy", command, MAX_INVOCATION_THREADS), e);
+    }
+    try {
+      return invocation.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (final TimeoutException e) {
+      context.cancel();
+      invocation.cancel(true);
+      throw this.createTimeoutException(command, timeoutMillis);
+    } catch (final InterruptedException e) {
+      context.cancel();
+      invocation.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new CommandInvocationException(format("Interrupted while executing command [%s]", command), e);
+    } catch (final ExecutionException e) {
+      throw this.rethrowInvocationFailure(command, e.getCause());
+    }
+  }
+
+  private boolean isBuiltInCommand(final Command command) {
+    return (this.batchCommandShell.get() != null || !this.commandShells.isEmpty())
+        && this.getCurrentCommandShell().getTargets().stream().noneMatch(target -> target.getName().equals(command.getName()));
+  }
+
+  private void popCommandShell(final Command command) {
+    final CommandEventRecording recording = CommandEvents.begin(CommandEventType.SHELL_POP);
+    final CommandShell shell = this.commandShells.pop();
+    recording.end(command.getName(), command.getParameters().size(), null, shell.getPrompt());
+  }
+
+  private void pushCommandShell(final Command command, final CommandShell shell) {
+    final CommandEventRecording recording = CommandEvents.begin(CommandEventType.SHELL_PUSH);
+    this.commandShells.push(shell);
+    recording.end(command.getName(), command.getParameters().size(), null, shell.getPrompt());
+  }
+
+  private CommandInvocationException rethrowInvocationFailure(final Command command, final Throwable cause)
+      throws CommandTargetException, TimeoutException {
+    if (cause instanceof CommandInvocationException) {
+      return (CommandInvocationException) cause;
+    }
+    if (cause instanceof CommandTargetException) {
+      throw (CommandTargetException) cause;
+    }
+    if (cause instanceof TimeoutException) {
+      throw (TimeoutException) cause;
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new CommandInvocationException(format("Failed to execute command [%s]", command), cause);
+  }
+
+  private CommandTarget resolveTarget(final Command command, final CommandShell commandShell) throws CommandDispatchException {
+    return this.resolveAliases(commandShell.getTargets().stream() //
+        .filter(target -> target.getName().equals(command.getName())) //
+        .findFirst() //
+        .orElseThrow(() -> this.createCommandNotFoundException(command, commandShell)));
+  }
+
+  private CompletableFuture<Object> toCompletableFuture(final Object result, final boolean shared) {
+    final Future<?> future = result instanceof CompletionStage<?> ? ((CompletionStage<?>) result).toCompletableFuture() : (Future<?>) result;
+    final AtomicInteger callers = shared ? this.sharedResults.computeIfAbsent(future, key -> new AtomicInteger()) : null;
+    final LinkedFuture completion = new LinkedFuture(future, callers);
+    if (callers != null) {
+      callers.incrementAndGet();
+      completion.whenComplete((value, failure) -> {
+        if (future.isDone()) {
+          this.sharedResults.remove(future, callers);
+        }
+      });
+    }
+    if (future instanceof CompletableFuture<?>) {
+      ((CompletableFuture<?>) future).whenComplete(completion::propagate);
+      return completion;
+    }
+    final ScheduledFuture<?> poll = TIMEOUT_SCHEDULER.scheduleWithFixedDelay(() -> {
+      if (!future.isDone() || completion.isDone()) {
+        return;
+      }
+      try {
+        completion.propagate(future.get(), null);
+      } catch (final ExecutionException e) {
+        completion.propagate(null, e.getCause());
+      } catch (final InterruptedException | CancellationException e) {
+        completion.propagate(null, e);
+      }
+    }, 0, FUTURE_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    completion.whenComplete((value, failure) -> poll.cancel(false));
+    return completion;
+  }
+
+  /**
+   * State of a single {@link BaseCommandDispatcher#dispatchAll(List, DispatchMode, DispatchErrorMode)} invocation.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private final class Batch {
+
+    private final @Nullable CommandShell commandShell;
+    private final DispatchErrorMode errorMode;
+    private final Map<CommandShell, Map<String, CommandTarget>> targets;
+    private final AtomicBoolean aborted;
+
+    private Batch(final @Nullable CommandShell commandShell, final DispatchErrorMode errorMode) {
+      this.commandShell = commandShell;
+      this.errorMode = errorMode;
+      this.targets = new ConcurrentHashMap<>();
+      this.aborted = new AtomicBoolean();
+    }
+
+    private void abort() {
+      this.aborted.set(true);
+    }
+
+    private boolean isAborted() {
+      return this.aborted.get();
+    }
+
+    private CommandTarget resolveTarget(final Command command, final CommandShell shell) throws CommandDispatchException {
+      final Map<String, CommandTarget> shellTargets = this.targets.computeIfAbsent(shell, key -> new ConcurrentHashMap<>());
+      CommandTarget target = shellTargets.get(command.getName());
+      if (target == null) {
+        target = BaseCommandDispatcher.this.resolveTarget(command, shell);
+        shellTargets.put(command.getName(), target);
+      }
+      return target;
+    }
+  }
+
+  /**
+   * {@link CompletableFuture} following a {@link Future} returned by a {@link CommandTarget}, which cancels that
+   * {@link Future} as soon as it is cancelled or completed from outside. A {@link Future} shared by the callers of a
+   * cached or coalesced invocation is only cancelled, if all of its callers have been detached.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class LinkedFuture extends CompletableFuture<Object> {
+
+    private final Future<?> source;
+    private final @Nullable AtomicInteger callers;
+    private final AtomicBoolean detached;
+
+    private LinkedFuture(final Future<?> source, final @Nullable AtomicInteger callers) {
+      this.source = source;
+      this.callers = callers;
+      this.detached = new AtomicBoolean();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see java.util.concurrent.CompletableFuture#cancel(boolean)
+     */
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+      this.detach(mayInterruptIfRunning);
+      return super.cancel(mayInterruptIfRunning);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see java.util.concurrent.CompletableFuture#completeExceptionally(java.lang.Throwable)
+     */
+    @Override
+    public boolean completeExceptionally(final Throwable throwable) {
+      this.detach(true);
+      return super.completeExceptionally(throwable);
+    }
+
+    private void detach(final boolean mayInterruptIfRunning) {
+      if (this.detached.compareAndSet(false, true) && (this.callers == null || this.callers.decrementAndGet() == 0)) {
+        this.source.cancel(mayInterruptIfRunning);
+      }
+    }
+
+    private void propagate(final @Nullable Object value, final @Nullable Throwable throwable) {
+      if (this.detached.get()) {
+        return;
+      }
+      if (throwable == null) {
+        super.complete(value);
+      }
+      else {
+        super.completeExceptionally(throwable);
+      }
+    }
+  }
+
+  /**
+   * Result of a {@link CommandTarget} that returned a {@link CompletionStage} or {@link Future}, whose completion is
+   * still pending.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class PendingCommandResult extends DefaultCommandResult<Object> {
+
+    private final CompletableFuture<Object> completion;
+    private final long timeoutMillis;
+    private final long invocationStart;
+    private final boolean enterCommandShells;
+
+    private PendingCommandResult(final Command command, final CompletableFuture<Object> completion, final long timeoutMillis, final long invocationStart,
+        final boolean enterCommandShells) {
+      super(command, Optional.of(completion));
+      this.completion = completion;
+      this.timeoutMillis = timeoutMillis;
+      this.invocationStart = invocationStart;
+      this.enterCommandShells = enterCommandShells;
+    }
+
+    private long getRemainingNanos() {
+      return remainingNanos(this.invocationStart, this.timeoutMillis);
+    }
+  }
+
+  /**
+   * Slot acquired from a {@link Bulkhead} for a single invocation. The slot is owned by the invocation as soon as it
+   * has started and released when it finishes, including a returned {@link CompletionStage} or {@link Future}. Thus
+   * the slot of an invocation, that keeps running after its caller has stopped waiting, stays occupied. An invocation
+   * abandoned before it started releases the slot immediately.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Permit {
+
+    private final Bulkhead bulkhead;
+    private final AtomicBoolean claimed;
+
+    private Permit(final Bulkhead bulkhead) {
+      this.bulkhead = bulkhead;
+      this.claimed = new AtomicBoolean();
+    }
+
+    private void abandon() {
+      if (this.claim()) {
+        this.release();
+      }
+    }
+
+    private boolean claim() {
+      return this.claimed.compareAndSet(false, true);
+    }
+
+    private void release() {
+      this.bulkhead.release();
     }
-    final CommandTargetAlias alias = CommandTargetAlias.class.cast(commandTarget);
-    final CommandTarget aliasedtarget = alias.getTarget();
-    return this.resolveAliases(aliasedtarget);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import static java.lang.String.format;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.mintshell.assertion.Assert;
+import org.mintshell.target.CommandTarget;
+
+/**
+ * Limits the amount of concurrent invocations of a {@link CommandTarget}. An invocation exceeding the limit waits for a
+ * free slot at most for the queue timeout and is rejected afterwards, so a single {@link CommandTarget} cannot occupy
+ * all threads of an application.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class Bulkhead {
+
+  private final int maxConcurrency;
+  private final long queueTimeoutNanos;
+  private final Semaphore permits;
+  private final AtomicInteger queued;
+  private final LongAdder saturations;
+  private final LongAdder rejections;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param maxConcurrency
+   *          maximum amount of concurrent invocations
+   * @param queueTimeout
+   *          maximum time an invocation waits for a free slot ({@code 0} means that it is rejected immediately)
+   * @param unit
+   *          {@link TimeUnit} of the queue timeout
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Bulkhead(final int maxConcurrency, final long queueTimeout, final TimeUnit unit) {
+    Assert.ARG.isTrue(maxConcurrency > 0, format("[maxConcurrency] must be greater than [0] but was [%d]", maxConcurrency));
+    Assert.ARG.isTrue(queueTimeout >= 0, format("[queueTimeout] must not be negative but was [%d]", queueTimeout));
+    Assert.ARG.isNotNull(unit, "[unit] must not be [null]");
+    this.maxConcurrency = maxConcurrency;
+    this.queueTimeoutNanos = unit.toNanos(queueTimeout);
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.queued = new AtomicInteger();
+    this.saturations = new LongAdder();
+    this.rejections = new LongAdder();
+  }
+
+  /**
+   * Acquires a slot for an invocation, waiting at most for the queue timeout. An acquired slot must be
+   * {@link #release() released} after the invocation.
+   *
+   * @return {@code true}, if a slot was acquired, or {@code false}, if the invocation is rejected
+   * @throws InterruptedException
+   *           if the current thread was interrupted while waiting for a free slot
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean acquire() throws InterruptedException {
+    if (this.permits.tryAcquire()) {
+      return true;
+    }
+    this.saturations.increment();
+    boolean acquired = false;
+    if (this.queueTimeoutNanos > 0) {
+      this.queued.incrementAndGet();
+      try {
+        acquired = this.permits.tryAcquire(this.queueTimeoutNanos, TimeUnit.NANOSECONDS);
+      } finally {
+        this.queued.decrementAndGet();
+      }
+    }
+    if (!acquired) {
+      this.rejections.increment();
+    }
+    return acquired;
+  }
+
+  /**
+   * Returns the amount of invocations currently holding a slot.
+   *
+   * @return amount of active invocations
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getActiveCount() {
+    return this.maxConcurrency - this.permits.availablePermits();
+  }
+
+  /**
+   * Returns the maximum amount of concurrent invocations.
+   *
+   * @return maximum amount of concurrent invocations
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getMaxConcurrency() {
+    return this.maxConcurrency;
+  }
+
+  /**
+   * Returns the amount of invocations currently waiting for a free slot.
+   *
+   * @return amount of waiting invocations
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getQueuedCount() {
+    return this.queued.get();
+  }
+
+  /**
+   * Returns the maximum time an invocation waits for a free slot.
+   *
+   * @param unit
+   *          {@link TimeUnit} of the returned time
+   * @return queue timeout
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getQueueTimeout(final TimeUnit unit) {
+    return unit.convert(this.queueTimeoutNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns the amount of rejected invocations.
+   *
+   * @return amount of rejected invocations
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getRejectedCount() {
+    return this.rejections.sum();
+  }
+
+  /**
+   * Returns the amount of invocations, that found no free slot on arrival and had to wait or were rejected.
+   *
+   * @return amount of invocations hitting the limit
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getSaturatedCount() {
+    return this.saturations.sum();
+  }
+
+  /**
+   * Releases a slot acquired by {@link #acquire()}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void release() {
+    this.permits.release();
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return format("%d/%d active, %d queued, %d saturated, %d rejected", this.getActiveCount(), this.maxConcurrency, this.getQueuedCount(),
+        this.getSaturatedCount(), this.getRejectedCount());
+  }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import static java.lang.String.format;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.mintshell.assertion.Assert;
+import org.mintshell.command.Command;
+import org.mintshell.target.CommandShell;
+import org.mintshell.target.CommandShellList;
+import org.mintshell.target.CommandTarget;
+import org.mintshell.target.CommandTargetParameter;
+
+/**
+ * <p>
+ * Caches the results of {@link CommandTarget} invocations per {@link CommandTarget} and normalized arguments, meaning
+ * the values of the {@link Command}'s parameters assigned to the {@link CommandTargetParameter}s regardless of whether
+ * they are given by name, short name or index.
+ * </p>
+ * <p>
+ * Results are cached for the time to live given on lookup; the least recently used results are evicted, if the cache
+ * exceeds its maximum size. Concurrent lookups of a missing result share one invocation. Failed invocations,
+ * {@link CommandShell}s and {@link Future}s, whose failure cannot be observed, aren't cached. A
+ * {@link CompletionStage} is cached until it completes exceptionally.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandResultCache {
+
+  public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+  private final int maxEntries;
+  private final Map<InvocationKey, Entry> entries;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+  private final LongAdder expirations;
+
+  /**
+   * Creates a new instance using {@link #DEFAULT_MAX_ENTRIES}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandResultCache() {
+    this(DEFAULT_MAX_ENTRIES);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param maxEntries
+   *          maximum amount of cached results
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandResultCache(final int maxEntries) {
+    Assert.ARG.isTrue(maxEntries > 0, format("[maxEntries] must be greater than [0] but was [%d]", maxEntries));
+    this.maxEntries = maxEntries;
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.evictions = new LongAdder();
+    this.expirations = new LongAdder();
+    this.entries = new LinkedHashMap<InvocationKey, Entry>(16, 0.75f, true) {
+
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<InvocationKey, Entry> eldest) {
+        if (this.size() > maxEntries) {
+          CommandResultCache.this.evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Removes all cached results and resets the statistics.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void clear() {
+    synchronized (this.entries) {
+      this.entries.clear();
+    }
+    this.hits.reset();
+    this.misses.reset();
+    this.evictions.reset();
+    this.expirations.reset();
+  }
+
+  /**
+   * Returns the cached result of invoking the given {@link CommandTarget} with the arguments of the given
+   * {@link Command} or invokes the given loader, if no result is cached or the cached result has expired. If an
+   * invocation of the same {@link CommandTarget} and arguments is already in progress, waits for its result instead.
+   *
+   * @param commandTarget
+   *          invoked {@link CommandTarget}
+   * @param command
+   *          {@link Command} providing the arguments
+   * @param timeToLive
+   *          time to live of a newly cached result
+   * @param unit
+   *          {@link TimeUnit} of the time to live
+   * @param loader
+   *          invokes the {@link CommandTarget}
+   * @return (cached) result of the invocation
+   * @throws ExecutionException
+   *           if the invocation failed
+   * @throws InterruptedException
+   *           if the current thread was interrupted while waiting for the result of another invocation
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Object get(final CommandTarget commandTarget, final Command command, final long timeToLive, final TimeUnit unit, final Callable<?> loader)
+      throws ExecutionException, InterruptedException {
+    Assert.ARG.isNotNull(commandTarget, "[commandTarget] must not be [null]");
+    Assert.ARG.isNotNull(command, "[command] must not be [null]");
+    Assert.ARG.isTrue(timeToLive > 0, format("[timeToLive] must be greater than [0] but was [%d]", timeToLive));
+    Assert.ARG.isNotNull(unit, "[unit] must not be [null]");
+    Assert.ARG.isNotNull(loader, "[loader] must not be [null]");
+    final InvocationKey key = new InvocationKey(commandTarget, command);
+    final Entry entry;
+    final boolean cached;
+    synchronized (this.entries) {
+      final Entry existing = this.entries.get(key);
+      if (existing != null && existing.isExpired(System.nanoTime())) {
+        this.entries.remove(key);
+        this.expirations.increment();
+      }
+      cached = existing != null && this.entries.containsKey(key);
+      if (cached) {
+        this.hits.increment();
+        entry = existing;
+      }
+      else {
+        entry = new Entry(unit.toNanos(timeToLive));
+        this.entries.put(key, entry);
+        this.misses.increment();
+      }
+    }
+    return cached ? entry.result.get() : this.load(key, entry, loader);
+  }
+
+  /**
+   * Returns the amount of results, that have been evicted because the cache exceeded its maximum size.
+   *
+   * @return amount of evicted results
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getEvictionCount() {
+    return this.evictions.sum();
+  }
+
+  /**
+   * Returns the amount of cache misses, that have been caused by expired results.
+   *
+   * @return amount of expired results
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getExpirationCount() {
+    return this.expirations.sum();
+  }
+
+  /**
+   * Returns the amount of lookups, that have been answered by a cached or pending result.
+   *
+   * @return amount of cache hits
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getHitCount() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Returns the ratio of cache hits to all lookups.
+   *
+   * @return hit rate between {@code 0} and {@code 1} or {@link Optional#empty()}, if there were no lookups yet
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<Double> getHitRate() {
+    final long hitCount = this.getHitCount();
+    final long lookups = hitCount + this.getMissCount();
+    return lookups > 0 ? Optional.of((double) hitCount / lookups) : Optional.empty();
+  }
+
+  /**
+   * Returns the maximum amount of cached results.
+   *
+   * @return maximum amount of cached results
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getMaxEntries() {
+    return this.maxEntries;
+  }
+
+  /**
+   * Returns the amount of lookups, that lead to an invocation.
+   *
+   * @return amount of cache misses
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getMissCount() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Returns the current amount of cached and pending results.
+   *
+   * @return amount of cached results
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getSize() {
+    synchronized (this.entries) {
+      return this.entries.size();
+    }
+  }
+
+  private Object load(final InvocationKey key, final Entry entry, final Callable<?> loader) throws ExecutionException {
+    final Object result;
+    try {
+      result = loader.call();
+    } catch (final Exception e) {
+      this.remove(key, entry);
+      entry.result.completeExceptionally(e);
+      throw new ExecutionException(e);
+    } catch (final Error e) {
+      this.remove(key, entry);
+      entry.result.completeExceptionally(e);
+      throw e;
+    }
+    if (result instanceof CompletionStage<?>) {
+      ((CompletionStage<?>) result).whenComplete((value, failure) -> {
+        if (failure != null) {
+          this.remove(key, entry);
+        }
+      });
+    }
+    else if (result instanceof CommandShell || result instanceof CommandShellList || result instanceof Future<?>) {
+      this.remove(key, entry);
+    }
+    entry.complete(result);
+    return result;
+  }
+
+  private void remove(final InvocationKey key, final Entry entry) {
+    synchronized (this.entries) {
+      this.entries.remove(key, entry);
+    }
+  }
+
+  /**
+   * Cached, possibly pending result of an invocation.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Entry {
+
+    private final long timeToLiveNanos;
+    private final CompletableFuture<Object> result;
+    private volatile long completed;
+
+    private Entry(final long timeToLiveNanos) {
+      this.timeToLiveNanos = timeToLiveNanos;
+      this.result = new CompletableFuture<>();
+    }
+
+    private void complete(final Object value) {
+      this.completed = System.nanoTime();
+      this.result.complete(value);
+    }
+
+    private boolean isExpired(final long now) {
+      return this.result.isDone() && now - this.completed >= this.timeToLiveNanos;
+    }
+  }
+}
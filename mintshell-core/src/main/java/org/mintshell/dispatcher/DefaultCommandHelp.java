@@ -23,18 +23,31 @@
  */
 package org.mintshell.dispatcher;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 
 import org.mintshell.annotation.Nullable;
 import org.mintshell.assertion.Assert;
+import org.mintshell.target.BaseCommandShell;
+import org.mintshell.target.CommandShell;
 import org.mintshell.target.CommandTarget;
 import org.mintshell.target.CommandTargetParameter;
 
 /**
+ * <p>
  * Default implementation of a {@link CommandHelp} facility.
+ * </p>
+ * <p>
+ * Help texts are rendered once and cached: detail texts per {@link CommandTarget} and overviews per
+ * {@link BaseCommandShell} until its {@link BaseCommandShell#getTargetsVersion() targets change}. Overviews of other
+ * {@link CommandShell} implementations are rendered on every request.
+ * </p>
  *
  * @author Noqmar
  * @since 0.2.0
@@ -49,6 +62,8 @@ public class DefaultCommandHelp implements CommandHelp {
   public static final String DEFAULT_COMMAND_USAGE_PATTERN = "usage: %s%s";
   public static final String DEFAULT_COMMAND_NOT_FOUND_PATTERN = "%s: %s: command not found";
 
+  private static final int COLUMN_GAP = 4;
+
   private final String helpCommandName;
   private final Optional<String> helpCommandParameterName;
   private final String commandOverviewPattern;
@@ -56,6 +71,8 @@ public class DefaultCommandHelp implements CommandHelp {
   private final String commandDetailPattern;
   private final String commandUsagePattern;
   private final String commandNotFoundPattern;
+  private final Map<CommandTarget, String> commandDetailTexts;
+  private final Map<CommandShell, Overview> commandOverviews;
 
   /**
    * Creates a new instance with all default patterns.
@@ -100,6 +117,8 @@ public class DefaultCommandHelp implements CommandHelp {
     this.commandDetailPattern = Assert.ARG.isNotNull(commandDetailPattern, "[commandDetailPattern] must not be [null]");
     this.commandUsagePattern = Assert.ARG.isNotNull(commandUsagePattern, "[commandUsagePattern] must not be [null]");
     this.commandNotFoundPattern = Assert.ARG.isNotNull(commandNotFoundPattern, "[commandNotFoundPattern] must not be [null]");
+    this.commandDetailTexts = Collections.synchronizedMap(new WeakHashMap<>());
+    this.commandOverviews = new WeakHashMap<>();
   }
 
   /**
@@ -110,24 +129,7 @@ public class DefaultCommandHelp implements CommandHelp {
    */
   @Override
   public String getCommandDetailText(final CommandTarget commandExecution) {
-    final StringBuilder builder = new StringBuilder();
-    if (this.hasAtLeastOneParameterADescription(commandExecution)) {
-
-      final List<String> lines = commandExecution.getParameters().stream() //
-          .map(parameter -> this.getCommandParameterText(parameter)) //
-          .collect(Collectors.toList());
-
-      final AtomicInteger maxLength = new AtomicInteger(0);
-      lines.forEach(line -> maxLength.set(Math.max(maxLength.get(), line.indexOf("\t"))));
-      lines.forEach(line -> {
-        final StringBuffer buffer = new StringBuffer("    ");
-        for (int i = 0; i < maxLength.get() - line.indexOf("\t"); i++) {
-          buffer.append(" ");
-        }
-        builder.append("\n\r").append(line.replace("\t", buffer.toString()));
-      });
-    }
-    return String.format(this.commandDetailPattern, this.getCommandOverviewText(commandExecution), this.getUsageText(commandExecution), builder.toString());
+    return this.commandDetailTexts.computeIfAbsent(commandExecution, this::renderCommandDetailText);
   }
 
   /**
@@ -152,6 +154,28 @@ public class DefaultCommandHelp implements CommandHelp {
     return Optional.of(String.format(this.commandOverviewFooterPattern, this.helpCommandName));
   }
 
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.dispatcher.CommandHelp#getCommandOverviewLines(org.mintshell.target.CommandShell)
+   */
+  @Override
+  public List<String> getCommandOverviewLines(final CommandShell commandShell) {
+    return this.getOverview(commandShell).lines;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.dispatcher.CommandHelp#getCommandOverviewText(org.mintshell.target.CommandShell)
+   */
+  @Override
+  public String getCommandOverviewText(final CommandShell commandShell) {
+    return this.getOverview(commandShell).text;
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -243,8 +267,85 @@ public class DefaultCommandHelp implements CommandHelp {
     return String.format(this.commandUsagePattern, commandExecution.getName(), builder.toString());
   }
 
+  /**
+   * Renders the detail help text for the given {@link CommandTarget}, that is cached by
+   * {@link #getCommandDetailText(CommandTarget)}.
+   *
+   * @param commandExecution
+   *          command execution to render the detail text for
+   * @return detail help text
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected String renderCommandDetailText(final CommandTarget commandExecution) {
+    final StringBuilder builder = new StringBuilder();
+    if (this.hasAtLeastOneParameterADescription(commandExecution)) {
+      alignColumns(commandExecution.getParameters().stream() //
+          .map(parameter -> this.getCommandParameterText(parameter)) //
+          .collect(Collectors.toList())) //
+              .forEach(line -> builder.append("\n\r").append(line));
+    }
+    return String.format(this.commandDetailPattern, this.getCommandOverviewText(commandExecution), this.getUsageText(commandExecution), builder.toString());
+  }
+
+  private Overview getOverview(final CommandShell commandShell) {
+    Assert.ARG.isNotNull(commandShell, "[commandShell] must not be [null]");
+    if (!(commandShell instanceof BaseCommandShell)) {
+      return this.renderOverview(commandShell, 0);
+    }
+    final int targetsVersion = ((BaseCommandShell) commandShell).getTargetsVersion();
+    synchronized (this.commandOverviews) {
+      Overview overview = this.commandOverviews.get(commandShell);
+      if (overview == null || overview.targetsVersion != targetsVersion) {
+        overview = this.renderOverview(commandShell, targetsVersion);
+        this.commandOverviews.put(commandShell, overview);
+      }
+      return overview;
+    }
+  }
+
   private boolean hasAtLeastOneParameterADescription(final CommandTarget commandExecution) {
     return commandExecution.getParameters().stream().filter(param -> param.getDescription().isPresent() && !param.getDescription().get().trim().isEmpty())
         .findAny().isPresent();
   }
+
+  private Overview renderOverview(final CommandShell commandShell, final int targetsVersion) {
+    final List<String> lines = Collections.unmodifiableList(alignColumns(commandShell.getTargets().stream() //
+        .sorted(Comparator.comparing(CommandTarget::getName)) //
+        .map(target -> this.getCommandOverviewText(target)) //
+        .collect(Collectors.toList())));
+    final StringBuilder builder = new StringBuilder();
+    lines.forEach(line -> builder.append(line).append("\n\r"));
+    builder.append(this.getCommandOverviewFooterText().orElse(""));
+    return new Overview(targetsVersion, lines, builder.toString());
+  }
+
+  private static List<String> alignColumns(final List<String> lines) {
+    final int maxLength = lines.stream().mapToInt(line -> line.indexOf('\t')).max().orElse(0);
+    final char[] spaces = new char[Math.max(0, maxLength + 1) + COLUMN_GAP];
+    Arrays.fill(spaces, ' ');
+    return lines.stream() //
+        .map(line -> line.replace("\t", new String(spaces, 0, COLUMN_GAP + Math.max(0, maxLength - line.indexOf('\t'))))) //
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Rendered overview of a {@link CommandShell}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Overview {
+
+    private final int targetsVersion;
+    private final List<String> lines;
+    private final String text;
+
+    private Overview(final int targetsVersion, final List<String> lines, final String text) {
+      this.targetsVersion = targetsVersion;
+      this.lines = lines;
+      this.text = text;
+    }
+  }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.mintshell.assertion.Assert;
+import org.mintshell.command.Command;
+import org.mintshell.target.CommandTarget;
+import org.mintshell.target.CommandTargetParameter;
+
+/**
+ * Coalesces concurrent invocations of the same {@link CommandTarget} with equal arguments, meaning the values of the
+ * {@link Command}'s parameters assigned to the {@link CommandTargetParameter}s. Callers arriving while an invocation
+ * is in progress wait for its result instead of invoking the {@link CommandTarget} again. As soon as the invocation
+ * finishes, the next caller invokes the {@link CommandTarget} anew, so results are never stale.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class InvocationCoalescer {
+
+  private final Map<InvocationKey, CompletableFuture<Object>> invocations;
+  private final LongAdder coalesced;
+
+  /**
+   * Creates a new instance.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public InvocationCoalescer() {
+    this.invocations = new ConcurrentHashMap<>();
+    this.coalesced = new LongAdder();
+  }
+
+  /**
+   * Returns the amount of callers that have been attached to an invocation in progress.
+   *
+   * @return amount of coalesced invocations
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getCoalescedCount() {
+    return this.coalesced.sum();
+  }
+
+  /**
+   * Returns the amount of invocations in progress.
+   *
+   * @return amount of invocations in progress
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getInFlightCount() {
+    return this.invocations.size();
+  }
+
+  /**
+   * Invokes the given {@link CommandTarget} with the arguments of the given {@link Command} by means of the given
+   * invoker or waits for the result of an equal invocation in progress.
+   *
+   * @param commandTarget
+   *          invoked {@link CommandTarget}
+   * @param command
+   *          {@link Command} providing the arguments
+   * @param invoker
+   *          invokes the {@link CommandTarget}
+   * @return (shared) result of the invocation
+   * @throws ExecutionException
+   *           if the invocation failed
+   * @throws InterruptedException
+   *           if the current thread was interrupted while waiting for the result of another invocation
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Object invoke(final CommandTarget commandTarget, final Command command, final Callable<?> invoker) throws ExecutionException, InterruptedException {
+    Assert.ARG.isNotNull(commandTarget, "[commandTarget] must not be [null]");
+    Assert.ARG.isNotNull(command, "[command] must not be [null]");
+    Assert.ARG.isNotNull(invoker, "[invoker] must not be [null]");
+    final InvocationKey key = new InvocationKey(commandTarget, command);
+    final CompletableFuture<Object> invocation = new CompletableFuture<>();
+    final CompletableFuture<Object> inFlight = this.invocations.putIfAbsent(key, invocation);
+    if (inFlight != null) {
+      this.coalesced.increment();
+      return inFlight.get();
+    }
+    try {
+      final Object result = invoker.call();
+      this.invocations.remove(key, invocation);
+      invocation.complete(result);
+      return result;
+    } catch (final Exception e) {
+      this.invocations.remove(key, invocation);
+      invocation.completeExceptionally(e);
+      throw new ExecutionException(e);
+    } catch (final Error e) {
+      this.invocations.remove(key, invocation);
+      invocation.completeExceptionally(e);
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.mintshell.command.Command;
+import org.mintshell.command.CommandParameter;
+import org.mintshell.target.CommandTarget;
+import org.mintshell.target.CommandTargetParameter;
+import org.mintshell.target.reflection.ParameterConversionException;
+import org.mintshell.target.reflection.ReflectionCommandTargetParameter;
+
+/**
+ * Key of an invocation of a {@link CommandTarget} with the arguments of a {@link Command}. The arguments are normalized
+ * to the values assigned to the {@link CommandTargetParameter}s, so it doesn't matter whether a value is given by name,
+ * short name or index. Values of {@link ReflectionCommandTargetParameter}s are converted to the parameter type, so that
+ * e.g. {@code 1} and {@code 01} of a numeric parameter are the same argument.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+final class InvocationKey {
+
+  private final CommandTarget commandTarget;
+  private final List<Object> arguments;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param commandTarget
+   *          invoked {@link CommandTarget}
+   * @param command
+   *          {@link Command} providing the arguments
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  InvocationKey(final CommandTarget commandTarget, final Command command) {
+    this.commandTarget = commandTarget;
+    this.arguments = new ArrayList<>(commandTarget.getParameters().size());
+    for (final CommandTargetParameter targetParameter : commandTarget.getParameters()) {
+      this.arguments.add(command.getParameters().stream() //
+          .map(parameter -> (CommandParameter) parameter) //
+          .filter(parameter -> isAssigned(parameter, targetParameter)) //
+          .findFirst() //
+          .map(parameter -> normalize(targetParameter, parameter.getValue().orElse(""))) //
+          .orElse(null));
+    }
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.Object#equals(java.lang.Object)
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (!(obj instanceof InvocationKey)) {
+      return false;
+    }
+    final InvocationKey other = (InvocationKey) obj;
+    return this.commandTarget == other.commandTarget && this.arguments.equals(other.arguments);
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(System.identityHashCode(this.commandTarget), this.arguments);
+  }
+
+  private static boolean isAssigned(final CommandParameter parameter, final CommandTargetParameter targetParameter) {
+    if (parameter.getName().isPresent()) {
+      return parameter.getName().equals(targetParameter.getName());
+    }
+    if (parameter.getShortName().isPresent()) {
+      return parameter.getShortName().equals(targetParameter.getShortName());
+    }
+    return parameter.getIndex() == targetParameter.getIndex();
+  }
+
+  private static Object normalize(final CommandTargetParameter targetParameter, final String value) {
+    if (!(targetParameter instanceof ReflectionCommandTargetParameter)) {
+      return value;
+    }
+    try {
+      final Object converted = ((ReflectionCommandTargetParameter) targetParameter).of(value);
+      return converted == null || converted.getClass().isArray() ? value : converted;
+    } catch (final ParameterConversionException | RuntimeException e) {
+      return value;
+    }
+  }
+}
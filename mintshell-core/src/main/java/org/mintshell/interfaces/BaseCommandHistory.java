@@ -23,15 +23,30 @@
  */
 package org.mintshell.interfaces;
 
-import java.util.HashMap;
+import static java.lang.String.format;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 import org.mintshell.annotation.Nullable;
+import org.mintshell.assertion.Assert;
 
 /**
- * Base implementation of a {@link CommandHistory}.
+ * <p>
+ * Base implementation of a {@link CommandHistory}, that keeps the command lines in a ring buffer over a preallocated
+ * array of {@link #getMaxCommands()} slots. Adding a command line, dropping the oldest one and navigating are
+ * constant time operations.
+ * </p>
+ * <p>
+ * All operations are thread-safe. {@link #getCommandLines()} returns a read-only view without copying the command
+ * lines. The view reflects later changes of the history; its iterators traverse the command lines in ascending order
+ * of their numbers and skip command lines, that got dropped in the meantime.
+ * </p>
  *
  * @author Noqmar
  * @since 0.2.0
@@ -41,10 +56,12 @@ public abstract class BaseCommandHistory implements CommandHistory {
   public static final int FIRST_COMMAND_NUMBER = 1;
   public static final int DEFAULT_MAX_COMMANDS = 1000;
 
-  private final Map<Integer, String> commandHistory;
-  private final int maxCommands;
-  private int commandCounter;
+  private final String[] commandLines;
+  private final Map<Integer, String> commandLinesView;
+  private int firstNumber;
+  private int lastNumber;
   private int position;
+  private volatile boolean ignoreConsecutiveDuplicates;
 
   /**
    * Creates a new instance with {@link #DEFAULT_MAX_COMMANDS} size.
@@ -66,10 +83,10 @@ public abstract class BaseCommandHistory implements CommandHistory {
    * @since 0.2.0
    */
   protected BaseCommandHistory(final int maxCommands) {
-    this.commandHistory = new ConcurrentHashMap<>();
-    this.maxCommands = maxCommands;
-    this.commandCounter = FIRST_COMMAND_NUMBER - 1;
-    this.position = this.commandCounter + 1;
+    Assert.ARG.isTrue(maxCommands > 0, format("[maxCommands] must be greater than [0] but was [%d]", maxCommands));
+    this.commandLines = new String[maxCommands];
+    this.commandLinesView = new CommandLinesView();
+    this.reset();
   }
 
   /**
@@ -79,13 +96,20 @@ public abstract class BaseCommandHistory implements CommandHistory {
    * @see org.mintshell.interfaces.CommandHistory#addCommandLine(java.lang.String)
    */
   @Override
-  public void addCommandLine(final String commandLine) {
-    final int firstCommandLineNumber = this.getFirstCommandLineNumber();
-    this.commandHistory.put(++this.commandCounter, commandLine);
-    if (this.commandHistory.size() > this.maxCommands) {
-      this.commandHistory.remove(firstCommandLineNumber);
+  public synchronized void addCommandLine(final String commandLine) {
+    if (commandLine == null || commandLine.isEmpty()) {
+      return;
+    }
+    if (this.ignoreConsecutiveDuplicates && commandLine.equals(this.get(this.lastNumber))) {
+      this.position = this.lastNumber + 1;
+      return;
+    }
+    if (this.lastNumber - this.firstNumber + 1 == this.commandLines.length) {
+      this.commandLines[this.slot(this.firstNumber++)] = null;
     }
-    this.position = this.commandCounter + 1;
+    this.commandLines[this.slot(++this.lastNumber)] = commandLine;
+    this.position = this.lastNumber + 1;
+    this.onCommandLineAdded(this.lastNumber, commandLine);
   }
 
   /**
@@ -95,11 +119,11 @@ public abstract class BaseCommandHistory implements CommandHistory {
    * @see org.mintshell.interfaces.CommandHistory#clear()
    */
   @Override
-  public void clear() {
-    this.commandHistory.clear();
-    this.commandCounter = FIRST_COMMAND_NUMBER - 1;
-    this.position = this.commandCounter + 1;
-
+  public synchronized void clear() {
+    for (int number = this.firstNumber; number <= this.lastNumber; number++) {
+      this.commandLines[this.slot(number)] = null;
+    }
+    this.reset();
   }
 
   /**
@@ -109,8 +133,8 @@ public abstract class BaseCommandHistory implements CommandHistory {
    * @see org.mintshell.interfaces.CommandHistory#getCommandLine(int)
    */
   @Override
-  public Optional<String> getCommandLine(final int number) {
-    return Optional.ofNullable(this.commandHistory.get(number));
+  public synchronized Optional<String> getCommandLine(final int number) {
+    return Optional.ofNullable(this.get(number));
   }
 
   /**
@@ -121,7 +145,7 @@ public abstract class BaseCommandHistory implements CommandHistory {
    */
   @Override
   public Map<Integer, String> getCommandLines() {
-    return new HashMap<>(this.commandHistory);
+    return this.commandLinesView;
   }
 
   /**
@@ -131,8 +155,8 @@ public abstract class BaseCommandHistory implements CommandHistory {
    * @see org.mintshell.interfaces.CommandHistory#getFirstCommandLineNumber()
    */
   @Override
-  public int getFirstCommandLineNumber() {
-    return this.commandCounter <= this.maxCommands ? this.commandCounter : this.commandCounter - this.commandHistory.size();
+  public synchronized int getFirstCommandLineNumber() {
+    return this.lastNumber >= this.firstNumber ? this.firstNumber : FIRST_COMMAND_NUMBER - 1;
   }
 
   /**
@@ -142,13 +166,19 @@ public abstract class BaseCommandHistory implements CommandHistory {
    * @see org.mintshell.interfaces.CommandHistory#getLastCommandLineNumber()
    */
   @Override
-  public int getLastCommandLineNumber() {
-    return this.commandCounter;
+  public synchronized int getLastCommandLineNumber() {
+    return this.lastNumber;
   }
 
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.interfaces.CommandHistory#getMaxCommands()
+   */
   @Override
   public int getMaxCommands() {
-    return this.maxCommands;
+    return this.commandLines.length;
   }
 
   /**
@@ -158,11 +188,11 @@ public abstract class BaseCommandHistory implements CommandHistory {
    * @see org.mintshell.interfaces.CommandHistory#getNextCommandLine()
    */
   @Override
-  public String getNextCommandLine() {
-    if (this.position <= this.commandCounter) {
+  public synchronized String getNextCommandLine() {
+    if (this.position <= this.lastNumber) {
       this.position++;
     }
-    final String commandLine = this.commandHistory.get(this.position);
+    final String commandLine = this.get(this.position);
     return commandLine != null ? commandLine : "";
   }
 
@@ -173,11 +203,157 @@ public abstract class BaseCommandHistory implements CommandHistory {
    * @see org.mintshell.interfaces.CommandHistory#getPreviousCommandLine()
    */
   @Override
-  public @Nullable String getPreviousCommandLine() {
-    if (this.position > FIRST_COMMAND_NUMBER) {
+  public synchronized @Nullable String getPreviousCommandLine() {
+    if (this.position > this.firstNumber) {
       this.position--;
     }
-    final String commandLine = this.commandHistory.get(this.position);
+    final String commandLine = this.get(this.position);
     return commandLine != null ? commandLine : "";
   }
+
+  /**
+   * Returns {@code true} if a command line equal to the most recent one is ignored when added.
+   *
+   * @return {@code true} if consecutive duplicates are ignored, {@code false} otherwise
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isIgnoreConsecutiveDuplicates() {
+    return this.ignoreConsecutiveDuplicates;
+  }
+
+  /**
+   * Sets whether a command line equal to the most recent one should be ignored when added.
+   *
+   * @param ignoreConsecutiveDuplicates
+   *          {@code true} to ignore consecutive duplicates, {@code false} to add them
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setIgnoreConsecutiveDuplicates(final boolean ignoreConsecutiveDuplicates) {
+    this.ignoreConsecutiveDuplicates = ignoreConsecutiveDuplicates;
+  }
+
+  /**
+   * Callback invoked after a command line has actually been added to this history. It is invoked while holding the
+   * lock of this history, so implementations must not block.
+   *
+   * @param number
+   *          number of the added command line
+   * @param commandLine
+   *          added command line
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected void onCommandLineAdded(final int number, final String commandLine) {
+    // nothing to do by default
+  }
+
+  private String get(final int number) {
+    return number >= this.firstNumber && number <= this.lastNumber ? this.commandLines[this.slot(number)] : null;
+  }
+
+  private void reset() {
+    this.firstNumber = FIRST_COMMAND_NUMBER;
+    this.lastNumber = FIRST_COMMAND_NUMBER - 1;
+    this.position = FIRST_COMMAND_NUMBER;
+  }
+
+  private int slot(final int number) {
+    return Math.floorMod(number, this.commandLines.length);
+  }
+
+  /**
+   * Read-only view of the command lines keyed by their numbers.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private final class CommandLinesView extends AbstractMap<Integer, String> {
+
+    private final Set<Entry<Integer, String>> entries = new AbstractSet<Entry<Integer, String>>() {
+
+      @Override
+      public Iterator<Entry<Integer, String>> iterator() {
+        return new CommandLinesIterator();
+      }
+
+      @Override
+      public int size() {
+        return CommandLinesView.this.size();
+      }
+    };
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return this.get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<Integer, String>> entrySet() {
+      return this.entries;
+    }
+
+    @Override
+    public String get(final Object key) {
+      if (!(key instanceof Integer)) {
+        return null;
+      }
+      synchronized (BaseCommandHistory.this) {
+        return BaseCommandHistory.this.get((Integer) key);
+      }
+    }
+
+    @Override
+    public int size() {
+      synchronized (BaseCommandHistory.this) {
+        return BaseCommandHistory.this.lastNumber - BaseCommandHistory.this.firstNumber + 1;
+      }
+    }
+  }
+
+  /**
+   * Weakly consistent iterator over the command lines in ascending order of their numbers.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private final class CommandLinesIterator implements Iterator<Map.Entry<Integer, String>> {
+
+    private int number;
+    private Map.Entry<Integer, String> next;
+
+    private CommandLinesIterator() {
+      synchronized (BaseCommandHistory.this) {
+        this.number = BaseCommandHistory.this.firstNumber;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (this.next == null) {
+        synchronized (BaseCommandHistory.this) {
+          this.number = Math.max(this.number, BaseCommandHistory.this.firstNumber);
+          if (this.number <= BaseCommandHistory.this.lastNumber) {
+            this.next = new AbstractMap.SimpleImmutableEntry<>(this.number, BaseCommandHistory.this.get(this.number));
+            this.number++;
+          }
+        }
+      }
+      return this.next != null;
+    }
+
+    @Override
+    public Map.Entry<Integer, String> next() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Map.Entry<Integer, String> entry = this.next;
+      this.next = null;
+      return entry;
+    }
+  }
 }
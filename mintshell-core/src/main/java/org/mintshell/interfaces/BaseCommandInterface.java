@@ -26,6 +26,8 @@ package org.mintshell.interfaces;
 import static java.lang.String.format;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.mintshell.annotation.Nullable;
 import org.mintshell.assertion.Assert;
@@ -34,9 +36,17 @@ import org.mintshell.command.CommandResult;
 import org.mintshell.command.PipedCommand;
 import org.mintshell.dispatcher.CommandDispatchException;
 import org.mintshell.dispatcher.CommandDispatcher;
+import org.mintshell.dispatcher.CommandNotFoundException;
 import org.mintshell.interpreter.CommandInterpreteException;
 import org.mintshell.interpreter.CommandInterpreter;
+import org.mintshell.metrics.CommandEventRecording;
+import org.mintshell.metrics.CommandEventType;
+import org.mintshell.metrics.CommandEvents;
+import org.mintshell.metrics.CommandMetrics;
+import org.mintshell.metrics.CommandMetricsProvider;
+import org.mintshell.metrics.CommandStage;
 import org.mintshell.target.CommandShellExitException;
+import org.mintshell.target.CommandTarget;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +59,8 @@ import org.slf4j.LoggerFactory;
 public abstract class BaseCommandInterface implements CommandInterface {
 
   public static final String DEFAULT_PROMPT_STOP = ">";
+  public static final String UNINTERPRETABLE_COMMAND_NAME = "<uninterpretable>";
+  public static final String UNKNOWN_COMMAND_NAME = "<unknown>";
 
   private final Logger LOG = LoggerFactory.getLogger(BaseCommandInterface.class);
 
@@ -179,12 +191,34 @@ public abstract class BaseCommandInterface implements CommandInterface {
     this.promptStop = promptStop;
   }
 
+  /**
+   * <p>
+   * Creates the {@link String} representation of the given value of a succeeded {@link CommandResult}, that is
+   * returned by {@link #performCommand(String)}. Values of commands that are piped into another command are not passed
+   * to this method.
+   * </p>
+   * <p>
+   * This method is intended to be overwritten by subclasses, if they need to present certain result values in a special
+   * way. This implementation returns {@link Object#toString()}.
+   * </p>
+   *
+   * @param resultValue
+   *          value of a succeeded {@link CommandResult}
+   * @return {@link String} representation of the given value
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected String createResultMessage(final Object resultValue) {
+    return resultValue.toString();
+  }
+
   /**
    * Performs a command in the way that the given command message is interpreted by the managed
    * {@link CommandInterpreter} and then passed to the managed {@link CommandDispatcher}. The value (or cause) from the
    * {@link CommandResult} is returned in it's {@link String} representation. If an exception occurs from
    * {@link CommandInterpreter} or {@link CommandDispatcher} it is logged and also converted into a {@link String}
-   * representation that is returned.
+   * representation that is returned. Waits for the completion of {@link #performCommandAsync(String)}.
    *
    * @param commandMessage
    *          command message of the command to perform
@@ -194,14 +228,39 @@ public abstract class BaseCommandInterface implements CommandInterface {
    * @since 0.2.0
    */
   protected synchronized String performCommand(final String commandMessage) {
+    return this.performCommandAsync(commandMessage).join();
+  }
+
+  /**
+   * Performs a command like {@link #performCommand(String)}, but passes the interpreted command to
+   * {@link CommandDispatcher#dispatchAsync(Command)}, so that no thread is held while the result of an asynchronous
+   * {@link CommandTarget} is pending. The returned {@link CompletableFuture} completes with the {@link String}
+   * representation of the {@link CommandResult}, also if the command failed.
+   *
+   * @param commandMessage
+   *          command message of the command to perform
+   * @return {@link CompletableFuture} of the {@link String} representation of the {@link CommandResult}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected CompletableFuture<String> performCommandAsync(final String commandMessage) {
+    final CommandMetrics metrics = CommandMetricsProvider.getCommandMetrics();
+    final long start = System.nanoTime();
+    final CommandEventRecording recording = CommandEvents.begin(CommandEventType.INTERPRETE);
+    final Command interpretedCcommand;
     try {
-      final Command interpretedCcommand = this.commandInterpreter.interprete(commandMessage);
-      return this.performInterpretedCommand(commandMessage, interpretedCcommand);
+      interpretedCcommand = this.commandInterpreter.interprete(commandMessage);
     } catch (final CommandInterpreteException e) {
       this.LOG.warn("Failed to interprete command [{}]", commandMessage, e);
+      metrics.recordError(UNINTERPRETABLE_COMMAND_NAME, e);
+      recording.end(UNINTERPRETABLE_COMMAND_NAME, 0, e.getClass().getSimpleName(), null);
       this.postCommand(null);
-      return e.getMessage();
+      return CompletableFuture.completedFuture(e.getMessage());
     }
+    final long interpretationNanos = System.nanoTime() - start;
+    recording.end(interpretedCcommand.getName(), interpretedCcommand.getParameters().size(), "SUCCEEDED", null);
+    return this.performInterpretedCommandAsync(commandMessage, interpretedCcommand, interpretationNanos);
   }
 
   /**
@@ -217,42 +276,23 @@ public abstract class BaseCommandInterface implements CommandInterface {
    * @since 0.2.0
    */
   protected String performInterpretedCommand(final String commandMessage, final Command interpretedCcommand) {
-    CommandResult<?> result = null;
-    try {
-      final CommandInterfaceCommandResult<?> commandInterfaceResult = this.preCommand(interpretedCcommand);
-      result = commandInterfaceResult.isCommandConsumed() ? commandInterfaceResult
-          : Assert.ARG.isNotNull(this.commandDispatcher.dispatch(interpretedCcommand),
-              format("Performing command [%s] doesn't lead to a valid command result", commandMessage));
+    return this.performInterpretedCommandAsync(commandMessage, interpretedCcommand).join();
+  }
 
-      switch (result.getState()) {
-        case SUCCEEDED:
-          final Optional<?> resultValue = result.getValue();
-          final String resultMessage = resultValue.isPresent() ? resultValue.get().toString() : "";
-          if (interpretedCcommand instanceof PipedCommand) {
-            return this.performInterpretedCommand(commandMessage, ((PipedCommand) interpretedCcommand).createPipeTarget(resultMessage));
-          }
-          else {
-            return resultMessage;
-          }
-        case FAILED:
-          final Optional<Throwable> resultCause = result.getCause();
-          return resultCause.isPresent() ? resultCause.get().getMessage() : "Failed for unknown reason";
-      }
-      return "";
-    } catch (final CommandShellExitException e) {
-      this.deactivate();
-      return "";
-    } catch (final CommandDispatchException e) {
-      this.LOG.warn("Failed to dispatch command [{}]", commandMessage, e);
-      return e.getMessage();
-    } catch (final RuntimeException e) {
-      this.LOG.error("Failed to perform command [{}]", commandMessage, e);
-      return format("%s: command failure: %s", commandMessage, e.getMessage());
-    } finally {
-      if (this.isActivated()) {
-        this.postCommand(result);
-      }
-    }
+  /**
+   * Performs the given, already interpreted command via {@link CommandDispatcher#dispatchAsync(Command)}.
+   *
+   * @param commandMessage
+   *          command message before it was interpreted
+   * @param interpretedCcommand
+   *          interpreted command
+   * @return {@link CompletableFuture} of the result of the command execution in it's {@link String} representation
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected CompletableFuture<String> performInterpretedCommandAsync(final String commandMessage, final Command interpretedCcommand) {
+    return this.performInterpretedCommandAsync(commandMessage, interpretedCcommand, -1);
   }
 
   /**
@@ -296,4 +336,94 @@ public abstract class BaseCommandInterface implements CommandInterface {
   protected CommandInterfaceCommandResult<?> preCommand(final Command command) {
     return new CommandInterfaceCommandResult<>(command, Optional.empty(), false);
   }
+
+  private static String getMetricsCommandName(final Command command, final @Nullable Throwable failure) {
+    return failure instanceof CommandNotFoundException ? UNKNOWN_COMMAND_NAME : command.getName();
+  }
+
+  private static void recordInterpretation(final String commandName, final long interpretationNanos) {
+    if (interpretationNanos >= 0) {
+      CommandMetricsProvider.getCommandMetrics().recordTime(commandName, CommandStage.INTERPRETATION, interpretationNanos);
+    }
+  }
+
+  private String handleCommandFailure(final String commandMessage, final Command interpretedCcommand, final @Nullable CommandResult<?> result,
+      final Throwable failure, final long interpretationNanos) {
+    final CommandMetrics metrics = CommandMetricsProvider.getCommandMetrics();
+    final String commandName = getMetricsCommandName(interpretedCcommand, failure);
+    recordInterpretation(commandName, interpretationNanos);
+    try {
+      if (failure instanceof CommandShellExitException) {
+        this.deactivate();
+        return "";
+      }
+      if (failure instanceof CommandDispatchException) {
+        this.LOG.warn("Failed to dispatch command [{}]", commandMessage, failure);
+        metrics.recordError(commandName, failure.getCause() != null ? failure.getCause() : failure);
+        return failure.getMessage();
+      }
+      this.LOG.error("Failed to perform command [{}]", commandMessage, failure);
+      metrics.recordError(commandName, failure);
+      return format("%s: command failure: %s", commandMessage, failure.getMessage());
+    } finally {
+      if (this.isActivated()) {
+        this.postCommand(result);
+      }
+    }
+  }
+
+  private CompletableFuture<String> handleCommandResult(final String commandMessage, final Command interpretedCcommand,
+      final @Nullable CommandResult<?> result, final long interpretationNanos) {
+    final CompletableFuture<String> resultMessage;
+    try {
+      Assert.ARG.isNotNull(result, format("Performing command [%s] doesn't lead to a valid command result", commandMessage));
+      final String commandName = getMetricsCommandName(interpretedCcommand, result.getCause().orElse(null));
+      recordInterpretation(commandName, interpretationNanos);
+      switch (result.getState()) {
+        case SUCCEEDED:
+          final Optional<?> resultValue = result.getValue();
+          if (interpretedCcommand instanceof PipedCommand) {
+            final String pipedMessage = resultValue.isPresent() ? resultValue.get().toString() : "";
+            resultMessage = this.performInterpretedCommandAsync(commandMessage, ((PipedCommand) interpretedCcommand).createPipeTarget(pipedMessage));
+          }
+          else {
+            resultMessage = CompletableFuture.completedFuture(resultValue.isPresent() ? this.createResultMessage(resultValue.get()) : "");
+          }
+          break;
+        case FAILED:
+          final Optional<Throwable> resultCause = result.getCause();
+          if (resultCause.isPresent()) {
+            CommandMetricsProvider.getCommandMetrics().recordError(commandName, resultCause.get());
+          }
+          resultMessage = CompletableFuture.completedFuture(resultCause.isPresent() ? resultCause.get().getMessage() : "Failed for unknown reason");
+          break;
+        default:
+          resultMessage = CompletableFuture.completedFuture("");
+      }
+    } catch (final RuntimeException e) {
+      return CompletableFuture.completedFuture(this.handleCommandFailure(commandMessage, interpretedCcommand, result, e, -1));
+    }
+    return resultMessage.whenComplete((message, failure) -> {
+      if (this.isActivated()) {
+        this.postCommand(result);
+      }
+    });
+  }
+
+  private CompletableFuture<String> performInterpretedCommandAsync(final String commandMessage, final Command interpretedCcommand,
+      final long interpretationNanos) {
+    final CompletableFuture<CommandResult<?>> dispatch;
+    try {
+      final CommandInterfaceCommandResult<?> commandInterfaceResult = this.preCommand(interpretedCcommand);
+      dispatch = commandInterfaceResult.isCommandConsumed() ? CompletableFuture.completedFuture(commandInterfaceResult)
+          : Assert.ARG.isNotNull(this.commandDispatcher.dispatchAsync(interpretedCcommand),
+              format("Performing command [%s] doesn't lead to a valid command result", commandMessage));
+    } catch (final RuntimeException e) {
+      return CompletableFuture.completedFuture(this.handleCommandFailure(commandMessage, interpretedCcommand, null, e, interpretationNanos));
+    }
+    return dispatch //
+        .thenCompose(result -> this.handleCommandResult(commandMessage, interpretedCcommand, result, interpretationNanos)) //
+        .exceptionally(failure -> this.handleCommandFailure(commandMessage, interpretedCcommand, null,
+            failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure, interpretationNanos));
+  }
 }
@@ -28,14 +28,26 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.mintshell.assertion.Assert;
 import org.mintshell.common.IoProvider;
+import org.mintshell.metrics.CommandEventRecording;
+import org.mintshell.metrics.CommandEventType;
+import org.mintshell.metrics.CommandEvents;
 
 /**
+ * <p>
  * Base implementation of a {@link CommandHistory} that is persistable.
+ * </p>
+ * <p>
+ * The history is stored after command lines have been added, but outside of the lock of the history, so adding
+ * command lines concurrently, e.g. from several sessions sharing this history, doesn't wait for I/O. Concurrent store
+ * requests are coalesced: while one thread stores the history, further requests are picked up by that thread instead
+ * of being stored one by one.
+ * </p>
  *
  * @author Noqmar
  * @since 0.2.0
@@ -43,6 +55,8 @@ import org.mintshell.common.IoProvider;
 public abstract class BasePersistableCommandHistory extends BaseCommandHistory {
 
   private final IoProvider ioProvider;
+  private final AtomicBoolean storeRequired;
+  private final Lock storeLock;
 
   /**
    * Creates a new persistable command history using the given I/O provider.
@@ -55,9 +69,14 @@ public abstract class BasePersistableCommandHistory extends BaseCommandHistory {
    */
   public BasePersistableCommandHistory(final IoProvider ioProvider) {
     this.ioProvider = Assert.ARG.isNotNull(ioProvider, "[ioProvider] must not be [null]");
+    this.storeRequired = new AtomicBoolean();
+    this.storeLock = new ReentrantLock();
+    final CommandEventRecording recording = CommandEvents.begin(CommandEventType.HISTORY_PERSIST);
     try {
       this.load();
+      recording.end(null, 0, "SUCCEEDED", "load");
     } catch (final IOException e) {
+      recording.end(null, 0, e.getClass().getSimpleName(), "load");
       throw new IllegalStateException("Failed to restore command history", e);
     }
   }
@@ -71,10 +90,15 @@ public abstract class BasePersistableCommandHistory extends BaseCommandHistory {
   @Override
   public void addCommandLine(final String commandLine) {
     super.addCommandLine(commandLine);
-    try {
-      this.store();
-    } catch (final IOException e) {
-      throw new IllegalStateException("Failed to persist command history", e);
+    // the thread holding the store lock re-checks the flag after unlocking, so no request gets lost
+    while (this.storeRequired.get() && this.storeLock.tryLock()) {
+      try {
+        if (this.storeRequired.getAndSet(false)) {
+          this.persist();
+        }
+      } finally {
+        this.storeLock.unlock();
+      }
     }
   }
 
@@ -104,9 +128,22 @@ public abstract class BasePersistableCommandHistory extends BaseCommandHistory {
       this.clear();
       String line = null;
       while ((line = reader.readLine()) != null) {
-        this.addCommandLine(line);
+        // restored command lines must not trigger storing the history that is currently read
+        super.addCommandLine(line);
       }
     }
+    this.storeRequired.set(false);
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.interfaces.BaseCommandHistory#onCommandLineAdded(int, java.lang.String)
+   */
+  @Override
+  protected void onCommandLineAdded(final int number, final String commandLine) {
+    this.storeRequired.set(true);
   }
 
   /**
@@ -120,15 +157,21 @@ public abstract class BasePersistableCommandHistory extends BaseCommandHistory {
    */
   protected void store() throws IOException {
     try (final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(this.ioProvider.createOut()))) {
-      final List<String> lines = this.getCommandLines().entrySet().stream() //
-          .sorted((e1, e2) -> e1.getKey().compareTo(e2.getKey())) //
-          .map(entry -> entry.getValue()) //
-          .collect(Collectors.toList());
-      for (final String line : lines) {
-        writer.newLine();
+      for (final String line : this.getCommandLines().values()) {
         writer.write(line);
-        writer.flush();
+        writer.newLine();
       }
     }
   }
+
+  private void persist() {
+    final CommandEventRecording recording = CommandEvents.begin(CommandEventType.HISTORY_PERSIST);
+    try {
+      this.store();
+      recording.end(null, 0, "SUCCEEDED", "store");
+    } catch (final IOException e) {
+      recording.end(null, 0, e.getClass().getSimpleName(), "store");
+      throw new IllegalStateException("Failed to persist command history", e);
+    }
+  }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.interfaces;
+
+import org.mintshell.assertion.Assert;
+
+/**
+ * <p>
+ * Lightweight navigation cursor over a {@link CommandHistory}, that may be shared by several command interfaces, e.g.
+ * the sessions of a remote terminal. Every command interface navigates the shared history with its own cursor, so
+ * moving through the history in one session doesn't affect the position in any other session, while command lines
+ * added by any session are visible to all of them.
+ * </p>
+ * <p>
+ * A cursor only keeps a position and is meant to be confined to a single session, thus it isn't thread-safe by
+ * itself. Navigation is weakly consistent: command lines dropped from the shared history in the meantime are skipped.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandHistoryCursor {
+
+  private static final int DETACHED = Integer.MAX_VALUE;
+
+  private final CommandHistory commandHistory;
+  private int position;
+
+  /**
+   * Creates a new cursor positioned behind the most recent command line of the given {@link CommandHistory}.
+   *
+   * @param commandHistory
+   *          {@link CommandHistory} to navigate
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandHistoryCursor(final CommandHistory commandHistory) {
+    this.commandHistory = Assert.ARG.isNotNull(commandHistory, "[commandHistory] must not be [null]");
+    this.position = DETACHED;
+  }
+
+  /**
+   * Returns the navigated {@link CommandHistory}.
+   *
+   * @return navigated {@link CommandHistory}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandHistory getCommandHistory() {
+    return this.commandHistory;
+  }
+
+  /**
+   * Moves the cursor to the next command line and returns it.
+   *
+   * @return next command line relative to the cursor or an empty {@link String}, if the cursor moved behind the most
+   *         recent command line
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public String getNextCommandLine() {
+    if (this.position == DETACHED) {
+      return "";
+    }
+    final int lastNumber = this.commandHistory.getLastCommandLineNumber();
+    if (this.position < this.commandHistory.getFirstCommandLineNumber()) {
+      this.position = this.commandHistory.getFirstCommandLineNumber() - 1;
+    }
+    if (++this.position > lastNumber) {
+      this.position = DETACHED;
+      return "";
+    }
+    return this.commandHistory.getCommandLine(this.position).orElse("");
+  }
+
+  /**
+   * Moves the cursor to the previous command line and returns it. If the cursor is already positioned at the oldest
+   * command line, the cursor keeps its position.
+   *
+   * @return previous command line relative to the cursor or an empty {@link String}, if the history is empty
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public String getPreviousCommandLine() {
+    final int firstNumber = this.commandHistory.getFirstCommandLineNumber();
+    final int lastNumber = this.commandHistory.getLastCommandLineNumber();
+    if (lastNumber < firstNumber || lastNumber < BaseCommandHistory.FIRST_COMMAND_NUMBER) {
+      this.position = DETACHED;
+      return "";
+    }
+    this.position = Math.max(firstNumber, Math.min(this.position - 1, lastNumber));
+    return this.commandHistory.getCommandLine(this.position).orElse("");
+  }
+
+  /**
+   * Resets the cursor behind the most recent command line, e.g. after a command line has been submitted.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void reset() {
+    this.position = DETACHED;
+  }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.job;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.mintshell.annotation.Nullable;
+import org.mintshell.command.Command;
+import org.mintshell.command.CommandParameter;
+import org.mintshell.command.PipedCommand;
+import org.mintshell.metrics.CommandEvents;
+import org.mintshell.target.CommandContext;
+import org.mintshell.target.CommandTargetException;
+
+/**
+ * A {@link Command} that is executed in background by a {@link JobManager}. The result of the {@link Command} and
+ * everything written to its {@link CommandContext} is collected in the output buffer of the job.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class Job {
+
+  private final int id;
+  private final @Nullable String sessionId;
+  private final Command command;
+  private final String commandLine;
+  private final Callable<?> task;
+  private final CommandContext context;
+  private final AtomicReference<JobState> state;
+  private final AtomicBoolean started;
+  private final CountDownLatch finished;
+  private final long startNanos;
+  private volatile long endNanos;
+  private volatile Throwable cause;
+  private volatile Future<?> future;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param id
+   *          id of the job
+   * @param sessionId
+   *          (optional) id of the session that submitted the job
+   * @param command
+   *          {@link Command} executed by the job
+   * @param task
+   *          task that executes the {@link Command}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  Job(final int id, final @Nullable String sessionId, final Command command, final Callable<?> task) {
+    this.id = id;
+    this.sessionId = sessionId;
+    this.command = command;
+    this.commandLine = describe(command);
+    this.task = task;
+    this.context = new CommandContext();
+    this.state = new AtomicReference<>(JobState.RUNNING);
+    this.started = new AtomicBoolean();
+    this.finished = new CountDownLatch(1);
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Returns the command line of the given {@link Command} including its {@link CommandParameter}s and the
+   * {@link Command}s piped into.
+   *
+   * @param command
+   *          {@link Command} to be described
+   * @return command line of the {@link Command}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static String describe(final Command command) {
+    final StringBuilder builder = new StringBuilder(command.getName());
+    for (final CommandParameter parameter : command.getParameters()) {
+      if (parameter.getName().isPresent()) {
+        builder.append(" --").append(parameter.getName().get());
+      }
+      else if (parameter.getShortName().isPresent()) {
+        builder.append(" -").append(parameter.getShortName().get());
+      }
+      if (parameter.getValue().isPresent()) {
+        final String value = parameter.getValue().get();
+        builder.append(' ').append(value.matches("[^\\s\"]+") ? value : '"' + value.replace("\"", "\\\"") + '"');
+      }
+    }
+    if (command instanceof PipedCommand) {
+      builder.append(" | ").append(describe(((PipedCommand) command).getPipeTarget()));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Waits until the job is finished.
+   *
+   * @param timeout
+   *          maximum time to wait
+   * @param unit
+   *          {@link TimeUnit} of the timeout
+   * @return {@code true}, if the job is finished, {@code false} if the timeout elapsed before
+   * @throws InterruptedException
+   *           if the current thread was interrupted while waiting
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean await(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return this.finished.await(timeout, unit);
+  }
+
+  /**
+   * Cancels the job by marking its {@link CommandContext} as cancelled and interrupting the executing thread.
+   *
+   * @return {@code true}, if the job was running, otherwise {@code false}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean cancel() {
+    if (this.isFinished()) {
+      return false;
+    }
+    this.context.cancel();
+    if (this.future != null) {
+      this.future.cancel(true);
+    }
+    if (!this.started.get()) {
+      this.finish(JobState.CANCELLED, null);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the cause of a failed job.
+   *
+   * @return cause of the failure or {@link Optional#empty()}, if the job didn't fail
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<Throwable> getCause() {
+    return Optional.ofNullable(this.cause);
+  }
+
+  /**
+   * Returns the {@link Command} executed by the job.
+   *
+   * @return {@link Command} executed by the job
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Command getCommand() {
+    return this.command;
+  }
+
+  /**
+   * Returns the command line of the {@link Command} executed by the job.
+   *
+   * @return command line of the job
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public String getCommandLine() {
+    return this.commandLine;
+  }
+
+  /**
+   * Returns the time elapsed since the job was submitted until now or until it finished.
+   *
+   * @param unit
+   *          {@link TimeUnit} of the result
+   * @return elapsed time
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getElapsed(final TimeUnit unit) {
+    final long end = this.isFinished() ? this.endNanos : System.nanoTime();
+    return unit.convert(end - this.startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns the id of the job.
+   *
+   * @return id of the job
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getId() {
+    return this.id;
+  }
+
+  /**
+   * Returns the id of the session that submitted the job.
+   *
+   * @return id of the submitting session or {@link Optional#empty()}, if the job wasn't submitted within a session
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<String> getSessionId() {
+    return Optional.ofNullable(this.sessionId);
+  }
+
+  /**
+   * Returns the output written by the job so far.
+   *
+   * @return output written so far
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public String getOutput() {
+    return this.context.getOutput();
+  }
+
+  /**
+   * Returns the length of the output written by the job so far.
+   *
+   * @return length of the output written so far
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getOutputLength() {
+    return this.context.getOutputLength();
+  }
+
+  /**
+   * Returns the current {@link JobState}.
+   *
+   * @return current {@link JobState}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public JobState getState() {
+    return this.state.get();
+  }
+
+  /**
+   * Returns whether the job is finished.
+   *
+   * @return {@code true}, if the job is finished, otherwise {@code false}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isFinished() {
+    return this.finished.getCount() == 0;
+  }
+
+  /**
+   * Executes the task of the job within its {@link CommandContext} and on behalf of the session that submitted it.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void run() {
+    if (!this.started.compareAndSet(false, true) || this.isFinished()) {
+      return;
+    }
+    CommandEvents.setSessionId(this.sessionId);
+    try {
+      final Object result = this.context.call(this.task);
+      if (result != null) {
+        this.context.print(result.toString());
+      }
+      this.finish(this.context.isCancelled() ? JobState.CANCELLED : JobState.SUCCEEDED, null);
+    } catch (final CancellationException | InterruptedException e) {
+      this.finish(JobState.CANCELLED, null);
+    } catch (final Exception e) {
+      final Throwable failure = e instanceof CommandTargetException && e.getCause() != null ? e.getCause() : e;
+      if (this.context.isCancelled()) {
+        this.finish(JobState.CANCELLED, null);
+      }
+      else {
+        this.context.print(failure.getMessage() != null ? failure.getMessage() : failure.getClass().getName());
+        this.finish(JobState.FAILED, failure);
+      }
+    } finally {
+      CommandEvents.setSessionId(null);
+    }
+  }
+
+  /**
+   * Sets the {@link Future} of the job's execution.
+   *
+   * @param future
+   *          {@link Future} of the job's execution
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void setFuture(final Future<?> future) {
+    this.future = future;
+  }
+
+  private void finish(final JobState finalState, final @Nullable Throwable failure) {
+    if (this.state.compareAndSet(JobState.RUNNING, finalState)) {
+      this.cause = failure;
+      this.endNanos = System.nanoTime();
+      this.finished.countDown();
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.job;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.mintshell.assertion.Assert;
+import org.mintshell.command.Command;
+import org.mintshell.metrics.CommandEvents;
+
+/**
+ * <p>
+ * Manages the {@link Job}s of a command dispatcher. Jobs are executed by an {@link ExecutorService} which by default is
+ * shared by all {@link JobManager}s and consists of at most {@value #DEFAULT_MAX_THREADS} daemon threads.
+ * </p>
+ * <p>
+ * Each {@link Job} belongs to the session bound to the submitting thread via {@link CommandEvents#setSessionId(String)}
+ * and is only visible to that session, so that sessions sharing one command dispatcher (e.g. SSH sessions) can neither
+ * list nor take over or kill each other's jobs. Job ids are unique per {@link JobManager}, not per session.
+ * </p>
+ * <p>
+ * Finished jobs are kept until they are removed via {@link #removeJob(int)}, but at most
+ * {@value #DEFAULT_MAX_FINISHED_JOBS} of them; older finished jobs are discarded when new jobs are submitted.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class JobManager {
+
+  public static final int DEFAULT_MAX_THREADS = 8;
+  public static final int DEFAULT_MAX_FINISHED_JOBS = 32;
+
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+  private static volatile ExecutorService sharedExecutor;
+
+  private final ExecutorService executor;
+  private final NavigableMap<Integer, Job> jobs;
+  private final AtomicInteger jobSequence;
+
+  /**
+   * Creates a new instance using the shared {@link ExecutorService}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public JobManager() {
+    this(getSharedExecutor());
+  }
+
+  /**
+   * Creates a new instance using the given {@link ExecutorService}.
+   *
+   * @param executor
+   *          {@link ExecutorService} executing the jobs
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public JobManager(final ExecutorService executor) {
+    this.executor = Assert.ARG.isNotNull(executor, "[executor] must not be [null]");
+    this.jobs = new ConcurrentSkipListMap<>();
+    this.jobSequence = new AtomicInteger();
+  }
+
+  /**
+   * Returns the {@link Job} with the given id, if it belongs to the current session.
+   *
+   * @param id
+   *          id of the {@link Job}
+   * @return {@link Job} with the given id or {@link Optional#empty()}, if there is no such {@link Job}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<Job> getJob(final int id) {
+    return Optional.ofNullable(this.jobs.get(id)).filter(JobManager::isOwnedByCurrentSession);
+  }
+
+  /**
+   * Returns all managed {@link Job}s of the current session ordered by their ids.
+   *
+   * @return {@link List} of managed {@link Job}s of the current session
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public List<Job> getJobs() {
+    return this.jobs.values().stream() //
+        .filter(JobManager::isOwnedByCurrentSession) //
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the most recently submitted {@link Job} of the current session.
+   *
+   * @return most recently submitted {@link Job} or {@link Optional#empty()}, if the current session has no managed
+   *         {@link Job}s
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<Job> getLatestJob() {
+    return this.jobs.descendingMap().values().stream() //
+        .filter(JobManager::isOwnedByCurrentSession) //
+        .findFirst();
+  }
+
+  /**
+   * Removes the {@link Job} with the given id without cancelling it, if it belongs to the current session.
+   *
+   * @param id
+   *          id of the {@link Job}
+   * @return removed {@link Job} or {@link Optional#empty()}, if there is no such {@link Job}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<Job> removeJob(final int id) {
+    return this.getJob(id).filter(job -> this.jobs.remove(id, job));
+  }
+
+  /**
+   * Submits the given task executing the given {@link Command} as new {@link Job} of the current session.
+   *
+   * @param command
+   *          {@link Command} executed by the task
+   * @param task
+   *          task to be executed, its result is appended to the output of the {@link Job}
+   * @return submitted {@link Job}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Job submit(final Command command, final Callable<?> task) {
+    Assert.ARG.isNotNull(command, "[command] must not be [null]");
+    Assert.ARG.isNotNull(task, "[task] must not be [null]");
+    final Job job = new Job(this.jobSequence.incrementAndGet(), CommandEvents.getSessionId(), command, task);
+    this.jobs.put(job.getId(), job);
+    try {
+      job.setFuture(this.executor.submit(job::run));
+    } catch (final RuntimeException e) {
+      this.jobs.remove(job.getId());
+      throw e;
+    }
+    this.discardFinishedJobs();
+    return job;
+  }
+
+  private void discardFinishedJobs() {
+    final List<Job> finishedJobs = new ArrayList<>();
+    this.jobs.values().stream().filter(Job::isFinished).forEach(finishedJobs::add);
+    for (int i = 0; i < finishedJobs.size() - DEFAULT_MAX_FINISHED_JOBS; i++) {
+      this.jobs.remove(finishedJobs.get(i).getId());
+    }
+  }
+
+  private static ExecutorService getSharedExecutor() {
+    if (sharedExecutor == null) {
+      synchronized (JobManager.class) {
+        if (sharedExecutor == null) {
+          final ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_MAX_THREADS, DEFAULT_MAX_THREADS, 60, TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(), runnable -> {
+                final Thread thread = new Thread(runnable, format("mintshell-job-%d", THREAD_SEQUENCE.incrementAndGet()));
+                thread.setDaemon(true);
+                return thread;
+              });
+          executor.allowCoreThreadTimeOut(true);
+          sharedExecutor = executor;
+        }
+      }
+    }
+    return sharedExecutor;
+  }
+
+  private static boolean isOwnedByCurrentSession(final Job job) {
+    return Objects.equals(job.getSessionId().orElse(null), CommandEvents.getSessionId());
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.job;
+
+import static java.lang.String.format;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.mintshell.assertion.Assert;
+
+/**
+ * A command that is executed periodically by a {@link WatchScheduler} as long as the watch is started. Watches with
+ * equal keys share one execution per interval, so that the output of every execution is passed to all started
+ * watches.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class Watch implements AutoCloseable {
+
+  private final WatchScheduler scheduler;
+  private final Object key;
+  private final String commandLine;
+  private final Callable<?> task;
+  private final long intervalNanos;
+  private volatile Consumer<String> listener;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param scheduler
+   *          {@link WatchScheduler} executing the command
+   * @param key
+   *          key identifying equal watches
+   * @param commandLine
+   *          command line of the watched command
+   * @param task
+   *          task executing the watched command
+   * @param intervalNanos
+   *          interval between two executions in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  Watch(final WatchScheduler scheduler, final Object key, final String commandLine, final Callable<?> task, final long intervalNanos) {
+    this.scheduler = scheduler;
+    this.key = key;
+    this.commandLine = commandLine;
+    this.task = task;
+    this.intervalNanos = intervalNanos;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.AutoCloseable#close()
+   */
+  @Override
+  public synchronized void close() {
+    if (this.listener != null) {
+      this.scheduler.unsubscribe(this, this.listener);
+      this.listener = null;
+    }
+  }
+
+  /**
+   * Returns the command line of the watched command.
+   *
+   * @return command line of the watched command
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public String getCommandLine() {
+    return this.commandLine;
+  }
+
+  /**
+   * Returns the interval between two executions.
+   *
+   * @param unit
+   *          {@link TimeUnit} of the result
+   * @return interval between two executions
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getInterval(final TimeUnit unit) {
+    return unit.convert(this.intervalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns whether the watch is started.
+   *
+   * @return {@code true}, if the watch is started, otherwise {@code false}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isStarted() {
+    return this.listener != null;
+  }
+
+  /**
+   * Starts the watch. The given listener is notified with the output of every execution of the watched command until
+   * the watch is closed.
+   *
+   * @param listener
+   *          listener to be notified with the output of every execution
+   * @throws IllegalStateException
+   *           if the watch is already started
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public synchronized void start(final Consumer<String> listener) throws IllegalStateException {
+    Assert.ARG.isNotNull(listener, "[listener] must not be [null]");
+    Assert.STATE.isTrue(this.listener == null, "watch is already started");
+    this.scheduler.subscribe(this, listener);
+    this.listener = listener;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return format(Locale.ROOT, "Every %.1fs: %s", this.getInterval(TimeUnit.MILLISECONDS) / 1000.0, this.commandLine);
+  }
+
+  /**
+   * Returns the key identifying equal watches.
+   *
+   * @return key identifying equal watches
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  Object getKey() {
+    return this.key;
+  }
+
+  /**
+   * Returns the task executing the watched command.
+   *
+   * @return task executing the watched command
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  Callable<?> getTask() {
+    return this.task;
+  }
+}
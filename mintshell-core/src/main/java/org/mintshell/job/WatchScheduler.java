@@ -0,0 +1,345 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.job;
+
+import static java.lang.String.format;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.mintshell.annotation.Nullable;
+import org.mintshell.assertion.Assert;
+import org.mintshell.target.CommandTargetException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Executes the commands of started {@link Watch}es periodically on a shared {@link ScheduledThreadPoolExecutor}.
+ * </p>
+ * <p>
+ * Started {@link Watch}es with equal keys are coalesced: their command is executed once per interval and the output
+ * is passed to all of them, no matter how many sessions are watching. A {@link Watch} started while an equal one is
+ * already running receives the most recent output immediately. The command isn't executed anymore, as soon as the last
+ * of the coalesced {@link Watch}es is closed.
+ * </p>
+ * <p>
+ * Outputs are passed to the listeners on separate threads, at most one per listener at a time. A slow listener only
+ * skips outputs, that have been superseded meanwhile, but delays neither the executions nor other listeners.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class WatchScheduler implements AutoCloseable {
+
+  public static final int DEFAULT_THREADS = 2;
+
+  private static final Logger LOG = LoggerFactory.getLogger(WatchScheduler.class);
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+  private static volatile WatchScheduler instance;
+
+  private final ScheduledThreadPoolExecutor executor;
+  private final ExecutorService listenerExecutor;
+  private final Map<Object, Schedule> schedules;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param threads
+   *          number of threads executing the watched commands
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public WatchScheduler(final int threads) {
+    Assert.ARG.isTrue(threads > 0, format("[threads] must be greater than [0] but was [%d]", threads));
+    this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+      final Thread thread = new Thread(runnable, format("mintshell-watch-%d", THREAD_SEQUENCE.incrementAndGet()));
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.executor.setRemoveOnCancelPolicy(true);
+    this.listenerExecutor = Executors.newCachedThreadPool(runnable -> {
+      final Thread thread = new Thread(runnable, format("mintshell-watch-listener-%d", THREAD_SEQUENCE.incrementAndGet()));
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.schedules = new HashMap<>();
+  }
+
+  /**
+   * Returns the active {@link WatchScheduler}. If there is none, a new one with {@value #DEFAULT_THREADS} threads is
+   * created.
+   *
+   * @return active {@link WatchScheduler}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static WatchScheduler getInstance() {
+    WatchScheduler current = instance;
+    if (current == null) {
+      synchronized (WatchScheduler.class) {
+        current = instance;
+        if (current == null) {
+          current = new WatchScheduler(DEFAULT_THREADS);
+          instance = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Activates the given {@link WatchScheduler}. A previously active instance is closed.
+   *
+   * @param watchScheduler
+   *          {@link WatchScheduler} to be activated or {@code null} to create a default one on next access
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static void setInstance(final @Nullable WatchScheduler watchScheduler) {
+    final WatchScheduler previous;
+    synchronized (WatchScheduler.class) {
+      previous = instance;
+      instance = watchScheduler;
+    }
+    if (previous != null && previous != watchScheduler) {
+      previous.close();
+    }
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.AutoCloseable#close()
+   */
+  @Override
+  public void close() {
+    synchronized (this.schedules) {
+      this.schedules.clear();
+    }
+    this.executor.shutdownNow();
+    this.listenerExecutor.shutdownNow();
+  }
+
+  /**
+   * Creates a new {@link Watch}, that isn't started yet.
+   *
+   * @param key
+   *          key identifying equal {@link Watch}es, that share the executions of their command
+   * @param commandLine
+   *          command line of the watched command
+   * @param task
+   *          task executing the watched command, its result is passed as output to the listeners of the {@link Watch}
+   * @param interval
+   *          interval between two executions
+   * @param unit
+   *          {@link TimeUnit} of the interval
+   * @return created {@link Watch}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Watch createWatch(final Object key, final String commandLine, final Callable<?> task, final long interval, final TimeUnit unit) {
+    Assert.ARG.isNotNull(key, "[key] must not be [null]");
+    Assert.ARG.isNotNull(commandLine, "[commandLine] must not be [null]");
+    Assert.ARG.isNotNull(task, "[task] must not be [null]");
+    Assert.ARG.isTrue(interval > 0, format("[interval] must be greater than [0] but was [%d]", interval));
+    return new Watch(this, key, commandLine, task, Assert.ARG.isNotNull(unit, "[unit] must not be [null]").toNanos(interval));
+  }
+
+  /**
+   * Returns the number of currently scheduled commands.
+   *
+   * @return number of currently scheduled commands
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getScheduleCount() {
+    synchronized (this.schedules) {
+      return this.schedules.size();
+    }
+  }
+
+  /**
+   * Registers the given listener of the given {@link Watch} and schedules its command, if there isn't already an equal
+   * {@link Watch} started.
+   *
+   * @param watch
+   *          {@link Watch} to be started
+   * @param listener
+   *          listener of the {@link Watch}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void subscribe(final Watch watch, final Consumer<String> listener) {
+    synchronized (this.schedules) {
+      final Schedule schedule = this.schedules.get(watch.getKey());
+      final Subscriber subscriber = new Subscriber(listener, this.listenerExecutor);
+      if (schedule != null) {
+        schedule.subscribers.add(subscriber);
+        final String lastOutput = schedule.lastOutput;
+        if (lastOutput != null) {
+          subscriber.offer(lastOutput);
+        }
+      }
+      else {
+        final Schedule newSchedule = new Schedule(watch.getTask());
+        newSchedule.subscribers.add(subscriber);
+        newSchedule.future = this.executor.scheduleWithFixedDelay(newSchedule::execute, 0, watch.getInterval(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        this.schedules.put(watch.getKey(), newSchedule);
+      }
+    }
+  }
+
+  /**
+   * Removes the given listener of the given {@link Watch} and cancels the execution of its command, if there isn't any
+   * equal {@link Watch} started anymore.
+   *
+   * @param watch
+   *          {@link Watch} to be stopped
+   * @param listener
+   *          listener of the {@link Watch}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void unsubscribe(final Watch watch, final Consumer<String> listener) {
+    synchronized (this.schedules) {
+      final Schedule schedule = this.schedules.get(watch.getKey());
+      if (schedule != null && schedule.subscribers.removeIf(subscriber -> subscriber.listener == listener) && schedule.subscribers.isEmpty()) {
+        schedule.future.cancel(false);
+        this.schedules.remove(watch.getKey());
+      }
+    }
+  }
+
+  /**
+   * Periodic execution of a watched command shared by all listeners of equal {@link Watch}es.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static class Schedule {
+
+    private final Callable<?> task;
+    private final List<Subscriber> subscribers;
+    private volatile String lastOutput;
+    private volatile ScheduledFuture<?> future;
+
+    private Schedule(final Callable<?> task) {
+      this.task = task;
+      this.subscribers = new CopyOnWriteArrayList<>();
+    }
+
+    private void execute() {
+      String output;
+      try {
+        final Object result = this.task.call();
+        output = result != null ? result.toString() : "";
+      } catch (final Exception e) {
+        final Throwable failure = e instanceof CommandTargetException && e.getCause() != null ? e.getCause() : e;
+        output = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getName();
+      }
+      this.lastOutput = output;
+      for (final Subscriber subscriber : this.subscribers) {
+        subscriber.offer(output);
+      }
+    }
+  }
+
+  /**
+   * Listener of a started {@link Watch}, that keeps only the latest output not yet passed to the listener.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static class Subscriber {
+
+    private final Consumer<String> listener;
+    private final ExecutorService executor;
+    private final AtomicReference<String> pendingOutput;
+    private final AtomicBoolean notifying;
+
+    private Subscriber(final Consumer<String> listener, final ExecutorService executor) {
+      this.listener = listener;
+      this.executor = executor;
+      this.pendingOutput = new AtomicReference<>();
+      this.notifying = new AtomicBoolean();
+    }
+
+    private void notifyListener() {
+      try {
+        String output;
+        while ((output = this.pendingOutput.getAndSet(null)) != null) {
+          try {
+            this.listener.accept(output);
+          } catch (final RuntimeException e) {
+            LOG.warn("Failed to notify watch listener", e);
+          }
+        }
+      } finally {
+        this.notifying.set(false);
+      }
+      if (this.pendingOutput.get() != null) {
+        this.scheduleNotification();
+      }
+    }
+
+    private void offer(final String output) {
+      this.pendingOutput.set(output);
+      this.scheduleNotification();
+    }
+
+    private void scheduleNotification() {
+      if (this.notifying.compareAndSet(false, true)) {
+        try {
+          this.executor.execute(this::notifyListener);
+        } catch (final RejectedExecutionException e) {
+          this.notifying.set(false);
+        }
+      }
+    }
+  }
+}
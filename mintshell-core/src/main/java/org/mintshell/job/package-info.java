@@ -0,0 +1,7 @@
+/**
+ * Contains the management of commands that are executed as background jobs.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+package org.mintshell.job;
@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Default implementation of {@link CommandMetrics} that records durations in lock-free, HDR-style histograms with a
+ * relative error of at most about three percent.
+ * </p>
+ * <p>
+ * Histograms are created lazily per command name and {@link CommandStage} and have a fixed size, so that recording a
+ * duration of a known command neither locks nor allocates memory. Recording with a {@code null} command name is
+ * ignored, so that metrics never interfere with command execution.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class DefaultCommandMetrics implements CommandMetrics {
+
+  private final ConcurrentMap<String, CommandRecord> records;
+
+  /**
+   * Creates a new instance.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public DefaultCommandMetrics() {
+    this.records = new ConcurrentHashMap<>();
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.metrics.CommandMetrics#getCommandNames()
+   */
+  @Override
+  public SortedSet<String> getCommandNames() {
+    return Collections.unmodifiableSortedSet(new TreeSet<>(this.records.keySet()));
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.metrics.CommandMetrics#getErrorCounts(java.lang.String)
+   */
+  @Override
+  public Map<String, Long> getErrorCounts(final String commandName) {
+    final CommandRecord record = this.records.get(commandName);
+    if (record == null) {
+      return Collections.emptyMap();
+    }
+    final Map<String, Long> errorCounts = new TreeMap<>();
+    record.errors.forEach((type, count) -> errorCounts.put(type, count.sum()));
+    return Collections.unmodifiableMap(errorCounts);
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.metrics.CommandMetrics#getLatency(java.lang.String, org.mintshell.metrics.CommandStage)
+   */
+  @Override
+  public Optional<LatencySnapshot> getLatency(final String commandName, final CommandStage stage) {
+    final CommandRecord record = this.records.get(commandName);
+    if (record == null) {
+      return Optional.empty();
+    }
+    final LatencyHistogram histogram = record.histograms.get(stage.ordinal());
+    return histogram != null ? Optional.ofNullable(histogram.snapshot()) : Optional.empty();
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.metrics.CommandMetrics#recordError(java.lang.String, java.lang.Throwable)
+   */
+  @Override
+  public void recordError(final String commandName, final Throwable error) {
+    if (commandName == null || error == null) {
+      return;
+    }
+    this.getRecord(commandName).errors.computeIfAbsent(error.getClass().getName(), type -> new LongAdder()).increment();
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.metrics.CommandMetrics#recordTime(java.lang.String, org.mintshell.metrics.CommandStage, long)
+   */
+  @Override
+  public void recordTime(final String commandName, final CommandStage stage, final long nanos) {
+    if (commandName == null || stage == null) {
+      return;
+    }
+    final AtomicReferenceArray<LatencyHistogram> histograms = this.getRecord(commandName).histograms;
+    LatencyHistogram histogram = histograms.get(stage.ordinal());
+    if (histogram == null) {
+      histograms.compareAndSet(stage.ordinal(), null, new LatencyHistogram());
+      histogram = histograms.get(stage.ordinal());
+    }
+    histogram.record(nanos);
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.metrics.CommandMetrics#reset()
+   */
+  @Override
+  public void reset() {
+    this.records.clear();
+  }
+
+  private CommandRecord getRecord(final String commandName) {
+    final CommandRecord record = this.records.get(commandName);
+    return record != null ? record : this.records.computeIfAbsent(commandName, name -> new CommandRecord());
+  }
+
+  /**
+   * Metrics recorded for a single command name.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class CommandRecord {
+
+    private final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<>(CommandStage.values().length);
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+  }
+}
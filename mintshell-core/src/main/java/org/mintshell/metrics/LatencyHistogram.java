@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Lock-free histogram of durations with logarithmic bucketing in the style of HDR histograms: Values below
+ * {@value #EXACT_VALUES} are counted exactly, larger values are counted in buckets that are
+ * {@value #SUB_BUCKET_COUNT} per power of two, which results in a relative error of at most about three percent.
+ * </p>
+ * <p>
+ * Recording a value is a single atomic increment on a fixed size array and never allocates memory.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+final class LatencyHistogram {
+
+  static final int SUB_BUCKET_BITS = 5;
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  static final int EXACT_VALUES = SUB_BUCKET_COUNT << 1;
+  static final int BUCKET_COUNT = EXACT_VALUES + (Long.SIZE - 2 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray counts;
+  private final AtomicLong min;
+  private final AtomicLong max;
+  private final LongAdder sum;
+
+  /**
+   * Creates a new, empty instance.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  LatencyHistogram() {
+    this.counts = new AtomicLongArray(BUCKET_COUNT);
+    this.min = new AtomicLong(Long.MAX_VALUE);
+    this.max = new AtomicLong(Long.MIN_VALUE);
+    this.sum = new LongAdder();
+  }
+
+  /**
+   * Records the given value. Negative values are recorded as {@code 0}.
+   *
+   * @param value
+   *          value to be recorded
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void record(final long value) {
+    final long recorded = Math.max(value, 0L);
+    this.counts.incrementAndGet(bucketIndex(recorded));
+    this.sum.add(recorded);
+    long current = this.min.get();
+    while (recorded < current && !this.min.compareAndSet(current, recorded)) {
+      current = this.min.get();
+    }
+    current = this.max.get();
+    while (recorded > current && !this.max.compareAndSet(current, recorded)) {
+      current = this.max.get();
+    }
+  }
+
+  /**
+   * Creates a {@link LatencySnapshot} of the values recorded so far. Percentiles are reported as the highest value
+   * of their bucket, limited by the maximum recorded value.
+   *
+   * @return {@link LatencySnapshot} or {@code null}, if no value has been recorded yet
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  LatencySnapshot snapshot() {
+    final long[] copy = new long[BUCKET_COUNT];
+    long count = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      copy[i] = this.counts.get(i);
+      count += copy[i];
+    }
+    if (count == 0) {
+      return null;
+    }
+    final long maxValue = this.max.get();
+    return new LatencySnapshot(count, this.min.get(), maxValue, this.sum.sum() / count, percentile(copy, count, 50.0, maxValue),
+        percentile(copy, count, 90.0, maxValue), percentile(copy, count, 99.0, maxValue), percentile(copy, count, 99.9, maxValue));
+  }
+
+  /**
+   * Returns the index of the bucket the given non-negative value is counted in.
+   *
+   * @param value
+   *          non-negative value
+   * @return bucket index
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  static int bucketIndex(final long value) {
+    if (value < EXACT_VALUES) {
+      return (int) value;
+    }
+    final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    final int subBucket = (int) (value >>> shift);
+    return EXACT_VALUES + (shift - 1) * SUB_BUCKET_COUNT + subBucket - SUB_BUCKET_COUNT;
+  }
+
+  /**
+   * Returns the highest value that is counted in the bucket with the given index.
+   *
+   * @param index
+   *          bucket index
+   * @return highest value of the bucket
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  static long highestValue(final int index) {
+    if (index < EXACT_VALUES) {
+      return index;
+    }
+    final int shift = (index - EXACT_VALUES) / SUB_BUCKET_COUNT + 1;
+    final long subBucket = (index - EXACT_VALUES) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  private static long percentile(final long[] counts, final long count, final double percentile, final long maxValue) {
+    final long rank = Math.max(1L, (long) Math.ceil(count * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(highestValue(i), maxValue);
+      }
+    }
+    return maxValue;
+  }
+}
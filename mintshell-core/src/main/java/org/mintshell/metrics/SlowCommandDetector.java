@@ -0,0 +1,385 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import static java.lang.String.format;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.mintshell.annotation.Nullable;
+import org.mintshell.assertion.Assert;
+import org.mintshell.command.Command;
+import org.mintshell.command.CommandParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Opt-in detector of slow command target invocations. It is activated via {@link #setInstance(SlowCommandDetector)}
+ * and then watches every invocation of a reflection based command target.
+ * </p>
+ * <p>
+ * If an invocation exceeds the threshold of its command (or the global threshold), the stack of the executing thread
+ * is sampled periodically as long as the command is still running, so that hanging commands leave a trace of where
+ * they block. After the invocation finished, the command, its session, its parameters and the elapsed time are
+ * logged. Values of parameters with names registered via {@link #addRedactedParameters(String...)} are replaced by
+ * {@value #REDACTED_VALUE}.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class SlowCommandDetector implements AutoCloseable {
+
+  public static final long DEFAULT_SAMPLE_INTERVAL_MILLIS = 5000;
+  public static final int DEFAULT_MAX_STACK_SAMPLES = 12;
+  public static final String REDACTED_VALUE = "***";
+
+  private static final Logger LOG = LoggerFactory.getLogger(SlowCommandDetector.class);
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+  private static volatile SlowCommandDetector instance;
+
+  private final long thresholdNanos;
+  private final Map<String, Long> commandThresholds;
+  private final Set<String> redactedParameters;
+  private final ScheduledThreadPoolExecutor sampler;
+  private volatile long sampleIntervalNanos;
+  private volatile int maxStackSamples;
+
+  /**
+   * Creates a new instance with the given global threshold.
+   *
+   * @param threshold
+   *          duration after which an invocation is considered to be slow
+   * @param unit
+   *          {@link TimeUnit} of the threshold
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public SlowCommandDetector(final long threshold, final TimeUnit unit) {
+    Assert.ARG.isTrue(threshold >= 0, format("[threshold] must not be negative but was [%d]", threshold));
+    this.thresholdNanos = Assert.ARG.isNotNull(unit, "[unit] must not be [null]").toNanos(threshold);
+    this.commandThresholds = new ConcurrentHashMap<>();
+    this.redactedParameters = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    this.sampleIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SAMPLE_INTERVAL_MILLIS);
+    this.maxStackSamples = DEFAULT_MAX_STACK_SAMPLES;
+    this.sampler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, format("mintshell-slow-command-sampler-%d", THREAD_SEQUENCE.incrementAndGet()));
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.sampler.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * Returns the active {@link SlowCommandDetector}.
+   *
+   * @return active {@link SlowCommandDetector} or {@link Optional#empty()}, if slow command detection is disabled
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static Optional<SlowCommandDetector> getInstance() {
+    return Optional.ofNullable(instance);
+  }
+
+  /**
+   * Activates the given {@link SlowCommandDetector}. A previously active instance is closed.
+   *
+   * @param slowCommandDetector
+   *          {@link SlowCommandDetector} to be activated or {@code null} to disable slow command detection
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static void setInstance(final @Nullable SlowCommandDetector slowCommandDetector) {
+    final SlowCommandDetector previous;
+    synchronized (SlowCommandDetector.class) {
+      previous = instance;
+      instance = slowCommandDetector;
+    }
+    if (previous != null && previous != slowCommandDetector) {
+      previous.close();
+    }
+  }
+
+  /**
+   * Adds names of parameters, whose values must not be logged.
+   *
+   * @param parameterNames
+   *          names of parameters to be redacted
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void addRedactedParameters(final String... parameterNames) {
+    if (parameterNames != null) {
+      for (final String parameterName : parameterNames) {
+        if (parameterName != null) {
+          this.redactedParameters.add(parameterName);
+        }
+      }
+    }
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.AutoCloseable#close()
+   */
+  @Override
+  public void close() {
+    this.sampler.shutdownNow();
+  }
+
+  /**
+   * Returns the threshold of the command with the given name.
+   *
+   * @param commandName
+   *          name of the command
+   * @param unit
+   *          {@link TimeUnit} of the returned threshold
+   * @return threshold of the command or the global threshold, if there is no command specific one
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getThreshold(final String commandName, final TimeUnit unit) {
+    return unit.convert(this.getThresholdNanos(commandName), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Sets the maximum number of stack samples taken per invocation (default is {@value #DEFAULT_MAX_STACK_SAMPLES}).
+   *
+   * @param maxStackSamples
+   *          maximum number of stack samples, {@code 0} disables stack sampling
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setMaxStackSamples(final int maxStackSamples) {
+    Assert.ARG.isTrue(maxStackSamples >= 0, format("[maxStackSamples] must not be negative but was [%d]", maxStackSamples));
+    this.maxStackSamples = maxStackSamples;
+  }
+
+  /**
+   * Sets the interval between two stack samples of a slow invocation (default is
+   * {@value #DEFAULT_SAMPLE_INTERVAL_MILLIS} milliseconds). The first sample is taken as soon as the threshold is
+   * exceeded.
+   *
+   * @param interval
+   *          sample interval
+   * @param unit
+   *          {@link TimeUnit} of the interval
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setSampleInterval(final long interval, final TimeUnit unit) {
+    Assert.ARG.isTrue(interval > 0, format("[interval] must be positive but was [%d]", interval));
+    this.sampleIntervalNanos = Assert.ARG.isNotNull(unit, "[unit] must not be [null]").toNanos(interval);
+  }
+
+  /**
+   * Sets a command specific threshold that overrides the global threshold.
+   *
+   * @param commandName
+   *          name of the command
+   * @param threshold
+   *          duration after which an invocation of the command is considered to be slow or a negative value to remove
+   *          the command specific threshold
+   * @param unit
+   *          {@link TimeUnit} of the threshold
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setThreshold(final String commandName, final long threshold, final TimeUnit unit) {
+    Assert.ARG.isNotNull(commandName, "[commandName] must not be [null]");
+    Assert.ARG.isNotNull(unit, "[unit] must not be [null]");
+    if (threshold < 0) {
+      this.commandThresholds.remove(commandName);
+    }
+    else {
+      this.commandThresholds.put(commandName, unit.toNanos(threshold));
+    }
+  }
+
+  /**
+   * Starts watching the invocation of the given {@link Command} by the current thread. The returned {@link Watch} must
+   * be closed when the invocation has finished.
+   *
+   * @param command
+   *          invoked {@link Command}
+   * @return {@link Watch} of the invocation
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Watch watch(final Command command) {
+    return new Watch(Assert.ARG.isNotNull(command, "[command] must not be [null]"), Thread.currentThread());
+  }
+
+  /**
+   * Formats the parameters of the given {@link Command}, with values of redacted parameters replaced.
+   *
+   * @param command
+   *          {@link Command} to format the parameters of
+   * @return formatted parameters
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected String formatParameters(final Command command) {
+    return command.getParameters().stream() //
+        .map(this::formatParameter) //
+        .collect(Collectors.joining(" "));
+  }
+
+  /**
+   * Reports a slow invocation after it has finished. This implementation logs a warning.
+   *
+   * @param command
+   *          invoked {@link Command}
+   * @param sessionId
+   *          (optional) id of the session, the command was invoked in
+   * @param elapsedNanos
+   *          elapsed time of the invocation in nanoseconds
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected void reportSlowCommand(final Command command, final @Nullable String sessionId, final long elapsedNanos) {
+    LOG.warn("Slow command [{}] in session [{}] with parameters [{}] took [{}] ms", command.getName(), sessionId, this.formatParameters(command),
+        TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+  }
+
+  /**
+   * Reports a stack sample of a slow invocation, that is still running. This implementation logs a warning.
+   *
+   * @param command
+   *          invoked {@link Command}
+   * @param sessionId
+   *          (optional) id of the session, the command was invoked in
+   * @param elapsedNanos
+   *          elapsed time of the invocation in nanoseconds so far
+   * @param thread
+   *          thread executing the invocation
+   * @param stackTrace
+   *          sampled stack of the executing thread
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected void reportStackSample(final Command command, final @Nullable String sessionId, final long elapsedNanos, final Thread thread,
+      final StackTraceElement[] stackTrace) {
+    final StringBuilder builder = new StringBuilder();
+    for (final StackTraceElement element : stackTrace) {
+      builder.append(System.lineSeparator()).append("\tat ").append(element);
+    }
+    LOG.warn("Command [{}] in session [{}] still running after [{}] ms in thread [{}] ({}):{}", command.getName(), sessionId,
+        TimeUnit.NANOSECONDS.toMillis(elapsedNanos), thread.getName(), thread.getState(), builder);
+  }
+
+  private String formatParameter(final CommandParameter parameter) {
+    final Optional<String> name = parameter.getName();
+    final String value = name.isPresent() && this.redactedParameters.contains(name.get()) ? REDACTED_VALUE : parameter.getValue().orElse(null);
+    if (!name.isPresent()) {
+      return value != null ? value : "";
+    }
+    return value != null ? format("--%s=%s", name.get(), value) : format("--%s", name.get());
+  }
+
+  private long getThresholdNanos(final String commandName) {
+    final Long commandThreshold = commandName != null ? this.commandThresholds.get(commandName) : null;
+    return commandThreshold != null ? commandThreshold : this.thresholdNanos;
+  }
+
+  /**
+   * Watch of a single command target invocation, created by {@link SlowCommandDetector#watch(Command)}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public final class Watch implements AutoCloseable {
+
+    private final Command command;
+    private final Thread thread;
+    private final String sessionId;
+    private final long start;
+    private final long threshold;
+    private final AtomicInteger samples;
+    private final ScheduledFuture<?> sampling;
+
+    private Watch(final Command command, final Thread thread) {
+      this.command = command;
+      this.thread = thread;
+      this.sessionId = CommandEvents.getSessionId();
+      this.start = System.nanoTime();
+      this.threshold = SlowCommandDetector.this.getThresholdNanos(command.getName());
+      this.samples = new AtomicInteger();
+      this.sampling = SlowCommandDetector.this.maxStackSamples > 0 && !SlowCommandDetector.this.sampler.isShutdown()
+          ? SlowCommandDetector.this.sampler.scheduleAtFixedRate(this::sample, this.threshold, SlowCommandDetector.this.sampleIntervalNanos,
+              TimeUnit.NANOSECONDS)
+          : null;
+    }
+
+    /**
+     * Stops watching the invocation and reports it, if it exceeded its threshold.
+     *
+     * @author Noqmar
+     * @since 0.4.0
+     */
+    @Override
+    public void close() {
+      if (this.sampling != null) {
+        this.sampling.cancel(false);
+      }
+      final long elapsed = System.nanoTime() - this.start;
+      if (elapsed >= this.threshold) {
+        SlowCommandDetector.this.reportSlowCommand(this.command, this.sessionId, elapsed);
+      }
+    }
+
+    private void sample() {
+      if (this.samples.incrementAndGet() > SlowCommandDetector.this.maxStackSamples) {
+        return;
+      }
+      SlowCommandDetector.this.reportStackSample(this.command, this.sessionId, System.nanoTime() - this.start, this.thread,
+          this.thread.getStackTrace());
+    }
+  }
+}
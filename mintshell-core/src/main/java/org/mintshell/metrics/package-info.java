@@ -0,0 +1,7 @@
+/**
+ * Contains the default implementation of command execution metrics.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+package org.mintshell.metrics;
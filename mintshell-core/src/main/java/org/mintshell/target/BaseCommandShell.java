@@ -44,6 +44,8 @@ public abstract class BaseCommandShell implements CommandShell {
   private final String prompt;
   private final Optional<String> promptPathSeparator;
   protected final Map<CommandTarget, CommandTargetSource> commandTargetSources;
+  private volatile CommandTargetCompletions completions;
+  private volatile int targetsVersion;
 
   /**
    * Creates a new instance without prompt path separator.
@@ -86,7 +88,7 @@ public abstract class BaseCommandShell implements CommandShell {
    * @since 0.2.0
    * @see #determineCommandTargets(CommandTargetSource)
    */
-  public void addCommandTargetSources(final CommandTargetSource... commandTargetSources) {
+  public synchronized void addCommandTargetSources(final CommandTargetSource... commandTargetSources) {
     if (commandTargetSources != null) {
       for (final CommandTargetSource source : commandTargetSources) {
         if (source != null) {
@@ -94,6 +96,32 @@ public abstract class BaseCommandShell implements CommandShell {
           sources.forEach(target -> this.commandTargetSources.put(target, source));
         }
       }
+      this.completions = null;
+      this.targetsVersion++;
+    }
+  }
+
+  /**
+   * Returns the {@link CommandTargetCompletions} of the current {@link #getTargets() targets}. The completions are
+   * built on first use and rebuilt only after {@link CommandTargetSource}s have been added. Building them holds the same
+   * lock as {@link #addCommandTargetSources(CommandTargetSource...)}, so that completions of outdated targets are never
+   * published.
+   *
+   * @return {@link CommandTargetCompletions} of the current targets
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandTargetCompletions getCompletions() {
+    final CommandTargetCompletions completions = this.completions;
+    if (completions != null) {
+      return completions;
+    }
+    synchronized (this) {
+      if (this.completions == null) {
+        this.completions = new CommandTargetCompletions(this.getTargets());
+      }
+      return this.completions;
     }
   }
 
@@ -130,6 +158,20 @@ public abstract class BaseCommandShell implements CommandShell {
     return new HashSet<>(this.commandTargetSources.keySet());
   }
 
+  /**
+   * Returns the version of the current {@link #getTargets() targets}, that changes whenever {@link CommandTargetSource}s
+   * are added. It allows to cache data derived from the targets, e.g. rendered help texts, and to detect when to
+   * rebuild it.
+   *
+   * @return version of the current targets
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getTargetsVersion() {
+    return this.targetsVersion;
+  }
+
   /**
    * Inspects the given command target source and determines all available {@link CommandTarget}s.
    *
@@ -23,6 +23,8 @@
  */
 package org.mintshell.target;
 
+import static java.lang.String.format;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -42,6 +44,11 @@ public abstract class BaseCommandTarget implements CommandTarget {
   private final String name;
   private final List<? extends CommandTargetParameter> parameters;
   private final Optional<String> description;
+  private volatile Long cacheTtlMillis;
+  private volatile Long timeoutMillis;
+  private volatile boolean coalescing;
+  private volatile Integer maxConcurrency;
+  private volatile long queueTimeoutMillis;
 
   /**
    * Creates a new instance.
@@ -62,6 +69,17 @@ public abstract class BaseCommandTarget implements CommandTarget {
     this.description = Optional.ofNullable(description);
   }
 
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.target.CommandTarget#getCacheTtlMillis()
+   */
+  @Override
+  public Optional<Long> getCacheTtlMillis() {
+    return Optional.ofNullable(this.cacheTtlMillis);
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -73,6 +91,17 @@ public abstract class BaseCommandTarget implements CommandTarget {
     return this.description;
   }
 
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.target.CommandTarget#getMaxConcurrency()
+   */
+  @Override
+  public Optional<Integer> getMaxConcurrency() {
+    return Optional.ofNullable(this.maxConcurrency);
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -94,4 +123,108 @@ public abstract class BaseCommandTarget implements CommandTarget {
   public List<? extends CommandTargetParameter> getParameters() {
     return new ArrayList<>(this.parameters);
   }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.target.CommandTarget#getQueueTimeoutMillis()
+   */
+  @Override
+  public long getQueueTimeoutMillis() {
+    return this.queueTimeoutMillis;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.target.CommandTarget#getTimeoutMillis()
+   */
+  @Override
+  public Optional<Long> getTimeoutMillis() {
+    return Optional.ofNullable(this.timeoutMillis);
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.target.CommandTarget#isCoalescing()
+   */
+  @Override
+  public boolean isCoalescing() {
+    return this.coalescing;
+  }
+
+  /**
+   * Sets the time to live of cached results of invocations of this {@link CommandTarget}.
+   *
+   * @param cacheTtlMillis
+   *          time to live in milliseconds or {@code null}, if results must not be cached
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setCacheTtlMillis(final @Nullable Long cacheTtlMillis) {
+    Assert.ARG.isTrue(cacheTtlMillis == null || cacheTtlMillis > 0, format("[cacheTtlMillis] must be greater than [0] but was [%s]", cacheTtlMillis));
+    this.cacheTtlMillis = cacheTtlMillis;
+  }
+
+  /**
+   * Sets whether concurrent invocations of this {@link CommandTarget} with equal arguments share one invocation.
+   *
+   * @param coalescing
+   *          {@code true}, if concurrent invocations are coalesced, otherwise {@code false}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setCoalescing(final boolean coalescing) {
+    this.coalescing = coalescing;
+  }
+
+  /**
+   * Sets the maximum amount of concurrent invocations of this {@link CommandTarget}.
+   *
+   * @param maxConcurrency
+   *          maximum amount of concurrent invocations or {@code null}, if there is no limit
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setMaxConcurrency(final @Nullable Integer maxConcurrency) {
+    Assert.ARG.isTrue(maxConcurrency == null || maxConcurrency > 0, format("[maxConcurrency] must be greater than [0] but was [%s]", maxConcurrency));
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * Sets the maximum time an invocation of this {@link CommandTarget} waits for a free slot, if the
+   * {@link #getMaxConcurrency() maximum amount of concurrent invocations} is reached.
+   *
+   * @param queueTimeoutMillis
+   *          maximum waiting time in milliseconds ({@code 0} means that the invocation is rejected immediately)
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setQueueTimeoutMillis(final long queueTimeoutMillis) {
+    Assert.ARG.isTrue(queueTimeoutMillis >= 0, format("[queueTimeoutMillis] must not be negative but was [%d]", queueTimeoutMillis));
+    this.queueTimeoutMillis = queueTimeoutMillis;
+  }
+
+  /**
+   * Sets the maximum duration of an invocation of this {@link CommandTarget}.
+   *
+   * @param timeoutMillis
+   *          timeout in milliseconds ({@code 0} means no timeout) or {@code null}, if the default timeout of the
+   *          dispatcher applies
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setTimeoutMillis(final @Nullable Long timeoutMillis) {
+    Assert.ARG.isTrue(timeoutMillis == null || timeoutMillis >= 0, format("[timeoutMillis] must not be negative but was [%s]", timeoutMillis));
+    this.timeoutMillis = timeoutMillis;
+  }
 }
@@ -23,7 +23,9 @@
  */
 package org.mintshell.target;
 
+import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 
 import org.mintshell.annotation.Nullable;
 
@@ -40,6 +42,7 @@ public abstract class BaseCommandTargetParameter implements CommandTargetParamet
   private final Optional<String> description;
   private final Optional<Character> shortName;
   private final boolean required;
+  private volatile ValueCompleter valueCompleter;
 
   /**
    * Creates a new instance.
@@ -67,6 +70,17 @@ public abstract class BaseCommandTargetParameter implements CommandTargetParamet
     this.required = required;
   }
 
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.target.CommandTargetParameter#getAcceptedValues()
+   */
+  @Override
+  public Set<String> getAcceptedValues() {
+    return Collections.emptySet();
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -111,6 +125,17 @@ public abstract class BaseCommandTargetParameter implements CommandTargetParamet
     return this.shortName;
   }
 
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.target.CommandTargetParameter#getValueCompleter()
+   */
+  @Override
+  public Optional<ValueCompleter> getValueCompleter() {
+    return Optional.ofNullable(this.valueCompleter);
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -121,4 +146,17 @@ public abstract class BaseCommandTargetParameter implements CommandTargetParamet
   public boolean isRequired() {
     return this.required;
   }
+
+  /**
+   * Sets the {@link ValueCompleter} used to complete values of this parameter dynamically.
+   *
+   * @param valueCompleter
+   *          {@link ValueCompleter} to use or {@code null} to disable dynamic value completion
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setValueCompleter(final @Nullable ValueCompleter valueCompleter) {
+    this.valueCompleter = valueCompleter;
+  }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Burkhard-Keller tree of words using the Levenshtein distance. Searching words within a small distance only visits
+ * the subtrees whose edge distance may satisfy the triangle inequality instead of comparing all words.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+final class BkTree {
+
+  private Node root;
+
+  /**
+   * Adds the given word, if it isn't contained yet.
+   *
+   * @param word
+   *          word to add
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void add(final String word) {
+    if (this.root == null) {
+      this.root = new Node(word);
+      return;
+    }
+    Node node = this.root;
+    while (true) {
+      final int distance = distance(node.word, word);
+      if (distance == 0) {
+        return;
+      }
+      final Node child = node.children.get(distance);
+      if (child == null) {
+        node.children.put(distance, new Node(word));
+        return;
+      }
+      node = child;
+    }
+  }
+
+  /**
+   * Returns the words within the given distance of the given word, ordered by distance and then alphabetically.
+   *
+   * @param word
+   *          word to search for
+   * @param maxDistance
+   *          maximum distance of the returned words
+   * @return words within the given distance
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  List<String> find(final String word, final int maxDistance) {
+    final List<Match> matches = new ArrayList<>();
+    if (this.root != null) {
+      final Deque<Node> pending = new ArrayDeque<>();
+      pending.push(this.root);
+      while (!pending.isEmpty()) {
+        final Node node = pending.pop();
+        final int distance = distance(node.word, word);
+        if (distance <= maxDistance) {
+          matches.add(new Match(node.word, distance));
+        }
+        for (int edge = Math.max(1, distance - maxDistance); edge <= distance + maxDistance; edge++) {
+          final Node child = node.children.get(edge);
+          if (child != null) {
+            pending.push(child);
+          }
+        }
+      }
+    }
+    matches.sort(Comparator.comparingInt((final Match match) -> match.distance).thenComparing(match -> match.word));
+    final List<String> words = new ArrayList<>(matches.size());
+    matches.forEach(match -> words.add(match.word));
+    return words;
+  }
+
+  /**
+   * Returns the Levenshtein distance of the given words.
+   *
+   * @param first
+   *          first word
+   * @param second
+   *          second word
+   * @return distance of the given words
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  static int distance(final String first, final String second) {
+    int[] lastRow = new int[second.length() + 1];
+    int[] row = new int[second.length() + 1];
+    for (int column = 0; column <= second.length(); column++) {
+      lastRow[column] = column;
+    }
+    for (int line = 1; line <= first.length(); line++) {
+      row[0] = line;
+      for (int column = 1; column <= second.length(); column++) {
+        final int cost = first.charAt(line - 1) == second.charAt(column - 1) ? 0 : 1;
+        row[column] = Math.min(Math.min(row[column - 1] + 1, lastRow[column] + 1), lastRow[column - 1] + cost);
+      }
+      final int[] swap = lastRow;
+      lastRow = row;
+      row = swap;
+    }
+    return lastRow[second.length()];
+  }
+
+  /**
+   * Node of a {@link BkTree} keeping its children by their distance.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Node {
+
+    private final String word;
+    private final Map<Integer, Node> children = new HashMap<>();
+
+    private Node(final String word) {
+      this.word = word;
+    }
+  }
+
+  /**
+   * Word found within the searched distance.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Match {
+
+    private final String word;
+    private final int distance;
+
+    private Match(final String word, final int distance) {
+      this.word = word;
+      this.distance = distance;
+    }
+  }
+}
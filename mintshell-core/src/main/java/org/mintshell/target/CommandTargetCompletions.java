@@ -0,0 +1,250 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.mintshell.assertion.Assert;
+
+/**
+ * <p>
+ * Immutable completion index of a set of {@link CommandTarget}s. The index completes
+ * </p>
+ * <ul>
+ * <li>{@link CommandTarget} names,</li>
+ * <li>{@link CommandTargetParameter} names as {@value #LONG_PARAMETER_PREFIX}name or {@value #SHORT_PARAMETER_PREFIX}s
+ * and</li>
+ * <li>{@link CommandTargetParameter#getAcceptedValues() accepted values} following a named parameter and</li>
+ * <li>values following a named parameter with a {@link CommandTargetParameter#getValueCompleter() value completer},
+ * that is invoked via the active {@link ValueCompletionCache}.</li>
+ * </ul>
+ * <p>
+ * All candidates are kept in prefix tries, whose nodes hold a read-only {@link SortedSet} of all candidates below
+ * them. Completing a fragment thus walks the trie along the prefix and returns the precomputed set without filtering,
+ * sorting or copying candidates.
+ * </p>
+ * <p>
+ * Additionally command names are kept in a {@link BkTree} to {@link #suggest(String, int) suggest} similar names of
+ * misspelled commands and to complete command names fuzzily, if no command name starts with the fragment.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandTargetCompletions {
+
+  public static final int DEFAULT_MAX_SUGGESTIONS = 3;
+  public static final int MAX_SUGGESTION_DISTANCE = 2;
+  public static final String LONG_PARAMETER_PREFIX = "--";
+  public static final String SHORT_PARAMETER_PREFIX = "-";
+
+  private static final String PIPE = "|";
+  private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[ \t]+");
+
+  private final Trie commandNames;
+  private final BkTree similarCommandNames;
+  private final Map<String, Trie> parameterNames;
+  private final Map<String, Map<String, Trie>> parameterValues;
+  private final Map<String, Map<String, CommandTargetParameter>> completedParameters;
+
+  /**
+   * Creates a new completion index of the given {@link CommandTarget}s.
+   *
+   * @param commandTargets
+   *          {@link CommandTarget}s to be completed
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandTargetCompletions(final Set<? extends CommandTarget> commandTargets) {
+    Assert.ARG.isNotNull(commandTargets, "[commandTargets] must not be [null]");
+    this.commandNames = new Trie();
+    this.similarCommandNames = new BkTree();
+    this.parameterNames = new HashMap<>();
+    this.parameterValues = new HashMap<>();
+    this.completedParameters = new HashMap<>();
+    for (final CommandTarget commandTarget : commandTargets) {
+      this.commandNames.add(commandTarget.getName());
+      this.similarCommandNames.add(commandTarget.getName());
+      final Trie names = this.parameterNames.computeIfAbsent(commandTarget.getName(), name -> new Trie());
+      for (final CommandTargetParameter parameter : commandTarget.getParameters()) {
+        final Trie values = new Trie();
+        parameter.getAcceptedValues().forEach(values::add);
+        values.freeze();
+        parameter.getName().ifPresent(name -> this.addParameter(commandTarget, parameter, names, LONG_PARAMETER_PREFIX + name, values));
+        parameter.getShortName().ifPresent(shortName -> this.addParameter(commandTarget, parameter, names, SHORT_PARAMETER_PREFIX + shortName, values));
+      }
+    }
+    this.commandNames.freeze();
+    this.parameterNames.values().forEach(Trie::freeze);
+  }
+
+  /**
+   * Returns the completion candidates for the last word of the given command fragment. If the fragment consists of a
+   * single word, it is completed as {@link CommandTarget} name or, if no name starts with it, by
+   * {@link #suggest(String, int) similar names}. Words starting with {@value #SHORT_PARAMETER_PREFIX}
+   * are completed as parameter names of the {@link CommandTarget} named by the first word, other words following a
+   * parameter name are completed by its {@link CommandTargetParameter#getAcceptedValues() accepted values} or its
+   * {@link CommandTargetParameter#getValueCompleter() value completer}. Piped commands are completed independently.
+   *
+   * @param commandFragment
+   *          command fragment to be completed
+   * @return {@link SortedSet} of candidates for the last word of the command fragment or an empty {@link Set}, if
+   *         nothing matches
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public SortedSet<String> complete(final String commandFragment) {
+    Assert.ARG.isNotNull(commandFragment, "[commandFragment] must not be [null]");
+    final String[] words = TOKEN_SEPARATOR.split(commandFragment, -1);
+    int commandIndex = words[0].isEmpty() && words.length > 1 ? 1 : 0;
+    for (int index = words.length - 2; index >= commandIndex; index--) {
+      if (PIPE.equals(words[index])) {
+        commandIndex = index + 1;
+        break;
+      }
+    }
+    final int wordIndex = words.length - 1;
+    final String word = words[wordIndex];
+    if (wordIndex == commandIndex) {
+      final SortedSet<String> names = this.commandNames.find(word);
+      return names.isEmpty() && !word.isEmpty() ? new TreeSet<>(this.similarCommandNames.find(word, maxDistance(word))) : names;
+    }
+    final String commandName = words[commandIndex];
+    if (word.startsWith(SHORT_PARAMETER_PREFIX)) {
+      final Trie names = this.parameterNames.get(commandName);
+      return names != null ? names.find(word) : Collections.emptySortedSet();
+    }
+    if (wordIndex - 1 > commandIndex) {
+      final Map<String, Trie> values = this.parameterValues.get(commandName);
+      final Trie parameterValues = values != null ? values.get(words[wordIndex - 1]) : null;
+      if (parameterValues != null) {
+        return parameterValues.find(word);
+      }
+      final Map<String, CommandTargetParameter> parameters = this.completedParameters.get(commandName);
+      final CommandTargetParameter parameter = parameters != null ? parameters.get(words[wordIndex - 1]) : null;
+      if (parameter != null) {
+        return ValueCompletionCache.getInstance().complete(parameter, word);
+      }
+    }
+    return Collections.emptySortedSet();
+  }
+
+  /**
+   * Returns names of {@link CommandTarget}s, that are similar to the given command name, e.g. to suggest them if no
+   * {@link CommandTarget} with the given name exists. Names are similar, if they differ by at most
+   * {@value #MAX_SUGGESTION_DISTANCE} inserted, deleted or replaced characters, or by a single one for command names
+   * with less than five characters.
+   *
+   * @param commandName
+   *          command name to find similar names for
+   * @param maxSuggestions
+   *          maximum amount of returned names
+   * @return similar names ordered by their similarity
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public List<String> suggest(final String commandName, final int maxSuggestions) {
+    Assert.ARG.isNotNull(commandName, "[commandName] must not be [null]");
+    final List<String> names = this.similarCommandNames.find(commandName, maxDistance(commandName));
+    return names.subList(0, Math.min(maxSuggestions, names.size()));
+  }
+
+  private void addParameter(final CommandTarget commandTarget, final CommandTargetParameter parameter, final Trie names, final String parameterName,
+      final Trie values) {
+    names.add(parameterName);
+    if (!values.isEmpty()) {
+      this.parameterValues.computeIfAbsent(commandTarget.getName(), name -> new HashMap<>()).put(parameterName, values);
+    }
+    else if (parameter.getValueCompleter().isPresent()) {
+      this.completedParameters.computeIfAbsent(commandTarget.getName(), name -> new HashMap<>()).put(parameterName, parameter);
+    }
+  }
+
+  private static int maxDistance(final String word) {
+    return word.length() < 5 ? 1 : MAX_SUGGESTION_DISTANCE;
+  }
+
+  /**
+   * Prefix trie whose nodes hold all words starting with the node's prefix.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Trie {
+
+    private final Node root = new Node();
+
+    private void add(final String word) {
+      Node node = this.root;
+      node.words.add(word);
+      for (int index = 0; index < word.length(); index++) {
+        node = node.children.computeIfAbsent(word.charAt(index), character -> new Node());
+        node.words.add(word);
+      }
+    }
+
+    private SortedSet<String> find(final String prefix) {
+      Node node = this.root;
+      for (int index = 0; index < prefix.length() && node != null; index++) {
+        node = node.children.get(prefix.charAt(index));
+      }
+      return node != null ? node.words : Collections.emptySortedSet();
+    }
+
+    private void freeze() {
+      this.root.freeze();
+    }
+
+    private boolean isEmpty() {
+      return this.root.words.isEmpty();
+    }
+  }
+
+  /**
+   * Node of a {@link Trie}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Node {
+
+    private final Map<Character, Node> children = new HashMap<>();
+    private SortedSet<String> words = new TreeSet<>();
+
+    private void freeze() {
+      this.words = Collections.unmodifiableSortedSet(this.words);
+      this.children.values().forEach(Node::freeze);
+    }
+  }
+}
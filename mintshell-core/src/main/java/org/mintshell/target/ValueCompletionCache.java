@@ -0,0 +1,303 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target;
+
+import static java.lang.String.format;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mintshell.annotation.Nullable;
+import org.mintshell.assertion.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Invokes {@link ValueCompleter}s asynchronously and caches their results, so completing a value never waits longer
+ * than a short deadline for a slow {@link ValueCompleter}. If the deadline expires, no candidates are returned, but
+ * the lookup proceeds in the background and a repeated completion of the same value fragment picks up its result.
+ * </p>
+ * <p>
+ * Results are cached per {@link CommandTargetParameter} and value fragment for a limited time; the least recently
+ * used results are evicted, if the cache exceeds its maximum size. Failed lookups aren't cached.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class ValueCompletionCache implements AutoCloseable {
+
+  public static final long DEFAULT_DEADLINE_MILLIS = 20;
+  public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 30000;
+  public static final int DEFAULT_MAX_ENTRIES = 256;
+  public static final int DEFAULT_MAX_THREADS = 4;
+
+  private static final Logger LOG = LoggerFactory.getLogger(ValueCompletionCache.class);
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+  private static volatile ValueCompletionCache instance;
+
+  private final long deadlineNanos;
+  private final long timeToLiveNanos;
+  private final Map<Key, Entry> entries;
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * Creates a new instance using {@link #DEFAULT_DEADLINE_MILLIS}, {@link #DEFAULT_TIME_TO_LIVE_MILLIS} and
+   * {@link #DEFAULT_MAX_ENTRIES}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public ValueCompletionCache() {
+    this(DEFAULT_DEADLINE_MILLIS, DEFAULT_TIME_TO_LIVE_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_MAX_ENTRIES);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param deadline
+   *          maximum time to wait for a {@link ValueCompleter}
+   * @param timeToLive
+   *          time after which cached results are looked up again
+   * @param unit
+   *          {@link TimeUnit} of the deadline and the time to live
+   * @param maxEntries
+   *          maximum amount of cached results
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public ValueCompletionCache(final long deadline, final long timeToLive, final TimeUnit unit, final int maxEntries) {
+    Assert.ARG.isTrue(deadline >= 0, format("[deadline] must not be negative but was [%d]", deadline));
+    Assert.ARG.isTrue(timeToLive >= 0, format("[timeToLive] must not be negative but was [%d]", timeToLive));
+    Assert.ARG.isNotNull(unit, "[unit] must not be [null]");
+    Assert.ARG.isTrue(maxEntries > 0, format("[maxEntries] must be greater than [0] but was [%d]", maxEntries));
+    this.deadlineNanos = unit.toNanos(deadline);
+    this.timeToLiveNanos = unit.toNanos(timeToLive);
+    this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+        return this.size() > maxEntries;
+      }
+    };
+    this.executor = new ThreadPoolExecutor(0, DEFAULT_MAX_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+      final Thread thread = new Thread(runnable, format("mintshell-value-completer-%d", THREAD_SEQUENCE.incrementAndGet()));
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Returns the active {@link ValueCompletionCache}, that is created on first use, if none has been set.
+   *
+   * @return active {@link ValueCompletionCache}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static ValueCompletionCache getInstance() {
+    ValueCompletionCache current = instance;
+    if (current == null) {
+      synchronized (ValueCompletionCache.class) {
+        if (instance == null) {
+          instance = new ValueCompletionCache();
+        }
+        current = instance;
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Activates the given {@link ValueCompletionCache}. A previously active instance is closed.
+   *
+   * @param valueCompletionCache
+   *          {@link ValueCompletionCache} to be activated or {@code null} to create a default one on next use
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static void setInstance(final @Nullable ValueCompletionCache valueCompletionCache) {
+    final ValueCompletionCache previous;
+    synchronized (ValueCompletionCache.class) {
+      previous = instance;
+      instance = valueCompletionCache;
+    }
+    if (previous != null && previous != valueCompletionCache) {
+      previous.close();
+    }
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.AutoCloseable#close()
+   */
+  @Override
+  public void close() {
+    this.executor.shutdownNow();
+    synchronized (this.entries) {
+      this.entries.clear();
+    }
+  }
+
+  /**
+   * Returns the candidate values of the given parameter, that start with the given value fragment, by means of its
+   * {@link CommandTargetParameter#getValueCompleter() value completer}. Waits at most for the configured deadline.
+   *
+   * @param parameter
+   *          {@link CommandTargetParameter} to complete the value for
+   * @param valueFragment
+   *          value fragment to be completed
+   * @return {@link SortedSet} of candidate values or an empty {@link SortedSet}, if the parameter has no
+   *         {@link ValueCompleter}, its lookup failed or didn't finish in time
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public SortedSet<String> complete(final CommandTargetParameter parameter, final String valueFragment) {
+    Assert.ARG.isNotNull(parameter, "[parameter] must not be [null]");
+    Assert.ARG.isNotNull(valueFragment, "[valueFragment] must not be [null]");
+    final ValueCompleter valueCompleter = parameter.getValueCompleter().orElse(null);
+    if (valueCompleter == null) {
+      return Collections.emptySortedSet();
+    }
+    final Key key = new Key(parameter, valueFragment);
+    final long now = System.nanoTime();
+    Entry entry;
+    synchronized (this.entries) {
+      entry = this.entries.get(key);
+      if (entry == null || entry.isExpired(now)) {
+        try {
+          entry = new Entry(now, CompletableFuture.supplyAsync(() -> this.lookup(valueCompleter, parameter, valueFragment), this.executor));
+        } catch (final RejectedExecutionException e) {
+          LOG.debug("Skipped completion of parameter [{}], since all value completers are busy", parameter);
+          return Collections.emptySortedSet();
+        }
+        this.entries.put(key, entry);
+      }
+    }
+    try {
+      return entry.result.get(this.deadlineNanos, TimeUnit.NANOSECONDS);
+    } catch (final TimeoutException e) {
+      LOG.debug("Value completer of parameter [{}] didn't finish in time", parameter);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final ExecutionException e) {
+      LOG.debug("Value completer of parameter [{}] failed", parameter, e.getCause());
+      synchronized (this.entries) {
+        this.entries.remove(key, entry);
+      }
+    }
+    return Collections.emptySortedSet();
+  }
+
+  private SortedSet<String> lookup(final ValueCompleter valueCompleter, final CommandTargetParameter parameter, final String valueFragment) {
+    final Collection<String> candidates;
+    try {
+      candidates = valueCompleter.complete(parameter, valueFragment);
+    } catch (final Exception e) {
+      throw new CompletionException(e);
+    }
+    final SortedSet<String> values = new TreeSet<>();
+    if (candidates != null) {
+      candidates.stream() //
+          .filter(candidate -> candidate != null && candidate.startsWith(valueFragment)) //
+          .forEach(values::add);
+    }
+    return Collections.unmodifiableSortedSet(values);
+  }
+
+  /**
+   * Cache key of a looked up value fragment.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Key {
+
+    private final CommandTargetParameter parameter;
+    private final String valueFragment;
+
+    private Key(final CommandTargetParameter parameter, final String valueFragment) {
+      this.parameter = parameter;
+      this.valueFragment = valueFragment;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return this.parameter == other.parameter && this.valueFragment.equals(other.valueFragment);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(this.parameter), this.valueFragment);
+    }
+  }
+
+  /**
+   * Cached, possibly pending result of a lookup.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private final class Entry {
+
+    private final long created;
+    private final CompletableFuture<SortedSet<String>> result;
+
+    private Entry(final long created, final CompletableFuture<SortedSet<String>> result) {
+      this.created = created;
+      this.result = result;
+    }
+
+    private boolean isExpired(final long now) {
+      return this.result.isDone() && now - this.created >= ValueCompletionCache.this.timeToLiveNanos;
+    }
+  }
+}
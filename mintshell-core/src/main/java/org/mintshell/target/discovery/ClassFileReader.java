@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target.discovery;
+
+import static java.lang.String.format;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads just enough of a class file to decide whether it declares command targets, without loading the class. A class
+ * file declares command targets, if it describes a public, concrete, top level class with at least one public method
+ * annotated with {@link org.mintshell.annotation.CommandTarget}.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+final class ClassFileReader {
+
+  private static final int MAGIC = 0xCAFEBABE;
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_INTERFACE = 0x0200;
+  private static final int ACC_ABSTRACT = 0x0400;
+  private static final int ACC_ANNOTATION = 0x2000;
+  private static final int ACC_ENUM = 0x4000;
+  private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+  private static final String COMMAND_TARGET_DESCRIPTOR = descriptorOf(org.mintshell.annotation.CommandTarget.class);
+
+  private ClassFileReader() {
+  }
+
+  /**
+   * Checks whether the given class file declares command targets.
+   *
+   * @param classFile
+   *          {@link InputStream} of the class file
+   * @return {@code true}, if the class file declares command targets, {@code false} otherwise
+   * @throws IOException
+   *           if the class file can't be read or is malformed
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  static boolean declaresCommandTargets(final InputStream classFile) throws IOException {
+    final DataInputStream in = new DataInputStream(classFile);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a class file");
+    }
+    in.readUnsignedShort();
+    in.readUnsignedShort();
+    final String[] utf8 = readConstantPool(in);
+    final int access = in.readUnsignedShort();
+    if ((access & ACC_PUBLIC) == 0 || (access & (ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION | ACC_ENUM)) != 0) {
+      return false;
+    }
+    in.readUnsignedShort();
+    in.readUnsignedShort();
+    skip(in, 2 * in.readUnsignedShort());
+    final int fields = in.readUnsignedShort();
+    for (int i = 0; i < fields; i++) {
+      skip(in, 6);
+      skipAttributes(in);
+    }
+    final int methods = in.readUnsignedShort();
+    for (int i = 0; i < methods; i++) {
+      final int methodAccess = in.readUnsignedShort();
+      skip(in, 4);
+      final int attributes = in.readUnsignedShort();
+      for (int j = 0; j < attributes; j++) {
+        final String name = utf8[in.readUnsignedShort()];
+        final int length = in.readInt();
+        if ((methodAccess & ACC_PUBLIC) != 0 && RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+          final int annotations = in.readUnsignedShort();
+          for (int k = 0; k < annotations; k++) {
+            if (COMMAND_TARGET_DESCRIPTOR.equals(readAnnotation(in, utf8))) {
+              return true;
+            }
+          }
+        }
+        else {
+          skip(in, length);
+        }
+      }
+    }
+    return false;
+  }
+
+  private static String descriptorOf(final Class<?> type) {
+    return "L" + type.getName().replace('.', '/') + ";";
+  }
+
+  private static String readAnnotation(final DataInputStream in, final String[] utf8) throws IOException {
+    final String type = utf8[in.readUnsignedShort()];
+    final int pairs = in.readUnsignedShort();
+    for (int i = 0; i < pairs; i++) {
+      in.readUnsignedShort();
+      skipElementValue(in, utf8);
+    }
+    return type;
+  }
+
+  private static String[] readConstantPool(final DataInputStream in) throws IOException {
+    final int count = in.readUnsignedShort();
+    final String[] utf8 = new String[count];
+    for (int i = 1; i < count; i++) {
+      final int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1:
+          utf8[i] = in.readUTF();
+          break;
+        case 7:
+        case 8:
+        case 16:
+        case 19:
+        case 20:
+          skip(in, 2);
+          break;
+        case 15:
+          skip(in, 3);
+          break;
+        case 3:
+        case 4:
+        case 9:
+        case 10:
+        case 11:
+        case 12:
+        case 17:
+        case 18:
+          skip(in, 4);
+          break;
+        case 5:
+        case 6:
+          skip(in, 8);
+          i++;
+          break;
+        default:
+          throw new IOException(format("Unknown constant pool tag [%d]", tag));
+      }
+    }
+    return utf8;
+  }
+
+  private static void skip(final DataInputStream in, final int bytes) throws IOException {
+    int remaining = bytes;
+    while (remaining > 0) {
+      final int skipped = in.skipBytes(remaining);
+      if (skipped > 0) {
+        remaining -= skipped;
+      }
+      else {
+        in.readByte();
+        remaining--;
+      }
+    }
+  }
+
+  private static void skipAttributes(final DataInputStream in) throws IOException {
+    final int attributes = in.readUnsignedShort();
+    for (int i = 0; i < attributes; i++) {
+      in.readUnsignedShort();
+      skip(in, in.readInt());
+    }
+  }
+
+  private static void skipElementValue(final DataInputStream in, final String[] utf8) throws IOException {
+    final int tag = in.readUnsignedByte();
+    switch (tag) {
+      case 'e':
+        skip(in, 4);
+        break;
+      case '@':
+        readAnnotation(in, utf8);
+        break;
+      case '[':
+        final int values = in.readUnsignedShort();
+        for (int i = 0; i < values; i++) {
+          skipElementValue(in, utf8);
+        }
+        break;
+      default:
+        skip(in, 2);
+    }
+  }
+}
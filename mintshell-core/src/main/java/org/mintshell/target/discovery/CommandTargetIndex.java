@@ -0,0 +1,257 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target.discovery;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.joining;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mintshell.assertion.Assert;
+
+/**
+ * Index of the command target classes found per jar file, keyed by the checksum of the jar file. It is persisted as
+ * {@link Properties} file and only valid for the set of scanned packages it was created for.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+final class CommandTargetIndex {
+
+  private static final String PACKAGES_KEY = "packages";
+  private static final String CHECKSUM_SEPARATOR = ":";
+  private static final String CLASS_SEPARATOR = ",";
+
+  private final String packages;
+  private final Map<String, Entry> entries;
+
+  /**
+   * Creates a new, empty index.
+   *
+   * @param packages
+   *          scanned packages
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  CommandTargetIndex(final Set<String> packages) {
+    this.packages = new TreeSet<>(Assert.ARG.isNotNull(packages, "[packages] must not be [null]")).stream().collect(joining(CLASS_SEPARATOR));
+    this.entries = new HashMap<>();
+  }
+
+  /**
+   * Loads the index from the given file. An index file created for other packages or not readable at all results in
+   * an empty index.
+   *
+   * @param file
+   *          index file
+   * @param packages
+   *          scanned packages
+   * @return loaded index
+   * @throws IOException
+   *           if the index file can't be read
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  static CommandTargetIndex load(final Path file, final Set<String> packages) throws IOException {
+    final CommandTargetIndex index = new CommandTargetIndex(packages);
+    if (Files.isRegularFile(file)) {
+      final Properties properties = new Properties();
+      try (final InputStream in = Files.newInputStream(file)) {
+        properties.load(in);
+      }
+      if (index.packages.equals(properties.getProperty(PACKAGES_KEY))) {
+        for (final String jar : properties.stringPropertyNames()) {
+          if (!PACKAGES_KEY.equals(jar)) {
+            final String value = properties.getProperty(jar);
+            final int separator = value.indexOf(CHECKSUM_SEPARATOR);
+            if (separator > 0) {
+              final String classes = value.substring(separator + 1);
+              index.entries.put(jar, new Entry(Long.parseLong(value.substring(0, separator), 16),
+                  classes.isEmpty() ? Collections.emptyList() : asList(classes.split(CLASS_SEPARATOR))));
+            }
+          }
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Returns the command target classes found in the given jar file, if the jar file is indexed with the given
+   * checksum.
+   *
+   * @param jar
+   *          jar file
+   * @param checksum
+   *          current checksum of the jar file
+   * @return command target classes or {@link Optional#empty()}, if the jar file isn't indexed with this checksum
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  Optional<List<String>> get(final Path jar, final long checksum) {
+    final Entry entry = this.entries.get(jar.toString());
+    return entry != null && entry.checksum == checksum ? Optional.of(entry.classes) : Optional.empty();
+  }
+
+  /**
+   * Indexes the command target classes found in the given jar file.
+   *
+   * @param jar
+   *          jar file
+   * @param checksum
+   *          checksum of the jar file
+   * @param classes
+   *          command target classes found in the jar file
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void put(final Path jar, final long checksum, final List<String> classes) {
+    this.entries.put(jar.toString(), new Entry(checksum, new ArrayList<>(classes)));
+  }
+
+  /**
+   * Stores the index to the given file, replacing an existing one.
+   *
+   * @param file
+   *          index file
+   * @throws IOException
+   *           if the index file can't be written
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void store(final Path file) throws IOException {
+    final Properties properties = new Properties();
+    properties.setProperty(PACKAGES_KEY, this.packages);
+    this.entries.forEach((jar, entry) -> properties.setProperty(jar,
+        Long.toHexString(entry.checksum) + CHECKSUM_SEPARATOR + entry.classes.stream().collect(joining(CLASS_SEPARATOR))));
+    final Path directory = file.toAbsolutePath().getParent();
+    if (directory != null) {
+      Files.createDirectories(directory);
+    }
+    final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+    try {
+      try (final OutputStream out = Files.newOutputStream(temporary)) {
+        properties.store(out, "Mintshell command target index");
+      }
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.Object#equals(java.lang.Object)
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CommandTargetIndex)) {
+      return false;
+    }
+    final CommandTargetIndex other = (CommandTargetIndex) obj;
+    return this.packages.equals(other.packages) && this.entries.equals(other.entries);
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.packages, this.entries);
+  }
+
+  /**
+   * Indexed command target classes of a single jar file.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Entry {
+
+    private final long checksum;
+    private final List<String> classes;
+
+    private Entry(final long checksum, final List<String> classes) {
+      this.checksum = checksum;
+      this.classes = Collections.unmodifiableList(classes);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Entry)) {
+        return false;
+      }
+      final Entry other = (Entry) obj;
+      return this.checksum == other.checksum && this.classes.equals(other.classes);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.checksum, this.classes);
+    }
+  }
+}
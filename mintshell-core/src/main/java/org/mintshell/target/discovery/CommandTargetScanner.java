@@ -0,0 +1,461 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target.discovery;
+
+import static java.lang.String.format;
+import static java.util.Arrays.stream;
+import static java.util.Collections.emptyList;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import org.mintshell.annotation.CommandTarget;
+import org.mintshell.annotation.Nullable;
+import org.mintshell.assertion.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Discovers the classes of configured packages (including their subpackages) declaring methods annotated with
+ * {@link CommandTarget}. The class files are inspected without loading the classes, so only the found classes are
+ * loaded at all. Directories and jar files of the classpath are scanned in parallel within a {@link ForkJoinPool}.
+ * </p>
+ * <p>
+ * If an index file is configured, the classes found per jar file are stored in that file keyed by the checksum of the
+ * jar file, so unchanged jar files are not scanned again on a later start. Directories are always scanned.
+ * </p>
+ * <p>
+ * Only public, concrete, top level classes are discovered. Jar files must contain directory entries for the scanned
+ * packages.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandTargetScanner {
+
+  public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+  private static final Logger LOG = LoggerFactory.getLogger(CommandTargetScanner.class);
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+  private static final String CLASS_FILE_SUFFIX = ".class";
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Set<String> packages;
+  private volatile ClassLoader classLoader;
+  private volatile @Nullable Path indexFile;
+  private volatile int parallelism;
+
+  /**
+   * Creates a new instance scanning the given packages with the context {@link ClassLoader} of the current
+   * {@link Thread}.
+   *
+   * @param packages
+   *          names of the packages to scan
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public CommandTargetScanner(final String... packages) {
+    Assert.ARG.isNotNull(packages, "[packages] must not be [null]");
+    Assert.ARG.isTrue(packages.length > 0, "[packages] must not be empty");
+    this.packages = new LinkedHashSet<>();
+    for (final String packageName : packages) {
+      Assert.ARG.isTrue(packageName != null && !packageName.isEmpty(), format("[%s] is no valid package name", packageName));
+      this.packages.add(packageName);
+    }
+    final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    this.classLoader = contextClassLoader != null ? contextClassLoader : CommandTargetScanner.class.getClassLoader();
+    this.parallelism = DEFAULT_PARALLELISM;
+  }
+
+  /**
+   * Scans the packages and creates a command target source for each discovered class. Classes declaring non-static
+   * command targets are instantiated by their public default constructor, other classes are returned as they are, so
+   * only their static command targets are used. Classes that can't be loaded or instantiated are skipped.
+   *
+   * @return command target sources of all discovered classes
+   * @throws IOException
+   *           if the classpath can't be searched for the packages
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public List<Object> createCommandTargetSources() throws IOException {
+    final List<Object> commandTargetSources = new ArrayList<>();
+    for (final String className : this.scan()) {
+      try {
+        commandTargetSources.add(createCommandTargetSource(Class.forName(className, true, this.classLoader)));
+      } catch (final ReflectiveOperationException | LinkageError e) {
+        LOG.warn("Failed to create command target source from class [{}]", className, e);
+      }
+    }
+    return commandTargetSources;
+  }
+
+  /**
+   * Returns the {@link ClassLoader} used to search the classpath and to load the discovered classes.
+   *
+   * @return {@link ClassLoader} used for scanning
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public ClassLoader getClassLoader() {
+    return this.classLoader;
+  }
+
+  /**
+   * Returns the index file storing the classes found per jar file.
+   *
+   * @return index file or {@link Optional#empty()}, if no index is used
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Optional<Path> getIndexFile() {
+    return Optional.ofNullable(this.indexFile);
+  }
+
+  /**
+   * Returns the names of the scanned packages.
+   *
+   * @return names of the scanned packages
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public Set<String> getPackages() {
+    return Collections.unmodifiableSet(this.packages);
+  }
+
+  /**
+   * Returns the amount of directories and jar files scanned in parallel.
+   *
+   * @return parallelism of the scan
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Scans the packages for classes declaring command targets.
+   *
+   * @return sorted names of the discovered classes
+   * @throws IOException
+   *           if the classpath can't be searched for the packages
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public List<String> scan() throws IOException {
+    final Map<Path, String> directories = new HashMap<>();
+    final Map<Path, Set<String>> jars = new HashMap<>();
+    this.findRoots(directories, jars);
+    final Path index = this.indexFile;
+    final CommandTargetIndex previousIndex = index != null ? loadIndex(index, this.packages) : new CommandTargetIndex(this.packages);
+    final CommandTargetIndex currentIndex = new CommandTargetIndex(this.packages);
+    final ForkJoinPool pool = new ForkJoinPool(this.parallelism, CommandTargetScanner::createWorkerThread, null, false);
+    final Set<String> classNames = new TreeSet<>();
+    try {
+      final List<ForkJoinTask<List<String>>> tasks = new ArrayList<>();
+      directories.forEach((directory, packageName) -> tasks.add(pool.submit(new DirectoryScan(directory, packageName))));
+      jars.forEach((jar, prefixes) -> tasks.add(pool.submit(new JarScan(jar, prefixes, previousIndex, currentIndex))));
+      tasks.forEach(task -> classNames.addAll(task.join()));
+    } finally {
+      pool.shutdown();
+    }
+    if (index != null && !currentIndex.equals(previousIndex)) {
+      try {
+        currentIndex.store(index);
+      } catch (final IOException e) {
+        LOG.warn("Failed to store command target index [{}]", index, e);
+      }
+    }
+    LOG.debug("Discovered [{}] command target classes in [{}] directories and [{}] jar files", classNames.size(), directories.size(), jars.size());
+    return new ArrayList<>(classNames);
+  }
+
+  /**
+   * Sets the {@link ClassLoader} used to search the classpath and to load the discovered classes.
+   *
+   * @param classLoader
+   *          {@link ClassLoader} used for scanning
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setClassLoader(final ClassLoader classLoader) {
+    this.classLoader = Assert.ARG.isNotNull(classLoader, "[classLoader] must not be [null]");
+  }
+
+  /**
+   * Sets the index file storing the classes found per jar file. The file is created or updated by the next scan.
+   *
+   * @param indexFile
+   *          index file or {@code null} to not use an index
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setIndexFile(final @Nullable Path indexFile) {
+    this.indexFile = indexFile;
+  }
+
+  /**
+   * Sets the amount of directories and jar files scanned in parallel.
+   *
+   * @param parallelism
+   *          parallelism of the scan
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setParallelism(final int parallelism) {
+    Assert.ARG.isTrue(parallelism > 0, format("[parallelism] must be greater than [0], but was [%d]", parallelism));
+    this.parallelism = parallelism;
+  }
+
+  private void findRoots(final Map<Path, String> directories, final Map<Path, Set<String>> jars) throws IOException {
+    for (final String packageName : this.packages) {
+      final String packagePath = packageName.replace('.', '/');
+      final Enumeration<URL> resources = this.classLoader.getResources(packagePath);
+      while (resources.hasMoreElements()) {
+        final URL resource = resources.nextElement();
+        try {
+          if ("file".equals(resource.getProtocol())) {
+            directories.put(Paths.get(resource.toURI()), packageName);
+          }
+          else if ("jar".equals(resource.getProtocol())) {
+            final URL jarFile = ((JarURLConnection) resource.openConnection()).getJarFileURL();
+            if ("file".equals(jarFile.getProtocol())) {
+              jars.computeIfAbsent(Paths.get(jarFile.toURI()), key -> new TreeSet<>()).add(packagePath + "/");
+            }
+            else {
+              LOG.debug("Skipping unsupported jar file location [{}]", resource);
+            }
+          }
+          else {
+            LOG.debug("Skipping unsupported classpath location [{}]", resource);
+          }
+        } catch (final URISyntaxException | IllegalArgumentException e) {
+          LOG.warn("Failed to resolve classpath location [{}]", resource, e);
+        }
+      }
+    }
+  }
+
+  private static long checksum(final Path file) throws IOException {
+    try (final CheckedInputStream in = new CheckedInputStream(Files.newInputStream(file), new CRC32())) {
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      while (in.read(buffer) >= 0) {
+        continue;
+      }
+      return in.getChecksum().getValue();
+    }
+  }
+
+  private static Object createCommandTargetSource(final Class<?> type) throws ReflectiveOperationException {
+    final boolean instanceTargets = stream(type.getMethods()) //
+        .filter(method -> method.isAnnotationPresent(CommandTarget.class)) //
+        .anyMatch(method -> !Modifier.isStatic(method.getModifiers()));
+    return instanceTargets ? type.getConstructor().newInstance() : type;
+  }
+
+  private static ForkJoinWorkerThread createWorkerThread(final ForkJoinPool pool) {
+    final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    thread.setName(format("mintshell-scan-%d", THREAD_SEQUENCE.incrementAndGet()));
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private static boolean declaresCommandTargets(final Path classFile) {
+    try {
+      return declaresCommandTargets(classFile.toString(), Files.newInputStream(classFile));
+    } catch (final IOException e) {
+      LOG.debug("Failed to read class file [{}]", classFile, e);
+      return false;
+    }
+  }
+
+  private static boolean declaresCommandTargets(final String fileName, final InputStream classFile) {
+    try (final InputStream in = new BufferedInputStream(classFile, BUFFER_SIZE)) {
+      return ClassFileReader.declaresCommandTargets(in);
+    } catch (final IOException e) {
+      LOG.debug("Failed to read class file [{}]", fileName, e);
+      return false;
+    }
+  }
+
+  private static boolean isTopLevelClassFile(final String fileName) {
+    return fileName.endsWith(CLASS_FILE_SUFFIX) && fileName.indexOf('$') < 0 && fileName.indexOf('-') < 0;
+  }
+
+  private static CommandTargetIndex loadIndex(final Path indexFile, final Set<String> packages) {
+    try {
+      return CommandTargetIndex.load(indexFile, packages);
+    } catch (final IOException | IllegalArgumentException e) {
+      LOG.warn("Failed to load command target index [{}]", indexFile, e);
+      return new CommandTargetIndex(packages);
+    }
+  }
+
+  /**
+   * {@link RecursiveTask} scanning a directory and forking a further {@link DirectoryScan} per subdirectory.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class DirectoryScan extends RecursiveTask<List<String>> {
+
+    private final Path directory;
+    private final String packageName;
+
+    private DirectoryScan(final Path directory, final String packageName) {
+      this.directory = directory;
+      this.packageName = packageName;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see java.util.concurrent.RecursiveTask#compute()
+     */
+    @Override
+    protected List<String> compute() {
+      final List<String> classNames = new ArrayList<>();
+      final List<DirectoryScan> subdirectories = new ArrayList<>();
+      try (final DirectoryStream<Path> entries = Files.newDirectoryStream(this.directory)) {
+        for (final Path entry : entries) {
+          final String fileName = entry.getFileName().toString();
+          if (Files.isDirectory(entry)) {
+            subdirectories.add(new DirectoryScan(entry, this.packageName + "." + fileName));
+          }
+          else if (isTopLevelClassFile(fileName) && declaresCommandTargets(entry)) {
+            classNames.add(this.packageName + "." + fileName.substring(0, fileName.length() - CLASS_FILE_SUFFIX.length()));
+          }
+        }
+      } catch (final IOException e) {
+        LOG.warn("Failed to scan directory [{}]", this.directory, e);
+      }
+      invokeAll(subdirectories).forEach(subdirectory -> classNames.addAll(subdirectory.join()));
+      return classNames;
+    }
+  }
+
+  /**
+   * {@link RecursiveTask} scanning a jar file, unless it is indexed with its current checksum.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class JarScan extends RecursiveTask<List<String>> {
+
+    private final Path jar;
+    private final Set<String> prefixes;
+    private final CommandTargetIndex previousIndex;
+    private final CommandTargetIndex currentIndex;
+
+    private JarScan(final Path jar, final Set<String> prefixes, final CommandTargetIndex previousIndex, final CommandTargetIndex currentIndex) {
+      this.jar = jar;
+      this.prefixes = prefixes;
+      this.previousIndex = previousIndex;
+      this.currentIndex = currentIndex;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see java.util.concurrent.RecursiveTask#compute()
+     */
+    @Override
+    protected List<String> compute() {
+      try {
+        final long checksum = checksum(this.jar);
+        final Optional<List<String>> indexed;
+        synchronized (this.previousIndex) {
+          indexed = this.previousIndex.get(this.jar, checksum);
+        }
+        final List<String> classNames = indexed.isPresent() ? indexed.get() : this.scan();
+        synchronized (this.currentIndex) {
+          this.currentIndex.put(this.jar, checksum, classNames);
+        }
+        return classNames;
+      } catch (final IOException e) {
+        LOG.warn("Failed to scan jar file [{}]", this.jar, e);
+        return emptyList();
+      }
+    }
+
+    private List<String> scan() throws IOException {
+      final List<String> classNames = new ArrayList<>();
+      try (final JarFile jarFile = new JarFile(this.jar.toFile())) {
+        final Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+          final JarEntry entry = entries.nextElement();
+          final String name = entry.getName();
+          final String fileName = name.substring(name.lastIndexOf('/') + 1);
+          if (!entry.isDirectory() && isTopLevelClassFile(fileName) && this.prefixes.stream().anyMatch(name::startsWith)
+              && declaresCommandTargets(name, jarFile.getInputStream(entry))) {
+            classNames.add(name.substring(0, name.length() - CLASS_FILE_SUFFIX.length()).replace('/', '.'));
+          }
+        }
+      }
+      return classNames;
+    }
+  }
+}
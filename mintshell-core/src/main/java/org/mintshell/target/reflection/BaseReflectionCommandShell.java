@@ -38,6 +38,13 @@ import java.util.stream.Collectors;
 import org.mintshell.annotation.Nullable;
 import org.mintshell.command.Command;
 import org.mintshell.command.CommandParameter;
+import org.mintshell.metrics.CommandEventRecording;
+import org.mintshell.metrics.CommandEventType;
+import org.mintshell.metrics.CommandEvents;
+import org.mintshell.metrics.CommandMetrics;
+import org.mintshell.metrics.CommandMetricsProvider;
+import org.mintshell.metrics.CommandStage;
+import org.mintshell.metrics.SlowCommandDetector;
 import org.mintshell.target.BaseCommandShell;
 import org.mintshell.target.CommandInvocationException;
 import org.mintshell.target.CommandShell;
@@ -133,19 +140,36 @@ public abstract class BaseReflectionCommandShell extends BaseCommandShell {
   public Object invoke(final Command command, final CommandTarget commandTarget) throws CommandInvocationException, CommandTargetException {
     final Method method = ((ReflectionCommandTarget) commandTarget).getMethod();
     final CommandTargetSource source = this.getCommandTargetSources().get(commandTarget);
-    final boolean accessible = method.isAccessible();
     try {
+      final CommandMetrics metrics = CommandMetricsProvider.getCommandMetrics();
+      final long conversionStart = System.nanoTime();
       final Object[] args = this.createInvocationArguments(command, commandTarget);
-      method.setAccessible(true);
-      return this.invokeMethod(method, args, source.isInstance() ? source.getTargetInstance() : null);
+      final long invocationStart = System.nanoTime();
+      final CommandEventRecording recording = CommandEvents.begin(CommandEventType.INVOKE);
+      metrics.recordTime(command.getName(), CommandStage.CONVERSION, invocationStart - conversionStart);
+      String resultState = "FAILED";
+      final Optional<SlowCommandDetector> slowCommandDetector = SlowCommandDetector.getInstance();
+      final SlowCommandDetector.Watch watch = slowCommandDetector.isPresent() ? slowCommandDetector.get().watch(command) : null;
+      try {
+        final Object result = this.invokeMethod(method, args, source.isInstance() ? source.getTargetInstance() : null);
+        resultState = "SUCCEEDED";
+        return result;
+      } catch (final InvocationTargetException e) {
+        resultState = e.getTargetException().getClass().getSimpleName();
+        throw e;
+      } finally {
+        if (watch != null) {
+          watch.close();
+        }
+        metrics.recordTime(command.getName(), CommandStage.INVOCATION, System.nanoTime() - invocationStart);
+        recording.end(command.getName(), command.getParameters().size(), resultState, commandTarget.getName());
+      }
     } catch (final InvocationTargetException e) {
       throw new CommandTargetException(e.getTargetException());
     } catch (final IllegalAccessException e) {
       throw new CommandInvocationException(format("Failed to execute command [%s]", command), e);
     } catch (final RuntimeException e) {
       throw new CommandInvocationException(format("Failed to execute command [%s]", command), e);
-    } finally {
-      method.setAccessible(accessible);
     }
   }
 
@@ -178,7 +202,8 @@ public abstract class BaseReflectionCommandShell extends BaseCommandShell {
 
   /**
    * Returns a {@link List} of basically supported {@link Method}s for a given target {@link Class}. May be overwritten
-   * by subclasses.
+   * by subclasses. The returned {@link Method}s are invoked as they are, so they must already be accessible, e.g. by
+   * {@link Method#setAccessible(boolean)}.
    *
    * @param target
    *          target {@link Class}
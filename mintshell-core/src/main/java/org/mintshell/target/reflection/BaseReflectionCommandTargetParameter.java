@@ -25,6 +25,9 @@ package org.mintshell.target.reflection;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.mintshell.annotation.Nullable;
 import org.mintshell.assertion.Assert;
@@ -43,6 +46,7 @@ public abstract class BaseReflectionCommandTargetParameter extends BaseCommandTa
   protected static final boolean DEFAULT_REQUIRED = false;
 
   private final Class<?> type;
+  private final Set<String> acceptedValues;
 
   /**
    * Creates a new parameter.
@@ -108,6 +112,18 @@ public abstract class BaseReflectionCommandTargetParameter extends BaseCommandTa
     if (!this.isTypeSupported(type)) {
       throw new UnsupportedParameterTypeException(String.format("Type [%s] is not supported by [%s]", type.getName(), this.getClass().getName()));
     }
+    this.acceptedValues = acceptedValuesOf(type);
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.target.BaseCommandTargetParameter#getAcceptedValues()
+   */
+  @Override
+  public Set<String> getAcceptedValues() {
+    return this.acceptedValues;
   }
 
   /**
@@ -132,4 +148,15 @@ public abstract class BaseReflectionCommandTargetParameter extends BaseCommandTa
   public boolean isRequired() {
     return this.getType().isPrimitive();
   }
+
+  private static Set<String> acceptedValuesOf(final Class<?> type) {
+    if (!type.isEnum()) {
+      return Collections.emptySet();
+    }
+    final Set<String> values = new LinkedHashSet<>();
+    for (final Object constant : type.getEnumConstants()) {
+      values.add(((Enum<?>) constant).name());
+    }
+    return Collections.unmodifiableSet(values);
+  }
 }
@@ -124,7 +124,14 @@ public class ReflectionCommandShell extends BaseReflectionCommandShell {
    */
   @Override
   protected List<Method> determineSupportedMethods(final Class<?> target) {
-    return stream(target.getMethods()).collect(toList());
+    return stream(target.getMethods()) //
+        .map(ReflectionCommandShell::makeAccessible) //
+        .collect(toList());
+  }
+
+  private static Method makeAccessible(final Method method) {
+    method.setAccessible(true);
+    return method;
   }
 
   private ReflectionCommandTargetParameter createCommandParameter(final Parameter parameter, final int index,
@@ -23,24 +23,19 @@
  */
 package org.mintshell.target.reflection.annotation;
 
-import static java.lang.String.format;
-import static java.util.Arrays.stream;
 import static java.util.Collections.emptyList;
-import static java.util.stream.Collectors.toList;
 import static org.mintshell.target.reflection.annotation.CommandShellExiter.EXIT_METHOD_NAME;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.mintshell.annotation.Nullable;
-import org.mintshell.annotation.Param;
 import org.mintshell.command.CommandParameter;
 import org.mintshell.target.CommandShell;
 import org.mintshell.target.CommandShellList;
@@ -50,8 +45,6 @@ import org.mintshell.target.DefaultCommandTargetAlias;
 import org.mintshell.target.reflection.BaseReflectionCommandShell;
 import org.mintshell.target.reflection.DefaultReflectionCommandTarget;
 import org.mintshell.target.reflection.PrimitiveParameter;
-import org.mintshell.target.reflection.ReflectionCommandTargetParameter;
-import org.mintshell.target.reflection.ReflectionCommandTargetParameterFactory;
 import org.mintshell.target.reflection.StaticStringConstructionMethodParameter;
 import org.mintshell.target.reflection.StringConstructorParameter;
 import org.mintshell.target.reflection.UnsupportedParameterTypeException;
@@ -167,7 +160,8 @@ public class AnnotationCommandShell extends BaseReflectionCommandShell {
   protected Set<CommandTarget> createCommandTargetsFromMethod(final Method method) {
     final Set<CommandTarget> result = new HashSet<>();
     try {
-      final AnnotationCommandTarget commandTarget = new AnnotationCommandTarget(method, this.createCommandParameters(method, this.getSupportedParameters()));
+      final AnnotationCommandTarget commandTarget = new AnnotationCommandTarget(method,
+          CommandShellMetadata.of(method.getDeclaringClass()).getCommandParameters(method, this.getSupportedParameters()));
       result.add(commandTarget);
       final org.mintshell.annotation.CommandTarget annotation = method.getAnnotation(org.mintshell.annotation.CommandTarget.class);
       for (final String alias : annotation.aliases()) {
@@ -190,9 +184,7 @@ public class AnnotationCommandShell extends BaseReflectionCommandShell {
    */
   @Override
   protected List<Method> determineSupportedMethods(final Class<?> target) {
-    return stream(target.getMethods()) //
-        .filter(method -> method.getAnnotation(org.mintshell.annotation.CommandTarget.class) != null) //
-        .collect(toList());
+    return CommandShellMetadata.of(target).getMethods();
   }
 
   /**
@@ -215,6 +207,7 @@ public class AnnotationCommandShell extends BaseReflectionCommandShell {
       for (final String exitCommand : annotation.exitCommands()) {
         try {
           final Method exitMethod = exiter.getClass().getMethod(EXIT_METHOD_NAME);
+          exitMethod.setAccessible(true);
           final DefaultReflectionCommandTarget target = new DefaultReflectionCommandTarget(exitMethod, exitCommand, exitCommandDescription, emptyList());
           this.commandTargetSources.put(target, new CommandTargetSource(exiter));
         } catch (UnsupportedParameterTypeException | NoSuchMethodException | SecurityException e) {
@@ -268,41 +261,11 @@ public class AnnotationCommandShell extends BaseReflectionCommandShell {
 
   private Object checkAndConvertAnnotatedCommandShellObject(final Object obj) {
     if (obj != null && !(obj instanceof CommandShell)) {
-      final org.mintshell.annotation.CommandShell shellAnnotation = obj.getClass().getAnnotation(org.mintshell.annotation.CommandShell.class);
-      if (shellAnnotation != null) {
-        return new AnnotationCommandShell(shellAnnotation, new CommandTargetSource(obj));
+      final Optional<org.mintshell.annotation.CommandShell> shellAnnotation = CommandShellMetadata.of(obj.getClass()).getAnnotation();
+      if (shellAnnotation.isPresent()) {
+        return new AnnotationCommandShell(shellAnnotation.get(), new CommandTargetSource(obj));
       }
     }
     return obj;
   }
-
-  private ReflectionCommandTargetParameter createCommandParameter(final Parameter parameter, final int index,
-      final Set<ReflectionCommandTargetParameterFactory> supportedCommandParameters) throws UnsupportedParameterTypeException {
-    final Param annotation = parameter.getAnnotation(Param.class);
-    if (annotation == null) {
-      throw new UnsupportedParameterTypeException(String.format("Parameter [%s] isn't annotated with [@%s]", parameter.getName(), Param.class.getSimpleName()));
-    }
-    for (final ReflectionCommandTargetParameterFactory supportedParameter : supportedCommandParameters) {
-      try {
-        final ReflectionCommandTargetParameter reflectionParameter = supportedParameter.create(parameter.getType(), index,
-            annotation.name().isEmpty() ? null : annotation.name(), annotation.shortName() != Character.UNASSIGNED ? annotation.shortName() : null,
-            annotation.description(), annotation.required() || parameter.getType().isPrimitive());
-        return reflectionParameter;
-      } catch (final UnsupportedParameterTypeException e) {
-        LOG.trace("Failed to create command parameter from parameter [{}] with parameter factory [{}]", parameter, supportedParameter, e);
-      }
-    }
-    throw new UnsupportedParameterTypeException(format("Failed to create command parameter from reflection parameter [{}]", parameter));
-  }
-
-  private List<ReflectionCommandTargetParameter> createCommandParameters(final Method method,
-      final Set<ReflectionCommandTargetParameterFactory> supportedCommandParameters) throws UnsupportedParameterTypeException {
-    final Parameter[] parameters = method.getParameters();
-    final List<ReflectionCommandTargetParameter> commandParameters = new ArrayList<>();
-    for (int i = 0; i < parameters.length; i++) {
-      final ReflectionCommandTargetParameter commandParameter = this.createCommandParameter(parameters[i], i, supportedCommandParameters);
-      commandParameters.add(commandParameter);
-    }
-    return commandParameters;
-  }
 }
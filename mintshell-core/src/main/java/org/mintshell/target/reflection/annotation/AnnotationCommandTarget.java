@@ -26,6 +26,8 @@ package org.mintshell.target.reflection.annotation;
 import java.lang.reflect.Method;
 import java.util.List;
 
+import org.mintshell.annotation.Cacheable;
+import org.mintshell.annotation.Coalescing;
 import org.mintshell.annotation.CommandTarget;
 import org.mintshell.annotation.Nullable;
 import org.mintshell.assertion.Assert;
@@ -43,7 +45,10 @@ import org.mintshell.target.reflection.UnsupportedParameterTypeException;
 public class AnnotationCommandTarget extends DefaultReflectionCommandTarget {
 
   /**
-   * Creates a new instance.
+   * Creates a new instance. A non-negative {@link CommandTarget#timeout()} is applied as timeout of this target and the
+   * {@link Cacheable#ttl()} of a {@link Cacheable} method as time to live of its cached results. A {@link Coalescing}
+   * method coalesces concurrent invocations. A positive {@link CommandTarget#maxConcurrency()} limits the concurrent
+   * invocations of this target.
    *
    * @param method
    *          method to use
@@ -56,6 +61,19 @@ public class AnnotationCommandTarget extends DefaultReflectionCommandTarget {
    */
   public AnnotationCommandTarget(final Method method, final List<ReflectionCommandTargetParameter> commandParameters) throws UnsupportedParameterTypeException {
     super(Assert.ARG.isNotNull(method, "[method] must not be [null]"), findName(method), findDescription(method), commandParameters);
+    final org.mintshell.annotation.CommandTarget annotation = method.getAnnotation(org.mintshell.annotation.CommandTarget.class);
+    if (annotation.timeout() >= 0) {
+      this.setTimeoutMillis(annotation.timeout());
+    }
+    if (annotation.maxConcurrency() > 0) {
+      this.setMaxConcurrency(annotation.maxConcurrency());
+      this.setQueueTimeoutMillis(Math.max(0, annotation.queueTimeout()));
+    }
+    final Cacheable cacheable = method.getAnnotation(Cacheable.class);
+    if (cacheable != null) {
+      this.setCacheTtlMillis(cacheable.ttl());
+    }
+    this.setCoalescing(method.isAnnotationPresent(Coalescing.class));
   }
 
   private static @Nullable String findDescription(final Method method) throws UnsupportedParameterTypeException {
@@ -0,0 +1,226 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target.reflection.annotation;
+
+import static java.lang.String.format;
+import static java.util.Arrays.stream;
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toList;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mintshell.annotation.Nullable;
+import org.mintshell.annotation.Param;
+import org.mintshell.assertion.Assert;
+import org.mintshell.target.BaseCommandTargetParameter;
+import org.mintshell.target.ValueCompleter;
+import org.mintshell.target.reflection.ReflectionCommandTargetParameter;
+import org.mintshell.target.reflection.ReflectionCommandTargetParameterFactory;
+import org.mintshell.target.reflection.UnsupportedParameterTypeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reflected metadata of a {@link Class} providing annotated command targets. The metadata is computed once per
+ * {@link Class} and shared by all {@link AnnotationCommandShell}s, so entering a subshell only binds a new instance to
+ * the already known methods and parameters instead of scanning its {@link Class} again. The methods are made
+ * accessible once, when the metadata is computed, as they are invoked concurrently by all these shells.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+final class CommandShellMetadata {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CommandShellMetadata.class);
+  private static final ConcurrentMap<Class<? extends ValueCompleter>, ValueCompleter> VALUE_COMPLETERS = new ConcurrentHashMap<>();
+  private static final ClassValue<CommandShellMetadata> METADATA = new ClassValue<CommandShellMetadata>() {
+
+    @Override
+    protected CommandShellMetadata computeValue(final Class<?> type) {
+      return new CommandShellMetadata(type);
+    }
+  };
+
+  private final Optional<org.mintshell.annotation.CommandShell> annotation;
+  private final List<Method> methods;
+  private final ConcurrentMap<Set<ReflectionCommandTargetParameterFactory>, ConcurrentMap<Method, Parameters>> parameters;
+
+  private CommandShellMetadata(final Class<?> type) {
+    this.annotation = Optional.ofNullable(type.getAnnotation(org.mintshell.annotation.CommandShell.class));
+    this.methods = unmodifiableList(stream(type.getMethods()) //
+        .filter(method -> method.getAnnotation(org.mintshell.annotation.CommandTarget.class) != null) //
+        .map(CommandShellMetadata::makeAccessible) //
+        .collect(toList()));
+    this.parameters = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the {@link CommandShellMetadata} of the given {@link Class}.
+   *
+   * @param type
+   *          {@link Class} to return the metadata for
+   * @return {@link CommandShellMetadata} of the given {@link Class}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  static CommandShellMetadata of(final Class<?> type) {
+    return METADATA.get(Assert.ARG.isNotNull(type, "[type] must not be [null]"));
+  }
+
+  /**
+   * Returns the {@link org.mintshell.annotation.CommandShell} annotation of the {@link Class}.
+   *
+   * @return {@link org.mintshell.annotation.CommandShell} annotation or {@link Optional#empty()}, if the {@link Class}
+   *         isn't annotated
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  Optional<org.mintshell.annotation.CommandShell> getAnnotation() {
+    return this.annotation;
+  }
+
+  /**
+   * Returns the {@link ReflectionCommandTargetParameter}s of the given {@link Method} created by the given
+   * {@link ReflectionCommandTargetParameterFactory}s. The created parameters as well as a failed creation are
+   * remembered per set of {@link ReflectionCommandTargetParameterFactory}s.
+   *
+   * @param method
+   *          {@link Method} of the {@link Class}
+   * @param supportedParameters
+   *          {@link ReflectionCommandTargetParameterFactory}s to create the parameters with
+   * @return {@link ReflectionCommandTargetParameter}s of the given {@link Method}
+   * @throws UnsupportedParameterTypeException
+   *           if a parameter of the given {@link Method} isn't supported by any of the given
+   *           {@link ReflectionCommandTargetParameterFactory}s
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  List<ReflectionCommandTargetParameter> getCommandParameters(final Method method, final Set<ReflectionCommandTargetParameterFactory> supportedParameters)
+      throws UnsupportedParameterTypeException {
+    final Map<Method, Parameters> methodParameters = this.parameters.computeIfAbsent(new HashSet<>(supportedParameters),
+        key -> new ConcurrentHashMap<>());
+    final Parameters result = methodParameters.computeIfAbsent(method, key -> createCommandParameters(key, supportedParameters));
+    if (result.failure != null) {
+      throw result.failure;
+    }
+    return result.parameters;
+  }
+
+  /**
+   * Returns the public {@link Method}s of the {@link Class} annotated with
+   * {@link org.mintshell.annotation.CommandTarget}.
+   *
+   * @return annotated {@link Method}s
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  List<Method> getMethods() {
+    return this.methods;
+  }
+
+  private static ReflectionCommandTargetParameter createCommandParameter(final Parameter parameter, final int index,
+      final Set<ReflectionCommandTargetParameterFactory> supportedCommandParameters) throws UnsupportedParameterTypeException {
+    final Param annotation = parameter.getAnnotation(Param.class);
+    if (annotation == null) {
+      throw new UnsupportedParameterTypeException(String.format("Parameter [%s] isn't annotated with [@%s]", parameter.getName(), Param.class.getSimpleName()));
+    }
+    final ValueCompleter valueCompleter = annotation.completer() != ValueCompleter.class ? createValueCompleter(annotation.completer()) : null;
+    for (final ReflectionCommandTargetParameterFactory supportedParameter : supportedCommandParameters) {
+      try {
+        final ReflectionCommandTargetParameter reflectionParameter = supportedParameter.create(parameter.getType(), index,
+            annotation.name().isEmpty() ? null : annotation.name(), annotation.shortName() != Character.UNASSIGNED ? annotation.shortName() : null,
+            annotation.description(), annotation.required() || parameter.getType().isPrimitive());
+        if (valueCompleter != null && reflectionParameter instanceof BaseCommandTargetParameter) {
+          ((BaseCommandTargetParameter) reflectionParameter).setValueCompleter(valueCompleter);
+        }
+        return reflectionParameter;
+      } catch (final UnsupportedParameterTypeException e) {
+        LOG.trace("Failed to create command parameter from parameter [{}] with parameter factory [{}]", parameter, supportedParameter, e);
+      }
+    }
+    throw new UnsupportedParameterTypeException(format("Failed to create command parameter from reflection parameter [{}]", parameter));
+  }
+
+  private static Parameters createCommandParameters(final Method method, final Set<ReflectionCommandTargetParameterFactory> supportedCommandParameters) {
+    final Parameter[] parameters = method.getParameters();
+    final List<ReflectionCommandTargetParameter> commandParameters = new ArrayList<>();
+    try {
+      for (int i = 0; i < parameters.length; i++) {
+        commandParameters.add(createCommandParameter(parameters[i], i, supportedCommandParameters));
+      }
+      return new Parameters(unmodifiableList(commandParameters), null);
+    } catch (final UnsupportedParameterTypeException e) {
+      return new Parameters(null, e);
+    }
+  }
+
+  private static ValueCompleter createValueCompleter(final Class<? extends ValueCompleter> type) throws UnsupportedParameterTypeException {
+    try {
+      return VALUE_COMPLETERS.computeIfAbsent(type, key -> {
+        try {
+          return key.newInstance();
+        } catch (final InstantiationException | IllegalAccessException e) {
+          throw new IllegalArgumentException(format("Failed to create value completer [%s]", key.getName()), e);
+        }
+      });
+    } catch (final IllegalArgumentException e) {
+      throw new UnsupportedParameterTypeException(e.getMessage(), e.getCause());
+    }
+  }
+
+  private static Method makeAccessible(final Method method) {
+    method.setAccessible(true);
+    return method;
+  }
+
+  /**
+   * Outcome of creating the {@link ReflectionCommandTargetParameter}s of a single {@link Method}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Parameters {
+
+    private final @Nullable List<ReflectionCommandTargetParameter> parameters;
+    private final @Nullable UnsupportedParameterTypeException failure;
+
+    private Parameters(final @Nullable List<ReflectionCommandTargetParameter> parameters, final @Nullable UnsupportedParameterTypeException failure) {
+      this.parameters = parameters;
+      this.failure = failure;
+    }
+  }
+}
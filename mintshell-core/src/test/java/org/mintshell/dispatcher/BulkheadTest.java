@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link Bulkhead} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class BulkheadTest {
+
+  private ExecutorService executor;
+
+  @Before
+  public void before() {
+    this.executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void after() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testAcquire() throws Exception {
+    final Bulkhead sut = new Bulkhead(2, 0, TimeUnit.MILLISECONDS);
+    assertThat(sut.acquire()).isTrue();
+    assertThat(sut.acquire()).isTrue();
+    assertThat(sut.getActiveCount()).isEqualTo(2);
+    assertThat(sut.acquire()).isFalse();
+    assertThat(sut.getSaturatedCount()).isEqualTo(1);
+    assertThat(sut.getRejectedCount()).isEqualTo(1);
+    sut.release();
+    assertThat(sut.acquire()).isTrue();
+    assertThat(sut.toString()).isEqualTo("2/2 active, 0 queued, 1 saturated, 1 rejected");
+  }
+
+  @Test
+  public void testAcquireWithElapsedQueueTimeout() throws Exception {
+    final Bulkhead sut = new Bulkhead(1, 20, TimeUnit.MILLISECONDS);
+    assertThat(sut.acquire()).isTrue();
+    assertThat(sut.acquire()).isFalse();
+    assertThat(sut.getQueuedCount()).isZero();
+    assertThat(sut.getRejectedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testAcquireWithQueueTimeout() throws Exception {
+    final Bulkhead sut = new Bulkhead(1, 5, TimeUnit.SECONDS);
+    assertThat(sut.acquire()).isTrue();
+    final Future<Boolean> queued = this.executor.submit(sut::acquire);
+    while (sut.getQueuedCount() == 0) {
+      Thread.sleep(1);
+    }
+    sut.release();
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(sut.getSaturatedCount()).isEqualTo(1);
+    assertThat(sut.getRejectedCount()).isZero();
+  }
+}
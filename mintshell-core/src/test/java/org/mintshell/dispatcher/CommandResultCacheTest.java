@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mintshell.annotation.CommandTarget;
+import org.mintshell.annotation.Param;
+import org.mintshell.command.Command;
+import org.mintshell.command.CommandBuilder;
+import org.mintshell.command.CommandParameterBuilder;
+import org.mintshell.target.CommandTargetSource;
+import org.mintshell.target.reflection.annotation.AnnotationCommandShell;
+
+/**
+ * Tests the functionality of the {@link CommandResultCache} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandResultCacheTest {
+
+  private ExecutorService executor;
+  private AtomicInteger invocations;
+  private CommandResultCache sut;
+  private org.mintshell.target.CommandTarget target;
+  private org.mintshell.target.CommandTarget pageTarget;
+
+  @Before
+  public void before() {
+    final AnnotationCommandShell shell = new AnnotationCommandShell();
+    shell.addCommandTargetSources(new CommandTargetSource(new Targets()));
+    this.target = shell.getTargets().stream().filter(target -> target.getName().equals("show")).findFirst().get();
+    this.pageTarget = shell.getTargets().stream().filter(target -> target.getName().equals("page")).findFirst().get();
+    this.executor = Executors.newCachedThreadPool();
+    this.invocations = new AtomicInteger();
+    this.sut = new CommandResultCache(2);
+  }
+
+  @After
+  public void after() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testClear() throws Exception {
+    this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, this::invoke);
+    this.sut.clear();
+    assertThat(this.sut.getSize()).isZero();
+    assertThat(this.sut.getMissCount()).isZero();
+    assertThat(this.sut.getHitRate()).isEmpty();
+  }
+
+  @Test
+  public void testGet() throws Exception {
+    assertThat(this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, this::invoke)).isEqualTo(1);
+    assertThat(this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, this::invoke)).isEqualTo(1);
+    final Command named = CommandBuilder.create("show").withParameter(CommandParameterBuilder.create(0).withName("name").withValue("a").build()).build();
+    assertThat(this.sut.get(this.target, named, 1, TimeUnit.MINUTES, this::invoke)).isEqualTo(1);
+    assertThat(this.sut.get(this.target, show("b"), 1, TimeUnit.MINUTES, this::invoke)).isEqualTo(2);
+    assertThat(this.sut.getHitCount()).isEqualTo(2);
+    assertThat(this.sut.getMissCount()).isEqualTo(2);
+    assertThat(this.sut.getHitRate()).contains(0.5);
+  }
+
+  @Test
+  public void testGetWithConcurrentMisses() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final Future<Object> first = this.executor.submit(() -> this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, () -> {
+      release.await(5, TimeUnit.SECONDS);
+      return this.invoke();
+    }));
+    while (this.sut.getMissCount() == 0) {
+      Thread.sleep(1);
+    }
+    final Future<Object> second = this.executor.submit(() -> this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, this::invoke));
+    while (this.sut.getHitCount() == 0) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    assertThat(this.invocations.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testGetWithConvertedArguments() throws Exception {
+    final Command page = CommandBuilder.create("page").withParameter(CommandParameterBuilder.create(0).withValue("1").build()).build();
+    final Command paddedPage = CommandBuilder.create("page").withParameter(CommandParameterBuilder.create(0).withValue("01").build()).build();
+    assertThat(this.sut.get(this.pageTarget, page, 1, TimeUnit.MINUTES, this::invoke)).isEqualTo(1);
+    assertThat(this.sut.get(this.pageTarget, paddedPage, 1, TimeUnit.MINUTES, this::invoke)).isEqualTo(1);
+    assertThat(this.sut.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testGetWithEviction() throws Exception {
+    this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, this::invoke);
+    this.sut.get(this.target, show("b"), 1, TimeUnit.MINUTES, this::invoke);
+    this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, this::invoke);
+    this.sut.get(this.target, show("c"), 1, TimeUnit.MINUTES, this::invoke);
+    assertThat(this.sut.getSize()).isEqualTo(2);
+    assertThat(this.sut.getEvictionCount()).isEqualTo(1);
+    assertThat(this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, this::invoke)).isEqualTo(1);
+    assertThat(this.sut.get(this.target, show("b"), 1, TimeUnit.MINUTES, this::invoke)).isEqualTo(4);
+  }
+
+  @Test
+  public void testGetWithExpiredResult() throws Exception {
+    this.sut.get(this.target, show("a"), 20, TimeUnit.MILLISECONDS, this::invoke);
+    Thread.sleep(50);
+    assertThat(this.sut.get(this.target, show("a"), 20, TimeUnit.MILLISECONDS, this::invoke)).isEqualTo(2);
+    assertThat(this.sut.getExpirationCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testGetWithFailedStage() throws Exception {
+    final CompletableFuture<Object> stage = new CompletableFuture<>();
+    assertThat(this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, () -> stage)).isSameAs(stage);
+    assertThat(this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, this::invoke)).isSameAs(stage);
+    stage.completeExceptionally(new IllegalStateException("failed"));
+    assertThat(this.sut.getSize()).isZero();
+    assertThat(this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, this::invoke)).isEqualTo(1);
+  }
+
+  @Test
+  public void testGetWithFailure() throws Exception {
+    try {
+      this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, () -> {
+        throw new IllegalStateException("failed");
+      });
+      fail("ExecutionException expected");
+    } catch (final ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+    }
+    assertThat(this.sut.getSize()).isZero();
+    assertThat(this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, this::invoke)).isEqualTo(1);
+  }
+
+  @Test
+  public void testGetWithFuture() throws Exception {
+    assertThat(this.sut.get(this.target, show("a"), 1, TimeUnit.MINUTES, () -> new FutureTask<>(() -> "a"))).isInstanceOf(FutureTask.class);
+    assertThat(this.sut.getSize()).isZero();
+  }
+
+  private static Command show(final String name) {
+    return CommandBuilder.create("show").withParameter(CommandParameterBuilder.create(0).withValue(name).build()).build();
+  }
+
+  private Object invoke() {
+    return this.invocations.incrementAndGet();
+  }
+
+  /**
+   * Command targets used for caching.
+   */
+  public static class Targets {
+
+    @CommandTarget(name = "page")
+    public int page(@Param(name = "number") final int number) {
+      return number;
+    }
+
+    @CommandTarget(name = "show")
+    public String show(@Param(name = "name") final String name) {
+      return name;
+    }
+  }
+}
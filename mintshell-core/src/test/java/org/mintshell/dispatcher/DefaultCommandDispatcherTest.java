@@ -0,0 +1,523 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mintshell.annotation.Cacheable;
+import org.mintshell.annotation.CommandTarget;
+import org.mintshell.annotation.Param;
+import org.mintshell.command.Command;
+import org.mintshell.command.CommandBuilder;
+import org.mintshell.command.CommandParameterBuilder;
+import org.mintshell.command.CommandResult;
+import org.mintshell.command.CommandResult.State;
+import org.mintshell.job.Watch;
+import org.mintshell.job.WatchScheduler;
+import org.mintshell.metrics.CommandEvents;
+import org.mintshell.target.CommandContext;
+import org.mintshell.target.CommandTargetSource;
+import org.mintshell.target.reflection.annotation.AnnotationCommandShell;
+
+/**
+ * Tests the functionality of the {@link DefaultCommandDispatcher} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class DefaultCommandDispatcherTest {
+
+  private AnnotationCommandShell shell;
+  private DefaultCommandDispatcher sut;
+  private Targets targets;
+
+  @Before
+  public void before() {
+    this.targets = new Targets();
+    this.shell = new AnnotationCommandShell();
+    this.shell.addCommandTargetSources(new CommandTargetSource(this.targets));
+    this.sut = new DefaultCommandDispatcher(this.shell);
+  }
+
+  @Test
+  public void testCacheCommand() throws Exception {
+    this.sut.dispatch(CommandBuilder.create("cached").build());
+    this.sut.dispatch(CommandBuilder.create("cached").build());
+    assertThat(this.sut.dispatch(CommandBuilder.create(BaseCommandDispatcher.DEFAULT_CACHE_COMMAND_NAME).build()).getValue().get().toString()) //
+        .contains("entries      1 / " + CommandResultCache.DEFAULT_MAX_ENTRIES) //
+        .contains("hit rate     50.0%");
+    final Command clear = CommandBuilder.create(BaseCommandDispatcher.DEFAULT_CACHE_COMMAND_NAME) //
+        .withParameter(CommandParameterBuilder.create(0).withName(BaseCommandDispatcher.CACHE_CLEAR_PARAMETER_NAME).build()) //
+        .build();
+    assertThat(this.sut.dispatch(clear).getValue().get()).isEqualTo("cache cleared");
+    assertThat(this.sut.getResultCache().getSize()).isZero();
+  }
+
+  @Test
+  public void testDispatchAllParallel() throws Exception {
+    this.sut.setBatchParallelism(3);
+    final List<Command> commands = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      commands.add(echo(Integer.toString(i)));
+    }
+    commands.add(CommandBuilder.create("unknown").build());
+    final List<CommandResult<?>> results = this.sut.dispatchAll(commands, DispatchMode.PARALLEL, DispatchErrorMode.COLLECT_ALL);
+    assertThat(results).hasSize(21);
+    for (int i = 0; i < 20; i++) {
+      assertThat(results.get(i).getValue().get()).isEqualTo(Integer.toString(i));
+    }
+    assertThat(results.get(20).getState()).isEqualTo(State.FAILED);
+    assertThat(results.get(20).getCause().get()).isInstanceOf(CommandDispatchException.class);
+  }
+
+  @Test
+  public void testDispatchAllParallelBuiltInsUseBatchShell() throws Exception {
+    this.sut.setBatchParallelism(1);
+    final Command help = CommandBuilder.create("help").withParameter(CommandParameterBuilder.create(0).withValue("echo").build()).build();
+    final CompletableFuture<List<CommandResult<?>>> results = CompletableFuture
+        .supplyAsync(() -> this.sut.dispatchAll(Arrays.asList(CommandBuilder.create("gate").build(), help), DispatchMode.PARALLEL,
+            DispatchErrorMode.COLLECT_ALL));
+    assertThat(this.targets.gateEntered.await(5, TimeUnit.SECONDS)).isTrue();
+    this.sut.dispatch(CommandBuilder.create("sub").build());
+    this.targets.gateReleased.countDown();
+    final String helpText = results.get(5, TimeUnit.SECONDS).get(1).getValue().get().toString();
+    assertThat(helpText).isEqualTo(this.sut.getCommandHelp().getCommandDetailText(this.shell.getTargets().stream() //
+        .filter(target -> target.getName().equals("echo")) //
+        .findFirst() //
+        .get()));
+  }
+
+  @Test
+  public void testDispatchAllSequentialCollectAll() throws Exception {
+    final List<CommandResult<?>> results = this.sut.dispatchAll(Arrays.asList(echo("a"), CommandBuilder.create("fail").build(), echo("b")),
+        DispatchMode.SEQUENTIAL, DispatchErrorMode.COLLECT_ALL);
+    assertThat(results).extracting(CommandResult::getState).containsExactly(State.SUCCEEDED, State.FAILED, State.SUCCEEDED);
+    assertThat(results.get(1).getCause().get()).isInstanceOf(IllegalStateException.class);
+    assertThat(results.get(2).getValue().get()).isEqualTo("b");
+  }
+
+  @Test
+  public void testDispatchAllSequentialFailFast() throws Exception {
+    final List<CommandResult<?>> results = this.sut.dispatchAll(Arrays.asList(echo("a"), CommandBuilder.create("fail").build(), echo("b")),
+        DispatchMode.SEQUENTIAL, DispatchErrorMode.FAIL_FAST);
+    assertThat(results).extracting(CommandResult::getState).containsExactly(State.SUCCEEDED, State.FAILED, State.FAILED);
+    assertThat(results.get(2).getCause().get()).isInstanceOf(CancellationException.class);
+  }
+
+  @Test
+  public void testDispatchAsync() throws Exception {
+    final CompletableFuture<CommandResult<?>> result = this.sut.dispatchAsync(CommandBuilder.create("async").build());
+    assertThat(result).isNotDone();
+    this.targets.pending.complete("done");
+    assertThat(result.get(5, TimeUnit.SECONDS).getValue().get()).isEqualTo("done");
+  }
+
+  @Test
+  public void testDispatchAsyncBeyondConcurrencyLimit() throws Exception {
+    final CompletableFuture<CommandResult<?>> pending = this.sut.dispatchAsync(CommandBuilder.create("limitedAsync").build());
+    assertThat(pending).isNotDone();
+    final CommandResult<?> rejected = this.sut.dispatch(CommandBuilder.create("limitedAsync").build());
+    assertThat(rejected.getState()).isEqualTo(State.FAILED);
+    assertThat(rejected.getCause().get()).isInstanceOf(RejectedExecutionException.class).hasMessageContaining("limit of 1");
+    this.targets.pending.complete("done");
+    assertThat(pending.get(5, TimeUnit.SECONDS).getValue().get()).isEqualTo("done");
+    assertThat(this.sut.dispatch(CommandBuilder.create("limitedAsync").build()).getValue().get()).isEqualTo("done");
+  }
+
+  @Test
+  public void testDispatchAsyncFuture() throws Exception {
+    final CompletableFuture<CommandResult<?>> result = this.sut.dispatchAsync(CommandBuilder.create("future").build());
+    assertThat(result).isNotDone();
+    this.targets.future.run();
+    assertThat(result.get(5, TimeUnit.SECONDS).getValue().get()).isEqualTo("done");
+  }
+
+  @Test
+  public void testDispatchAsyncSharedWithTimeout() throws Exception {
+    final CompletableFuture<CommandResult<?>> first = this.sut.dispatchAsync(CommandBuilder.create("cachedAsync").build());
+    Thread.sleep(150L);
+    final CompletableFuture<CommandResult<?>> second = this.sut.dispatchAsync(CommandBuilder.create("cachedAsync").build());
+    assertThat(first.get(5, TimeUnit.SECONDS).getCause().get()).isInstanceOf(TimeoutException.class);
+    assertThat(this.targets.shared).isNotCancelled();
+    this.targets.shared.complete("done");
+    assertThat(second.get(5, TimeUnit.SECONDS).getValue().get()).isEqualTo("done");
+    assertThat(this.targets.invocations.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testDispatchAsyncTarget() throws Exception {
+    this.targets.pending.complete("done");
+    assertThat(this.sut.dispatch(CommandBuilder.create("async").build()).getValue().get()).isEqualTo("done");
+    assertThat(this.sut.dispatchAll(Arrays.asList(CommandBuilder.create("async").build()), DispatchMode.SEQUENTIAL, DispatchErrorMode.COLLECT_ALL).get(0)
+        .getValue().get()).isEqualTo("done");
+  }
+
+  @Test
+  public void testDispatchAsyncWithFailure() throws Exception {
+    final CompletableFuture<CommandResult<?>> result = this.sut.dispatchAsync(CommandBuilder.create("async").build());
+    this.targets.pending.completeExceptionally(new IllegalStateException("failed"));
+    assertThat(result.get(5, TimeUnit.SECONDS).getState()).isEqualTo(State.FAILED);
+    assertThat(result.get().getCause().get()).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void testDispatchAsyncWithTimeout() throws Exception {
+    final CommandResult<?> result = this.sut.dispatchAsync(CommandBuilder.create("asyncHang").build()).get(5, TimeUnit.SECONDS);
+    assertThat(result.getState()).isEqualTo(State.FAILED);
+    assertThat(result.getCause().get()).isInstanceOf(TimeoutException.class);
+    assertThat(this.targets.pending).isCancelled();
+  }
+
+  @Test
+  public void testDispatchBeyondConcurrencyLimit() throws Exception {
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<CommandResult<?>> blocking = executor.submit(() -> this.sut.dispatch(CommandBuilder.create("limited").build()));
+      this.targets.limitedStarted.await(5, TimeUnit.SECONDS);
+      final CommandResult<?> rejected = this.sut.dispatch(CommandBuilder.create("limited").build());
+      assertThat(rejected.getState()).isEqualTo(State.FAILED);
+      assertThat(rejected.getCause().get()).isInstanceOf(RejectedExecutionException.class).hasMessageContaining("limit of 1");
+      this.targets.limitedReleased.countDown();
+      assertThat(blocking.get(5, TimeUnit.SECONDS).getState()).isEqualTo(State.SUCCEEDED);
+      assertThat(this.sut.dispatch(CommandBuilder.create("limited").build()).getState()).isEqualTo(State.SUCCEEDED);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDispatchCacheableTarget() throws Exception {
+    assertThat(this.sut.dispatch(CommandBuilder.create("cached").build()).getValue().get()).isEqualTo(1);
+    assertThat(this.sut.dispatch(CommandBuilder.create("cached").build()).getValue().get()).isEqualTo(1);
+    assertThat(this.targets.invocations.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testDispatchSlowAsyncWithTimeout() throws Exception {
+    final CommandResult<?> result = this.sut.dispatch(CommandBuilder.create("slowAsync").build());
+    assertThat(result.getState()).isEqualTo(State.FAILED);
+    assertThat(result.getCause().get()).isInstanceOf(TimeoutException.class).hasMessageContaining("300 ms");
+  }
+
+  @Test
+  public void testDispatchStubbornBeyondConcurrencyLimit() throws Exception {
+    final org.mintshell.target.CommandTarget target = this.shell.getTargets().stream() //
+        .filter(candidate -> candidate.getName().equals("stubborn")) //
+        .findFirst() //
+        .get();
+    final CommandResult<?> timedOut = this.sut.dispatch(CommandBuilder.create("stubborn").build());
+    assertThat(timedOut.getCause().get()).isInstanceOf(TimeoutException.class);
+    final CommandResult<?> rejected = this.sut.dispatch(CommandBuilder.create("stubborn").build());
+    assertThat(rejected.getCause().get()).isInstanceOf(RejectedExecutionException.class).hasMessageContaining("limit of 1");
+    this.targets.stubbornReleased.countDown();
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (this.sut.getBulkhead(target).get().getActiveCount() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertThat(this.sut.dispatch(CommandBuilder.create("stubborn").build()).getState()).isEqualTo(State.SUCCEEDED);
+  }
+
+  @Test(expected = CommandNotFoundException.class)
+  public void testDispatchUnknownCommand() throws Exception {
+    this.sut.dispatch(CommandBuilder.create("unknown").build());
+  }
+
+  @Test
+  public void testDispatchWithConfiguredConcurrencyLimit() throws Exception {
+    final org.mintshell.target.CommandTarget target = this.shell.getTargets().stream() //
+        .filter(candidate -> candidate.getName().equals("quick")) //
+        .findFirst() //
+        .get();
+    assertThat(this.sut.getBulkhead(target)).isEmpty();
+    this.sut.setConcurrencyLimit("quick", 3, 100);
+    assertThat(this.sut.getBulkhead(target).get().getMaxConcurrency()).isEqualTo(3);
+    assertThat(this.sut.dispatch(CommandBuilder.create("quick").build()).getState()).isEqualTo(State.SUCCEEDED);
+    this.sut.removeConcurrencyLimit("quick");
+    assertThat(this.sut.getBulkhead(target)).isEmpty();
+  }
+
+  @Test
+  public void testDispatchWithDefaultTimeout() throws Exception {
+    this.sut.setDefaultTimeoutMillis(50);
+    final CommandResult<?> result = this.sut.dispatch(CommandBuilder.create("spin").build());
+    assertThat(result.getState()).isEqualTo(State.FAILED);
+    assertThat(result.getCause().get()).isInstanceOf(TimeoutException.class);
+    this.targets.spinning.await();
+    assertThat(this.targets.spinning.cancelled).isTrue();
+  }
+
+  @Test
+  public void testDispatchWithinTimeout() throws Exception {
+    final CommandResult<?> result = this.sut.dispatch(CommandBuilder.create("quick").build());
+    assertThat(result.getState()).isEqualTo(State.SUCCEEDED);
+    assertThat(result.getValue().get()).isEqualTo("done");
+  }
+
+  @Test
+  public void testDispatchWithoutTimeout() throws Exception {
+    this.sut.setDefaultTimeoutMillis(50);
+    final CommandResult<?> result = this.sut.dispatch(CommandBuilder.create("unbounded").build());
+    assertThat(result.getState()).isEqualTo(State.SUCCEEDED);
+    assertThat(result.getValue().get()).isEqualTo("done");
+  }
+
+  @Test
+  public void testDispatchWithTargetTimeout() throws Exception {
+    final CommandResult<?> result = this.sut.dispatch(CommandBuilder.create("hang").build());
+    assertThat(result.getState()).isEqualTo(State.FAILED);
+    assertThat(result.getCause().get()).isInstanceOf(TimeoutException.class).hasMessageContaining("hang");
+  }
+
+  @Test
+  public void testDispatchWithTimeoutKeepsSessionId() throws Exception {
+    CommandEvents.setSessionId("7");
+    try {
+      assertThat(this.sut.dispatch(CommandBuilder.create("session").build()).getValue().get()).isEqualTo("7");
+    } finally {
+      CommandEvents.setSessionId(null);
+    }
+  }
+
+  @Test
+  public void testWatchBuiltInPerDispatcher() throws Exception {
+    final int scheduleCount = WatchScheduler.getInstance().getScheduleCount();
+    try (final Watch first = watch(this.sut, BaseCommandDispatcher.DEFAULT_STATS_COMMAND_NAME);
+        final Watch second = watch(new DefaultCommandDispatcher(this.shell), BaseCommandDispatcher.DEFAULT_STATS_COMMAND_NAME)) {
+      first.start(output -> {
+      });
+      second.start(output -> {
+      });
+      assertThat(WatchScheduler.getInstance().getScheduleCount()).isEqualTo(scheduleCount + 2);
+    }
+  }
+
+  @Test
+  public void testWatchTargetUsesResultCache() throws Exception {
+    assertThat(awaitFirstOutput(watch(this.sut, "cached"))).isEqualTo("1");
+    assertThat(this.sut.dispatch(CommandBuilder.create("cached").build()).getValue().get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testWatchTargetWithTimeout() throws Exception {
+    assertThat(awaitFirstOutput(watch(this.sut, "hang"))).contains("timed out after 50 ms");
+  }
+
+  private static String awaitFirstOutput(final Watch watch) throws InterruptedException {
+    final AtomicReference<String> firstOutput = new AtomicReference<>();
+    final CountDownLatch executed = new CountDownLatch(1);
+    try {
+      watch.start(output -> {
+        firstOutput.compareAndSet(null, output);
+        executed.countDown();
+      });
+      assertThat(executed.await(5, TimeUnit.SECONDS)).isTrue();
+      return firstOutput.get();
+    } finally {
+      watch.close();
+    }
+  }
+
+  private static Command echo(final String value) {
+    return CommandBuilder.create("echo").withParameter(CommandParameterBuilder.create(0).withValue(value).build()).build();
+  }
+
+  private static Watch watch(final CommandDispatcher dispatcher, final String commandName) throws Exception {
+    return (Watch) dispatcher.dispatch(CommandBuilder.create(BaseCommandDispatcher.DEFAULT_WATCH_COMMAND_NAME) //
+        .withParameter(CommandParameterBuilder.create(0).withValue(commandName).build()) //
+        .build()).getValue().get();
+  }
+
+  /**
+   * Command targets used for dispatching.
+   */
+  public static class Targets {
+
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final CompletableFuture<String> pending = new CompletableFuture<>();
+    private final FutureTask<String> future = new FutureTask<>(() -> "done");
+    private final CompletableFuture<String> shared = new CompletableFuture<>();
+    private final CountDownLatch stubbornReleased = new CountDownLatch(1);
+    private final CountDownLatch limitedStarted = new CountDownLatch(1);
+    private final CountDownLatch limitedReleased = new CountDownLatch(1);
+    private final CountDownLatch gateEntered = new CountDownLatch(1);
+    private final CountDownLatch gateReleased = new CountDownLatch(1);
+    private final Spinning spinning = new Spinning();
+
+    @CommandTarget(name = "async")
+    public CompletionStage<String> async() {
+      return this.pending;
+    }
+
+    @CommandTarget(name = "asyncHang", timeout = 50)
+    public CompletableFuture<String> asyncHang() {
+      return this.pending;
+    }
+
+    @Cacheable(ttl = 60_000)
+    @CommandTarget(name = "cached")
+    public int cached() {
+      return this.invocations.incrementAndGet();
+    }
+
+    @Cacheable(ttl = 60_000)
+    @CommandTarget(name = "cachedAsync", timeout = 300)
+    public CompletableFuture<String> cachedAsync() {
+      this.invocations.incrementAndGet();
+      return this.shared;
+    }
+
+    @CommandTarget(name = "echo")
+    public String echo(@Param(name = "value") final String value) {
+      return value;
+    }
+
+    @CommandTarget(name = "fail")
+    public void fail() {
+      throw new IllegalStateException("failed");
+    }
+
+    @CommandTarget(name = "future")
+    public Future<String> future() {
+      return this.future;
+    }
+
+    @CommandTarget(name = "gate")
+    public void gate() throws InterruptedException {
+      this.gateEntered.countDown();
+      this.gateReleased.await(5, TimeUnit.SECONDS);
+    }
+
+    @CommandTarget(name = "hang", timeout = 50)
+    public void hang() throws InterruptedException {
+      Thread.sleep(10_000L);
+    }
+
+    @CommandTarget(name = "limited", maxConcurrency = 1)
+    public void limited() throws InterruptedException {
+      this.limitedStarted.countDown();
+      this.limitedReleased.await(5, TimeUnit.SECONDS);
+    }
+
+    @CommandTarget(name = "limitedAsync", maxConcurrency = 1)
+    public CompletionStage<String> limitedAsync() {
+      return this.pending;
+    }
+
+    @CommandTarget(name = "quick", timeout = 5_000)
+    public String quick() {
+      return "done";
+    }
+
+    @CommandTarget(name = "session", timeout = 5_000)
+    public String session() {
+      return CommandEvents.getSessionId();
+    }
+
+    @CommandTarget(name = "slowAsync", timeout = 300)
+    public CompletableFuture<String> slowAsync() throws InterruptedException {
+      Thread.sleep(200L);
+      return CompletableFuture.supplyAsync(() -> {
+        try {
+          Thread.sleep(200L);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return "done";
+      });
+    }
+
+    @CommandTarget(name = "spin")
+    public void spin() {
+      this.spinning.spin();
+    }
+
+    @CommandTarget(name = "stubborn", maxConcurrency = 1, timeout = 50)
+    public void stubborn() {
+      while (true) {
+        try {
+          if (this.stubbornReleased.await(5, TimeUnit.SECONDS)) {
+            return;
+          }
+        } catch (final InterruptedException e) {
+          // ignores cancellation on purpose
+        }
+      }
+    }
+
+    @CommandTarget(name = "sub")
+    public AnnotationCommandShell sub() {
+      return new AnnotationCommandShell();
+    }
+
+    @CommandTarget(name = "unbounded", timeout = 0)
+    public String unbounded() throws InterruptedException {
+      Thread.sleep(100L);
+      return "done";
+    }
+  }
+
+  /**
+   * Busy loop that only stops by cooperative cancellation.
+   */
+  private static class Spinning {
+
+    private volatile boolean cancelled;
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    void await() throws InterruptedException {
+      this.finished.await(5, TimeUnit.SECONDS);
+    }
+
+    void spin() {
+      try {
+        while (true) {
+          CommandContext.checkCurrentCancelled();
+        }
+      } catch (final CancellationException e) {
+        this.cancelled = true;
+      } finally {
+        this.finished.countDown();
+      }
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mintshell.annotation.CommandTarget;
+import org.mintshell.annotation.Param;
+import org.mintshell.command.Command;
+import org.mintshell.command.CommandBuilder;
+import org.mintshell.command.CommandParameterBuilder;
+import org.mintshell.target.CommandTargetSource;
+import org.mintshell.target.reflection.annotation.AnnotationCommandShell;
+
+/**
+ * Tests the functionality of the {@link DefaultCommandHelp} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class DefaultCommandHelpTest {
+
+  private AnnotationCommandShell shell;
+  private DefaultCommandHelp sut;
+
+  @Before
+  public void before() {
+    this.shell = new AnnotationCommandShell();
+    this.shell.addCommandTargetSources(new CommandTargetSource(new Targets()));
+    this.sut = new DefaultCommandHelp();
+  }
+
+  @Test
+  public void testGetCommandDetailText() {
+    final org.mintshell.target.CommandTarget target = this.shell.getTargets().stream() //
+        .filter(candidate -> candidate.getName().equals("connect")) //
+        .findFirst() //
+        .get();
+    final String text = this.sut.getCommandDetailText(target);
+    assertThat(text).contains("usage: connect [host]").contains(" --host    host to connect to");
+    assertThat(this.sut.getCommandDetailText(target)).isSameAs(text);
+  }
+
+  @Test
+  public void testGetCommandOverviewLines() {
+    assertThat(this.sut.getCommandOverviewLines(this.shell)).containsExactly( //
+        "connect    connects to a host", //
+        "count      ", //
+        "sleep      sleeps");
+  }
+
+  @Test
+  public void testGetCommandOverviewText() {
+    final String text = this.sut.getCommandOverviewText(this.shell);
+    assertThat(text).startsWith("connect    connects to a host\n\r").endsWith(this.sut.getCommandOverviewFooterText().get());
+    assertThat(this.sut.getCommandOverviewText(this.shell)).isSameAs(text);
+    this.shell.addCommandTargetSources(new CommandTargetSource(new OtherTargets()));
+    assertThat(this.sut.getCommandOverviewText(this.shell)).isNotSameAs(text).contains("copy       \n\r");
+  }
+
+  @Test
+  public void testGetCommandOverviewUncached() {
+    final CommandHelp uncached = new UncachedCommandHelp(this.sut);
+    assertThat(uncached.getCommandOverviewLines(this.shell)).isEqualTo(this.sut.getCommandOverviewLines(this.shell));
+    assertThat(uncached.getCommandOverviewText(this.shell)).isEqualTo(this.sut.getCommandOverviewText(this.shell));
+  }
+
+  @Test
+  public void testHelpCommandWithPage() throws Exception {
+    final DefaultCommandDispatcher dispatcher = new DefaultCommandDispatcher(this.shell, this.sut);
+    dispatcher.setHelpPageSize(2);
+    final Command command = CommandBuilder.create(DefaultCommandHelp.DEFAULT_HELP_COMMAND_NAME) //
+        .withParameter(CommandParameterBuilder.create(0).withName(BaseCommandDispatcher.HELP_PAGE_PARAMETER_NAME).withValue("2").build()) //
+        .build();
+    assertThat(dispatcher.dispatch(command).getValue().get().toString()).startsWith("sleep      sleeps\n\r\n\rPage 2 of 2");
+  }
+
+  /**
+   * Command targets used for help texts.
+   */
+  public static class Targets {
+
+    @CommandTarget(name = "connect", description = "connects to a host")
+    public void connect(@Param(name = "host", description = "host to connect to", required = false) final String host) {
+    }
+
+    @CommandTarget(name = "count")
+    public void count() {
+    }
+
+    @CommandTarget(name = "sleep", description = "sleeps")
+    public void sleep() {
+    }
+  }
+
+  /**
+   * Further command targets used for help texts.
+   */
+  public static class OtherTargets {
+
+    @CommandTarget(name = "copy")
+    public void copy() {
+    }
+  }
+
+  /**
+   * {@link CommandHelp} relying on the default overview rendering.
+   */
+  private static class UncachedCommandHelp implements CommandHelp {
+
+    private final CommandHelp delegate;
+
+    private UncachedCommandHelp(final CommandHelp delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public String getCommandDetailText(final org.mintshell.target.CommandTarget commandTarget) {
+      return this.delegate.getCommandDetailText(commandTarget);
+    }
+
+    @Override
+    public String getCommandNotFoundText(final String commandName) {
+      return this.delegate.getCommandNotFoundText(commandName);
+    }
+
+    @Override
+    public Optional<String> getCommandOverviewFooterText() {
+      return this.delegate.getCommandOverviewFooterText();
+    }
+
+    @Override
+    public String getCommandOverviewText(final org.mintshell.target.CommandTarget commandTarget) {
+      return this.delegate.getCommandOverviewText(commandTarget);
+    }
+
+    @Override
+    public String getHelpCommandName() {
+      return this.delegate.getHelpCommandName();
+    }
+
+    @Override
+    public Optional<String> getHelpCommandParamterName() {
+      return this.delegate.getHelpCommandParamterName();
+    }
+  }
+}
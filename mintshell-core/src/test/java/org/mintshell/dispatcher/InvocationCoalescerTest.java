@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.dispatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mintshell.annotation.Coalescing;
+import org.mintshell.annotation.CommandTarget;
+import org.mintshell.annotation.Param;
+import org.mintshell.command.Command;
+import org.mintshell.command.CommandBuilder;
+import org.mintshell.command.CommandParameterBuilder;
+import org.mintshell.target.CommandTargetSource;
+import org.mintshell.target.reflection.annotation.AnnotationCommandShell;
+
+/**
+ * Tests the functionality of the {@link InvocationCoalescer} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class InvocationCoalescerTest {
+
+  private ExecutorService executor;
+  private AtomicInteger invocations;
+  private InvocationCoalescer sut;
+  private org.mintshell.target.CommandTarget target;
+
+  @Before
+  public void before() {
+    final AnnotationCommandShell shell = new AnnotationCommandShell();
+    shell.addCommandTargetSources(new CommandTargetSource(new Targets()));
+    this.target = shell.getTargets().iterator().next();
+    this.executor = Executors.newCachedThreadPool();
+    this.invocations = new AtomicInteger();
+    this.sut = new InvocationCoalescer();
+  }
+
+  @After
+  public void after() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testCoalescing() {
+    assertThat(this.target.isCoalescing()).isTrue();
+  }
+
+  @Test
+  public void testInvokeConcurrently() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final Future<Object> first = this.executor.submit(() -> this.sut.invoke(this.target, status("all"), () -> {
+      release.await(5, TimeUnit.SECONDS);
+      return this.invoke();
+    }));
+    while (this.sut.getInFlightCount() == 0) {
+      Thread.sleep(1);
+    }
+    final Future<Object> second = this.executor.submit(() -> this.sut.invoke(this.target, status("all"), this::invoke));
+    final Future<Object> other = this.executor.submit(() -> this.sut.invoke(this.target, status("none"), this::invoke));
+    assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    while (this.sut.getCoalescedCount() == 0) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    assertThat(this.sut.getInFlightCount()).isZero();
+  }
+
+  @Test
+  public void testInvokeSequentially() throws Exception {
+    assertThat(this.sut.invoke(this.target, status("all"), this::invoke)).isEqualTo(1);
+    assertThat(this.sut.invoke(this.target, status("all"), this::invoke)).isEqualTo(2);
+    assertThat(this.sut.getCoalescedCount()).isZero();
+  }
+
+  @Test
+  public void testInvokeWithFailure() throws Exception {
+    try {
+      this.sut.invoke(this.target, status("all"), () -> {
+        throw new IllegalStateException("failed");
+      });
+      fail("ExecutionException expected");
+    } catch (final ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+    }
+    assertThat(this.sut.getInFlightCount()).isZero();
+  }
+
+  private static Command status(final String scope) {
+    return CommandBuilder.create("status").withParameter(CommandParameterBuilder.create(0).withValue(scope).build()).build();
+  }
+
+  private Object invoke() {
+    return this.invocations.incrementAndGet();
+  }
+
+  /**
+   * Command targets used for coalescing.
+   */
+  public static class Targets {
+
+    @Coalescing
+    @CommandTarget(name = "status")
+    public String status(@Param(name = "scope") final String scope) {
+      return scope;
+    }
+  }
+}
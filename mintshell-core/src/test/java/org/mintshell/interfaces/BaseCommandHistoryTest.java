@@ -24,6 +24,11 @@
 package org.mintshell.interfaces;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -58,6 +63,71 @@ public class BaseCommandHistoryTest {
     assertThat(this.sut.getCommandLines()).hasSize(1);
   }
 
+  @Test
+  public void testAddEmptyCommandLine() {
+    this.sut.addCommandLine("");
+    this.sut.addCommandLine(null);
+    assertThat(this.sut.getLastCommandLineNumber()).isEqualTo(0);
+    assertThat(this.sut.getCommandLines()).isEmpty();
+  }
+
+  @Test
+  public void testClear() {
+    for (int i = 1; i <= MAX_COMMANDS + 2; i++) {
+      this.sut.addCommandLine("command" + i);
+    }
+    this.sut.clear();
+    assertThat(this.sut.getFirstCommandLineNumber()).isEqualTo(0);
+    assertThat(this.sut.getLastCommandLineNumber()).isEqualTo(0);
+    assertThat(this.sut.getCommandLines()).isEmpty();
+    assertThat(this.sut.getPreviousCommandLine()).isEmpty();
+    this.sut.addCommandLine("next");
+    assertThat(this.sut.getFirstCommandLineNumber()).isEqualTo(1);
+    assertThat(this.sut.getLastCommandLineNumber()).isEqualTo(1);
+    assertThat(this.sut.getCommandLines()).containsExactly(entry(1, "next"));
+  }
+
+  @Test
+  public void testCommandLinesView() {
+    final Map<Integer, String> view = this.sut.getCommandLines();
+    this.sut.addCommandLine("first");
+    assertThat(view).containsExactly(entry(1, "first"));
+    final Iterator<Map.Entry<Integer, String>> it = view.entrySet().iterator();
+    assertThat(it.next()).isEqualTo(entry(1, "first"));
+    this.sut.addCommandLine("second");
+    assertThat(it.hasNext()).isTrue();
+    assertThat(it.next()).isEqualTo(entry(2, "second"));
+    assertThat(it.hasNext()).isFalse();
+  }
+
+  @Test
+  public void testEviction() {
+    for (int i = 1; i <= MAX_COMMANDS + 2; i++) {
+      this.sut.addCommandLine("command" + i);
+    }
+    assertThat(this.sut.getFirstCommandLineNumber()).isEqualTo(3);
+    assertThat(this.sut.getLastCommandLineNumber()).isEqualTo(MAX_COMMANDS + 2);
+    assertThat(this.sut.getCommandLine(2)).isEmpty();
+    assertThat(this.sut.getCommandLine(3)).contains("command3");
+    assertThat(this.sut.getCommandLines()).containsExactly(entry(3, "command3"), entry(4, "command4"), entry(5, "command5"));
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command5");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command4");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command3");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command3");
+    assertThat(this.sut.getNextCommandLine()).isEqualTo("command4");
+  }
+
+  @Test
+  public void testIgnoreConsecutiveDuplicates() {
+    this.sut.setIgnoreConsecutiveDuplicates(true);
+    this.sut.addCommandLine("command1");
+    this.sut.addCommandLine("command1");
+    this.sut.addCommandLine("command2");
+    this.sut.addCommandLine("command1");
+    assertThat(this.sut.getCommandLines()).containsExactly(entry(1, "command1"), entry(2, "command2"), entry(3, "command1"));
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command1");
+  }
+
   @Test
   public void testInit() {
     assertThat(this.sut.getFirstCommandLineNumber()).isEqualTo(0);
@@ -66,4 +136,8 @@ public class BaseCommandHistoryTest {
     assertThat(this.sut.getPreviousCommandLine()).isEmpty();
     assertThat(this.sut.getCommandLines()).isEmpty();
   }
+
+  private static Map.Entry<Integer, String> entry(final int number, final String commandLine) {
+    return new AbstractMap.SimpleImmutableEntry<>(number, commandLine);
+  }
 }
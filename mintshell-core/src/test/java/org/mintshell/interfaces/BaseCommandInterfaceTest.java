@@ -28,6 +28,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
@@ -39,8 +40,11 @@ import org.mintshell.command.CommandResult;
 import org.mintshell.command.DefaultCommandResult;
 import org.mintshell.dispatcher.CommandDispatchException;
 import org.mintshell.dispatcher.CommandDispatcher;
+import org.mintshell.dispatcher.CommandNotFoundException;
 import org.mintshell.interpreter.CommandInterpreteException;
 import org.mintshell.interpreter.CommandInterpreter;
+import org.mintshell.metrics.CommandMetrics;
+import org.mintshell.metrics.CommandMetricsProvider;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -108,13 +112,37 @@ public class BaseCommandInterfaceTest {
     this.sut.activate(this.commandInterpreterMock, this.commandDispatcherMock);
   }
 
+  @Test
+  public void testPerformCommandAsyncWithPendingResult() throws Exception {
+
+    // prepare
+    final String expectedResult = "success";
+    final CompletableFuture<CommandResult<?>> pendingDispatch = new CompletableFuture<>();
+    doReturn(this.commandMock).when(this.commandInterpreterMock).interprete(Mockito.anyString());
+    doReturn(pendingDispatch).when(this.commandDispatcherMock).dispatchAsync(this.commandMock);
+
+    // perform
+    this.sut.activate(this.commandInterpreterMock, this.commandDispatcherMock);
+    final CompletableFuture<String> result = this.sut.performCommandAsync("foobar");
+
+    // proof
+    assertThat(result.isDone()).isFalse();
+    assertThat(this.preCommandCounter.get()).isEqualTo(1);
+    assertThat(this.postCommandCounter.get()).isEqualTo(0);
+    pendingDispatch.complete(new DefaultCommandResult<>(this.commandMock, Optional.of(expectedResult)));
+    assertThat(result.getNow(null)).isEqualTo(expectedResult);
+    assertThat(this.postCommandCounter.get()).isEqualTo(1);
+  }
+
   @Test
   public void testPerformCommandWithDispatchException() throws Exception {
 
     // prepare
     final String errorMessage = "foobar";
     doReturn(this.commandMock).when(this.commandInterpreterMock).interprete(Mockito.anyString());
-    doThrow(new CommandDispatchException(errorMessage)).when(this.commandDispatcherMock).dispatch(this.commandMock);
+    final CompletableFuture<CommandResult<?>> failedDispatch = new CompletableFuture<>();
+    failedDispatch.completeExceptionally(new CommandDispatchException(errorMessage));
+    doReturn(failedDispatch).when(this.commandDispatcherMock).dispatchAsync(this.commandMock);
     assertThat(this.preCommandCounter.get()).isEqualTo(0);
     assertThat(this.postCommandCounter.get()).isEqualTo(0);
 
@@ -136,7 +164,7 @@ public class BaseCommandInterfaceTest {
     final Throwable cause = new IllegalStateException(errorMessage);
     final CommandResult<?> commandResult = new DefaultCommandResult<>(this.commandMock, cause);
     doReturn(this.commandMock).when(this.commandInterpreterMock).interprete(Mockito.anyString());
-    doReturn(commandResult).when(this.commandDispatcherMock).dispatch(this.commandMock);
+    doReturn(CompletableFuture.completedFuture(commandResult)).when(this.commandDispatcherMock).dispatchAsync(this.commandMock);
     assertThat(this.preCommandCounter.get()).isEqualTo(0);
     assertThat(this.postCommandCounter.get()).isEqualTo(0);
 
@@ -162,11 +190,15 @@ public class BaseCommandInterfaceTest {
     // perform
     this.sut.activate(this.commandInterpreterMock, this.commandDispatcherMock);
     final String result = this.sut.performCommand("foobar");
+    this.sut.performCommand("barfoo");
 
     // proof
     assertThat(result).isEqualTo(errorMessage);
     assertThat(this.preCommandCounter.get()).isEqualTo(0);
-    assertThat(this.postCommandCounter.get()).isEqualTo(1);
+    assertThat(this.postCommandCounter.get()).isEqualTo(2);
+    final CommandMetrics metrics = CommandMetricsProvider.getCommandMetrics();
+    assertThat(metrics.getCommandNames()).doesNotContain("foobar", "barfoo");
+    assertThat(metrics.getErrorCounts(BaseCommandInterface.UNINTERPRETABLE_COMMAND_NAME)).containsKey(CommandInterpreteException.class.getName());
   }
 
   @Test
@@ -176,7 +208,7 @@ public class BaseCommandInterfaceTest {
     final String expectedResult = "success";
     final CommandResult<?> commandResult = new DefaultCommandResult<>(this.commandMock, Optional.of(expectedResult));
     doReturn(this.commandMock).when(this.commandInterpreterMock).interprete(Mockito.anyString());
-    doReturn(commandResult).when(this.commandDispatcherMock).dispatch(this.commandMock);
+    doReturn(CompletableFuture.completedFuture(commandResult)).when(this.commandDispatcherMock).dispatchAsync(this.commandMock);
     assertThat(this.preCommandCounter.get()).isEqualTo(0);
     assertThat(this.postCommandCounter.get()).isEqualTo(0);
 
@@ -190,4 +222,26 @@ public class BaseCommandInterfaceTest {
     assertThat(this.postCommandCounter.get()).isEqualTo(1);
   }
 
+  @Test
+  public void testPerformCommandWithUnknownCommand() throws Exception {
+
+    // prepare
+    final String errorMessage = "made-up: command not found";
+    final CompletableFuture<CommandResult<?>> failedDispatch = new CompletableFuture<>();
+    failedDispatch.completeExceptionally(new CommandNotFoundException(errorMessage));
+    doReturn("made-up").when(this.commandMock).getName();
+    doReturn(this.commandMock).when(this.commandInterpreterMock).interprete(Mockito.anyString());
+    doReturn(failedDispatch).when(this.commandDispatcherMock).dispatchAsync(this.commandMock);
+
+    // perform
+    this.sut.activate(this.commandInterpreterMock, this.commandDispatcherMock);
+    final String result = this.sut.performCommand("made-up");
+
+    // proof
+    assertThat(result).isEqualTo(errorMessage);
+    final CommandMetrics metrics = CommandMetricsProvider.getCommandMetrics();
+    assertThat(metrics.getCommandNames()).doesNotContain("made-up");
+    assertThat(metrics.getErrorCounts(BaseCommandInterface.UNKNOWN_COMMAND_NAME)).containsKey(CommandNotFoundException.class.getName());
+  }
+
 }
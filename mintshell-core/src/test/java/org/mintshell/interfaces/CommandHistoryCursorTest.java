@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.interfaces;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link CommandHistoryCursor} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandHistoryCursorTest {
+
+  private static final int MAX_COMMANDS = 3;
+
+  private BaseCommandHistory commandHistory;
+  private CommandHistoryCursor sut;
+
+  @Before
+  public void before() {
+    this.commandHistory = new BaseCommandHistory(MAX_COMMANDS) {
+    };
+    this.sut = new CommandHistoryCursor(this.commandHistory);
+  }
+
+  @Test
+  public void testEmptyHistory() {
+    assertThat(this.sut.getPreviousCommandLine()).isEmpty();
+    assertThat(this.sut.getNextCommandLine()).isEmpty();
+  }
+
+  @Test
+  public void testEviction() {
+    this.commandHistory.addCommandLine("command1");
+    this.commandHistory.addCommandLine("command2");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command2");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command1");
+    this.commandHistory.addCommandLine("command3");
+    this.commandHistory.addCommandLine("command4");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command2");
+    assertThat(this.sut.getNextCommandLine()).isEqualTo("command3");
+  }
+
+  @Test
+  public void testIndependentNavigation() {
+    final CommandHistoryCursor otherCursor = new CommandHistoryCursor(this.commandHistory);
+    this.commandHistory.addCommandLine("command1");
+    this.commandHistory.addCommandLine("command2");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command2");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command1");
+    assertThat(otherCursor.getPreviousCommandLine()).isEqualTo("command2");
+    assertThat(this.sut.getNextCommandLine()).isEqualTo("command2");
+    assertThat(otherCursor.getNextCommandLine()).isEmpty();
+  }
+
+  @Test
+  public void testNavigation() {
+    this.commandHistory.addCommandLine("command1");
+    this.commandHistory.addCommandLine("command2");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command2");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command1");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command1");
+    assertThat(this.sut.getNextCommandLine()).isEqualTo("command2");
+    assertThat(this.sut.getNextCommandLine()).isEmpty();
+    assertThat(this.sut.getNextCommandLine()).isEmpty();
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command2");
+  }
+
+  @Test
+  public void testReset() {
+    this.commandHistory.addCommandLine("command1");
+    this.commandHistory.addCommandLine("command2");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command2");
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command1");
+    this.commandHistory.addCommandLine("command3");
+    this.sut.reset();
+    assertThat(this.sut.getPreviousCommandLine()).isEqualTo("command3");
+  }
+}
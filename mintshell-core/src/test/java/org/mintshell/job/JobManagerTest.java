@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mintshell.command.CommandBuilder;
+import org.mintshell.command.CommandParameterBuilder;
+import org.mintshell.command.DefaultCommand;
+import org.mintshell.metrics.CommandEvents;
+import org.mintshell.target.CommandContext;
+
+/**
+ * Tests the functionality of the {@link JobManager} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class JobManagerTest {
+
+  private static final long TIMEOUT_SECONDS = 5;
+
+  private ExecutorService executor;
+  private JobManager sut;
+
+  @After
+  public void after() {
+    this.executor.shutdownNow();
+    CommandEvents.setSessionId(null);
+  }
+
+  @Before
+  public void before() {
+    this.executor = Executors.newFixedThreadPool(2);
+    this.sut = new JobManager(this.executor);
+  }
+
+  @Test
+  public void testCancelCooperatively() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final Job job = this.sut.submit(new DefaultCommand("drain"), () -> {
+      started.countDown();
+      while (true) {
+        CommandContext.checkCurrentCancelled();
+        Thread.yield();
+      }
+    });
+    assertThat(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    assertThat(job.cancel()).isTrue();
+    assertThat(job.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    assertThat(job.getState()).isEqualTo(JobState.CANCELLED);
+    assertThat(job.cancel()).isFalse();
+  }
+
+  @Test
+  public void testCancelInterrupts() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final Job job = this.sut.submit(new DefaultCommand("reindex"), () -> {
+      started.countDown();
+      Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+      return "done";
+    });
+    assertThat(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    assertThat(job.cancel()).isTrue();
+    assertThat(job.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    assertThat(job.getState()).isEqualTo(JobState.CANCELLED);
+    assertThat(job.getOutput()).isEmpty();
+  }
+
+  @Test
+  public void testSubmit() throws Exception {
+    final Job job = this.sut.submit(CommandBuilder.create("reindex") //
+        .withParameter(CommandParameterBuilder.create(0).withName("index").withValue("orders").build()) //
+        .withParameter(CommandParameterBuilder.create(1).withValue("all nodes").build()) //
+        .build(), () -> {
+          CommandContext.current().get().println("reindexing");
+          return "done";
+        });
+    assertThat(job.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    assertThat(job.getId()).isEqualTo(1);
+    assertThat(job.getCommandLine()).isEqualTo("reindex --index orders \"all nodes\"");
+    assertThat(job.getState()).isEqualTo(JobState.SUCCEEDED);
+    assertThat(job.getOutput()).isEqualTo("reindexing\n\rdone");
+    assertThat(job.getOutputLength()).isEqualTo(16);
+    assertThat(this.sut.getLatestJob()).contains(job);
+    assertThat(this.sut.removeJob(1)).contains(job);
+    assertThat(this.sut.getJobs()).isEmpty();
+    assertThat(CommandContext.current()).isEmpty();
+  }
+
+  @Test
+  public void testSessionsAreIsolated() throws Exception {
+    CommandEvents.setSessionId("1");
+    final Job job = this.sut.submit(new DefaultCommand("reindex"), () -> CommandEvents.getSessionId());
+    assertThat(job.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    assertThat(job.getSessionId()).contains("1");
+    assertThat(job.getOutput()).isEqualTo("1");
+    CommandEvents.setSessionId("2");
+    assertThat(this.sut.getJobs()).isEmpty();
+    assertThat(this.sut.getJob(job.getId())).isEmpty();
+    assertThat(this.sut.getLatestJob()).isEmpty();
+    assertThat(this.sut.removeJob(job.getId())).isEmpty();
+    CommandEvents.setSessionId("1");
+    assertThat(this.sut.getJobs()).containsExactly(job);
+    assertThat(this.sut.removeJob(job.getId())).contains(job);
+  }
+
+  @Test
+  public void testSubmitDiscardsFinishedJobs() throws Exception {
+    for (int i = 0; i < JobManager.DEFAULT_MAX_FINISHED_JOBS + 2; i++) {
+      assertThat(this.sut.submit(new DefaultCommand("noop"), () -> null).await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    }
+    final CountDownLatch release = new CountDownLatch(1);
+    final Job running = this.sut.submit(new DefaultCommand("wait"), () -> release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertThat(this.sut.getJobs()).hasSize(JobManager.DEFAULT_MAX_FINISHED_JOBS + 1);
+    assertThat(this.sut.getJob(1)).isEmpty();
+    assertThat(this.sut.getJob(2)).isEmpty();
+    assertThat(this.sut.getJob(3)).isPresent();
+    assertThat(this.sut.getLatestJob()).contains(running);
+    release.countDown();
+  }
+
+  @Test
+  public void testSubmitFailing() throws Exception {
+    final Job job = this.sut.submit(new DefaultCommand("drain"), () -> {
+      throw new IllegalStateException("node unreachable");
+    });
+    assertThat(job.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    assertThat(job.getState()).isEqualTo(JobState.FAILED);
+    assertThat(job.getCause().get()).isInstanceOf(IllegalStateException.class);
+    assertThat(job.getOutput()).isEqualTo("node unreachable");
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link WatchScheduler} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class WatchSchedulerTest {
+
+  private static final long TIMEOUT_SECONDS = 5;
+
+  private AtomicInteger executions;
+  private WatchScheduler sut;
+
+  @After
+  public void after() {
+    this.sut.close();
+  }
+
+  @Before
+  public void before() {
+    this.executions = new AtomicInteger();
+    this.sut = new WatchScheduler(1);
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    final CountDownLatch executed = new CountDownLatch(1);
+    final Watch watch = this.sut.createWatch("stats", "stats", () -> this.executions.incrementAndGet(), 1, TimeUnit.HOURS);
+    assertThat(watch.isStarted()).isFalse();
+    watch.start(output -> executed.countDown());
+    assertThat(watch.isStarted()).isTrue();
+    assertThat(executed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    assertThat(this.sut.getScheduleCount()).isEqualTo(1);
+    watch.close();
+    assertThat(watch.isStarted()).isFalse();
+    assertThat(this.sut.getScheduleCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCoalescing() throws Exception {
+    final CountDownLatch executed = new CountDownLatch(2);
+    final List<String> outputs = new CopyOnWriteArrayList<>();
+    final Watch first = this.sut.createWatch("status --all", "status --all", () -> "run " + this.executions.incrementAndGet(), 1, TimeUnit.HOURS);
+    final Watch second = this.sut.createWatch("status --all", "status --all", () -> "other " + this.executions.incrementAndGet(), 1,
+        TimeUnit.HOURS);
+    first.start(output -> {
+      outputs.add(output);
+      executed.countDown();
+    });
+    final long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+    while (outputs.isEmpty() && System.nanoTime() < timeout) {
+      Thread.sleep(10);
+    }
+    second.start(output -> {
+      outputs.add(output);
+      executed.countDown();
+    });
+    assertThat(executed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    assertThat(outputs).containsExactly("run 1", "run 1");
+    assertThat(this.executions.get()).isEqualTo(1);
+    assertThat(this.sut.getScheduleCount()).isEqualTo(1);
+    first.close();
+    assertThat(this.sut.getScheduleCount()).isEqualTo(1);
+    second.close();
+    assertThat(this.sut.getScheduleCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testFailingCommand() throws Exception {
+    final CountDownLatch executed = new CountDownLatch(1);
+    final List<String> outputs = new CopyOnWriteArrayList<>();
+    final Watch watch = this.sut.createWatch("drain", "drain", () -> {
+      throw new IllegalStateException("node unreachable");
+    }, 1, TimeUnit.HOURS);
+    watch.start(output -> {
+      outputs.add(output);
+      executed.countDown();
+    });
+    assertThat(executed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    assertThat(outputs).containsExactly("node unreachable");
+    watch.close();
+  }
+
+  @Test
+  public void testSlowListener() throws Exception {
+    final CountDownLatch released = new CountDownLatch(1);
+    final CountDownLatch executed = new CountDownLatch(3);
+    final List<String> slowOutputs = new CopyOnWriteArrayList<>();
+    final Watch slow = this.sut.createWatch("top", "top", () -> String.valueOf(this.executions.incrementAndGet()), 20, TimeUnit.MILLISECONDS);
+    final Watch fast = this.sut.createWatch("top", "top", () -> String.valueOf(this.executions.incrementAndGet()), 20, TimeUnit.MILLISECONDS);
+    try {
+      slow.start(output -> {
+        slowOutputs.add(output);
+        try {
+          released.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      fast.start(output -> executed.countDown());
+      assertThat(executed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+      assertThat(slowOutputs).hasSize(1);
+      final int skipped = this.executions.get();
+      released.countDown();
+      final long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+      while (slowOutputs.size() < 2 && System.nanoTime() < timeout) {
+        Thread.sleep(10);
+      }
+      assertThat(slowOutputs.size()).isGreaterThanOrEqualTo(2);
+      assertThat(Integer.parseInt(slowOutputs.get(1))).isGreaterThanOrEqualTo(skipped);
+    } finally {
+      released.countDown();
+      slow.close();
+      fast.close();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testStartTwice() {
+    final Watch watch = this.sut.createWatch("stats", "stats", () -> "", 1, TimeUnit.HOURS);
+    watch.start(output -> {
+    });
+    watch.start(output -> {
+    });
+  }
+
+  @Test
+  public void testToString() {
+    assertThat(this.sut.createWatch("stats", "stats --reset", () -> "", 2500, TimeUnit.MILLISECONDS)).hasToString("Every 2.5s: stats --reset");
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link DefaultCommandMetrics} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class DefaultCommandMetricsTest {
+
+  private DefaultCommandMetrics sut;
+
+  @Before
+  public void before() {
+    this.sut = new DefaultCommandMetrics();
+  }
+
+  @Test
+  public void testBucketBoundaries() {
+    for (final long value : new long[] { 0L, 1L, 63L, 64L, 65L, 127L, 128L, 1_000L, 1_000_000L, 123_456_789L, Long.MAX_VALUE }) {
+      final int index = LatencyHistogram.bucketIndex(value);
+      assertThat(index).isBetween(0, LatencyHistogram.BUCKET_COUNT - 1);
+      assertThat(LatencyHistogram.highestValue(index)).isGreaterThanOrEqualTo(value);
+      assertThat(index == 0 || LatencyHistogram.highestValue(index - 1) < value).isTrue();
+    }
+  }
+
+  @Test
+  public void testConcurrentRecording() throws InterruptedException {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    IntStream.range(0, 4).forEach(thread -> executor.execute(() -> {
+      for (int i = 0; i < 10_000; i++) {
+        this.sut.recordTime("cmd", CommandStage.DISPATCH, i);
+      }
+    }));
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(this.sut.getLatency("cmd", CommandStage.DISPATCH).get().getCount()).isEqualTo(40_000L);
+  }
+
+  @Test
+  public void testInit() {
+    assertThat(this.sut.getCommandNames()).isEmpty();
+    assertThat(this.sut.getLatency("cmd", CommandStage.INVOCATION)).isEmpty();
+    assertThat(this.sut.getErrorCounts("cmd")).isEmpty();
+  }
+
+  @Test
+  public void testRecordError() {
+    this.sut.recordError("cmd", new IllegalArgumentException());
+    this.sut.recordError("cmd", new IllegalArgumentException());
+    this.sut.recordError("cmd", new IllegalStateException());
+    assertThat(this.sut.getErrorCounts("cmd")) //
+        .containsEntry(IllegalArgumentException.class.getName(), 2L) //
+        .containsEntry(IllegalStateException.class.getName(), 1L) //
+        .hasSize(2);
+    assertThat(this.sut.getLatency("cmd", CommandStage.INVOCATION)).isEmpty();
+  }
+
+  @Test
+  public void testRecordTime() {
+    for (long i = 1; i <= 1000; i++) {
+      this.sut.recordTime("cmd", CommandStage.INVOCATION, i * 1_000L);
+    }
+    final LatencySnapshot snapshot = this.sut.getLatency("cmd", CommandStage.INVOCATION).get();
+    assertThat(snapshot.getCount()).isEqualTo(1000L);
+    assertThat(snapshot.getMin()).isEqualTo(1_000L);
+    assertThat(snapshot.getMax()).isEqualTo(1_000_000L);
+    assertThat(snapshot.getMean()).isEqualTo(500_500L);
+    assertThat(snapshot.getP50()).isBetween(500_000L, 500_000L + 500_000L / 32);
+    assertThat(snapshot.getP99()).isBetween(990_000L, 1_000_000L);
+    assertThat(this.sut.getLatency("cmd", CommandStage.CONVERSION)).isEmpty();
+    assertThat(this.sut.getCommandNames()).containsExactly("cmd");
+  }
+
+  @Test
+  public void testReset() {
+    this.sut.recordTime("cmd", CommandStage.INTERPRETATION, 42L);
+    this.sut.recordError("cmd", new IllegalStateException());
+    this.sut.reset();
+    assertThat(this.sut.getCommandNames()).isEmpty();
+    assertThat(this.sut.getLatency("cmd", CommandStage.INTERPRETATION)).isEmpty();
+  }
+}
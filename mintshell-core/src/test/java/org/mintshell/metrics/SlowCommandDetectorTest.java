@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mintshell.annotation.Nullable;
+import org.mintshell.command.Command;
+import org.mintshell.command.CommandParameter;
+import org.mintshell.command.DefaultCommand;
+import org.mintshell.command.DefaultCommandParameter;
+
+/**
+ * Tests the functionality of the {@link SlowCommandDetector} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class SlowCommandDetectorTest {
+
+  private static final Command COMMAND = new DefaultCommand("login", Arrays.<CommandParameter> asList( //
+      new DefaultCommandParameter(0, "user", null, "admin"), //
+      new DefaultCommandParameter(1, "password", 'p', "secret"), //
+      new DefaultCommandParameter(2, "now")));
+
+  private List<String> slowCommands;
+  private List<StackTraceElement[]> stackSamples;
+  private SlowCommandDetector sut;
+
+  @Before
+  public void before() {
+    this.slowCommands = new CopyOnWriteArrayList<>();
+    this.stackSamples = new CopyOnWriteArrayList<>();
+    this.sut = new SlowCommandDetector(1, TimeUnit.HOURS) {
+
+      @Override
+      protected void reportSlowCommand(final Command command, final @Nullable String sessionId, final long elapsedNanos) {
+        SlowCommandDetectorTest.this.slowCommands.add(this.formatParameters(command));
+      }
+
+      @Override
+      protected void reportStackSample(final Command command, final @Nullable String sessionId, final long elapsedNanos, final Thread thread,
+          final StackTraceElement[] stackTrace) {
+        SlowCommandDetectorTest.this.stackSamples.add(stackTrace);
+      }
+    };
+    this.sut.addRedactedParameters("password");
+  }
+
+  @After
+  public void after() {
+    this.sut.close();
+  }
+
+  @Test
+  public void testFastCommand() {
+    this.sut.watch(COMMAND).close();
+    assertThat(this.slowCommands).isEmpty();
+    assertThat(this.stackSamples).isEmpty();
+  }
+
+  @Test
+  public void testSlowCommand() throws InterruptedException {
+    this.sut.setThreshold(COMMAND.getName(), 50, TimeUnit.MILLISECONDS);
+    this.sut.setSampleInterval(10, TimeUnit.MILLISECONDS);
+    this.sut.setMaxStackSamples(2);
+    final SlowCommandDetector.Watch watch = this.sut.watch(COMMAND);
+    Thread.sleep(200);
+    watch.close();
+    assertThat(this.slowCommands).containsExactly("--user=admin --password=*** now");
+    assertThat(this.stackSamples).hasSize(2);
+    assertThat(this.stackSamples.get(0)[0].getMethodName()).isEqualTo("sleep");
+  }
+
+  @Test
+  public void testThreshold() {
+    this.sut.setThreshold(COMMAND.getName(), 5, TimeUnit.SECONDS);
+    assertThat(this.sut.getThreshold(COMMAND.getName(), TimeUnit.MILLISECONDS)).isEqualTo(5000L);
+    assertThat(this.sut.getThreshold("other", TimeUnit.MINUTES)).isEqualTo(60L);
+    this.sut.setThreshold(COMMAND.getName(), -1, TimeUnit.SECONDS);
+    assertThat(this.sut.getThreshold(COMMAND.getName(), TimeUnit.MINUTES)).isEqualTo(60L);
+  }
+}
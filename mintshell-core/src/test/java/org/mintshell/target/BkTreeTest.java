@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link BkTree} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class BkTreeTest {
+
+  private static final int WORD_COUNT = 2000;
+
+  private List<String> words;
+  private BkTree sut;
+
+  @Before
+  public void before() {
+    final Random random = new Random(42);
+    this.words = new ArrayList<>();
+    this.sut = new BkTree();
+    for (int i = 0; i < WORD_COUNT; i++) {
+      final StringBuilder word = new StringBuilder();
+      for (int length = 3 + random.nextInt(8); length > 0; length--) {
+        word.append((char) ('a' + random.nextInt(6)));
+      }
+      this.words.add(word.toString());
+      this.sut.add(word.toString());
+    }
+  }
+
+  @Test
+  public void testDistance() {
+    assertThat(BkTree.distance("", "")).isZero();
+    assertThat(BkTree.distance("kitten", "sitting")).isEqualTo(3);
+    assertThat(BkTree.distance("connect", "conect")).isEqualTo(1);
+    assertThat(BkTree.distance("count", "cuont")).isEqualTo(2);
+    assertThat(BkTree.distance("", "abc")).isEqualTo(3);
+  }
+
+  @Test
+  public void testFind() {
+    for (final String query : new String[] { "abc", "fedcba", "aaaaaaa", "bcdefab" }) {
+      for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+        final int distance = maxDistance;
+        final List<String> expected = this.words.stream() //
+            .distinct() //
+            .filter(word -> BkTree.distance(word, query) <= distance) //
+            .sorted((first, second) -> BkTree.distance(first, query) != BkTree.distance(second, query)
+                ? Integer.compare(BkTree.distance(first, query), BkTree.distance(second, query))
+                : first.compareTo(second)) //
+            .collect(Collectors.toList());
+        assertThat(this.sut.find(query, maxDistance)).isEqualTo(expected);
+      }
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mintshell.annotation.CommandTarget;
+import org.mintshell.annotation.Param;
+import org.mintshell.target.reflection.annotation.AnnotationCommandShell;
+
+/**
+ * Tests the functionality of the {@link CommandTargetCompletions} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandTargetCompletionsTest {
+
+  private AnnotationCommandShell shell;
+  private CommandTargetCompletions sut;
+
+  @After
+  public void after() {
+    ValueCompletionCache.setInstance(null);
+  }
+
+  @Before
+  public void before() {
+    ValueCompletionCache.setInstance(new ValueCompletionCache(5, 1, TimeUnit.MINUTES, ValueCompletionCache.DEFAULT_MAX_ENTRIES));
+    this.shell = new AnnotationCommandShell();
+    this.shell.addCommandTargetSources(new CommandTargetSource(new Targets()));
+    this.sut = this.shell.getCompletions();
+  }
+
+  @Test
+  public void testCompleteCommandName() {
+    assertThat(this.sut.complete("")).containsExactly("connect", "count", "sleep");
+    assertThat(this.sut.complete("co")).containsExactly("connect", "count");
+    assertThat(this.sut.complete("  con")).containsExactly("connect");
+    assertThat(this.sut.complete("x")).isEmpty();
+  }
+
+  @Test
+  public void testCompleteCommandNameFuzzily() {
+    assertThat(this.sut.complete("conect")).containsExactly("connect");
+    assertThat(this.sut.complete("slep")).containsExactly("sleep");
+    assertThat(this.sut.complete("xyz")).isEmpty();
+  }
+
+  @Test
+  public void testCompleteParameterName() {
+    assertThat(this.sut.complete("connect -")).containsExactly("--host", "--port", "-h", "-p");
+    assertThat(this.sut.complete("connect --h")).containsExactly("--host");
+    assertThat(this.sut.complete("unknown --h")).isEmpty();
+  }
+
+  @Test
+  public void testCompleteParameterValue() {
+    assertThat(this.sut.complete("sleep --unit ")).hasSize(TimeUnit.values().length);
+    assertThat(this.sut.complete("sleep -u M")).containsExactly("MICROSECONDS", "MILLISECONDS", "MINUTES");
+    assertThat(this.sut.complete("sleep --duration ")).isEmpty();
+  }
+
+  @Test
+  public void testCompleteParameterValueWithValueCompleter() {
+    assertThat(this.sut.complete("connect --host web")).containsExactly("web1", "web2");
+    assertThat(this.sut.complete("connect -h ")).containsExactly("db1", "web1", "web2");
+    assertThat(this.sut.complete("connect --port ")).isEmpty();
+  }
+
+  @Test
+  public void testCompletePipedCommand() {
+    assertThat(this.sut.complete("connect --host localhost | cou")).containsExactly("count");
+    assertThat(this.sut.complete("connect | sleep --u")).containsExactly("--unit");
+  }
+
+  @Test
+  public void testRebuildAfterAddingTargets() {
+    assertThat(this.shell.getCompletions()).isSameAs(this.sut);
+    this.shell.addCommandTargetSources(new CommandTargetSource(new OtherTargets()));
+    assertThat(this.shell.getCompletions()).isNotSameAs(this.sut);
+    assertThat(this.shell.getCompletions().complete("co")).containsExactly("connect", "copy", "count");
+  }
+
+  @Test
+  public void testSuggest() {
+    assertThat(this.sut.suggest("cont", 3)).containsExactly("count");
+    assertThat(this.sut.suggest("conenct", 3)).containsExactly("connect");
+    assertThat(this.sut.suggest("cuont", 3)).containsExactly("count");
+    assertThat(this.sut.suggest("coun", 1)).containsExactly("count");
+    assertThat(this.sut.suggest("disconnect", 3)).isEmpty();
+  }
+
+  /**
+   * {@link ValueCompleter} of host names.
+   */
+  public static class HostCompleter implements ValueCompleter {
+
+    @Override
+    public Collection<String> complete(final CommandTargetParameter parameter, final String valueFragment) {
+      return Arrays.asList("web2", "web1", "db1");
+    }
+  }
+
+  /**
+   * Command targets used for completion.
+   */
+  public static class Targets {
+
+    @CommandTarget(name = "connect")
+    public void connect(@Param(name = "host", shortName = 'h', completer = HostCompleter.class) final String host, @Param(name = "port", shortName = 'p') final Integer port) {
+    }
+
+    @CommandTarget(name = "count")
+    public void count() {
+    }
+
+    @CommandTarget(name = "sleep")
+    public void sleep(@Param(name = "duration") final Long duration, @Param(name = "unit", shortName = 'u') final TimeUnit unit) {
+    }
+  }
+
+  /**
+   * Further command targets used for completion.
+   */
+  public static class OtherTargets {
+
+    @CommandTarget(name = "copy")
+    public void copy() {
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link ValueCompletionCache} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class ValueCompletionCacheTest {
+
+  private static final long DEADLINE_SECONDS = 5;
+
+  private AtomicInteger invocations;
+  private BaseCommandTargetParameter parameter;
+  private ValueCompletionCache sut;
+
+  @After
+  public void after() {
+    this.sut.close();
+  }
+
+  @Before
+  public void before() {
+    this.invocations = new AtomicInteger();
+    this.parameter = new BaseCommandTargetParameter(0, "queue", null, null, false) {
+    };
+    this.parameter.setValueCompleter((parameter, valueFragment) -> {
+      this.invocations.incrementAndGet();
+      return Arrays.asList("orders", "invoices", "outbox", "other");
+    });
+    this.sut = new ValueCompletionCache(DEADLINE_SECONDS, 1, TimeUnit.MINUTES, 2);
+  }
+
+  @Test
+  public void testComplete() {
+    assertThat(this.sut.complete(this.parameter, "o")).containsExactly("orders", "other", "outbox");
+    assertThat(this.sut.complete(this.parameter, "o")).containsExactly("orders", "other", "outbox");
+    assertThat(this.invocations.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCompleteWithDeadline() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    this.parameter.setValueCompleter((parameter, valueFragment) -> {
+      release.await();
+      return Arrays.asList("slow");
+    });
+    this.sut.close();
+    this.sut = new ValueCompletionCache(0, 1, TimeUnit.MINUTES, 2);
+    assertThat(this.sut.complete(this.parameter, "")).isEmpty();
+    release.countDown();
+    final long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(DEADLINE_SECONDS);
+    while (this.sut.complete(this.parameter, "").isEmpty() && System.nanoTime() < timeout) {
+      Thread.sleep(10);
+    }
+    assertThat(this.sut.complete(this.parameter, "")).containsExactly("slow");
+  }
+
+  @Test
+  public void testCompleteWithEviction() {
+    this.sut.complete(this.parameter, "o");
+    this.sut.complete(this.parameter, "or");
+    this.sut.complete(this.parameter, "ou");
+    this.sut.complete(this.parameter, "ou");
+    assertThat(this.invocations.get()).isEqualTo(3);
+    this.sut.complete(this.parameter, "o");
+    assertThat(this.invocations.get()).isEqualTo(4);
+  }
+
+  @Test
+  public void testCompleteWithExpiry() {
+    this.sut.close();
+    this.sut = new ValueCompletionCache(DEADLINE_SECONDS, 0, TimeUnit.SECONDS, 2);
+    this.sut.complete(this.parameter, "o");
+    this.sut.complete(this.parameter, "o");
+    assertThat(this.invocations.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testCompleteWithFailure() {
+    this.parameter.setValueCompleter((parameter, valueFragment) -> {
+      this.invocations.incrementAndGet();
+      throw new IllegalStateException("unavailable");
+    });
+    assertThat(this.sut.complete(this.parameter, "")).isEmpty();
+    assertThat(this.sut.complete(this.parameter, "")).isEmpty();
+    assertThat(this.invocations.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testCompleteWithoutValueCompleter() {
+    this.parameter.setValueCompleter(null);
+    assertThat(this.sut.complete(this.parameter, "")).isEmpty();
+  }
+}
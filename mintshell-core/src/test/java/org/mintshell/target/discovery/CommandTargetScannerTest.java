@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mintshell.target.discovery.fixture.AbstractTargets;
+import org.mintshell.target.discovery.fixture.InstanceTargets;
+import org.mintshell.target.discovery.fixture.NoTargets;
+import org.mintshell.target.discovery.fixture.StaticTargets;
+import org.mintshell.target.discovery.fixture.sub.SubpackageTargets;
+
+/**
+ * Tests the functionality of the {@link CommandTargetScanner} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandTargetScannerTest {
+
+  private static final String FIXTURE_PACKAGE = "org.mintshell.target.discovery.fixture";
+  private static final List<String> EXPECTED_CLASSES = Arrays.asList(InstanceTargets.class.getName(), StaticTargets.class.getName(),
+      SubpackageTargets.class.getName());
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private CommandTargetScanner sut;
+
+  @Before
+  public void before() {
+    this.sut = new CommandTargetScanner(FIXTURE_PACKAGE);
+  }
+
+  @Test
+  public void testCreateCommandTargetSources() throws Exception {
+    final List<Object> sources = this.sut.createCommandTargetSources();
+    assertThat(sources).hasSize(3);
+    assertThat(sources.get(0)).isInstanceOf(InstanceTargets.class);
+    assertThat(sources.get(1)).isEqualTo(StaticTargets.class);
+    assertThat(sources.get(2)).isInstanceOf(SubpackageTargets.class);
+  }
+
+  @Test
+  public void testScanDirectory() throws Exception {
+    assertThat(this.sut.scan()).isEqualTo(EXPECTED_CLASSES);
+  }
+
+  @Test
+  public void testScanJar() throws Exception {
+    final Path jar = this.createFixtureJar();
+    try (final URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toUri().toURL() }, null)) {
+      this.sut.setClassLoader(classLoader);
+      this.sut.setParallelism(1);
+      assertThat(this.sut.scan()).isEqualTo(EXPECTED_CLASSES);
+    }
+  }
+
+  @Test
+  public void testScanJarWithIndex() throws Exception {
+    final Path jar = this.createFixtureJar();
+    final Path index = this.folder.getRoot().toPath().resolve("index").resolve("targets.properties");
+    try (final URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toUri().toURL() }, null)) {
+      this.sut.setClassLoader(classLoader);
+      this.sut.setIndexFile(index);
+      assertThat(this.sut.scan()).isEqualTo(EXPECTED_CLASSES);
+      assertThat(index).exists();
+
+      final Properties properties = new Properties();
+      try (final InputStream in = Files.newInputStream(index)) {
+        properties.load(in);
+      }
+      final String checksum = properties.getProperty(jar.toString()).split(":")[0];
+      properties.setProperty(jar.toString(), checksum + ":" + NoTargets.class.getName());
+      try (final OutputStream out = Files.newOutputStream(index)) {
+        properties.store(out, null);
+      }
+      assertThat(this.sut.scan()).containsExactly(NoTargets.class.getName());
+
+      this.sut.setIndexFile(null);
+      assertThat(this.sut.scan()).isEqualTo(EXPECTED_CLASSES);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWithoutPackages() {
+    new CommandTargetScanner();
+  }
+
+  private Path createFixtureJar() throws Exception {
+    final Path jar = this.folder.newFile("fixture.jar").toPath();
+    try (final JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      final String packagePath = FIXTURE_PACKAGE.replace('.', '/');
+      String directory = "";
+      for (final String segment : (packagePath + "/sub").split("/")) {
+        directory += segment + "/";
+        out.putNextEntry(new JarEntry(directory));
+        out.closeEntry();
+      }
+      for (final Class<?> type : Arrays.asList(AbstractTargets.class, InstanceTargets.class, InstanceTargets.Nested.class, NoTargets.class,
+          StaticTargets.class, SubpackageTargets.class)) {
+        final String entry = type.getName().replace('.', '/') + ".class";
+        out.putNextEntry(new JarEntry(entry));
+        try (final InputStream in = type.getClassLoader().getResourceAsStream(entry)) {
+          final byte[] buffer = new byte[4096];
+          int read;
+          while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+          }
+        }
+        out.closeEntry();
+      }
+    }
+    return jar;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target.discovery.fixture;
+
+import org.mintshell.annotation.CommandTarget;
+
+/**
+ * Testclass providing instance command targets to be discovered by the
+ * {@link org.mintshell.target.discovery.CommandTargetScanner}.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class InstanceTargets {
+
+  @CommandTarget(name = "instance")
+  public String instance() {
+    return "instance";
+  }
+
+  /**
+   * Nested testclass, that isn't discovered, since it isn't a top level class.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static class Nested {
+
+    @CommandTarget(name = "nested")
+    public String nested() {
+      return "nested";
+    }
+  }
+}
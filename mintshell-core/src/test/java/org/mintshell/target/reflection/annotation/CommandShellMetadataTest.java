@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.target.reflection.annotation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mintshell.command.CommandBuilder;
+import org.mintshell.dispatcher.DefaultCommandDispatcher;
+import org.mintshell.target.CommandTarget;
+import org.mintshell.target.CommandTargetSource;
+import org.mintshell.target.reflection.BaseReflectionCommandShell;
+import org.mintshell.target.reflection.ReflectionCommandTarget;
+
+/**
+ * Tests the functionality of the {@link CommandShellMetadata} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class CommandShellMetadataTest {
+
+  private CommandShellMetadata sut;
+
+  @Before
+  public void before() {
+    this.sut = CommandShellMetadata.of(AnnotationCommandTargetSource.class);
+  }
+
+  @Test
+  public void testEnteredSubShellsAreBoundToTheirInstances() throws Exception {
+    final AnnotationCommandShell shell = new AnnotationCommandShell("root");
+    shell.addCommandTargetSources(new CommandTargetSource(new Root()));
+    final AnnotationCommandShell first = (AnnotationCommandShell) new DefaultCommandDispatcher(shell).dispatch(CommandBuilder.create("enter").build())
+        .getValue().get();
+    final AnnotationCommandShell second = (AnnotationCommandShell) new DefaultCommandDispatcher(shell).dispatch(CommandBuilder.create("enter").build())
+        .getValue().get();
+    assertThat(new DefaultCommandDispatcher(first).dispatch(CommandBuilder.create("id").build()).getValue().get()).isEqualTo(1);
+    assertThat(new DefaultCommandDispatcher(second).dispatch(CommandBuilder.create("id").build()).getValue().get()).isEqualTo(2);
+    assertThat(target(first, "id")).isNotSameAs(target(second, "id"));
+  }
+
+  @Test
+  public void testGetAnnotation() {
+    assertThat(this.sut.getAnnotation()).isEmpty();
+    assertThat(CommandShellMetadata.of(SubShell.class).getAnnotation()).isPresent();
+  }
+
+  @Test
+  public void testGetCommandParameters() throws Exception {
+    final AnnotationCommandShell first = new AnnotationCommandShell("first");
+    first.addCommandTargetSources(new CommandTargetSource(new AnnotationCommandTargetSource()));
+    final AnnotationCommandShell second = new AnnotationCommandShell("second");
+    second.addCommandTargetSources(new CommandTargetSource(new AnnotationCommandTargetSource()));
+    final CommandTarget firstTarget = target(first, "invokeMeWithParams");
+    final CommandTarget secondTarget = target(second, "invokeMeWithParams");
+    assertThat(firstTarget).isNotSameAs(secondTarget);
+    assertThat(firstTarget.getParameters().get(0)).isSameAs(secondTarget.getParameters().get(0));
+    final Method method = ((ReflectionCommandTarget) firstTarget).getMethod();
+    assertThat(this.sut.getCommandParameters(method, new HashSet<>(Arrays.asList(BaseReflectionCommandShell.DEFAULT_SUPPORTED_PARAMETERS))).get(0))
+        .isSameAs(firstTarget.getParameters().get(0));
+  }
+
+  @Test
+  public void testGetMethods() {
+    assertThat(this.sut.getMethods()).extracting(Method::getName).containsOnly("m1", "m2");
+    assertThat(this.sut.getMethods()).isSameAs(CommandShellMetadata.of(AnnotationCommandTargetSource.class).getMethods());
+    assertThat(this.sut.getMethods()).allMatch(Method::isAccessible);
+  }
+
+  private static CommandTarget target(final AnnotationCommandShell shell, final String name) {
+    return shell.getTargets().stream() //
+        .filter(target -> target.getName().equals(name)) //
+        .findFirst() //
+        .get();
+  }
+
+  public static class Root {
+
+    private final AtomicInteger ids = new AtomicInteger();
+
+    @org.mintshell.annotation.CommandTarget(name = "enter")
+    public SubShell enter() {
+      return new SubShell(this.ids.incrementAndGet());
+    }
+  }
+
+  @org.mintshell.annotation.CommandShell(prompt = "sub")
+  public static class SubShell {
+
+    private final int id;
+
+    public SubShell(final int id) {
+      this.id = id;
+    }
+
+    @org.mintshell.annotation.CommandTarget(name = "id")
+    public int id() {
+      return this.id;
+    }
+  }
+}
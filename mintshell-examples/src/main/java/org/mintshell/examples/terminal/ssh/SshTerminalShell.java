@@ -44,8 +44,9 @@ public class SshTerminalShell {
 
   public SshTerminalShell(final String[] args) throws Exception {
 
-    final SshCommandInterface commandInterface = new SshCommandInterface(new TerminalCommandHistory(new FileIoProvider(new File("command.history"))),
-        "Welcome to Mintshell with SSH\r\n", KEYBINDING_EXIT);
+    final TerminalCommandHistory commandHistory = new TerminalCommandHistory(new FileIoProvider(new File("command.history")));
+    commandHistory.setIgnoreConsecutiveDuplicates(true);
+    final SshCommandInterface commandInterface = new SshCommandInterface(commandHistory, "Welcome to Mintshell with SSH\r\n", KEYBINDING_EXIT);
 
     Mintshell //
         .from(commandInterface) //
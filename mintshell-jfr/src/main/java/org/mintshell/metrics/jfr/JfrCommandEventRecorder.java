@@ -0,0 +1,266 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics.jfr;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.mintshell.metrics.CommandEvent;
+import org.mintshell.metrics.CommandEventRecorder;
+import org.mintshell.metrics.CommandEventType;
+import org.mintshell.metrics.CommandEvents;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * <p>
+ * {@link CommandEventRecorder} that emits {@link CommandEvent}s as Java Flight Recorder events, so that command
+ * executions show up next to GC, lock and I/O events in the same recording. Each {@link CommandEventType} has its own
+ * event type in the category <i>Mintshell</i>, which can be enabled and disabled separately.
+ * </p>
+ * <p>
+ * Events begun by {@link #begin(CommandEventType)} span the operation, so that their start time and duration are those of
+ * the operation. Events passed to {@link #record(CommandEvent)} after the operation ended start at its end, but their
+ * field <i>elapsed</i> contains the duration in both cases.
+ * </p>
+ * <p>
+ * <b>Note</b>: Flight Recorder is not part of every Java 8 runtime, which is why this recorder lives in its own module.
+ * If the {@code jdk.jfr} API is missing, this recorder cannot be instantiated and {@link CommandEvents} falls back to
+ * not recording events.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class JfrCommandEventRecorder implements CommandEventRecorder {
+
+  private final Map<CommandEventType, EventType> eventTypes;
+  private final Map<CommandEventType, Supplier<MintshellEvent>> eventFactories;
+
+  /**
+   * Creates a new instance.
+   *
+   * @throws NoClassDefFoundError
+   *           if the running JVM doesn't provide the {@code jdk.jfr} API
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public JfrCommandEventRecorder() {
+    this.eventFactories = new EnumMap<>(CommandEventType.class);
+    this.eventFactories.put(CommandEventType.INTERPRETE, InterpreteEvent::new);
+    this.eventFactories.put(CommandEventType.DISPATCH, DispatchEvent::new);
+    this.eventFactories.put(CommandEventType.INVOKE, InvokeEvent::new);
+    this.eventFactories.put(CommandEventType.SHELL_PUSH, ShellPushEvent::new);
+    this.eventFactories.put(CommandEventType.SHELL_POP, ShellPopEvent::new);
+    this.eventFactories.put(CommandEventType.SESSION_OPEN, SessionOpenEvent::new);
+    this.eventFactories.put(CommandEventType.SESSION_CLOSE, SessionCloseEvent::new);
+    this.eventFactories.put(CommandEventType.HISTORY_PERSIST, HistoryPersistEvent::new);
+    this.eventTypes = new EnumMap<>(CommandEventType.class);
+    this.eventFactories.forEach((type, factory) -> this.eventTypes.put(type, EventType.getEventType(factory.get().getClass())));
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.metrics.CommandEventRecorder#begin(org.mintshell.metrics.CommandEventType)
+   */
+  @Override
+  public Consumer<CommandEvent> begin(final CommandEventType type) {
+    final MintshellEvent jfrEvent = this.eventFactories.get(type).get();
+    jfrEvent.begin();
+    return event -> this.commit(jfrEvent, event);
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.metrics.CommandEventRecorder#isEnabled(org.mintshell.metrics.CommandEventType)
+   */
+  @Override
+  public boolean isEnabled(final CommandEventType type) {
+    return this.eventTypes.get(type).isEnabled();
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.metrics.CommandEventRecorder#record(org.mintshell.metrics.CommandEvent)
+   */
+  @Override
+  public void record(final CommandEvent event) {
+    this.commit(this.eventFactories.get(event.getType()).get(), event);
+  }
+
+  private void commit(final MintshellEvent jfrEvent, final CommandEvent event) {
+    jfrEvent.end();
+    if (jfrEvent.shouldCommit()) {
+      jfrEvent.commandName = event.getCommandName().orElse(null);
+      jfrEvent.sessionId = event.getSessionId().orElse(null);
+      jfrEvent.parameterCount = event.getParameterCount();
+      jfrEvent.result = event.getResult().orElse(null);
+      jfrEvent.detail = event.getDetail().orElse(null);
+      jfrEvent.elapsed = event.getDuration();
+      jfrEvent.commit();
+    }
+  }
+
+  /**
+   * Base class of all mintshell flight recorder events.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @Category("Mintshell")
+  @StackTrace(false)
+  abstract static class MintshellEvent extends Event {
+
+    @Label("Command")
+    String commandName;
+
+    @Label("Session")
+    String sessionId;
+
+    @Label("Parameters")
+    int parameterCount;
+
+    @Label("Result")
+    String result;
+
+    @Label("Detail")
+    String detail;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+  }
+
+  /**
+   * Flight recorder event of {@link CommandEventType#INTERPRETE}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @Name("org.mintshell.Interprete")
+  @Label("Command Interpretation")
+  @Description("Interpretation of a command message")
+  static final class InterpreteEvent extends MintshellEvent {
+  }
+
+  /**
+   * Flight recorder event of {@link CommandEventType#DISPATCH}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @Name("org.mintshell.Dispatch")
+  @Label("Command Dispatch")
+  @Description("Dispatching of a command to the current command shell")
+  static final class DispatchEvent extends MintshellEvent {
+  }
+
+  /**
+   * Flight recorder event of {@link CommandEventType#INVOKE}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @Name("org.mintshell.Invoke")
+  @Label("Command Invocation")
+  @Description("Invocation of a command target")
+  static final class InvokeEvent extends MintshellEvent {
+  }
+
+  /**
+   * Flight recorder event of {@link CommandEventType#SHELL_PUSH}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @Name("org.mintshell.ShellPush")
+  @Label("Command Shell Push")
+  @Description("A command shell was pushed onto the stack of command shells")
+  static final class ShellPushEvent extends MintshellEvent {
+  }
+
+  /**
+   * Flight recorder event of {@link CommandEventType#SHELL_POP}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @Name("org.mintshell.ShellPop")
+  @Label("Command Shell Pop")
+  @Description("A command shell was popped from the stack of command shells")
+  static final class ShellPopEvent extends MintshellEvent {
+  }
+
+  /**
+   * Flight recorder event of {@link CommandEventType#SESSION_OPEN}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @Name("org.mintshell.SessionOpen")
+  @Label("Session Open")
+  @Description("A session of a command interface was opened")
+  static final class SessionOpenEvent extends MintshellEvent {
+  }
+
+  /**
+   * Flight recorder event of {@link CommandEventType#SESSION_CLOSE}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @Name("org.mintshell.SessionClose")
+  @Label("Session Close")
+  @Description("A session of a command interface was closed")
+  static final class SessionCloseEvent extends MintshellEvent {
+  }
+
+  /**
+   * Flight recorder event of {@link CommandEventType#HISTORY_PERSIST}.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @Name("org.mintshell.HistoryPersist")
+  @Label("Command History Persistence")
+  @Description("A command history was loaded or stored")
+  static final class HistoryPersistEvent extends MintshellEvent {
+  }
+}
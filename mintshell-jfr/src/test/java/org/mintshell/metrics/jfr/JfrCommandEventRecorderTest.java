@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.metrics.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mintshell.metrics.CommandEventRecording;
+import org.mintshell.metrics.CommandEventType;
+import org.mintshell.metrics.CommandEvents;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests the functionality of the {@link JfrCommandEventRecorder} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class JfrCommandEventRecorderTest {
+
+  private JfrCommandEventRecorder sut;
+
+  @Before
+  public void before() {
+    this.sut = new JfrCommandEventRecorder();
+    CommandEvents.setCommandEventRecorder(this.sut);
+  }
+
+  @After
+  public void after() {
+    CommandEvents.setCommandEventRecorder(null);
+    CommandEvents.setSessionId(null);
+  }
+
+  @Test
+  public void testBegin() throws Exception {
+    final Path file = Files.createTempFile("mintshell", ".jfr");
+    try (final Recording recording = new Recording()) {
+      recording.enable("org.mintshell.Dispatch");
+      recording.start();
+      CommandEvents.setSessionId("42");
+      final CommandEventRecording commandEventRecording = CommandEvents.begin(CommandEventType.DISPATCH);
+      Thread.sleep(20L);
+      commandEventRecording.end("cmd", 1, "SUCCEEDED", null);
+      recording.stop();
+      recording.dump(file);
+      final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream() //
+          .filter(event -> event.getEventType().getName().startsWith("org.mintshell.")) //
+          .collect(Collectors.toList());
+      assertThat(events).hasSize(1);
+      final RecordedEvent event = events.get(0);
+      assertThat(event.getString("commandName")).isEqualTo("cmd");
+      assertThat(event.getString("sessionId")).isEqualTo("42");
+      assertThat(event.getDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(20L));
+      assertThat(event.getLong("elapsed")).isGreaterThanOrEqualTo(Duration.ofMillis(20L).toNanos());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void testIsEnabledWithoutRecording() {
+    for (final CommandEventType type : CommandEventType.values()) {
+      assertThat(this.sut.isEnabled(type)).isFalse();
+    }
+  }
+
+  @Test
+  public void testRecord() throws Exception {
+    final Path file = Files.createTempFile("mintshell", ".jfr");
+    try (final Recording recording = new Recording()) {
+      recording.enable("org.mintshell.Dispatch");
+      recording.disable("org.mintshell.Invoke");
+      recording.start();
+      assertThat(CommandEvents.isEnabled(CommandEventType.DISPATCH)).isTrue();
+      assertThat(CommandEvents.isEnabled(CommandEventType.INVOKE)).isFalse();
+      CommandEvents.setSessionId("42");
+      CommandEvents.record(CommandEventType.DISPATCH, "cmd", 2, "SUCCEEDED", null, System.nanoTime() - 1_000L);
+      CommandEvents.record(CommandEventType.INVOKE, "cmd", 2, "SUCCEEDED", null, System.nanoTime());
+      recording.stop();
+      recording.dump(file);
+      final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream() //
+          .filter(event -> event.getEventType().getName().startsWith("org.mintshell.")) //
+          .collect(Collectors.toList());
+      assertThat(events).hasSize(1);
+      final RecordedEvent event = events.get(0);
+      assertThat(event.getEventType().getName()).isEqualTo("org.mintshell.Dispatch");
+      assertThat(event.getString("commandName")).isEqualTo("cmd");
+      assertThat(event.getString("sessionId")).isEqualTo("42");
+      assertThat(event.getInt("parameterCount")).isEqualTo(2);
+      assertThat(event.getString("result")).isEqualTo("SUCCEEDED");
+      assertThat(event.getLong("elapsed")).isGreaterThanOrEqualTo(1_000L);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
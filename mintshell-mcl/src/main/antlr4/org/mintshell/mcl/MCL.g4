@@ -1,6 +1,8 @@
 grammar MCL;
 
-commandLine: command (pipedCommand)*;
+commandLine: command (pipedCommand)* background?;
+
+background: SPACE+ AMPERSAND;
 
 pipedCommand: SPACE+ PIPE SPACE+ command;
 
@@ -22,6 +24,8 @@ longCommandParameterName: CHARACTER | UNQUOTED;
 
 PIPE: '|';
 
+AMPERSAND: '&';
+
 SHORT_COMMAND_PARAMETER_PREFIX: '-';
 
 LONG_COMMAND_PARAMETER_PREFIX: '--';
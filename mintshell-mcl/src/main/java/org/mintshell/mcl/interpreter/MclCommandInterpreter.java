@@ -32,6 +32,7 @@ import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.mintshell.command.Command;
 import org.mintshell.command.CommandParameter;
+import org.mintshell.command.DefaultBackgroundCommand;
 import org.mintshell.command.DefaultCommand;
 import org.mintshell.command.DefaultCommandParameter;
 import org.mintshell.command.DefaultPipedCommand;
@@ -50,7 +51,8 @@ import org.mintshell.mcl.SyntaxException;
 import org.mintshell.mcl.SytaxExceptionErrorListener;
 
 /**
- * Implementation of a {@link CommandInterpreter} that understands the (M)intshell (C)ommand (L)anguage.
+ * Implementation of a {@link CommandInterpreter} that understands the (M)intshell (C)ommand (L)anguage. A command
+ * line terminated by {@code &} is interpreted as {@link DefaultBackgroundCommand}.
  *
  * @author Noqmar
  * @since 0.1.0
@@ -83,7 +85,8 @@ public class MclCommandInterpreter implements CommandInterpreter {
           .map(piped -> piped.command()) //
           .collect(Collectors.toList()));
       pipedCommands.add(0, parsedCommandLine.command());
-      return this.handleCommandPipe(pipedCommands);
+      final Command command = this.handleCommandPipe(pipedCommands);
+      return parsedCommandLine.background() != null ? new DefaultBackgroundCommand(command) : command;
     } catch (final SyntaxException e) {
       throw new CommandInterpreteException(e.getMessage(), e);
     }
@@ -45,6 +45,8 @@ enum NCursesKey {
 
   ENTER(0x0D, Key.ENTER),
 
+  SEARCH(0x12, Key.SEARCH),
+
   ESCAPE(0x1B, Key.ESCAPE),
 
   SPACE(0x20, Key.SPACE),
@@ -119,6 +119,17 @@ public class NCursesTerminalCommandInterface extends BaseTerminalCommandInterfac
 
   }
 
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.terminal.interfaces.TerminalCommandInterface#getScreenRows()
+   */
+  @Override
+  public int getScreenRows() {
+    return this.nCurses.getMaxRow();
+  }
+
   /**
    *
    * {@inheritDoc}
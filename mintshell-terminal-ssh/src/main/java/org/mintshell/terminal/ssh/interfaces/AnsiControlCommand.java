@@ -39,10 +39,20 @@ public enum AnsiControlCommand {
 
   ERASE_ENTIRE_SCREEN("\u001B[2J"),
 
+  ERASE_TO_END_OF_LINE("\u001B[K"),
+
   MOVE_CURSOR("\u001B[%d;%dH"),
 
+  MOVE_CURSOR_LEFT("\u001B[%dD"),
+
+  MOVE_CURSOR_RIGHT("\u001B[%dC"),
+
   SET_EDIT_EXTEND_MODE("\u001B[Q"),
 
+  ENABLE_BRACKETED_PASTE("\u001B[?2004h"),
+
+  DISABLE_BRACKETED_PASTE("\u001B[?2004l"),
+
   ;
 
   private final String sequence;
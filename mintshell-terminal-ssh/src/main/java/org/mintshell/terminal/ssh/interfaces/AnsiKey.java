@@ -45,6 +45,8 @@ public enum AnsiKey {
 
   ENTER(0x0D, Key.ENTER),
 
+  SEARCH(0x12, Key.SEARCH),
+
   ESCAPE(0x1B, Key.ESCAPE),
 
   SPACE(0x20, Key.SPACE),
@@ -283,6 +285,10 @@ public enum AnsiKey {
 
   F12("\u001B[24~", Key.F12),
 
+  PASTE_START("\u001B[200~", Key.PASTE),
+
+  PASTE_END("\u001B[201~", Key.UNDEFINED),
+
   UNDEFINED(0x0, Key.UNDEFINED),
 
   ;
@@ -26,6 +26,8 @@ package org.mintshell.terminal.ssh.interfaces;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * {@link FilterInputStream} that reads {@link AnsiKey}s from a given {@link InputStream}.
@@ -35,6 +37,12 @@ import java.io.InputStream;
  */
 public class AnsiKeyFilterInputStream extends FilterInputStream {
 
+  private static final int PASTE_BUFFER_SIZE = 1024;
+
+  private byte[] pending;
+  private int pendingPosition;
+  private final AtomicLong readBytes;
+
   /**
    * Creates a new {@link AnsiKeyFilterInputStream} based on the given {@link InputStream}.
    *
@@ -46,10 +54,74 @@ public class AnsiKeyFilterInputStream extends FilterInputStream {
    */
   public AnsiKeyFilterInputStream(final InputStream in) {
     super(in);
+    this.pending = new byte[0];
+    this.pendingPosition = 0;
+    this.readBytes = new AtomicLong();
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.io.FilterInputStream#available()
+   */
+  @Override
+  public int available() throws IOException {
+    return this.pendingLength() + super.available();
+  }
+
+  /**
+   * Returns the number of bytes read from the underlying {@link InputStream}.
+   *
+   * @return number of read bytes
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getReadBytes() {
+    return this.readBytes.get();
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.io.FilterInputStream#read()
+   */
+  @Override
+  public int read() throws IOException {
+    if (this.pendingLength() > 0) {
+      return this.pending[this.pendingPosition++] & 0xFF;
+    }
+    final int input = super.read();
+    if (input != -1) {
+      this.readBytes.incrementAndGet();
+    }
+    return input;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.io.FilterInputStream#read(byte[], int, int)
+   */
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    final int pendingCount = Math.min(this.pendingLength(), len);
+    if (pendingCount == 0) {
+      return this.readUnderlying(b, off, len);
+    }
+    System.arraycopy(this.pending, this.pendingPosition, b, off, pendingCount);
+    this.pendingPosition += pendingCount;
+    final int remaining = Math.min(len - pendingCount, super.available());
+    return remaining > 0 ? pendingCount + Math.max(0, this.readUnderlying(b, off + pendingCount, remaining)) : pendingCount;
   }
 
   /**
-   * Reads one or more bytes from the underlying {@link InputStream} and transforms them in to a {@link AnsiKey}.
+   * Reads one or more bytes from the underlying {@link InputStream} and transforms them in to a {@link AnsiKey}. If
+   * the start of a bracketed paste is detected, {@link AnsiKey#PASTE_START} is returned and the pasted text has to be
+   * read by {@link #readPaste()}.
    *
    * @return read {@link AnsiKey}
    * @throws IOException
@@ -71,8 +143,80 @@ public class AnsiKeyFilterInputStream extends FilterInputStream {
     else {
       final byte[] sequence = new byte[moreAvailable + 1];
       sequence[0] = (byte) input;
-      this.read(sequence, 1, moreAvailable);
-      return AnsiKey.bySequence(sequence);
+      final int length = 1 + Math.max(0, this.read(sequence, 1, moreAvailable));
+      final byte[] pasteStart = AnsiKey.PASTE_START.getSequence();
+      if (length >= pasteStart.length && Arrays.equals(pasteStart, Arrays.copyOf(sequence, pasteStart.length))) {
+        this.unread(sequence, pasteStart.length, length);
+        return AnsiKey.PASTE_START;
+      }
+      return AnsiKey.bySequence(Arrays.copyOf(sequence, length));
+    }
+  }
+
+  /**
+   * Reads the text of a bracketed paste up to (excluding) {@link AnsiKey#PASTE_END}. Bytes following the end of the
+   * paste stay available for subsequent reads. If the underlying {@link InputStream} ends before, all text read so far
+   * is returned.
+   *
+   * @return pasted text
+   * @throws IOException
+   *           if reading failed
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public String readPaste() throws IOException {
+    final byte[] pasteEnd = AnsiKey.PASTE_END.getSequence();
+    byte[] data = new byte[PASTE_BUFFER_SIZE];
+    int size = 0;
+    while (true) {
+      if (size == data.length) {
+        data = Arrays.copyOf(data, size * 2);
+      }
+      final int count = this.read(data, size, Math.max(1, Math.min(data.length - size, this.available())));
+      if (count == -1) {
+        return new String(data, 0, size);
+      }
+      final int searchStart = Math.max(0, size - pasteEnd.length + 1);
+      size += count;
+      final int end = indexOf(data, size, pasteEnd, searchStart);
+      if (end >= 0) {
+        this.unread(data, end + pasteEnd.length, size);
+        return new String(data, 0, end);
+      }
+    }
+  }
+
+  private int pendingLength() {
+    return this.pending.length - this.pendingPosition;
+  }
+
+  private int readUnderlying(final byte[] b, final int off, final int len) throws IOException {
+    final int count = super.read(b, off, len);
+    if (count > 0) {
+      this.readBytes.addAndGet(count);
+    }
+    return count;
+  }
+
+  private void unread(final byte[] data, final int from, final int to) {
+    final byte[] unread = new byte[to - from + this.pendingLength()];
+    System.arraycopy(data, from, unread, 0, to - from);
+    System.arraycopy(this.pending, this.pendingPosition, unread, to - from, this.pendingLength());
+    this.pending = unread;
+    this.pendingPosition = 0;
+  }
+
+  private static int indexOf(final byte[] data, final int size, final byte[] sequence, final int from) {
+    for (int index = from; index <= size - sequence.length; index++) {
+      int matched = 0;
+      while (matched < sequence.length && data[index + matched] == sequence[matched]) {
+        matched++;
+      }
+      if (matched == sequence.length) {
+        return index;
+      }
     }
+    return -1;
   }
 }
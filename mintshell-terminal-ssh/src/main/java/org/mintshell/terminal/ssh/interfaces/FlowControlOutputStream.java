@@ -0,0 +1,372 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal.ssh.interfaces;
+
+import static java.lang.String.format;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mintshell.assertion.Assert;
+
+/**
+ * {@link FilterOutputStream} that controls the flow of output to the underlying {@link OutputStream}. Output is
+ * collected in a bounded buffer and passed to the underlying {@link OutputStream} whenever the buffer is full or
+ * {@link #flush()} is called. Optionally, the output is throttled to a maximum number of bytes per second. Since the
+ * writing thread is blocked while the buffer is passed on or throttled, the producer of the output experiences
+ * backpressure instead of piling up output in the transport layer. Throttling happens outside of the monitor of this
+ * stream, so configuration and statistics stay accessible and other threads can keep buffering meanwhile, while the
+ * passed on chunks keep the order in which they were taken from the buffer. Output that cannot be passed on, because the
+ * writing thread got interrupted or the underlying {@link OutputStream} failed, is dropped and counted.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class FlowControlOutputStream extends FilterOutputStream {
+
+  public static final int DEFAULT_MAX_PENDING_BYTES = 32768;
+  public static final long UNLIMITED_BYTES_PER_SECOND = 0;
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final Object outLock;
+  private long nextTicket;
+  private long currentTicket;
+  private byte[] buffer;
+  private int pending;
+  private long bytesPerSecond;
+  private long tokens;
+  private long lastRefill;
+  private final AtomicLong writtenBytes;
+  private final AtomicLong droppedBytes;
+  private final AtomicLong throttledNanos;
+
+  /**
+   * Creates a new instance using {@link #DEFAULT_MAX_PENDING_BYTES} and no throttling.
+   *
+   * @param out
+   *          underlying {@link OutputStream}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public FlowControlOutputStream(final OutputStream out) {
+    this(out, DEFAULT_MAX_PENDING_BYTES, UNLIMITED_BYTES_PER_SECOND);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param out
+   *          underlying {@link OutputStream}
+   * @param maxPendingBytes
+   *          maximum number of bytes to buffer before passing them to the underlying {@link OutputStream}
+   * @param bytesPerSecond
+   *          maximum number of bytes per second or {@link #UNLIMITED_BYTES_PER_SECOND}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public FlowControlOutputStream(final OutputStream out, final int maxPendingBytes, final long bytesPerSecond) {
+    super(out);
+    this.outLock = new Object();
+    this.writtenBytes = new AtomicLong();
+    this.droppedBytes = new AtomicLong();
+    this.throttledNanos = new AtomicLong();
+    this.pending = 0;
+    this.setMaxPendingBytes(maxPendingBytes);
+    this.setBytesPerSecond(bytesPerSecond);
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.io.FilterOutputStream#flush()
+   */
+  @Override
+  public void flush() throws IOException {
+    final Chunk chunk;
+    synchronized (this) {
+      chunk = this.takeChunk(true);
+    }
+    this.drain(chunk);
+  }
+
+  /**
+   * Returns the maximum number of bytes per second.
+   *
+   * @return maximum number of bytes per second or {@link #UNLIMITED_BYTES_PER_SECOND}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public synchronized long getBytesPerSecond() {
+    return this.bytesPerSecond;
+  }
+
+  /**
+   * Returns the number of bytes that were dropped, because they could not be passed to the underlying
+   * {@link OutputStream}.
+   *
+   * @return number of dropped bytes
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getDroppedBytes() {
+    return this.droppedBytes.get();
+  }
+
+  /**
+   * Returns the maximum number of bytes that are buffered before they are passed to the underlying
+   * {@link OutputStream}.
+   *
+   * @return maximum number of pending bytes
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public synchronized int getMaxPendingBytes() {
+    return this.buffer.length;
+  }
+
+  /**
+   * Returns the total time writing threads were blocked due to throttling.
+   *
+   * @param unit
+   *          {@link TimeUnit} of the returned time
+   * @return total throttling time
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getThrottledTime(final TimeUnit unit) {
+    return unit.convert(this.throttledNanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns the number of bytes that were passed to the underlying {@link OutputStream}.
+   *
+   * @return number of written bytes
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getWrittenBytes() {
+    return this.writtenBytes.get();
+  }
+
+  /**
+   * Sets the maximum number of bytes per second.
+   *
+   * @param bytesPerSecond
+   *          maximum number of bytes per second or {@link #UNLIMITED_BYTES_PER_SECOND}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public synchronized void setBytesPerSecond(final long bytesPerSecond) {
+    Assert.ARG.isTrue(bytesPerSecond >= 0, format("[bytesPerSecond] must not be negative but was [%d]", bytesPerSecond));
+    this.bytesPerSecond = bytesPerSecond;
+    this.tokens = bytesPerSecond;
+    this.lastRefill = System.nanoTime();
+  }
+
+  /**
+   * Sets the maximum number of bytes that are buffered before they are passed to the underlying {@link OutputStream}.
+   * Currently pending bytes are passed on before.
+   *
+   * @param maxPendingBytes
+   *          maximum number of pending bytes
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setMaxPendingBytes(final int maxPendingBytes) {
+    Assert.ARG.isTrue(maxPendingBytes > 0, format("[maxPendingBytes] must be positive but was [%d]", maxPendingBytes));
+    final Chunk chunk;
+    synchronized (this) {
+      chunk = this.pending > 0 ? this.takeChunk(false) : null;
+      this.buffer = new byte[maxPendingBytes];
+    }
+    if (chunk != null) {
+      try {
+        this.drain(chunk);
+      } catch (final IOException e) {
+        // pending bytes are counted as dropped
+      }
+    }
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.io.FilterOutputStream#write(byte[], int, int)
+   */
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    if (off < 0 || len < 0 || off + len > b.length) {
+      throw new IndexOutOfBoundsException(format("Invalid range [%d, %d] for [%d] bytes", off, len, b.length));
+    }
+    int written = 0;
+    while (written < len) {
+      final Chunk chunk;
+      synchronized (this) {
+        final int count = Math.min(len - written, this.buffer.length - this.pending);
+        System.arraycopy(b, off + written, this.buffer, this.pending, count);
+        this.pending += count;
+        written += count;
+        chunk = this.pending == this.buffer.length ? this.takeChunk(false) : null;
+      }
+      if (chunk != null) {
+        this.drain(chunk);
+      }
+    }
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.io.FilterOutputStream#write(int)
+   */
+  @Override
+  public void write(final int b) throws IOException {
+    final Chunk chunk;
+    synchronized (this) {
+      this.buffer[this.pending++] = (byte) b;
+      chunk = this.pending == this.buffer.length ? this.takeChunk(false) : null;
+    }
+    if (chunk != null) {
+      this.drain(chunk);
+    }
+  }
+
+  private void awaitTurn(final long ticket) {
+    boolean interrupted = false;
+    while (this.currentTicket != ticket) {
+      try {
+        this.outLock.wait();
+      } catch (final InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drain(final Chunk chunk) throws IOException {
+    InterruptedIOException interruption = null;
+    if (chunk.waitNanos > 0) {
+      final long start = System.nanoTime();
+      try {
+        TimeUnit.NANOSECONDS.sleep(chunk.waitNanos);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        interruption = new InterruptedIOException(format("Interrupted while throttling [%d] bytes", chunk.bytes.length));
+      } finally {
+        this.throttledNanos.addAndGet(System.nanoTime() - start);
+      }
+    }
+    synchronized (this.outLock) {
+      this.awaitTurn(chunk.ticket);
+      try {
+        if (interruption != null) {
+          this.droppedBytes.addAndGet(chunk.bytes.length);
+          throw interruption;
+        }
+        this.passOn(chunk);
+      } finally {
+        this.currentTicket++;
+        this.outLock.notifyAll();
+      }
+    }
+  }
+
+  private void passOn(final Chunk chunk) throws IOException {
+    try {
+      if (chunk.bytes.length > 0) {
+        this.out.write(chunk.bytes);
+        this.writtenBytes.addAndGet(chunk.bytes.length);
+      }
+    } catch (final IOException e) {
+      this.droppedBytes.addAndGet(chunk.bytes.length);
+      throw e;
+    }
+    if (chunk.flush) {
+      this.out.flush();
+    }
+  }
+
+  private long reserve(final int count) {
+    if (this.bytesPerSecond == UNLIMITED_BYTES_PER_SECOND) {
+      return 0;
+    }
+    final long now = System.nanoTime();
+    final long elapsed = Math.min(now - this.lastRefill, NANOS_PER_SECOND);
+    final long refill = (long) ((double) elapsed * this.bytesPerSecond / NANOS_PER_SECOND);
+    if (refill > 0) {
+      this.tokens = refill >= this.bytesPerSecond - this.tokens ? this.bytesPerSecond : this.tokens + refill;
+      this.lastRefill = now;
+    }
+    this.tokens -= count;
+    return this.tokens < 0 ? (long) ((double) -this.tokens * NANOS_PER_SECOND / this.bytesPerSecond) : 0;
+  }
+
+  private Chunk takeChunk(final boolean flush) {
+    final byte[] bytes = Arrays.copyOf(this.buffer, this.pending);
+    this.pending = 0;
+    return new Chunk(bytes, this.reserve(bytes.length), this.nextTicket++, flush);
+  }
+
+  /**
+   * Bytes taken from the buffer, that are passed to the underlying {@link OutputStream} after the reserved throttling
+   * time in the order of their ticket.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Chunk {
+
+    private final byte[] bytes;
+    private final long waitNanos;
+    private final long ticket;
+    private final boolean flush;
+
+    private Chunk(final byte[] bytes, final long waitNanos, final long ticket, final boolean flush) {
+      this.bytes = bytes;
+      this.waitNanos = waitNanos;
+      this.ticket = ticket;
+      this.flush = flush;
+    }
+  }
+}
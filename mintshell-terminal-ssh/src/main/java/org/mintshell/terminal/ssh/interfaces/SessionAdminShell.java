@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal.ssh.interfaces;
+
+import static java.lang.String.format;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.mintshell.annotation.CommandShell;
+import org.mintshell.annotation.CommandTarget;
+import org.mintshell.annotation.Param;
+import org.mintshell.assertion.Assert;
+
+/**
+ * Annotated command shell that allows to list and kill the SSH sessions of a {@link SshCommandInterface}. It can be
+ * opened from any annotated command shell by a command target returning an instance of this class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+@CommandShell(prompt = "sessions", exitCommands = { "exit" }, exitCommandDescription = "exits the session administration")
+public class SessionAdminShell {
+
+  private static final String LIST_FORMAT = "%6s %-12s %8s %8s %8s %10s %10s %10s %10s";
+
+  private final SessionRegistry sessionRegistry;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param sshCommandInterface
+   *          {@link SshCommandInterface} whose sessions should be administrated
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public SessionAdminShell(final SshCommandInterface sshCommandInterface) {
+    this.sessionRegistry = Assert.ARG.isNotNull(sshCommandInterface, "[sshCommandInterface] must not be [null]").getSessionRegistry();
+  }
+
+  /**
+   * Terminates the session with the given id.
+   *
+   * @param id
+   *          id of the session to terminate
+   * @return confirmation message
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @CommandTarget(name = "kill", description = "terminates the SSH session with the given id")
+  public String kill(final @Param(shortName = 'i', name = "id", description = "id of the session to terminate <long>") long id) {
+    final SshCommandInterfaceSession session = this.sessionRegistry.getSession(id)
+        .orElseThrow(() -> new IllegalArgumentException(format("Session [%d] not found", id)));
+    session.terminate("Session terminated by administrator");
+    return format("Session [%d] terminated", id);
+  }
+
+  /**
+   * Lists all active sessions including their resource accounting.
+   *
+   * @return session list
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @CommandTarget(name = "list", description = "lists all active SSH sessions")
+  public String list() {
+    final StringBuilder builder = new StringBuilder(format(LIST_FORMAT, "ID", "USER", "AGE[s]", "IDLE[s]", "COMMANDS", "CPU[ms]", "IN[B]", "OUT[B]",
+        "DROPPED[B]"));
+    final long now = System.currentTimeMillis();
+    this.sessionRegistry.getSessions().stream() //
+        .sorted(Comparator.comparingLong(SshCommandInterfaceSession::getId)) //
+        .map(session -> format(LIST_FORMAT, session.getId(), session.getUser() != null ? session.getUser() : "-",
+            TimeUnit.MILLISECONDS.toSeconds(now - session.getCreationTime()), session.getIdleTime(TimeUnit.SECONDS), session.getCommandCount(),
+            session.getCommandCpuTime(TimeUnit.MILLISECONDS), session.getReadInputBytes(), session.getWrittenOutputBytes(),
+            session.getDroppedOutputBytes())) //
+        .forEach(line -> builder.append("\n\r").append(line));
+    return builder.toString();
+  }
+}
@@ -23,21 +23,41 @@
  */
 package org.mintshell.terminal.ssh.interfaces;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import static java.lang.String.format;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.mintshell.assertion.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * The session registry managages all currently active {@link SshCommandInterfaceSession}s.
+ * The session registry managages all currently active {@link SshCommandInterfaceSession}s. It limits the number of
+ * concurrent sessions and terminates sessions that are idle for longer than a configurable timeout.
  *
  * @author Noqmar
  * @since 0.1.0
  */
 class SessionRegistry {
 
-  private final Set<SshCommandInterfaceSession> sessions;
+  static final int UNLIMITED_SESSIONS = Integer.MAX_VALUE;
+  static final long NO_IDLE_TIMEOUT = 0;
+  static final long IDLE_CHECK_INTERVAL_MILLIS = 1000;
+
+  private static final Logger LOG = LoggerFactory.getLogger(SessionRegistry.class);
+
+  private final ConcurrentMap<Long, SshCommandInterfaceSession> sessions;
+  private final Collection<SshCommandInterfaceSession> sessionView;
+  private volatile int maxSessions;
+  private volatile long idleTimeoutMillis;
+  private ScheduledExecutorService idleChecker;
 
   /**
    * Creates a new instance.
@@ -46,33 +66,164 @@ class SessionRegistry {
    * @since 0.1.0
    */
   SessionRegistry() {
-    this.sessions = new CopyOnWriteArraySet<>();
+    this.sessions = new ConcurrentHashMap<>();
+    this.sessionView = Collections.unmodifiableCollection(this.sessions.values());
+    this.maxSessions = UNLIMITED_SESSIONS;
+    this.idleTimeoutMillis = NO_IDLE_TIMEOUT;
+  }
+
+  /**
+   * Stops checking for idle sessions.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  synchronized void close() {
+    if (this.idleChecker != null) {
+      this.idleChecker.shutdownNow();
+      this.idleChecker = null;
+    }
+  }
+
+  /**
+   * Returns the idle timeout after which sessions are terminated.
+   *
+   * @param unit
+   *          {@link TimeUnit} of the returned timeout
+   * @return idle timeout or {@link #NO_IDLE_TIMEOUT}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  long getIdleTimeout(final TimeUnit unit) {
+    return unit.convert(this.idleTimeoutMillis, TimeUnit.MILLISECONDS);
   }
 
   /**
-   * Returns a {@link Set} of all current {@link SshCommandInterfaceSession}s.
+   * Returns the maximum number of concurrent sessions.
+   *
+   * @return maximum number of concurrent sessions or {@link #UNLIMITED_SESSIONS}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  int getMaxSessions() {
+    return this.maxSessions;
+  }
+
+  /**
+   * Returns the {@link SshCommandInterfaceSession} with the given id.
+   *
+   * @param id
+   *          id of the session
+   * @return {@link SshCommandInterfaceSession} with the given id or {@link Optional#empty()}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  Optional<SshCommandInterfaceSession> getSession(final long id) {
+    return Optional.ofNullable(this.sessions.get(id));
+  }
+
+  /**
+   * Returns an unmodifiable view of all current {@link SshCommandInterfaceSession}s. The view is not copied and
+   * reflects concurrent registrations in a weakly consistent manner.
    *
    * @return current {@link SshCommandInterfaceSession}s
    *
    * @author Noqmar
    * @since 0.1.0
    */
-  Set<SshCommandInterfaceSession> getSessions() {
-    return new HashSet<>(this.sessions);
+  Collection<SshCommandInterfaceSession> getSessions() {
+    return this.sessionView;
   }
 
   /**
    * Registers the given {@link SshCommandInterfaceSession} which is afterwards available through
-   * {@link #getSessions()}.
+   * {@link #getSessions()}, if the maximum number of concurrent sessions is not reached.
    *
    * @param session
    *          session to register
+   * @return {@code true} if the session was admitted and registered, {@code false} if the maximum number of concurrent
+   *         sessions is reached
    *
    * @author Noqmar
    * @since 0.1.0
    */
-  void register(final SshCommandInterfaceSession session) {
-    this.sessions.add(Assert.ARG.isNotNull(session, "[session] must not be [null]"));
+  synchronized boolean register(final SshCommandInterfaceSession session) {
+    Assert.ARG.isNotNull(session, "[session] must not be [null]");
+    if (this.sessions.size() >= this.maxSessions) {
+      LOG.warn("Rejected session [{}], maximum of [{}] sessions reached", session.getId(), this.maxSessions);
+      return false;
+    }
+    this.sessions.put(session.getId(), session);
+    return true;
+  }
+
+  /**
+   * Sets the idle timeout after which sessions are terminated.
+   *
+   * @param idleTimeout
+   *          idle timeout or {@link #NO_IDLE_TIMEOUT}
+   * @param unit
+   *          {@link TimeUnit} of the given timeout
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  synchronized void setIdleTimeout(final long idleTimeout, final TimeUnit unit) {
+    Assert.ARG.isTrue(idleTimeout >= 0, format("[idleTimeout] must not be negative but was [%d]", idleTimeout));
+    this.idleTimeoutMillis = Assert.ARG.isNotNull(unit, "[unit] must not be [null]").toMillis(idleTimeout);
+    if (this.idleTimeoutMillis == NO_IDLE_TIMEOUT) {
+      this.close();
+    }
+    else if (this.idleChecker == null) {
+      this.idleChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "mintshell-ssh-idle-check");
+        thread.setDaemon(true);
+        return thread;
+      });
+      this.idleChecker.scheduleWithFixedDelay(this::terminateIdleSessions, IDLE_CHECK_INTERVAL_MILLIS, IDLE_CHECK_INTERVAL_MILLIS,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Sets the maximum number of concurrent sessions. Already registered sessions are not affected.
+   *
+   * @param maxSessions
+   *          maximum number of concurrent sessions or {@link #UNLIMITED_SESSIONS}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void setMaxSessions(final int maxSessions) {
+    Assert.ARG.isTrue(maxSessions > 0, format("[maxSessions] must be positive but was [%d]", maxSessions));
+    this.maxSessions = maxSessions;
+  }
+
+  /**
+   * Terminates all sessions that are idle for longer than the idle timeout.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void terminateIdleSessions() {
+    final long idleTimeout = this.idleTimeoutMillis;
+    if (idleTimeout == NO_IDLE_TIMEOUT) {
+      return;
+    }
+    for (final SshCommandInterfaceSession session : this.sessionView) {
+      if (session.getIdleTime(TimeUnit.MILLISECONDS) > idleTimeout) {
+        LOG.info("Terminating session [{}] after idle timeout of [{}] ms", session.getId(), idleTimeout);
+        try {
+          session.terminate("Session closed after idle timeout");
+        } catch (final RuntimeException e) {
+          LOG.warn("Failed to terminate idle session [{}]", session.getId(), e);
+          this.unregister(session);
+        }
+      }
+    }
   }
 
   /**
@@ -81,11 +232,12 @@ class SessionRegistry {
    * 
    * @param session
    *          session to unregister
+   * @return {@code true}, if the session was registered, {@code false} otherwise
    *
    * @author Noqmar
    * @since 0.1.0
    */
-  void unregister(final SshCommandInterfaceSession session) {
-    this.sessions.remove(Assert.ARG.isNotNull(session, "[session] must not be [null]"));
+  boolean unregister(final SshCommandInterfaceSession session) {
+    return this.sessions.remove(Assert.ARG.isNotNull(session, "[session] must not be [null]").getId(), session);
   }
 }
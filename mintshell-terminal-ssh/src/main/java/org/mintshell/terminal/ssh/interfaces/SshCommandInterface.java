@@ -34,11 +34,13 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.sshd.server.SshServer;
 import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
 import org.mintshell.annotation.Nullable;
+import org.mintshell.assertion.Assert;
 import org.mintshell.dispatcher.CommandDispatcher;
 import org.mintshell.interfaces.CommandHistory;
 import org.mintshell.interpreter.CommandInterpreter;
@@ -69,6 +71,9 @@ public class SshCommandInterface implements TerminalCommandInterface {
   private CommandDispatcher commandDispatcher;
   private final List<KeyBinding> keyBindings;
   private final SessionRegistry sessionRegistry;
+  private volatile boolean pasteSubmission;
+  private volatile int maxPendingOutputBytes;
+  private volatile long outputBytesPerSecond;
 
   /**
    * Creates a new instance.
@@ -76,7 +81,7 @@ public class SshCommandInterface implements TerminalCommandInterface {
    * @param port
    *          port number to bind the SSH server to
    * @param commandHistory
-   *          command history
+   *          command history shared by all sessions, each of them navigating it independently
    * @param banner
    *          welcome banner
    * @param commandSubmissionKey
@@ -97,9 +102,13 @@ public class SshCommandInterface implements TerminalCommandInterface {
     this.sshServer.setPublickeyAuthenticator(new AlwaysAuthenticatedlPublicKeyAuthenticator());
     this.keyBindings = new ArrayList<>(Arrays.asList(keyBindings));
     this.sessionRegistry = new SessionRegistry();
+    this.maxPendingOutputBytes = FlowControlOutputStream.DEFAULT_MAX_PENDING_BYTES;
+    this.outputBytesPerSecond = FlowControlOutputStream.UNLIMITED_BYTES_PER_SECOND;
     this.sshServer.setShellFactory(() -> {
       final SshCommandInterfaceSession newSession = new SshCommandInterfaceSession(this.sessionRegistry, this.executor, commandHistory,
           this.getCommandInterpreter(), this.getCommandDispatcher(), banner, commandSubmissionKey, this.getKeyBindingsArray());
+      newSession.setPasteSubmission(this.pasteSubmission);
+      newSession.setOutputFlowControl(this.maxPendingOutputBytes, this.outputBytesPerSecond);
       return newSession;
     });
     Runtime.getRuntime().addShutdownHook(new Thread(() -> this.deactivate()));
@@ -110,7 +119,7 @@ public class SshCommandInterface implements TerminalCommandInterface {
    * {@link BaseTerminalCommandInterface#DEFAULT_COMMAND_SUBMISSION_KEY}.
    *
    * @param commandHistory
-   *          command history
+   *          command history shared by all sessions, each of them navigating it independently
    * @param banner
    *          welcome banner
    * @param keyBindings
@@ -179,6 +188,7 @@ public class SshCommandInterface implements TerminalCommandInterface {
       this.commandInterpreter = null;
       this.sessionRegistry.getSessions().forEach(session -> session.deactivate());
     }
+    this.sessionRegistry.close();
   }
 
   /**
@@ -225,6 +235,20 @@ public class SshCommandInterface implements TerminalCommandInterface {
     throw new UnsupportedOperationException("Direct invokation is not available on SSH interface but within SSH session.");
   }
 
+  /**
+   * Returns the idle timeout after which SSH sessions are terminated.
+   *
+   * @param unit
+   *          {@link TimeUnit} of the returned timeout
+   * @return idle timeout or {@code 0}, if idle sessions are not terminated
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getIdleTimeout(final TimeUnit unit) {
+    return this.sessionRegistry.getIdleTimeout(unit);
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -247,6 +271,18 @@ public class SshCommandInterface implements TerminalCommandInterface {
     return new ArrayList<>(this.keyBindings);
   }
 
+  /**
+   * Returns the maximum number of concurrent SSH sessions.
+   *
+   * @return maximum number of concurrent SSH sessions
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getMaxSessions() {
+    return this.sessionRegistry.getMaxSessions();
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -269,6 +305,20 @@ public class SshCommandInterface implements TerminalCommandInterface {
     return this.getCommandInterpreter() != null && this.getCommandDispatcher() != null;
   }
 
+  /**
+   * Returns if pasted multi-line text is submitted line by line as a batch of commands within the SSH sessions.
+   *
+   * @return {@code true} if pasted lines are submitted as commands, {@code false} otherwise
+   *
+   * @see BaseTerminalCommandInterface#isPasteSubmission()
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isPasteSubmission() {
+    return this.pasteSubmission;
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -336,6 +386,85 @@ public class SshCommandInterface implements TerminalCommandInterface {
     this.sessionRegistry.getSessions().forEach(session -> session.removeKeyBinding(keyBinding));
   }
 
+  /**
+   * Sets the idle timeout after which SSH sessions without any input are terminated.
+   *
+   * @param idleTimeout
+   *          idle timeout or {@code 0} to never terminate idle sessions (default)
+   * @param unit
+   *          {@link TimeUnit} of the given timeout
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setIdleTimeout(final long idleTimeout, final TimeUnit unit) {
+    this.sessionRegistry.setIdleTimeout(idleTimeout, unit);
+  }
+
+  /**
+   * Sets the maximum number of concurrent SSH sessions. Further connections are rejected with a message.
+   *
+   * @param maxSessions
+   *          maximum number of concurrent SSH sessions
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setMaxSessions(final int maxSessions) {
+    this.sessionRegistry.setMaxSessions(maxSessions);
+  }
+
+  /**
+   * Sets the output flow control of the current and all future SSH sessions.
+   *
+   * @param maxPendingBytes
+   *          maximum number of pending output bytes per session
+   * @param bytesPerSecond
+   *          maximum number of output bytes per second and session or
+   *          {@link FlowControlOutputStream#UNLIMITED_BYTES_PER_SECOND}
+   *
+   * @see SshCommandInterfaceSession#setOutputFlowControl(int, long)
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setOutputFlowControl(final int maxPendingBytes, final long bytesPerSecond) {
+    Assert.ARG.isTrue(maxPendingBytes > 0, format("[maxPendingBytes] must be positive but was [%d]", maxPendingBytes));
+    Assert.ARG.isTrue(bytesPerSecond >= 0, format("[bytesPerSecond] must not be negative but was [%d]", bytesPerSecond));
+    this.maxPendingOutputBytes = maxPendingBytes;
+    this.outputBytesPerSecond = bytesPerSecond;
+    this.sessionRegistry.getSessions().forEach(session -> session.setOutputFlowControl(maxPendingBytes, bytesPerSecond));
+  }
+
+  /**
+   * Sets if pasted multi-line text is submitted line by line as a batch of commands within the current and all future
+   * SSH sessions.
+   *
+   * @param pasteSubmission
+   *          {@code true} to submit pasted lines as commands, {@code false} otherwise
+   *
+   * @see BaseTerminalCommandInterface#setPasteSubmission(boolean)
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setPasteSubmission(final boolean pasteSubmission) {
+    this.pasteSubmission = pasteSubmission;
+    this.sessionRegistry.getSessions().forEach(session -> session.setPasteSubmission(pasteSubmission));
+  }
+
+  /**
+   * Returns the {@link SessionRegistry} managing the SSH sessions of this interface.
+   *
+   * @return {@link SessionRegistry}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  SessionRegistry getSessionRegistry() {
+    return this.sessionRegistry;
+  }
+
   private KeyBinding[] getKeyBindingsArray() {
     final Collection<KeyBinding> currentBindings = this.getKeyBindings();
     final KeyBinding[] bindings = new KeyBinding[currentBindings.size()];
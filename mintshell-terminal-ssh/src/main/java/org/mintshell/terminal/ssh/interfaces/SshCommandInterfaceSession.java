@@ -25,26 +25,41 @@ package org.mintshell.terminal.ssh.interfaces;
 
 import static java.lang.String.format;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.EnumSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.sshd.common.channel.PtyMode;
 import org.apache.sshd.server.Environment;
 import org.apache.sshd.server.ExitCallback;
+import org.apache.sshd.server.Signal;
 import org.apache.sshd.server.shell.TtyFilterInputStream;
+import org.mintshell.annotation.Nullable;
 import org.mintshell.assertion.Assert;
 import org.mintshell.command.CommandResult;
 import org.mintshell.dispatcher.CommandDispatcher;
 import org.mintshell.interpreter.CommandInterpreter;
+import org.mintshell.metrics.CommandEventRecording;
+import org.mintshell.metrics.CommandEventType;
+import org.mintshell.metrics.CommandEvents;
 import org.mintshell.terminal.Key;
 import org.mintshell.terminal.KeyBinding;
+import org.mintshell.terminal.LineDiff;
 import org.mintshell.terminal.interfaces.BaseTerminalCommandInterface;
 import org.mintshell.terminal.interfaces.TerminalCommandHistory;
 import org.mintshell.terminal.interfaces.TerminalCommandInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of a {@link TerminalCommandInterface} using SSH and representing a concrete SSH session.
@@ -54,14 +69,30 @@ import org.mintshell.terminal.interfaces.TerminalCommandInterface;
  */
 public class SshCommandInterfaceSession extends BaseTerminalCommandInterface implements org.apache.sshd.server.Command {
 
+  private static final Logger LOG = LoggerFactory.getLogger(SshCommandInterfaceSession.class);
+  private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
   private AnsiKeyFilterInputStream in;
-  private OutputStream out;
+  private FlowControlOutputStream out;
   private Future<?> task;
   private ExitCallback exitCallback;
   private final SessionRegistry sessionRegistry;
   private final ExecutorService executor;
   private final CommandInterpreter commandInterpreter;
   private final CommandDispatcher commandDispatcher;
+  private volatile int screenRows;
+  private int maxPendingOutputBytes;
+  private long outputBytesPerSecond;
+  private final long id;
+  private final long creationTime;
+  private volatile long lastActivityTime;
+  private final AtomicInteger runningCommands;
+  private volatile String user;
+  private final AtomicLong commandCount;
+  private final AtomicLong commandCpuNanos;
+  private final boolean admitted;
+  private final CommandEventRecording closeRecording;
 
   /**
    * Creates a new instance.
@@ -96,7 +127,17 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
     this.executor = Assert.ARG.isNotNull(executor, "[executor] must not be [null]");
     this.commandInterpreter = Assert.ARG.isNotNull(commandInterpreter, "[commandInterpreter] must not be [null]");
     this.commandDispatcher = Assert.ARG.isNotNull(commandDispatcher, "[commandDispatcher] must not be [null]");
-    sessionRegistry.register(this);
+    this.screenRows = DEFAULT_SCREEN_ROWS;
+    this.maxPendingOutputBytes = FlowControlOutputStream.DEFAULT_MAX_PENDING_BYTES;
+    this.outputBytesPerSecond = FlowControlOutputStream.UNLIMITED_BYTES_PER_SECOND;
+    this.id = ID_SEQUENCE.incrementAndGet();
+    this.creationTime = System.currentTimeMillis();
+    this.lastActivityTime = this.creationTime;
+    this.runningCommands = new AtomicInteger();
+    this.commandCount = new AtomicLong();
+    this.commandCpuNanos = new AtomicLong();
+    this.admitted = sessionRegistry.register(this);
+    this.closeRecording = this.beginSessionEvent(CommandEventType.SESSION_CLOSE);
   }
 
   /**
@@ -110,6 +151,14 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
     if (this.task != null) {
       this.task.cancel(true);
     }
+    if (this.out != null) {
+      try {
+        this.out.write(AnsiControlCommand.DISABLE_BRACKETED_PASTE.getSequence());
+        this.out.flush();
+      } catch (final IOException e) {
+        LOG.debug("Failed to disable bracketed paste mode", e);
+      }
+    }
     super.deactivate();
     if (this.exitCallback != null) {
       this.exitCallback.onExit(0);
@@ -124,8 +173,7 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
    */
   @Override
   public void destroy() throws Exception {
-    this.deactivate();
-    this.sessionRegistry.unregister(this);
+    this.terminate(null);
   }
 
   /**
@@ -162,6 +210,149 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
     }
   }
 
+  /**
+   * Returns the number of commands performed within this session.
+   *
+   * @return number of performed commands
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getCommandCount() {
+    return this.commandCount.get();
+  }
+
+  /**
+   * Returns the total CPU time of all commands performed within this session, as far as they ran on the thread of the
+   * session. Time spent by asynchronous {@link org.mintshell.target.CommandTarget}s on other threads is not included. If
+   * measuring thread CPU time is not supported by the JVM, the time is always {@code 0}.
+   *
+   * @param unit
+   *          {@link TimeUnit} of the returned time
+   * @return total CPU time of performed commands
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getCommandCpuTime(final TimeUnit unit) {
+    return unit.convert(this.commandCpuNanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns the creation time of this session.
+   *
+   * @return creation time in milliseconds since epoch
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getCreationTime() {
+    return this.creationTime;
+  }
+
+  /**
+   * Returns the number of output bytes that were dropped, because they could not be sent to the SSH client.
+   *
+   * @return number of dropped output bytes
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getDroppedOutputBytes() {
+    return this.out != null ? this.out.getDroppedBytes() : 0;
+  }
+
+  /**
+   * Returns the unique id of this session.
+   *
+   * @return session id
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getId() {
+    return this.id;
+  }
+
+  /**
+   * Returns the time since the last input of the SSH client or the last submission or end of a command. Output to the
+   * SSH client doesn't count as activity. While a command is running, the session is never idle.
+   *
+   * @param unit
+   *          {@link TimeUnit} of the returned time
+   * @return idle time
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getIdleTime(final TimeUnit unit) {
+    if (this.runningCommands.get() > 0) {
+      return 0;
+    }
+    return unit.convert(System.currentTimeMillis() - this.lastActivityTime, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Returns the number of input bytes that were received from the SSH client.
+   *
+   * @return number of read input bytes
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getReadInputBytes() {
+    return this.in != null ? this.in.getReadBytes() : 0;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.terminal.interfaces.TerminalCommandInterface#getScreenRows()
+   */
+  @Override
+  public int getScreenRows() {
+    return this.screenRows;
+  }
+
+  /**
+   * Returns the total time the output of this session was throttled.
+   *
+   * @param unit
+   *          {@link TimeUnit} of the returned time
+   * @return total throttling time
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getThrottledOutputTime(final TimeUnit unit) {
+    return this.out != null ? this.out.getThrottledTime(unit) : 0;
+  }
+
+  /**
+   * Returns the name of the user that opened this session.
+   *
+   * @return user name or {@code null}, if the session was not started yet
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public @Nullable String getUser() {
+    return this.user;
+  }
+
+  /**
+   * Returns the number of output bytes that were sent to the SSH client.
+   *
+   * @return number of written output bytes
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public long getWrittenOutputBytes() {
+    return this.out != null ? this.out.getWrittenBytes() : 0;
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -214,12 +405,15 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
   @Override
   public void print(final String text) {
     try {
+      final byte[] insertSingleCharacter = AnsiControlCommand.INSERT_SINGLE_CHARACTER.getSequence();
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
       for (final byte b : text.getBytes()) {
         if (this.getCursorColumn() > 0) {
-          this.out.write(AnsiControlCommand.INSERT_SINGLE_CHARACTER.getSequence());
+          output.write(insertSingleCharacter);
         }
-        this.out.write(b);
+        output.write(b);
       }
+      output.writeTo(this.out);
       this.out.flush();
     } catch (final IOException e) {
       throw new IllegalStateException(format("Failed to print text [%s]", text));
@@ -236,12 +430,34 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
   public Key readKey() {
     try {
       final AnsiKey ansiKey = this.in.readKey();
+      this.touch();
       return ansiKey.getKey();
     } catch (final IOException e) {
+      LOG.debug("Failed to read key of session [{}]", this.id, e);
+      this.terminate(null);
       return Key.UNDEFINED;
     }
   }
 
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.terminal.interfaces.TerminalCommandInterface#readPaste()
+   */
+  @Override
+  public String readPaste() {
+    try {
+      final String paste = this.in.readPaste();
+      this.touch();
+      return paste;
+    } catch (final IOException e) {
+      LOG.debug("Failed to read pasted text of session [{}]", this.id, e);
+      this.terminate(null);
+      return "";
+    }
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -275,6 +491,30 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
     this.in = new AnsiKeyFilterInputStream(new TtyFilterInputStream(in, EnumSet.of(PtyMode.ECHO, PtyMode.ICRNL, PtyMode.ONLCR)));
   }
 
+  /**
+   * Sets the flow control of the output of this session. Output is passed to the SSH client in chunks of at most the
+   * given number of pending bytes and throttled to the given number of bytes per second. Commands producing output are
+   * blocked meanwhile.
+   *
+   * @param maxPendingBytes
+   *          maximum number of pending output bytes
+   * @param bytesPerSecond
+   *          maximum number of output bytes per second or {@link FlowControlOutputStream#UNLIMITED_BYTES_PER_SECOND}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public synchronized void setOutputFlowControl(final int maxPendingBytes, final long bytesPerSecond) {
+    Assert.ARG.isTrue(maxPendingBytes > 0, format("[maxPendingBytes] must be positive but was [%d]", maxPendingBytes));
+    Assert.ARG.isTrue(bytesPerSecond >= 0, format("[bytesPerSecond] must not be negative but was [%d]", bytesPerSecond));
+    this.maxPendingOutputBytes = maxPendingBytes;
+    this.outputBytesPerSecond = bytesPerSecond;
+    if (this.out != null) {
+      this.out.setMaxPendingBytes(maxPendingBytes);
+      this.out.setBytesPerSecond(bytesPerSecond);
+    }
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -282,8 +522,8 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
    * @see org.apache.sshd.server.Command#setOutputStream(java.io.OutputStream)
    */
   @Override
-  public void setOutputStream(final OutputStream out) {
-    this.out = out;
+  public synchronized void setOutputStream(final OutputStream out) {
+    this.out = new FlowControlOutputStream(out, this.maxPendingOutputBytes, this.outputBytesPerSecond);
   }
 
   /**
@@ -294,16 +534,55 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
    */
   @Override
   public void start(final Environment env) throws IOException {
+    this.user = env.getEnv().get(Environment.ENV_USER);
+    if (!this.admitted) {
+      this.out.write("Maximum number of sessions reached\r\n".getBytes());
+      this.out.flush();
+      if (this.exitCallback != null) {
+        this.exitCallback.onExit(1, "Maximum number of sessions reached");
+      }
+      super.deactivate();
+      return;
+    }
+    final CommandEventRecording openRecording = this.beginSessionEvent(CommandEventType.SESSION_OPEN);
+    this.updateScreenRows(env);
+    env.addSignalListener(signal -> this.updateScreenRows(env), Signal.WINCH);
     this.task = this.executor.submit(() -> {
       SshCommandInterfaceSession.this.activate(SshCommandInterfaceSession.this.commandInterpreter, SshCommandInterfaceSession.this.commandDispatcher);
       try {
         SshCommandInterfaceSession.this.out.write(AnsiControlCommand.SET_EDIT_EXTEND_MODE.getSequence());
+        SshCommandInterfaceSession.this.out.write(AnsiControlCommand.ENABLE_BRACKETED_PASTE.getSequence());
         SshCommandInterfaceSession.this.out.flush();
       } catch (final IOException e) {
-        throw new IllegalStateException("Failed to set edit extend mode");
+        throw new IllegalStateException("Failed to set edit extend mode and bracketed paste mode");
       }
       return null;
     });
+    openRecording.end(null, 0, null, this.user);
+  }
+
+  /**
+   * Terminates this session after printing the given message to the SSH client.
+   *
+   * @param message
+   *          (optional) message to print before termination
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void terminate(final @Nullable String message) {
+    if (message != null && this.out != null) {
+      try {
+        this.out.write(format("\r\n%s\r\n", message).getBytes());
+        this.out.flush();
+      } catch (final IOException e) {
+        LOG.debug("Failed to print termination message to session [{}]", this.id, e);
+      }
+    }
+    this.deactivate();
+    if (this.sessionRegistry.unregister(this)) {
+      this.closeRecording.end(null, 0, null, this.user);
+    }
   }
 
   /**
@@ -330,15 +609,42 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
    * @see org.mintshell.terminal.interfaces.BaseTerminalCommandInterface#moveCursor(int, int)
    */
   @Override
-  protected void moveCursor(final int row, final int col) {
+  protected void moveCursor(final int col, final int row) {
     try {
-      this.out.write(AnsiControlCommand.MOVE_CURSOR.getSequence(row, col));
+      this.out.write(AnsiControlCommand.MOVE_CURSOR.getSequence(row + 1, col + 1));
       this.out.flush();
     } catch (final IOException e) {
       throw new IllegalStateException("Failed to move cursor");
     }
   }
 
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.interfaces.BaseCommandInterface#performCommandAsync(java.lang.String)
+   */
+  @Override
+  protected CompletableFuture<String> performCommandAsync(final String commandMessage) {
+    final long cpuTime = currentThreadCpuTime();
+    CommandEvents.setSessionId(String.valueOf(this.id));
+    this.touch();
+    this.runningCommands.incrementAndGet();
+    try {
+      return super.performCommandAsync(commandMessage).whenComplete((result, failure) -> {
+        this.touch();
+        this.runningCommands.decrementAndGet();
+        this.commandCount.incrementAndGet();
+      });
+    } catch (final RuntimeException e) {
+      this.runningCommands.decrementAndGet();
+      throw e;
+    } finally {
+      CommandEvents.setSessionId(null);
+      this.commandCpuNanos.addAndGet(currentThreadCpuTime() - cpuTime);
+    }
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -349,4 +655,64 @@ public class SshCommandInterfaceSession extends BaseTerminalCommandInterface imp
   protected void postCommand(final CommandResult<?> result) {
     super.postCommand(result);
   }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.terminal.interfaces.BaseTerminalCommandInterface#renderLine(org.mintshell.terminal.LineDiff)
+   */
+  @Override
+  protected void renderLine(final LineDiff diff) {
+    try {
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      if (diff.getCursorShift() < 0) {
+        output.write(AnsiControlCommand.MOVE_CURSOR_LEFT.getSequence(-diff.getCursorShift()));
+      }
+      else if (diff.getCursorShift() > 0) {
+        output.write(AnsiControlCommand.MOVE_CURSOR_RIGHT.getSequence(diff.getCursorShift()));
+      }
+      if (diff.getErasure() > 0) {
+        output.write(AnsiControlCommand.ERASE_TO_END_OF_LINE.getSequence());
+      }
+      output.write(diff.getSuffix().getBytes());
+      if (diff.getCursorReturn() > 0) {
+        output.write(AnsiControlCommand.MOVE_CURSOR_LEFT.getSequence(diff.getCursorReturn()));
+      }
+      output.writeTo(this.out);
+      this.out.flush();
+    } catch (final IOException e) {
+      throw new IllegalStateException(format("Failed to render line [%s]", diff));
+    }
+  }
+
+  private static long currentThreadCpuTime() {
+    return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+  }
+
+  private CommandEventRecording beginSessionEvent(final CommandEventType type) {
+    final String previousSessionId = CommandEvents.getSessionId();
+    CommandEvents.setSessionId(String.valueOf(this.id));
+    try {
+      return CommandEvents.begin(type);
+    } finally {
+      CommandEvents.setSessionId(previousSessionId);
+    }
+  }
+
+  private void touch() {
+    this.lastActivityTime = System.currentTimeMillis();
+  }
+
+  private void updateScreenRows(final Environment env) {
+    final String lines = env.getEnv().get(Environment.ENV_LINES);
+    try {
+      if (lines != null && Integer.parseInt(lines) > 0) {
+        this.screenRows = Integer.parseInt(lines);
+      }
+    } catch (final NumberFormatException e) {
+      LOG.debug("Invalid screen rows [{}]", lines, e);
+    }
+  }
+
 }
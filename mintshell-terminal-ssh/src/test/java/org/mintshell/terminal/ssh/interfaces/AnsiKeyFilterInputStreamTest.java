@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal.ssh.interfaces;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link AnsiKeyFilterInputStream} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class AnsiKeyFilterInputStreamTest {
+
+  @Test
+  public void testReadKey() throws IOException {
+    final AnsiKeyFilterInputStream sut = create("a\u001B[D");
+    assertThat(sut.readKey()).isEqualTo(AnsiKey.A_LOW);
+    assertThat(sut.readKey()).isEqualTo(AnsiKey.LEFT);
+    assertThat(sut.readKey()).isEqualTo(AnsiKey.UNDEFINED);
+  }
+
+  @Test
+  public void testReadPaste() throws IOException {
+    final AnsiKeyFilterInputStream sut = create("\u001B[200~foo\nbar\u001B[201~x");
+    assertThat(sut.readKey()).isEqualTo(AnsiKey.PASTE_START);
+    assertThat(sut.readPaste()).isEqualTo("foo\nbar");
+    assertThat(sut.readKey()).isEqualTo(AnsiKey.X_LOW);
+    assertThat(sut.readKey()).isEqualTo(AnsiKey.UNDEFINED);
+  }
+
+  @Test
+  public void testReadPasteExceedingBuffer() throws IOException {
+    final StringBuilder text = new StringBuilder();
+    for (int index = 0; index < 3000; index++) {
+      text.append((char) ('a' + index % 26));
+    }
+    final AnsiKeyFilterInputStream sut = create("\u001B[200~" + text + "\u001B[201~");
+    assertThat(sut.readKey()).isEqualTo(AnsiKey.PASTE_START);
+    assertThat(sut.readPaste()).isEqualTo(text.toString());
+    assertThat(sut.available()).isEqualTo(0);
+  }
+
+  @Test
+  public void testReadPasteWithoutEnd() throws IOException {
+    final AnsiKeyFilterInputStream sut = create("\u001B[200~foo");
+    assertThat(sut.readKey()).isEqualTo(AnsiKey.PASTE_START);
+    assertThat(sut.readPaste()).isEqualTo("foo");
+  }
+
+  private static AnsiKeyFilterInputStream create(final String input) {
+    return new AnsiKeyFilterInputStream(new ByteArrayInputStream(input.getBytes()));
+  }
+}
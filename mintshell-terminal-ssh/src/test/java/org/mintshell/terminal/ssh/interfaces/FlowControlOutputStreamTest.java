@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal.ssh.interfaces;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link FlowControlOutputStream} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class FlowControlOutputStreamTest {
+
+  private ByteArrayOutputStream target;
+  private List<Integer> chunks;
+
+  @Before
+  public void before() {
+    this.target = new ByteArrayOutputStream();
+    this.chunks = new ArrayList<>();
+  }
+
+  @Test
+  public void testBoundedPendingBytes() throws IOException {
+    final FlowControlOutputStream sut = new FlowControlOutputStream(this.createRecordingStream(), 4, FlowControlOutputStream.UNLIMITED_BYTES_PER_SECOND);
+    sut.write("0123456789".getBytes());
+    assertThat(this.chunks).containsExactly(4, 4);
+    sut.flush();
+    assertThat(this.chunks).containsExactly(4, 4, 2);
+    assertThat(this.target.toString()).isEqualTo("0123456789");
+    assertThat(sut.getWrittenBytes()).isEqualTo(10);
+    assertThat(sut.getDroppedBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void testDroppedOnInterrupt() throws IOException {
+    final FlowControlOutputStream sut = new FlowControlOutputStream(this.target, 16, 1);
+    sut.write(new byte[8]);
+    Thread.currentThread().interrupt();
+    try {
+      sut.flush();
+    } catch (final InterruptedIOException e) {
+      assertThat(Thread.interrupted()).isTrue();
+    }
+    assertThat(sut.getDroppedBytes()).isEqualTo(8);
+    assertThat(sut.getWrittenBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void testMonitorReleasedWhileThrottling() throws Exception {
+    final FlowControlOutputStream sut = new FlowControlOutputStream(this.target, 16, 4);
+    sut.write(new byte[8]);
+    final Thread writer = new Thread(() -> {
+      try {
+        sut.flush();
+      } catch (final IOException e) {
+        // interrupted by the test
+      }
+    });
+    writer.start();
+    TimeUnit.MILLISECONDS.sleep(100);
+    final long start = System.nanoTime();
+    sut.setBytesPerSecond(8);
+    sut.write(1);
+    assertThat(sut.getBytesPerSecond()).isEqualTo(8);
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+    writer.interrupt();
+    writer.join();
+    assertThat(sut.getDroppedBytes()).isEqualTo(8);
+  }
+
+  @Test
+  public void testThrottling() throws IOException {
+    final FlowControlOutputStream sut = new FlowControlOutputStream(this.target, 1000, 10000);
+    final long start = System.nanoTime();
+    sut.write(new byte[15000]);
+    sut.flush();
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(400);
+    assertThat(sut.getThrottledTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(400);
+    assertThat(sut.getWrittenBytes()).isEqualTo(15000);
+  }
+
+  private OutputStream createRecordingStream() {
+    return new OutputStream() {
+
+      @Override
+      public void write(final byte[] b, final int off, final int len) {
+        FlowControlOutputStreamTest.this.chunks.add(len);
+        FlowControlOutputStreamTest.this.target.write(b, off, len);
+      }
+
+      @Override
+      public void write(final int b) {
+        this.write(new byte[] { (byte) b }, 0, 1);
+      }
+    };
+  }
+}
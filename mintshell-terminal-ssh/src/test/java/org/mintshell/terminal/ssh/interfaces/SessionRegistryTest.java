@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal.ssh.interfaces;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mintshell.command.Command;
+import org.mintshell.command.CommandResult;
+import org.mintshell.common.IoProvider;
+import org.mintshell.dispatcher.CommandDispatcher;
+import org.mintshell.dispatcher.CommandHelp;
+import org.mintshell.terminal.Key;
+import org.mintshell.terminal.interfaces.TerminalCommandHistory;
+
+/**
+ * Tests the functionality of the {@link SessionRegistry} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class SessionRegistryTest {
+
+  private ExecutorService executor;
+
+  private SessionRegistry sut;
+
+  @Before
+  public void before() {
+    this.executor = Executors.newCachedThreadPool();
+    this.sut = new SessionRegistry();
+  }
+
+  @After
+  public void after() {
+    this.sut.close();
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testAdmissionControl() {
+    this.sut.setMaxSessions(2);
+    final SshCommandInterfaceSession first = this.createSession();
+    final SshCommandInterfaceSession second = this.createSession();
+    final SshCommandInterfaceSession third = this.createSession();
+    assertThat(this.sut.getSessions()).containsOnly(first, second);
+    this.sut.unregister(third);
+    assertThat(this.sut.getSessions()).containsOnly(first, second);
+    this.sut.unregister(first);
+    final SshCommandInterfaceSession fourth = this.createSession();
+    assertThat(this.sut.getSessions()).containsOnly(second, fourth);
+  }
+
+  @Test
+  public void testGetSession() {
+    final SshCommandInterfaceSession session = this.createSession();
+    assertThat(this.sut.getSession(session.getId())).contains(session);
+    this.sut.unregister(session);
+    assertThat(this.sut.getSession(session.getId())).isEmpty();
+  }
+
+  @Test
+  public void testTerminateIdleSessions() throws InterruptedException {
+    final SshCommandInterfaceSession session = this.createSession();
+    this.sut.terminateIdleSessions();
+    assertThat(this.sut.getSessions()).containsOnly(session);
+    this.sut.setIdleTimeout(1, TimeUnit.MILLISECONDS);
+    Thread.sleep(10);
+    this.sut.terminateIdleSessions();
+    assertThat(this.sut.getSessions()).isEmpty();
+  }
+
+  private SshCommandInterfaceSession createSession() {
+    return new SshCommandInterfaceSession(this.sut, this.executor, new TerminalCommandHistory(new EmptyIoProvider()), commandMessage -> {
+      throw new UnsupportedOperationException();
+    }, new UnusedCommandDispatcher(), null, Key.ENTER);
+  }
+
+  /**
+   * {@link IoProvider} of an empty command history, that discards stored command lines.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static class EmptyIoProvider implements IoProvider {
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see org.mintshell.common.IoProvider#createIn()
+     */
+    @Override
+    public InputStream createIn() {
+      return new ByteArrayInputStream(new byte[0]);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see org.mintshell.common.IoProvider#createOut()
+     */
+    @Override
+    public OutputStream createOut() {
+      return new ByteArrayOutputStream();
+    }
+  }
+
+  /**
+   * {@link CommandDispatcher} for sessions, that never perform commands.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static class UnusedCommandDispatcher implements CommandDispatcher {
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see org.mintshell.dispatcher.CommandDispatcher#dispatch(org.mintshell.command.Command)
+     */
+    @Override
+    public CommandResult<?> dispatch(final Command command) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see org.mintshell.dispatcher.CommandDispatcher#getCommandHelp()
+     */
+    @Override
+    public CommandHelp getCommandHelp() {
+      return null;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see org.mintshell.common.PromptProvider#getPrompt()
+     */
+    @Override
+    public String getPrompt() {
+      return "";
+    }
+  }
+}
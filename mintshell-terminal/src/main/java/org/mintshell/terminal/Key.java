@@ -41,6 +41,8 @@ public enum Key {
 
   ENTER("Enter", KeyCodeClass.WHITESPACE),
 
+  SEARCH("Search"),
+
   ESCAPE("Esc"),
 
   SPACE(" ", KeyCodeClass.WHITESPACE | KeyCodeClass.PRINTABLE),
@@ -281,6 +283,8 @@ public enum Key {
 
   F12("F12", KeyCodeClass.FUNCTION),
 
+  PASTE("Paste"),
+
   UNDEFINED("Undefined"),
 
   ;
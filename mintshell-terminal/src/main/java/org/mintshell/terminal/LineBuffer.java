@@ -23,6 +23,7 @@
  */
 package org.mintshell.terminal;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Vector;
 
@@ -162,9 +163,8 @@ public class LineBuffer implements CharSequence {
    * @since 0.1.0
    */
   public LineBuffer insertLeft(final CharSequence sequence) {
-    for (int index = 0; index < sequence.length(); index++) {
-      this.insertLeft(sequence.charAt(index));
-    }
+    this.sequence.addAll(this.cursorPosition, toCharacters(sequence));
+    this.cursorPosition += sequence.length();
     return this;
   }
 
@@ -197,9 +197,7 @@ public class LineBuffer implements CharSequence {
    * @since 0.1.0
    */
   public LineBuffer insertRight(final CharSequence sequence) {
-    for (int index = 0; index < sequence.length(); index++) {
-      this.insertRight(sequence.charAt(index));
-    }
+    this.sequence.addAll(this.cursorPosition, toCharacters(sequence));
     return this;
   }
 
@@ -362,4 +360,12 @@ public class LineBuffer implements CharSequence {
     }
     return new String(value);
   }
+
+  private static List<Character> toCharacters(final CharSequence sequence) {
+    final List<Character> characters = new ArrayList<>(sequence.length());
+    for (int index = 0; index < sequence.length(); index++) {
+      characters.add(sequence.charAt(index));
+    }
+    return characters;
+  }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal;
+
+import static java.lang.String.format;
+
+import org.mintshell.assertion.Assert;
+
+/**
+ * Describes the minimal update to transform a displayed line of terminal input into a new one. An update is applied
+ * in the following order:
+ * <ol>
+ * <li>move the cursor by {@link #getCursorShift()} columns (negative values mean left)</li>
+ * <li>erase {@link #getErasure()} characters right of the cursor, which means erasing to the end of line</li>
+ * <li>write {@link #getSuffix()}</li>
+ * <li>move the cursor {@link #getCursorReturn()} columns left</li>
+ * </ol>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class LineDiff {
+
+  private final int cursorShift;
+  private final int erasure;
+  private final String suffix;
+  private final int cursorReturn;
+
+  private LineDiff(final int cursorShift, final int erasure, final String suffix, final int cursorReturn) {
+    this.cursorShift = cursorShift;
+    this.erasure = erasure;
+    this.suffix = suffix;
+    this.cursorReturn = cursorReturn;
+  }
+
+  /**
+   * Computes the minimal {@link LineDiff} between the given displayed line and the given new line. Only the part
+   * behind the common prefix of both lines is rewritten.
+   *
+   * @param displayed
+   *          currently displayed line
+   * @param displayedCursor
+   *          currently displayed cursor position
+   * @param line
+   *          new line to display
+   * @param cursor
+   *          new cursor position
+   * @return computed {@link LineDiff}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static LineDiff of(final CharSequence displayed, final int displayedCursor, final CharSequence line, final int cursor) {
+    Assert.ARG.isNotNull(displayed, "[displayed] must not be [null]");
+    Assert.ARG.isNotNull(line, "[line] must not be [null]");
+    if (displayedCursor < 0 || displayedCursor > displayed.length()) {
+      throw new IllegalArgumentException(format("[displayedCursor] must be within [0, %d] but was [%d]", displayed.length(), displayedCursor));
+    }
+    if (cursor < 0 || cursor > line.length()) {
+      throw new IllegalArgumentException(format("[cursor] must be within [0, %d] but was [%d]", line.length(), cursor));
+    }
+    final int commonLength = Math.min(displayed.length(), line.length());
+    int prefixLength = 0;
+    while (prefixLength < commonLength && displayed.charAt(prefixLength) == line.charAt(prefixLength)) {
+      prefixLength++;
+    }
+    if (prefixLength == displayed.length() && prefixLength == line.length()) {
+      return new LineDiff(cursor - displayedCursor, 0, "", 0);
+    }
+    return new LineDiff(prefixLength - displayedCursor, displayed.length() - prefixLength, line.subSequence(prefixLength, line.length()).toString(),
+        line.length() - cursor);
+  }
+
+  /**
+   * Returns the number of columns to move the cursor left after writing the suffix.
+   *
+   * @return number of columns to move the cursor left
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getCursorReturn() {
+    return this.cursorReturn;
+  }
+
+  /**
+   * Returns the number of columns to move the cursor before erasing. Negative values mean left, positive values mean
+   * right.
+   *
+   * @return number of columns to move the cursor
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getCursorShift() {
+    return this.cursorShift;
+  }
+
+  /**
+   * Returns the number of displayed characters right of the shifted cursor that have to be erased.
+   *
+   * @return number of characters to erase
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public int getErasure() {
+    return this.erasure;
+  }
+
+  /**
+   * Returns the text to write after erasing.
+   *
+   * @return text to write
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public String getSuffix() {
+    return this.suffix;
+  }
+
+  /**
+   * Checks if this {@link LineDiff} changes neither the line nor the cursor position.
+   *
+   * @return {@code true} if nothing has to be updated, {@code false} otherwise
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isEmpty() {
+    return this.cursorShift == 0 && this.erasure == 0 && this.suffix.isEmpty() && this.cursorReturn == 0;
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return format("LineDiff [cursorShift=%d, erasure=%d, suffix=%s, cursorReturn=%d]", this.cursorShift, this.erasure, this.suffix, this.cursorReturn);
+  }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+import org.mintshell.assertion.Assert;
+
+/**
+ * A pager lazily pulls lines from a result value and provides them page by page. Lines are only consumed from the
+ * underlying source when they are requested, so that the source is not consumed any further after the {@link Pager}
+ * got closed.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class Pager implements AutoCloseable {
+
+  private final Iterator<?> source;
+  private final Optional<AutoCloseable> closeable;
+  private boolean closed;
+
+  private Pager(final Iterator<?> source, final Optional<AutoCloseable> closeable) {
+    this.source = source;
+    this.closeable = closeable;
+    this.closed = false;
+  }
+
+  /**
+   * Checks if the given value has more lines than the given maximum count, without consuming it.
+   * {@link CharSequence}s are checked line by line, {@link Iterable}s element by element. {@link Iterator}s and
+   * {@link BaseStream}s can't be checked without consuming them, so they are always considered to exceed.
+   *
+   * @param value
+   *          value to check
+   * @param maxLines
+   *          maximum count of lines
+   * @return {@code true} if the given value has more than the given count of lines, {@code false} otherwise
+   * @throws IllegalArgumentException
+   *           if the given value is not pageable
+   *
+   * @see #isPageable(Object)
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static boolean exceeds(final Object value, final int maxLines) throws IllegalArgumentException {
+    Assert.ARG.isTrue(isPageable(value), format("Value [%s] is not pageable", value));
+    if (value instanceof CharSequence) {
+      return LineIterator.countLines((CharSequence) value, maxLines + 1) > maxLines;
+    }
+    if (value instanceof Iterable) {
+      final Iterator<?> iterator = ((Iterable<?>) value).iterator();
+      for (int count = 0; iterator.hasNext(); count++) {
+        if (count == maxLines) {
+          return true;
+        }
+        iterator.next();
+      }
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the given value can be paged by a {@link Pager}, which is the case for {@link CharSequence}s,
+   * {@link Iterable}s, {@link Iterator}s and {@link BaseStream}s.
+   *
+   * @param value
+   *          value to check
+   * @return {@code true} if the given value can be paged, {@code false} otherwise
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static boolean isPageable(final Object value) {
+    return value instanceof CharSequence || value instanceof Iterable || value instanceof Iterator || value instanceof BaseStream;
+  }
+
+  /**
+   * Creates a new {@link Pager} for the given value. {@link CharSequence}s are paged line by line, where {@code \n},
+   * {@code \r}, {@code \r\n} and {@code \n\r} are treated as line separators. All other values are paged element by
+   * element using the {@link String} representation of each element.
+   *
+   * @param value
+   *          value to page
+   * @return new {@link Pager}
+   * @throws IllegalArgumentException
+   *           if the given value is not pageable
+   *
+   * @see #isPageable(Object)
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static Pager of(final Object value) throws IllegalArgumentException {
+    Assert.ARG.isNotNull(value, "[value] must not be [null]");
+    if (value instanceof CharSequence) {
+      return new Pager(new LineIterator((CharSequence) value), Optional.empty());
+    }
+    if (value instanceof Iterable) {
+      return new Pager(((Iterable<?>) value).iterator(), Optional.empty());
+    }
+    if (value instanceof Iterator) {
+      return new Pager((Iterator<?>) value, Optional.empty());
+    }
+    if (value instanceof BaseStream) {
+      final BaseStream<?, ?> stream = (BaseStream<?, ?>) value;
+      return new Pager(stream.iterator(), Optional.of(stream));
+    }
+    throw new IllegalArgumentException(format("Value of type [%s] is not pageable", value.getClass().getName()));
+  }
+
+  /**
+   * Closes this {@link Pager} and the underlying source, if it is closeable. Afterwards no more lines are consumed from
+   * the underlying source.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  @Override
+  public void close() {
+    if (!this.closed) {
+      this.closed = true;
+      if (this.closeable.isPresent()) {
+        try {
+          this.closeable.get().close();
+        } catch (final Exception e) {
+          throw new IllegalStateException("Failed to close pager source", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks if there are more lines available.
+   *
+   * @return {@code true} if this {@link Pager} is closed or all lines of the underlying source were consumed,
+   *         {@code false} otherwise
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isExhausted() {
+    return this.closed || !this.source.hasNext();
+  }
+
+  /**
+   * Returns the next lines up to the given maximum count.
+   *
+   * @param maxLines
+   *          maximum count of lines to return
+   * @return next lines, which is empty if this {@link Pager} {@link #isExhausted()}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public List<String> next(final int maxLines) {
+    final List<String> lines = new ArrayList<>();
+    while (lines.size() < maxLines && !this.isExhausted()) {
+      lines.add(String.valueOf(this.source.next()));
+    }
+    return lines;
+  }
+
+  /**
+   * Skips all lines until a line containing the given search term is found and returns it together with the following
+   * lines up to the given maximum count.
+   *
+   * @param term
+   *          search term
+   * @param maxLines
+   *          maximum count of lines to return
+   * @return found line and following lines, which is empty if no line containing the given search term was found
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public List<String> search(final String term, final int maxLines) {
+    Assert.ARG.isNotNull(term, "[term] must not be [null]");
+    while (!this.isExhausted()) {
+      final String line = String.valueOf(this.source.next());
+      if (line.contains(term)) {
+        final List<String> lines = new ArrayList<>();
+        lines.add(line);
+        lines.addAll(this.next(maxLines - 1));
+        return lines;
+      }
+    }
+    return new ArrayList<>();
+  }
+
+  /**
+   * {@link Iterator} that lazily splits a {@link CharSequence} into lines.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static class LineIterator implements Iterator<String> {
+
+    private final CharSequence text;
+    private int position;
+
+    private LineIterator(final CharSequence text) {
+      this.text = text;
+      this.position = 0;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+      return this.position < this.text.length();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     *
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public String next() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int end = this.position;
+      while (end < this.text.length() && !isLineSeparator(this.text.charAt(end))) {
+        end++;
+      }
+      final String line = this.text.subSequence(this.position, end).toString();
+      this.position = end;
+      if (this.position < this.text.length()) {
+        final char separator = this.text.charAt(this.position++);
+        if (this.position < this.text.length() && isLineSeparator(this.text.charAt(this.position)) && this.text.charAt(this.position) != separator) {
+          this.position++;
+        }
+      }
+      return line;
+    }
+
+    private static int countLines(final CharSequence text, final int limit) {
+      int lines = 0;
+      int position = 0;
+      while (position < text.length() && lines < limit) {
+        while (position < text.length() && !isLineSeparator(text.charAt(position))) {
+          position++;
+        }
+        lines++;
+        if (position < text.length()) {
+          final char separator = text.charAt(position++);
+          if (position < text.length() && isLineSeparator(text.charAt(position)) && text.charAt(position) != separator) {
+            position++;
+          }
+        }
+      }
+      return lines;
+    }
+
+    private static boolean isLineSeparator(final char character) {
+      return character == '\n' || character == '\r';
+    }
+  }
+}
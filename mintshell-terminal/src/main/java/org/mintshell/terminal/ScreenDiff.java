@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal;
+
+import static java.util.Collections.unmodifiableSortedMap;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.mintshell.assertion.Assert;
+
+/**
+ * Describes the rows that have to be rewritten to transform displayed lines of a terminal into new ones. Rows that
+ * didn't change are omitted; the text of a rewritten row is padded with spaces, so that it overwrites the complete
+ * displayed line.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class ScreenDiff {
+
+  private final SortedMap<Integer, String> updates;
+
+  private ScreenDiff(final SortedMap<Integer, String> updates) {
+    this.updates = updates;
+  }
+
+  /**
+   * Computes the {@link ScreenDiff} between the given displayed lines and the given new lines.
+   *
+   * @param displayed
+   *          currently displayed lines
+   * @param lines
+   *          new lines to display
+   * @return computed {@link ScreenDiff}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public static ScreenDiff of(final List<String> displayed, final List<String> lines) {
+    Assert.ARG.isNotNull(displayed, "[displayed] must not be [null]");
+    Assert.ARG.isNotNull(lines, "[lines] must not be [null]");
+    final SortedMap<Integer, String> updates = new TreeMap<>();
+    for (int row = 0; row < Math.max(displayed.size(), lines.size()); row++) {
+      final String displayedLine = row < displayed.size() ? displayed.get(row) : "";
+      final String line = row < lines.size() ? lines.get(row) : "";
+      if (!line.equals(displayedLine)) {
+        final StringBuilder update = new StringBuilder(line);
+        while (update.length() < displayedLine.length()) {
+          update.append(' ');
+        }
+        updates.put(row, update.toString());
+      }
+    }
+    return new ScreenDiff(updates);
+  }
+
+  /**
+   * Returns the texts to be written per zero-based row number, ordered by row number.
+   *
+   * @return texts to be written per row number
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public SortedMap<Integer, String> getUpdates() {
+    return unmodifiableSortedMap(this.updates);
+  }
+
+  /**
+   * Returns whether there are no rows to be rewritten.
+   *
+   * @return {@code true}, if no row has to be rewritten, otherwise {@code false}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isEmpty() {
+    return this.updates.isEmpty();
+  }
+}
@@ -23,16 +23,23 @@
  */
 package org.mintshell.terminal.interfaces;
 
+import static java.lang.String.format;
+
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.mintshell.annotation.Nullable;
@@ -41,16 +48,23 @@ import org.mintshell.command.Command;
 import org.mintshell.dispatcher.CommandDispatcher;
 import org.mintshell.dispatcher.Completer;
 import org.mintshell.interfaces.BaseCommandInterface;
+import org.mintshell.interfaces.CommandHistoryCursor;
 import org.mintshell.interfaces.CommandInterfaceCommandResult;
 import org.mintshell.interpreter.CommandInterpreter;
+import org.mintshell.job.Watch;
 import org.mintshell.terminal.Key;
 import org.mintshell.terminal.KeyBinding;
 import org.mintshell.terminal.LineBuffer;
+import org.mintshell.terminal.LineDiff;
+import org.mintshell.terminal.Pager;
+import org.mintshell.terminal.ScreenDiff;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Base implementation of a {@link TerminalCommandInterface}.
+ * Base implementation of a {@link TerminalCommandInterface}. Submitted commands are performed via
+ * {@link #performCommandAsync(String)} and their results are written on completion. Input that arrives while a command
+ * is pending is deferred until then.
  *
  * @author Noqmar
  * @since 0.1.0
@@ -59,18 +73,38 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
 
   public static final KeyBinding KEYBINDING_EXIT = new KeyBinding(Key.CANCEL, "exit");
   public static final Key DEFAULT_COMMAND_SUBMISSION_KEY = Key.ENTER;
+  public static final String DEFAULT_PAGER_PROMPT = "--More--";
+  public static final String DEFAULT_HISTORY_SEARCH_PROMPT = "(reverse-i-search)`%s': ";
+  public static final String DEFAULT_FAILED_HISTORY_SEARCH_PROMPT = "(failed reverse-i-search)`%s': ";
+  public static final String DEFAULT_WATCH_HEADER = "%s    (press any key to stop)";
 
   private static final Logger LOG = LoggerFactory.getLogger(BaseTerminalCommandInterface.class);
+  private static final Pattern PASTE_LINE_SEPARATOR = Pattern.compile("\r\n|\r|\n");
+  private static final int WATCH_HEADER_ROWS = 2;
 
   private final ExecutorService executor;
   private Future<?> task;
   private Future<?> keyTask;
+  private final Deque<Runnable> deferredInputs;
   private final Optional<String> banner;
   private final List<KeyBinding> keyBindings;
   private final Key commandSubmissionKey;
   private final LineBuffer lineBuffer;
+  private final CommandHistoryCursor commandHistoryCursor;
 
   private int completionCounter;
+  private volatile boolean pasteSubmission;
+  private volatile boolean pagingEnabled;
+  private Pager pager;
+  private StringBuilder pagerSearch;
+  private String pagerSearchTerm;
+  private StringBuilder historySearch;
+  private String historySearchOrigin;
+  private int historySearchNumber;
+  private int historySearchPromptLength;
+  private Watch watch;
+  private List<String> watchLines;
+  private CompletableFuture<String> pendingCommand;
 
   /**
    * Creates a new instance using the given command history, no banner and {@link #DEFAULT_COMMAND_SUBMISSION_KEY}.
@@ -123,8 +157,11 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
     this.keyBindings = new ArrayList<>();
     this.addKeyBindings(keyBindings);
     this.executor = Executors.newFixedThreadPool(2);
+    this.deferredInputs = new ArrayDeque<>();
     this.lineBuffer = new LineBuffer();
+    this.commandHistoryCursor = commandHistory != null ? new CommandHistoryCursor(commandHistory) : null;
     this.completionCounter = 0;
+    this.pagingEnabled = true;
   }
 
   /**
@@ -142,14 +179,13 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
         try {
           final Key key = this.readKey();
           if (this.isActivated()) {
-            this.keyTask = this.executor.submit(() -> {
-              try {
-                this.handleKey(key);
-              } catch (final Exception e) {
-                LOG.error("Failed to handle input [{}]", key, e);
-                this.print(e.getMessage());
-              }
-            });
+            if (Key.PASTE.equals(key)) {
+              final String text = this.readPaste();
+              this.submitInput(text, () -> this.handlePaste(text));
+            }
+            else {
+              this.submitInput(key, () -> this.handleKey(key));
+            }
           }
         } catch (final Exception e) {
           LOG.error("Failed to read input", e);
@@ -203,6 +239,8 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
       this.keyTask.cancel(true);
     }
     this.executor.shutdownNow();
+    this.closePager();
+    this.stopWatching();
   }
 
   /**
@@ -241,6 +279,33 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
     return super.isActivated() && !this.executor.isShutdown();
   }
 
+  /**
+   * Returns if large command results are displayed page by page. If enabled, {@link Iterator} and
+   * {@link java.util.stream.Stream} results are always paged, {@link CharSequence} and {@link Iterable} results only if
+   * they exceed the screen. Lines are pulled lazily from the result, so that quitting the pager stops consuming it.
+   *
+   * @return {@code true} if paging is enabled, {@code false} otherwise
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isPagingEnabled() {
+    return this.pagingEnabled;
+  }
+
+  /**
+   * Returns if pasted multi-line text is submitted line by line as a batch of commands. If not, line breaks of pasted
+   * text are replaced by spaces.
+   *
+   * @return {@code true} if pasted lines are submitted as commands, {@code false} otherwise
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public boolean isPasteSubmission() {
+    return this.pasteSubmission;
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -252,6 +317,36 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
     this.keyBindings.remove(Assert.ARG.isNotNull(keyBinding, "[keyBinding] must not be [null]"));
   }
 
+  /**
+   * Sets if large command results are displayed page by page (default).
+   *
+   * @param pagingEnabled
+   *          {@code true} to enable paging, {@code false} otherwise
+   *
+   * @see #isPagingEnabled()
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setPagingEnabled(final boolean pagingEnabled) {
+    this.pagingEnabled = pagingEnabled;
+  }
+
+  /**
+   * Sets if pasted multi-line text is submitted line by line as a batch of commands. If enabled, every complete line of
+   * a pasted text is submitted as a command, while a trailing fragment without line break stays in the line buffer. If
+   * disabled (default), line breaks of pasted text are replaced by spaces.
+   *
+   * @param pasteSubmission
+   *          {@code true} to submit pasted lines as commands, {@code false} otherwise
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public void setPasteSubmission(final boolean pasteSubmission) {
+    this.pasteSubmission = pasteSubmission;
+  }
+
   /**
    * Clears the screen of the underlying terminal.
    *
@@ -260,6 +355,29 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
    */
   protected abstract void clearScreen();
 
+  /**
+   * Starts watching {@link Watch} results and opens a {@link Pager} for results, that {@link #needsPaging(Object)}. In
+   * both cases an empty message is returned, since the output is rendered afterwards by the watch or the pager.
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.interfaces.BaseCommandInterface#createResultMessage(java.lang.Object)
+   */
+  @Override
+  protected String createResultMessage(final Object resultValue) {
+    if (resultValue instanceof Watch) {
+      this.stopWatching();
+      this.watch = (Watch) resultValue;
+      return "";
+    }
+    if (this.needsPaging(resultValue)) {
+      this.closePager();
+      this.pager = Pager.of(resultValue);
+      return "";
+    }
+    return super.createResultMessage(resultValue);
+  }
+
   /**
    * Returns the zero-based column number of the current cursor position.
    *
@@ -284,10 +402,10 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
       final String commandFragment = this.lineBuffer.toString();
       final SortedSet<String> completions = ((Completer) this.getCommandDispatcher()).complete(commandFragment);
       if (completions.size() == 1) {
-        final String completion = completions.first() + " ";
-        this.eraseCursorToStartOfLine();
-        this.lineBuffer.insertLeft(completion);
-        this.print(completion);
+        final int wordStart = Math.max(commandFragment.lastIndexOf(' '), commandFragment.lastIndexOf('\t')) + 1;
+        final String completion = commandFragment.substring(0, wordStart) + completions.first() + " ";
+        final String remainder = this.lineBuffer.subSequence(this.lineBuffer.getCursorPosition(), this.lineBuffer.length()).toString();
+        this.updateLine(completion + remainder, completion.length());
       }
       else if (completions.size() > 1) {
         if (this.completionCounter > 0) {
@@ -324,7 +442,6 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
       final int digitCount = Integer.toString(terminalCommandHistory.getLastCommandLineNumber()).length();
       final StringBuilder builder = new StringBuilder();
       terminalCommandHistory.getCommandLines().entrySet().stream() //
-          .sorted((e1, e2) -> Integer.compare(e1.getKey(), e2.getKey())) //
           .map(entry -> String.format("%" + digitCount + "d %s", entry.getKey(), entry.getValue())) //
           .forEach(entry -> builder.append(entry).append("\n\r"));
       final String result = builder.toString();
@@ -348,20 +465,7 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
    */
   protected boolean handleCommandSubmission(final Key key) {
     if (key.equals(this.commandSubmissionKey)) {
-      this.moveCursorToEndOfLine();
-      final String commandMessage = this.lineBuffer.toString().trim();
-      this.lineBuffer.clear();
-      this.newLine();
-      if (!commandMessage.isEmpty()) {
-        if (this.getCommandHistory() != null) {
-          this.getCommandHistory().addCommandLine(commandMessage);
-        }
-      }
-      if (!commandMessage.trim().isEmpty()) {
-        final String result = this.performCommand(commandMessage);
-        this.println(result);
-      }
-      this.printPrompt();
+      this.submitCommandLine();
       return true;
     }
     return false;
@@ -377,6 +481,19 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
    * @since 0.1.0
    */
   protected synchronized void handleKey(final Key key) {
+    if (this.watch != null) {
+      this.stopWatching();
+      this.printPrompt();
+      return;
+    }
+    if (this.pager != null) {
+      this.handlePagerKey(key);
+      return;
+    }
+    if (this.historySearch != null) {
+      this.handleHistorySearchKey(key);
+      return;
+    }
     this.decrementCompletionCounter();
     if (!this.handleCommandSubmission(key) && !this.handleKeyBinding(key)) {
 
@@ -385,16 +502,12 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
         this.print(key.getValue());
       }
       else if (this.getCommandHistory() != null && key.equals(this.getCommandHistory().getHistoryPrevKey())) {
-        this.eraseCursorToStartOfLine();
-        final String previousCommandMessage = this.getCommandHistory().getPreviousCommandLine();
-        this.lineBuffer.insertLeft(previousCommandMessage);
-        this.print(previousCommandMessage);
+        final String previousCommandMessage = this.commandHistoryCursor.getPreviousCommandLine();
+        this.updateLine(previousCommandMessage, previousCommandMessage.length());
       }
       else if (this.getCommandHistory() != null && key.equals(this.getCommandHistory().getHistoryNextKey())) {
-        this.eraseCursorToStartOfLine();
-        final String nextCommandMessage = this.getCommandHistory().getNextCommandLine();
-        this.lineBuffer.insertLeft(nextCommandMessage);
-        this.print(nextCommandMessage);
+        final String nextCommandMessage = this.commandHistoryCursor.getNextCommandLine();
+        this.updateLine(nextCommandMessage, nextCommandMessage.length());
       }
       else {
         switch (key) {
@@ -425,6 +538,11 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
           case TAB:
             this.handleCommandCompletion();
             break;
+          case SEARCH:
+            if (this.getCommandHistory() != null) {
+              this.startHistorySearch();
+            }
+            break;
           default:
             LOG.warn("Unsupported key [{}]", key);
         }
@@ -449,15 +567,54 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
         .findFirst().orElse(null);
     if (commandMessage != null) {
       this.print("\n\r");
-      final String result = this.performCommand(commandMessage);
-      this.println(result);
-      this.print("\n\r");
-      this.printPrompt();
+      this.submitCommand(commandMessage, "\n\r");
       return true;
     }
     return false;
   }
 
+  /**
+   * Handles the given pasted text by inserting it into the line buffer at once and echoing it with a single
+   * {@link #print(String)}. Control characters of the pasted text are dropped, tabs are replaced by spaces. Line breaks
+   * are handled according to {@link #isPasteSubmission()}. Pasted text is ignored while a result is paged and remaining
+   * lines are dropped, if a submitted line starts paging. Pasting ends a reverse history search, keeping the found
+   * command line. May be overwritten by subclasses.
+   *
+   * @param text
+   *          pasted text to handle
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected synchronized void handlePaste(final String text) {
+    if (this.pager != null) {
+      return;
+    }
+    if (this.historySearch != null) {
+      this.finishHistorySearch(true);
+    }
+    this.completionCounter = 0;
+    if (this.pasteSubmission) {
+      final String[] lines = PASTE_LINE_SEPARATOR.split(text, -1);
+      for (int index = 0; index < lines.length - 1; index++) {
+        this.insertPastedText(lines[index]);
+        this.submitCommandLine();
+        if (this.pager != null) {
+          return;
+        }
+        if (this.pendingCommand != null) {
+          final String remainingText = String.join("\n", Arrays.copyOfRange(lines, index + 1, lines.length));
+          this.deferredInputs.addFirst(() -> this.handleInput(remainingText, () -> this.handlePaste(remainingText)));
+          return;
+        }
+      }
+      this.insertPastedText(lines[lines.length - 1]);
+    }
+    else {
+      this.insertPastedText(String.join(" ", PASTE_LINE_SEPARATOR.split(text)));
+    }
+  }
+
   /**
    * Moves the cursor of the underlying terminal to the given position. Position is zero-based.
    *
@@ -471,6 +628,22 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
    */
   protected abstract void moveCursor(int col, int row);
 
+  /**
+   * Decides whether the given result value is displayed page by page. {@link Iterator}s and
+   * {@link java.util.stream.Stream}s are always paged, {@link CharSequence}s and {@link Iterable}s only if they exceed
+   * the screen. May be overwritten by subclasses.
+   *
+   * @param resultValue
+   *          value of a succeeded command result
+   * @return {@code true} if the given value is paged, {@code false} if its {@link String} representation is printed
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected boolean needsPaging(final Object resultValue) {
+    return this.pagingEnabled && Pager.isPageable(resultValue) && Pager.exceeds(resultValue, this.getPageSize());
+  }
+
   /**
    *
    * {@inheritDoc}
@@ -488,6 +661,35 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
     return super.preCommand(command);
   }
 
+  /**
+   * Applies the given {@link LineDiff} to the displayed line of the underlying terminal. This implementation uses the
+   * single character operations of {@link TerminalCommandInterface} and should be overwritten by subclasses that are
+   * able to apply the whole {@link LineDiff} at once.
+   *
+   * @param diff
+   *          {@link LineDiff} to apply
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  protected void renderLine(final LineDiff diff) {
+    for (int count = diff.getCursorShift(); count < 0; count++) {
+      this.movePrevious();
+    }
+    for (int count = 0; count < diff.getCursorShift(); count++) {
+      this.moveNext();
+    }
+    for (int count = 0; count < diff.getErasure(); count++) {
+      this.eraseNext();
+    }
+    if (!diff.getSuffix().isEmpty()) {
+      this.print(diff.getSuffix());
+    }
+    for (int count = 0; count < diff.getCursorReturn(); count++) {
+      this.movePrevious();
+    }
+  }
+
   /**
    * Prints the prompt.
    *
@@ -498,21 +700,348 @@ public abstract class BaseTerminalCommandInterface extends BaseCommandInterface
     this.print(this.getPrompt());
   }
 
+  private void clearPagerLine(final int length) {
+    final StringBuilder blank = new StringBuilder("\r");
+    for (int index = 0; index < length; index++) {
+      blank.append(' ');
+    }
+    this.print(blank.append('\r').toString());
+  }
+
+  private void closePager() {
+    if (this.pager != null) {
+      try {
+        this.pager.close();
+      } catch (final IllegalStateException e) {
+        LOG.warn("Failed to close pager", e);
+      }
+    }
+    this.pager = null;
+    this.pagerSearch = null;
+    this.pagerSearchTerm = null;
+  }
+
+  private synchronized void completeCommand(final CompletableFuture<String> command, final String result, final String resultSuffix) {
+    if (this.pendingCommand != command) {
+      return;
+    }
+    this.pendingCommand = null;
+    if (!this.isActivated()) {
+      return;
+    }
+    if (!this.startPaging() && !this.startWatching()) {
+      this.println(result + resultSuffix);
+      this.printPrompt();
+    }
+    if (!this.deferredInputs.isEmpty()) {
+      this.keyTask = this.executor.submit(this::resumeInput);
+    }
+  }
+
   private void decrementCompletionCounter() {
     this.completionCounter = Math.max(0, --this.completionCounter);
   }
 
-  private void eraseCursorToStartOfLine() {
-    while (this.lineBuffer.getCursorPosition() > 0) {
-      this.lineBuffer.removeLeft();
-      this.erasePrevious();
+  private void finishHistorySearch(final boolean keepMatch) {
+    final String commandLine = keepMatch ? this.lineBuffer.toString() : this.historySearchOrigin;
+    this.updateLine("", 0);
+    this.clearPagerLine(this.historySearchPromptLength);
+    this.historySearch = null;
+    this.historySearchOrigin = null;
+    this.printPrompt();
+    this.updateLine(commandLine, commandLine.length());
+  }
+
+  private int getPageSize() {
+    return Math.max(1, this.getScreenRows() - 1);
+  }
+
+  private void handleHistorySearchKey(final Key key) {
+    switch (key) {
+      case SEARCH:
+        this.searchHistory(this.historySearchNumber);
+        break;
+      case DEL:
+      case BACK_SPACE:
+        if (this.historySearch.length() > 0) {
+          this.historySearch.setLength(this.historySearch.length() - 1);
+        }
+        this.searchHistory(this.getCommandHistory().getLastCommandLineNumber() + 1);
+        break;
+      case CANCEL:
+        this.finishHistorySearch(false);
+        break;
+      case ESCAPE:
+        this.finishHistorySearch(true);
+        break;
+      default:
+        if (key.isPrintableKey()) {
+          this.historySearch.append(key.getValue());
+          this.searchHistory(this.historySearchNumber + 1);
+        }
+        else {
+          this.finishHistorySearch(true);
+          this.handleKey(key);
+        }
+    }
+  }
+
+  private void handleInput(final Object input, final Runnable handler) {
+    try {
+      handler.run();
+    } catch (final Exception e) {
+      LOG.error("Failed to handle input [{}]", input, e);
+      this.print(e.getMessage());
+    }
+  }
+
+  private void handlePagerKey(final Key key) {
+    if (this.pagerSearch != null) {
+      this.handlePagerSearchKey(key);
+      return;
+    }
+    switch (key) {
+      case SPACE:
+        this.clearPagerLine(DEFAULT_PAGER_PROMPT.length());
+        this.showPage(this.pager.next(this.getPageSize()));
+        break;
+      case ENTER:
+        this.clearPagerLine(DEFAULT_PAGER_PROMPT.length());
+        this.showPage(this.pager.next(1));
+        break;
+      case SLASH:
+        this.clearPagerLine(DEFAULT_PAGER_PROMPT.length());
+        this.pagerSearch = new StringBuilder();
+        this.print("/");
+        break;
+      case N_LOW:
+        if (this.pagerSearchTerm != null) {
+          this.clearPagerLine(DEFAULT_PAGER_PROMPT.length());
+          this.showSearchPage();
+        }
+        break;
+      case Q_LOW:
+      case Q_UP:
+      case ESCAPE:
+      case CANCEL:
+        this.clearPagerLine(DEFAULT_PAGER_PROMPT.length());
+        this.closePager();
+        this.printPrompt();
+        break;
+      default:
+        LOG.debug("Unsupported pager key [{}]", key);
+    }
+  }
+
+  private void handlePagerSearchKey(final Key key) {
+    switch (key) {
+      case ENTER:
+        final String term = this.pagerSearch.toString();
+        this.clearPagerLine(this.pagerSearch.length() + 1);
+        this.pagerSearch = null;
+        if (!term.isEmpty()) {
+          this.pagerSearchTerm = term;
+        }
+        if (this.pagerSearchTerm != null) {
+          this.showSearchPage();
+        }
+        else {
+          this.print(DEFAULT_PAGER_PROMPT);
+        }
+        break;
+      case DEL:
+      case BACK_SPACE:
+        if (this.pagerSearch.length() > 0) {
+          this.pagerSearch.setLength(this.pagerSearch.length() - 1);
+          this.erasePrevious();
+        }
+        break;
+      case ESCAPE:
+      case CANCEL:
+        this.clearPagerLine(this.pagerSearch.length() + 1);
+        this.pagerSearch = null;
+        this.print(DEFAULT_PAGER_PROMPT);
+        break;
+      default:
+        if (key.isPrintableKey()) {
+          this.pagerSearch.append(key.getValue());
+          this.print(key.getValue());
+        }
+    }
+  }
+
+  private void insertPastedText(final String text) {
+    final StringBuilder printable = new StringBuilder(text.length());
+    for (final char character : text.toCharArray()) {
+      if (character == '\t') {
+        printable.append(' ');
+      }
+      else if (!Character.isISOControl(character)) {
+        printable.append(character);
+      }
+    }
+    if (printable.length() > 0) {
+      final String insertion = printable.toString();
+      this.lineBuffer.insertLeft(insertion);
+      this.print(insertion);
     }
   }
 
   private void moveCursorToEndOfLine() {
-    while (this.lineBuffer.getCursorPosition() < this.lineBuffer.length()) {
-      this.lineBuffer.moveCursorRight();
-      this.moveNext();
+    this.updateLine(this.lineBuffer.toString(), this.lineBuffer.length());
+  }
+
+  private synchronized void renderWatch(final Watch renderedWatch, final String output) {
+    if (this.watch != renderedWatch) {
+      return;
+    }
+    final List<String> lines;
+    try (final Pager pager = Pager.of(output)) {
+      lines = pager.next(Math.max(1, this.getScreenRows() - WATCH_HEADER_ROWS));
+    }
+    for (final Map.Entry<Integer, String> update : ScreenDiff.of(this.watchLines, lines).getUpdates().entrySet()) {
+      this.moveCursor(0, WATCH_HEADER_ROWS + update.getKey());
+      this.print(update.getValue());
+    }
+    this.watchLines = lines;
+    this.moveCursor(0, WATCH_HEADER_ROWS + lines.size());
+  }
+
+  private void renderHistorySearch(final String match, final boolean failed) {
+    this.updateLine("", 0);
+    this.clearPagerLine(this.historySearchPromptLength);
+    final String prompt = format(failed ? DEFAULT_FAILED_HISTORY_SEARCH_PROMPT : DEFAULT_HISTORY_SEARCH_PROMPT, this.historySearch);
+    this.print(prompt);
+    this.historySearchPromptLength = prompt.length();
+    this.updateLine(match, match.length());
+  }
+
+  private void resumeInput() {
+    while (true) {
+      final Runnable deferredInput;
+      synchronized (this) {
+        if (this.pendingCommand != null || this.deferredInputs.isEmpty()) {
+          return;
+        }
+        deferredInput = this.deferredInputs.poll();
+      }
+      deferredInput.run();
+    }
+  }
+
+  private void searchHistory(final int beforeNumber) {
+    final String query = this.historySearch.toString();
+    final Optional<Integer> number = this.getCommandHistory().searchCommandLine(query, beforeNumber);
+    if (number.isPresent()) {
+      this.historySearchNumber = number.get();
+      this.renderHistorySearch(this.getCommandHistory().getCommandLine(number.get()).orElse(""), false);
+    }
+    else {
+      this.renderHistorySearch(this.lineBuffer.toString(), !query.isEmpty());
+    }
+  }
+
+  private void showPage(final List<String> lines) {
+    if (!lines.isEmpty()) {
+      this.println(String.join("\n\r", lines));
+    }
+    if (this.pager.isExhausted()) {
+      this.closePager();
+      this.printPrompt();
+    }
+    else {
+      this.print(DEFAULT_PAGER_PROMPT);
+    }
+  }
+
+  private void showSearchPage() {
+    final List<String> lines = this.pager.search(this.pagerSearchTerm, this.getPageSize());
+    if (lines.isEmpty()) {
+      this.println(format("Pattern [%s] not found", this.pagerSearchTerm));
+    }
+    this.showPage(lines);
+  }
+
+  private void startHistorySearch() {
+    this.historySearch = new StringBuilder();
+    this.historySearchOrigin = this.lineBuffer.toString();
+    this.historySearchNumber = this.getCommandHistory().getLastCommandLineNumber() + 1;
+    this.historySearchPromptLength = this.getPrompt().length();
+    this.renderHistorySearch(this.historySearchOrigin, false);
+  }
+
+  private boolean startPaging() {
+    if (this.pager != null) {
+      this.showPage(this.pager.next(this.getPageSize()));
+      return true;
+    }
+    return false;
+  }
+
+  private boolean startWatching() {
+    if (this.watch != null) {
+      final Watch startedWatch = this.watch;
+      this.watchLines = new ArrayList<>();
+      this.clearScreen();
+      this.print(format(DEFAULT_WATCH_HEADER, startedWatch));
+      startedWatch.start(output -> this.renderWatch(startedWatch, output));
+      return true;
+    }
+    return false;
+  }
+
+  private void stopWatching() {
+    if (this.watch != null) {
+      this.watch.close();
+      this.watch = null;
+      this.moveCursor(0, WATCH_HEADER_ROWS + this.watchLines.size());
+    }
+  }
+
+  private void submitCommand(final String commandMessage, final String resultSuffix) {
+    final CompletableFuture<String> command = this.performCommandAsync(commandMessage);
+    this.pendingCommand = command;
+    command.whenComplete((result, failure) -> this.completeCommand(command, failure != null ? failure.getMessage() : result, resultSuffix));
+  }
+
+  private void submitCommandLine() {
+    this.moveCursorToEndOfLine();
+    final String commandMessage = this.lineBuffer.toString().trim();
+    this.lineBuffer.clear();
+    this.newLine();
+    if (this.commandHistoryCursor != null) {
+      if (!commandMessage.isEmpty()) {
+        this.getCommandHistory().addCommandLine(commandMessage);
+      }
+      this.commandHistoryCursor.reset();
+    }
+    if (!commandMessage.trim().isEmpty()) {
+      this.submitCommand(commandMessage, "");
+      return;
+    }
+    this.printPrompt();
+  }
+
+  private void submitInput(final Object input, final Runnable handler) {
+    this.keyTask = this.executor.submit(() -> {
+      synchronized (this) {
+        if (this.pendingCommand != null || !this.deferredInputs.isEmpty()) {
+          this.deferredInputs.add(() -> this.handleInput(input, handler));
+          return;
+        }
+      }
+      this.handleInput(input, handler);
+    });
+  }
+
+  private void updateLine(final String line, final int cursor) {
+    final String displayed = this.lineBuffer.toString();
+    final int displayedCursor = this.lineBuffer.getCursorPosition();
+    this.lineBuffer.clear().append(line);
+    this.lineBuffer.moveCursor(cursor);
+    final LineDiff diff = LineDiff.of(displayed, displayedCursor, line, cursor);
+    if (!diff.isEmpty()) {
+      this.renderLine(diff);
     }
   }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal.interfaces;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * <p>
+ * Trigram index over numbered command lines, that finds the most recent command line containing a query without
+ * scanning the whole history. For each trigram of an added command line, the line number is appended to an ascending
+ * posting list. A search only walks the shortest posting list of the query trigrams backwards and verifies each
+ * candidate, so that its costs depend on the rarity of the query rather than on the size of the history.
+ * </p>
+ * <p>
+ * Line numbers must be added in ascending order. Removed lines are not removed from the index, candidates are
+ * verified by the caller instead. This class is not thread-safe.
+ * </p>
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+final class CommandLineIndex {
+
+  static final int GRAM_LENGTH = 3;
+  static final int NOT_FOUND = -1;
+
+  private final Map<Long, Postings> postings;
+  private int lastNumber;
+
+  /**
+   * Creates a new, empty instance.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  CommandLineIndex() {
+    this.postings = new HashMap<>();
+    this.lastNumber = Integer.MIN_VALUE;
+  }
+
+  /**
+   * Adds the given command line.
+   *
+   * @param number
+   *          number of the command line, must be greater than the number of all lines added before
+   * @param commandLine
+   *          command line to be indexed
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void add(final int number, final String commandLine) {
+    if (number <= this.lastNumber) {
+      throw new IllegalArgumentException(String.format("[number] must be greater than [%d] but was [%d]", this.lastNumber, number));
+    }
+    this.lastNumber = number;
+    for (int index = 0; index + GRAM_LENGTH <= commandLine.length(); index++) {
+      this.postings.computeIfAbsent(gram(commandLine, index), gram -> new Postings()).add(number);
+    }
+  }
+
+  /**
+   * Removes all command lines from the index.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  void clear() {
+    this.postings.clear();
+    this.lastNumber = Integer.MIN_VALUE;
+  }
+
+  /**
+   * Finds the highest line number below the given number, whose command line contains the given query. The query must
+   * have at least {@value #GRAM_LENGTH} characters.
+   *
+   * @param query
+   *          query to search for
+   * @param beforeNumber
+   *          exclusive upper bound of the line number
+   * @param verifier
+   *          verifies, that the command line of a candidate line number still exists and contains the query
+   * @return found line number or {@value #NOT_FOUND}
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  int findLast(final String query, final int beforeNumber, final IntPredicate verifier) {
+    Postings rarest = null;
+    for (int index = 0; index + GRAM_LENGTH <= query.length(); index++) {
+      final Postings candidates = this.postings.get(gram(query, index));
+      if (candidates == null) {
+        return NOT_FOUND;
+      }
+      if (rarest == null || candidates.size < rarest.size) {
+        rarest = candidates;
+      }
+    }
+    if (rarest == null) {
+      throw new IllegalArgumentException(String.format("[query] must have at least [%d] characters", GRAM_LENGTH));
+    }
+    final int insertionPoint = Arrays.binarySearch(rarest.numbers, 0, rarest.size, beforeNumber);
+    for (int index = (insertionPoint >= 0 ? insertionPoint : -insertionPoint - 1) - 1; index >= 0; index--) {
+      if (verifier.test(rarest.numbers[index])) {
+        return rarest.numbers[index];
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  private static long gram(final CharSequence text, final int index) {
+    long gram = 0;
+    for (int offset = 0; offset < GRAM_LENGTH; offset++) {
+      gram = gram << Character.SIZE | text.charAt(index + offset);
+    }
+    return gram;
+  }
+
+  /**
+   * Ascending list of line numbers containing a trigram.
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  private static final class Postings {
+
+    private int[] numbers = new int[4];
+    private int size;
+
+    private void add(final int number) {
+      if (this.size > 0 && this.numbers[this.size - 1] == number) {
+        return;
+      }
+      if (this.size == this.numbers.length) {
+        this.numbers = Arrays.copyOf(this.numbers, this.size << 1);
+      }
+      this.numbers[this.size++] = number;
+    }
+  }
+}
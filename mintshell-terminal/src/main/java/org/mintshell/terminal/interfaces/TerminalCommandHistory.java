@@ -23,14 +23,21 @@
  */
 package org.mintshell.terminal.interfaces;
 
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
 import org.mintshell.assertion.Assert;
 import org.mintshell.common.IoProvider;
 import org.mintshell.interfaces.BasePersistableCommandHistory;
 import org.mintshell.interfaces.CommandHistory;
+import org.mintshell.interfaces.CommandHistoryCursor;
 import org.mintshell.terminal.Key;
 
 /**
- * {@link TerminalCommandInterface}-specific implementation of a {@link CommandHistory}.
+ * {@link TerminalCommandInterface}-specific implementation of a {@link CommandHistory}, that supports incremental
+ * search via {@link #searchCommandLine(String, int)}. A single instance may be shared by several
+ * {@link TerminalCommandInterface}s, e.g. all sessions of a remote terminal, since each of them navigates the history
+ * using its own {@link CommandHistoryCursor}.
  *
  * @author Noqmar
  * @since 0.1.0
@@ -47,6 +54,8 @@ public class TerminalCommandHistory extends BasePersistableCommandHistory {
   private final Key keyHistoryNext;
   private final Key keyHistoryPrev;
   private final String historyListCommand;
+  private CommandLineIndex searchIndex;
+  private int indexedCommandLines;
 
   public TerminalCommandHistory(final IoProvider ioProvider) {
     this(ioProvider, DEFAULT_KEY_HISTORY_NEXT, DEFAULT_KEY_HISTORY_PREV, DEFAULT_HISTORY_LIST_COMMAND);
@@ -57,6 +66,23 @@ public class TerminalCommandHistory extends BasePersistableCommandHistory {
     this.keyHistoryNext = Assert.ARG.isNotNull(keyHistoryNext, "[keyHistoryNext] must not be [null]");
     this.keyHistoryPrev = Assert.ARG.isNotNull(keyHistoryPrev, "[keyHistoryPrev] must not be [null]");
     this.historyListCommand = Assert.ARG.isNotNull(historyListCommand, "[historyListCommand] must not be [null]");
+    this.searchIndex = new CommandLineIndex();
+    this.rebuildSearchIndex();
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.interfaces.BaseCommandHistory#clear()
+   */
+  @Override
+  public synchronized void clear() {
+    super.clear();
+    if (this.searchIndex != null) {
+      this.searchIndex.clear();
+      this.indexedCommandLines = 0;
+    }
   }
 
   /**
@@ -94,4 +120,68 @@ public class TerminalCommandHistory extends BasePersistableCommandHistory {
   public Key getHistoryPrevKey() {
     return this.keyHistoryPrev;
   }
+
+  /**
+   * Searches backwards for the most recent command line, that contains the given query and has a number lower than the
+   * given one. Queries with at least {@value CommandLineIndex#GRAM_LENGTH} characters are looked up in a trigram index
+   * and thus found without scanning the history.
+   *
+   * @param query
+   *          query to search for
+   * @param beforeNumber
+   *          exclusive upper bound of the command line number, e.g. {@link #getLastCommandLineNumber()} {@code + 1} to
+   *          search the whole history
+   * @return number of the found command line or {@link Optional#empty()}, if there is no matching command line
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public synchronized Optional<Integer> searchCommandLine(final String query, final int beforeNumber) {
+    Assert.ARG.isNotNull(query, "[query] must not be [null]");
+    if (query.isEmpty()) {
+      return Optional.empty();
+    }
+    final IntPredicate matches = number -> this.getCommandLine(number).filter(commandLine -> commandLine.contains(query)).isPresent();
+    if (query.length() >= CommandLineIndex.GRAM_LENGTH) {
+      final int number = this.searchIndex.findLast(query, beforeNumber, matches);
+      return number != CommandLineIndex.NOT_FOUND ? Optional.of(number) : Optional.empty();
+    }
+    for (int number = Math.min(beforeNumber, this.getLastCommandLineNumber() + 1) - 1; number >= FIRST_COMMAND_NUMBER; number--) {
+      final Optional<String> commandLine = this.getCommandLine(number);
+      if (!commandLine.isPresent()) {
+        break;
+      }
+      if (commandLine.get().contains(query)) {
+        return Optional.of(number);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   *
+   * {@inheritDoc}
+   *
+   * @see org.mintshell.interfaces.BasePersistableCommandHistory#onCommandLineAdded(int, java.lang.String)
+   */
+  @Override
+  protected void onCommandLineAdded(final int number, final String commandLine) {
+    super.onCommandLineAdded(number, commandLine);
+    // the search index is built after restoring the persisted history in the super constructor
+    if (this.searchIndex != null) {
+      this.searchIndex.add(number, commandLine);
+      if (++this.indexedCommandLines > 2 * this.getMaxCommands()) {
+        this.rebuildSearchIndex();
+      }
+    }
+  }
+
+  private void rebuildSearchIndex() {
+    this.searchIndex.clear();
+    this.indexedCommandLines = 0;
+    this.getCommandLines().forEach((number, commandLine) -> {
+      this.searchIndex.add(number, commandLine);
+      this.indexedCommandLines++;
+    });
+  }
 }
@@ -37,6 +37,11 @@ import org.mintshell.terminal.KeyBinding;
  */
 public abstract interface TerminalCommandInterface extends CommandInterface {
 
+  /**
+   * Number of screen rows assumed, if the underlying terminal does not provide its size.
+   */
+  public static final int DEFAULT_SCREEN_ROWS = 24;
+
   /**
    * Adds {@link KeyBinding}s to the terminal interface.
    *
@@ -82,6 +87,18 @@ public abstract interface TerminalCommandInterface extends CommandInterface {
    */
   public abstract Collection<KeyBinding> getKeyBindings();
 
+  /**
+   * Returns the number of rows of the screen of the underlying terminal.
+   *
+   * @return number of screen rows
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public default int getScreenRows() {
+    return DEFAULT_SCREEN_ROWS;
+  }
+
   /**
    * Moves the cursor to the next (right of cursor) character.
    *
@@ -141,6 +158,21 @@ public abstract interface TerminalCommandInterface extends CommandInterface {
    */
   public abstract Key readKey();
 
+  /**
+   * Reads the content of a pasted text block from the underlying terminal. This method is called after
+   * {@link #readKey()} returned {@link Key#PASTE} and blocks, until the end of the pasted text block was read. Terminals
+   * that do not support bracketed paste never return {@link Key#PASTE} and therefore do not have to override this
+   * method.
+   *
+   * @return pasted text
+   *
+   * @author Noqmar
+   * @since 0.4.0
+   */
+  public default String readPaste() {
+    return "";
+  }
+
   /**
    * Removes the given {@link KeyBinding} from the managed {@link KeyBinding}s.
    *
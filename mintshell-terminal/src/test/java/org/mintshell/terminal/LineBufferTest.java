@@ -67,6 +67,16 @@ public class LineBufferTest {
     assertThat(sut.getCursorPosition()).isEqualTo(7);
   }
 
+  @Test
+  public void testInsertLeftSequenceFromMiddle() {
+    final LineBuffer sut = new LineBuffer();
+    sut.append("Foobar");
+    sut.moveCursor(3);
+    sut.insertLeft("xyz");
+    assertThat(sut.toString()).isEqualTo("Fooxyzbar");
+    assertThat(sut.getCursorPosition()).isEqualTo(6);
+  }
+
   @Test
   public void testInsertRightFromHead() {
     final LineBuffer sut = new LineBuffer();
@@ -89,6 +99,16 @@ public class LineBufferTest {
     assertThat(sut.getCursorPosition()).isEqualTo(3);
   }
 
+  @Test
+  public void testInsertRightSequenceFromMiddle() {
+    final LineBuffer sut = new LineBuffer();
+    sut.append("Foobar");
+    sut.moveCursor(3);
+    sut.insertRight("xyz");
+    assertThat(sut.toString()).isEqualTo("Fooxyzbar");
+    assertThat(sut.getCursorPosition()).isEqualTo(3);
+  }
+
   @Test
   public void testInsertRightFromTail() {
     final LineBuffer sut = new LineBuffer();
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link LineDiff} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class LineDiffTest {
+
+  @Test
+  public void testCursorMovementOnly() {
+    final LineDiff sut = LineDiff.of("Foobar", 2, "Foobar", 6);
+    assertThat(sut.getCursorShift()).isEqualTo(4);
+    assertThat(sut.getErasure()).isEqualTo(0);
+    assertThat(sut.getSuffix()).isEmpty();
+    assertThat(sut.getCursorReturn()).isEqualTo(0);
+  }
+
+  @Test
+  public void testEmpty() {
+    assertThat(LineDiff.of("Foobar", 3, "Foobar", 3).isEmpty()).isTrue();
+    assertThat(LineDiff.of("", 0, "", 0).isEmpty()).isTrue();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCursor() {
+    LineDiff.of("Foo", 4, "Foo", 0);
+  }
+
+  @Test
+  public void testReplaceCommonPrefix() {
+    final LineDiff sut = LineDiff.of("list --all", 10, "list --long", 11);
+    assertThat(sut.getCursorShift()).isEqualTo(-3);
+    assertThat(sut.getErasure()).isEqualTo(3);
+    assertThat(sut.getSuffix()).isEqualTo("long");
+    assertThat(sut.getCursorReturn()).isEqualTo(0);
+  }
+
+  @Test
+  public void testReplaceFromEmpty() {
+    final LineDiff sut = LineDiff.of("", 0, "Foobar", 6);
+    assertThat(sut.getCursorShift()).isEqualTo(0);
+    assertThat(sut.getErasure()).isEqualTo(0);
+    assertThat(sut.getSuffix()).isEqualTo("Foobar");
+    assertThat(sut.getCursorReturn()).isEqualTo(0);
+  }
+
+  @Test
+  public void testReplaceWithCursorInMiddle() {
+    final LineDiff sut = LineDiff.of("Foobar", 1, "Foobaz", 3);
+    assertThat(sut.getCursorShift()).isEqualTo(4);
+    assertThat(sut.getErasure()).isEqualTo(1);
+    assertThat(sut.getSuffix()).isEqualTo("z");
+    assertThat(sut.getCursorReturn()).isEqualTo(3);
+  }
+
+  @Test
+  public void testShorten() {
+    final LineDiff sut = LineDiff.of("Foobar", 6, "Foo", 3);
+    assertThat(sut.getCursorShift()).isEqualTo(-3);
+    assertThat(sut.getErasure()).isEqualTo(3);
+    assertThat(sut.getSuffix()).isEmpty();
+    assertThat(sut.getCursorReturn()).isEqualTo(0);
+  }
+}
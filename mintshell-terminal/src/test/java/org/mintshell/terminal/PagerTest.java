@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link Pager} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class PagerTest {
+
+  @Test
+  public void testClosePreventsConsumption() {
+    final AtomicInteger consumed = new AtomicInteger();
+    final AtomicBoolean closed = new AtomicBoolean();
+    final Pager sut = Pager.of(Stream.iterate(0, i -> i + 1).peek(i -> consumed.incrementAndGet()).onClose(() -> closed.set(true)));
+    assertThat(sut.next(3)).containsExactly("0", "1", "2");
+    sut.close();
+    assertThat(closed.get()).isTrue();
+    assertThat(sut.isExhausted()).isTrue();
+    assertThat(sut.next(3)).isEmpty();
+    assertThat(consumed.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void testExceeds() {
+    assertThat(Pager.exceeds("a\nb\r\nc", 3)).isFalse();
+    assertThat(Pager.exceeds("a\nb\r\nc\n", 3)).isFalse();
+    assertThat(Pager.exceeds("a\nb\n\nc", 3)).isTrue();
+    assertThat(Pager.exceeds(Arrays.asList(1, 2, 3), 3)).isFalse();
+    assertThat(Pager.exceeds(Arrays.asList(1, 2, 3, 4), 3)).isTrue();
+    assertThat(Pager.exceeds(Stream.of(1), 3)).isTrue();
+  }
+
+  @Test
+  public void testIsPageable() {
+    assertThat(Pager.isPageable("foo")).isTrue();
+    assertThat(Pager.isPageable(Arrays.asList("foo"))).isTrue();
+    assertThat(Pager.isPageable(Stream.of("foo"))).isTrue();
+    assertThat(Pager.isPageable(42)).isFalse();
+  }
+
+  @Test
+  public void testPageIterable() {
+    final Pager sut = Pager.of(Arrays.asList(1, 2, 3));
+    assertThat(sut.next(2)).containsExactly("1", "2");
+    assertThat(sut.isExhausted()).isFalse();
+    assertThat(sut.next(2)).containsExactly("3");
+    assertThat(sut.isExhausted()).isTrue();
+  }
+
+  @Test
+  public void testPageText() {
+    final Pager sut = Pager.of("a\nb\r\nc\n\rd\re\n\nf");
+    assertThat(sut.next(10)).containsExactly("a", "b", "c", "d", "e", "", "f");
+    assertThat(sut.isExhausted()).isTrue();
+  }
+
+  @Test
+  public void testSearch() {
+    final Pager sut = Pager.of(Arrays.asList("foo", "bar", "baz", "qux", "bar"));
+    assertThat(sut.search("ba", 2)).containsExactly("bar", "baz");
+    assertThat(sut.search("ba", 2)).containsExactly("bar");
+    assertThat(sut.search("ba", 2)).isEmpty();
+    assertThat(sut.isExhausted()).isTrue();
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2017-2019 mintshell.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.mintshell.terminal;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the {@link ScreenDiff} class.
+ *
+ * @author Noqmar
+ * @since 0.4.0
+ */
+public class ScreenDiffTest {
+
+  @Test
+  public void testChangedRowsOnly() {
+    final ScreenDiff sut = ScreenDiff.of(asList("nodes: 3", "queued: 12", "failed: 0"), asList("nodes: 3", "queued: 7", "failed: 1"));
+    assertThat(sut.getUpdates()).containsExactly(entry(1, "queued: 7 "), entry(2, "failed: 1"));
+  }
+
+  @Test
+  public void testEmpty() {
+    assertThat(ScreenDiff.of(asList("nodes: 3"), asList("nodes: 3")).isEmpty()).isTrue();
+    assertThat(ScreenDiff.of(Collections.emptyList(), Collections.emptyList()).isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testFewerLines() {
+    final ScreenDiff sut = ScreenDiff.of(asList("nodes: 3", "queued: 12"), asList("nodes: 3"));
+    assertThat(sut.getUpdates()).containsExactly(entry(1, "          "));
+  }
+
+  @Test
+  public void testMoreLines() {
+    final ScreenDiff sut = ScreenDiff.of(Collections.emptyList(), asList("nodes: 3", "queued: 12"));
+    assertThat(sut.getUpdates()).containsExactly(entry(0, "nodes: 3"), entry(1, "queued: 12"));
+  }
+}
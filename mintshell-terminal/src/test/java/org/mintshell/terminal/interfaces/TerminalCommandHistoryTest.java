@@ -139,4 +139,44 @@ public class TerminalCommandHistoryTest {
     assertThat(this.sut.getPreviousCommandLine()).isEqualTo(commandLine2);
     assertThat(this.sut.getNextCommandLine()).isEqualTo("");
   }
+
+  @Test
+  public void testPersistence() throws IOException {
+    this.sut.setIgnoreConsecutiveDuplicates(true);
+    this.sut.addCommandLine("command1");
+    this.sut.addCommandLine("command2");
+    this.sut.addCommandLine("command2");
+    assertThat(Files.readAllLines(this.file.toPath())).containsExactly("command1", "command2");
+    final TerminalCommandHistory restored = new TerminalCommandHistory(new FileIoProvider(this.file));
+    assertThat(restored.getCommandLines()).isEqualTo(this.sut.getCommandLines());
+    assertThat(restored.searchCommandLine("command1", restored.getLastCommandLineNumber() + 1)).contains(1);
+    assertThat(Files.readAllLines(this.file.toPath())).containsExactly("command1", "command2");
+  }
+
+  @Test
+  public void testSearchCommandLine() {
+    this.sut.addCommandLine("connect --host alpha");
+    this.sut.addCommandLine("status");
+    this.sut.addCommandLine("connect --host beta");
+    this.sut.addCommandLine("disconnect");
+    final int end = this.sut.getLastCommandLineNumber() + 1;
+    assertThat(this.sut.searchCommandLine("connect", end)).contains(4);
+    assertThat(this.sut.searchCommandLine("connect --", end)).contains(3);
+    assertThat(this.sut.searchCommandLine("connect --", 3)).contains(1);
+    assertThat(this.sut.searchCommandLine("connect --", 1)).isEmpty();
+    assertThat(this.sut.searchCommandLine("st", end)).contains(3);
+    assertThat(this.sut.searchCommandLine("sta", end)).contains(2);
+    assertThat(this.sut.searchCommandLine("gamma", end)).isEmpty();
+    assertThat(this.sut.searchCommandLine("", end)).isEmpty();
+  }
+
+  @Test
+  public void testSearchCommandLineAfterClear() {
+    this.sut.addCommandLine("connect --host alpha");
+    this.sut.clear();
+    this.sut.addCommandLine("status");
+    final int end = this.sut.getLastCommandLineNumber() + 1;
+    assertThat(this.sut.searchCommandLine("connect", end)).isEmpty();
+    assertThat(this.sut.searchCommandLine("status", end)).contains(1);
+  }
 }